@@ -0,0 +1,45 @@
+package htsjdk.samtools;
+
+/**
+ * Utilities for reading the linear index of a BAM index, which gives the file offset of the first read overlapping
+ * each 16kb window of a reference sequence.
+ *
+ * This lives in the htsjdk.samtools package since htsjdk does not expose the linear index publicly.
+ */
+public final class BAMIndexLinearIndexUtils {
+
+    private BAMIndexLinearIndexUtils() {}
+
+    /**
+     * Returns the linear index of a reference sequence: the virtual file offset of the first read overlapping each
+     * window of {@code 1 << LinearIndex.BAM_LIDX_SHIFT} bases. Windows with no reads may have an offset of 0, or
+     * the offset of a neighbouring window with reads, depending on how the index was created. Windows after the last
+     * one with reads are not included.
+     *
+     * @param index the BAM index, which must be from a reader opened with {@link SamReaderFactory.Option#CACHE_FILE_BASED_INDEXES}
+     * @param referenceIndex the index of the reference sequence in the BAM's sequence dictionary
+     * @return the offset of each window, or an empty array if there are no reads on the reference sequence
+     */
+    public static long[] getWindowOffsets( final BAMIndex index, final int referenceIndex ) {
+        if ( ! (index instanceof CachingBAMFileIndex) ) {
+            throw new IllegalArgumentException("Unsupported BAM index type (the reader must cache its index): " + index.getClass().getName());
+        }
+        final BAMIndexContent content = ((CachingBAMFileIndex) index).getQueryResults(referenceIndex);
+        if ( content == null || content.getLinearIndex() == null ) {
+            return new long[0];
+        }
+        final LinearIndex linearIndex = content.getLinearIndex();
+        final long[] entries = linearIndex.getIndexEntries();
+        final long[] offsets = new long[linearIndex.getIndexStart() + entries.length];
+        System.arraycopy(entries, 0, offsets, linearIndex.getIndexStart(), entries.length);
+        return offsets;
+    }
+
+    /**
+     * @return the virtual file offset of the end of the last read on the reference sequence, or 0 if there are none
+     */
+    public static long getEndOffset( final BAMIndex index, final int referenceIndex ) {
+        final BAMIndexMetaData metaData = index.getMetaData(referenceIndex);
+        return metaData == null ? 0 : metaData.getLastOffset();
+    }
+}
@@ -0,0 +1,49 @@
+package htsjdk.samtools;
+
+import java.util.Arrays;
+
+/**
+ * Utilities for copying SAMRecords without decoding the variable-length fields of BAMRecords.
+ *
+ * This lives in the htsjdk.samtools package since it needs access to the indexing bin of the records.
+ */
+public final class BAMRecordCopyUtils {
+
+    private BAMRecordCopyUtils() {}
+
+    /**
+     * Makes a deep copy of a record. If the record is a {@link BAMRecord} whose variable-length fields
+     * (name, cigar, bases, qualities and tags) have not been modified since it was decoded, this copies the
+     * raw bytes of those fields rather than decoding them as {@link SAMRecord#deepCopy} would, and the copy
+     * decodes them lazily on first access as usual. Otherwise this is equivalent to {@link SAMRecord#deepCopy}.
+     *
+     * @param record the record to copy
+     * @return a deep copy of record
+     */
+    public static SAMRecord deepCopy( final SAMRecord record ) {
+        final byte[] variableBinaryRepresentation = record.getVariableBinaryRepresentation();
+        if ( ! (record instanceof BAMRecord) || variableBinaryRepresentation == null ) {
+            return record.deepCopy();
+        }
+
+        final Integer indexingBin = record.getIndexingBin();
+        final short readNameLength = (short)(record.getReadNameLength() + 1);  // including the null terminator
+        final BAMRecord copy = DefaultSAMRecordFactory.getInstance().createBAMRecord(null,
+                SAMRecord.NO_ALIGNMENT_REFERENCE_INDEX, record.getAlignmentStart(), readNameLength,
+                (short)record.getMappingQuality(), indexingBin != null ? indexingBin : 0, record.getCigarLength(),
+                record.getFlags(), record.getReadLength(), SAMRecord.NO_ALIGNMENT_REFERENCE_INDEX,
+                record.getMateAlignmentStart(), record.getInferredInsertSize(),
+                Arrays.copyOf(variableBinaryRepresentation, variableBinaryRepresentation.length));
+
+        // set the reference names directly so that this works for headerless records, then resolve the
+        // reference indices (if there is a header) by setting the header
+        copy.setReferenceName(record.getReferenceName());
+        copy.setMateReferenceName(record.getMateReferenceName());
+        if ( record.getHeader() != null ) {
+            copy.setHeaderStrict(record.getHeader());
+        }
+        copy.setIndexingBin(indexingBin);
+        copy.setValidationStringency(record.getValidationStringency());
+        return copy;
+    }
+}
@@ -29,6 +29,7 @@ public final class StandardArgumentDefinitions {
     public static final String CLOUD_PREFETCH_BUFFER_LONG_NAME = "cloudPrefetchBuffer";
     public static final String CLOUD_INDEX_PREFETCH_BUFFER_LONG_NAME = "cloudIndexPrefetchBuffer";
     public static final String DISABLE_BAM_INDEX_CACHING_LONG_NAME = "disableBamIndexCaching";
+    public static final String FEATURE_IN_MEMORY_LOADING_THRESHOLD_LONG_NAME = "featureInMemoryLoadingThreshold";
     public static final String DISABLE_SEQUENCE_DICT_VALIDATION_NAME = "disableSequenceDictionaryValidation";
     public static final String ADD_OUTPUT_SAM_PROGRAM_RECORD = "addOutputSAMProgramRecord";
     public static final String ADD_OUTPUT_VCF_COMMANDLINE = "addOutputVCFCommandLine";
@@ -65,6 +66,7 @@ public final class StandardArgumentDefinitions {
     public static final String CLOUD_PREFETCH_BUFFER_SHORT_NAME = "CPB";
     public static final String CLOUD_INDEX_PREFETCH_BUFFER_SHORT_NAME = "CIPB";
     public static final String DISABLE_BAM_INDEX_CACHING_SHORT_NAME = "DBIC";
+    public static final String FEATURE_IN_MEMORY_LOADING_THRESHOLD_SHORT_NAME = "FIMLT";
 
     public static final String SPARK_PROPERTY_NAME = "conf";
 
@@ -0,0 +1,302 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.util.PeekableIterator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A compact binary file recording the assembly regions that the activity profile of an {@link AssemblyRegionWalker}
+ * produced for each read shard, so that a later run over the same reads with the same arguments can skip evaluating
+ * every locus with the {@link AssemblyRegionEvaluator} and go straight to the regions.
+ *
+ * The file starts with a key describing the inputs and arguments the regions depend on. A cache with a different key
+ * is ignored (and rewritten). Only the bounds, extension and activity of each region are recorded, not the
+ * {@link AssemblyRegion#getSupportingStates supporting states}, which tools do not use for calling.
+ */
+public final class ActivityProfileCache {
+    private static final Logger logger = LogManager.getLogger(ActivityProfileCache.class);
+
+    private static final String MAGIC = "GATK_ACTIVITY_PROFILE_CACHE";
+    private static final int VERSION = 1;
+
+    private ActivityProfileCache() {}
+
+    /**
+     * Opens a cache to read if it exists and was written with the given key.
+     *
+     * @param cacheFile the cache file
+     * @param key the key describing the current run
+     * @param readsHeader header for the reads
+     * @return a reader for the cache, or null if there is no cache for this key
+     */
+    public static Reader openIfValid(final File cacheFile, final String key, final SAMFileHeader readsHeader) {
+        Utils.nonNull(cacheFile);
+        Utils.nonNull(key);
+        Utils.nonNull(readsHeader);
+        if ( ! cacheFile.exists() ) {
+            return null;
+        }
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(cacheFile))));
+            try {
+                if ( ! MAGIC.equals(in.readUTF()) || in.readInt() != VERSION || ! key.equals(readString(in)) ) {
+                    logger.warn("Activity profile cache " + cacheFile + " was made for different inputs or arguments, so assembly regions will be recomputed");
+                    in.close();
+                    return null;
+                }
+            } catch ( final IOException e ) {
+                logger.warn("Activity profile cache " + cacheFile + " could not be read, so assembly regions will be recomputed");
+                in.close();
+                return null;
+            }
+            logger.info("Using the assembly regions in activity profile cache " + cacheFile);
+            return new Reader(cacheFile, in, readsHeader);
+        } catch ( final IOException e ) {
+            throw new UserException.CouldNotReadInputFile(cacheFile, e);
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the assembly regions of each read shard from a cache, in the order they were written.
+     */
+    public static final class Reader implements AutoCloseable {
+        private final File cacheFile;
+        private final DataInputStream in;
+        private final SAMFileHeader readsHeader;
+
+        private Reader(final File cacheFile, final DataInputStream in, final SAMFileHeader readsHeader) {
+            this.cacheFile = cacheFile;
+            this.in = in;
+            this.readsHeader = readsHeader;
+        }
+
+        /**
+         * Read the assembly regions of the next read shard, which must be the given shard, and fill them with reads.
+         *
+         * @param shard the next read shard; must have appropriate read filters set on it for an assembly region traversal
+         * @return an iterator over the regions of the shard, each filled with the shard's reads that overlap it
+         */
+        public Iterator<AssemblyRegion> readShard(final Shard<GATKRead> shard) {
+            Utils.nonNull(shard);
+            final List<AssemblyRegion> regions = new ArrayList<>();
+            try {
+                if ( ! in.readBoolean() ) {
+                    throw new UserException.CouldNotReadInputFile(cacheFile, "the cache has no assembly regions for read shard " + shard.getInterval());
+                }
+                final SimpleInterval cachedShard = new SimpleInterval(in.readUTF(), in.readInt(), in.readInt());
+                if ( ! cachedShard.equals(shard.getInterval()) ) {
+                    throw new UserException.CouldNotReadInputFile(cacheFile, "expected assembly regions for read shard " + shard.getInterval() + " but found " + cachedShard);
+                }
+                final int regionCount = in.readInt();
+                for ( int i = 0; i < regionCount; i++ ) {
+                    final SimpleInterval span = new SimpleInterval(cachedShard.getContig(), in.readInt(), in.readInt());
+                    final boolean isActive = in.readBoolean();
+                    final int extension = in.readInt();
+                    regions.add(new AssemblyRegion(span, Collections.emptyList(), isActive, extension, readsHeader));
+                }
+            } catch ( final IOException e ) {
+                throw new UserException.CouldNotReadInputFile(cacheFile, e);
+            }
+            return new CachedAssemblyRegionIterator(regions, shard.iterator(), readsHeader);
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch ( final IOException e ) {
+                throw new UserException.CouldNotReadInputFile(cacheFile, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the assembly regions of each read shard to a temporary file, which only replaces the cache file once
+     * the regions of all shards have been written and {@link #finish} is called.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final File cacheFile;
+        private final File tempFile;
+        private final DataOutputStream out;
+        // the regions of the current shard, which are only written once the number of regions is known
+        private final ByteArrayOutputStream shardRegionBytes = new ByteArrayOutputStream();
+        private final DataOutputStream shardRegions = new DataOutputStream(shardRegionBytes);
+        private int shardRegionCount = 0;
+        private SimpleInterval currentShard;
+        private boolean finished = false;
+
+        /**
+         * @param cacheFile the cache file to write
+         * @param key the key describing the current run
+         */
+        public Writer(final File cacheFile, final String key) {
+            Utils.nonNull(cacheFile);
+            Utils.nonNull(key);
+            this.cacheFile = cacheFile;
+            this.tempFile = new File(cacheFile.getAbsolutePath() + ".tmp");
+            try {
+                out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile))));
+                out.writeUTF(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, key);
+            } catch ( final IOException e ) {
+                throw new UserException.CouldNotCreateOutputFile(tempFile, "Could not write activity profile cache", e);
+            }
+        }
+
+        /**
+         * Start recording the assembly regions of a new read shard, writing out those of the previous shard
+         */
+        public void startShard(final SimpleInterval shard) {
+            Utils.nonNull(shard);
+            writeCurrentShard();
+            currentShard = shard;
+        }
+
+        /**
+         * Record an assembly region of the current read shard
+         */
+        public void add(final AssemblyRegion region) {
+            Utils.nonNull(region);
+            Utils.validate(currentShard != null, "startShard must be called before regions are added");
+            try {
+                shardRegions.writeInt(region.getStart());
+                shardRegions.writeInt(region.getEnd());
+                shardRegions.writeBoolean(region.isActive());
+                shardRegions.writeInt(region.getExtension());
+            } catch ( final IOException e ) {
+                throw new GATKException("Error buffering assembly region " + region, e);
+            }
+            shardRegionCount++;
+        }
+
+        private void writeCurrentShard() {
+            if ( currentShard == null ) {
+                return;
+            }
+            try {
+                out.writeBoolean(true);
+                out.writeUTF(currentShard.getContig());
+                out.writeInt(currentShard.getStart());
+                out.writeInt(currentShard.getEnd());
+                out.writeInt(shardRegionCount);
+                shardRegionBytes.writeTo(out);
+            } catch ( final IOException e ) {
+                throw new UserException.CouldNotCreateOutputFile(tempFile, "Could not write activity profile cache", e);
+            }
+            shardRegionBytes.reset();
+            shardRegionCount = 0;
+            currentShard = null;
+        }
+
+        /**
+         * Write the regions of the last shard and replace the cache file with the completed cache
+         */
+        public void finish() {
+            writeCurrentShard();
+            try {
+                out.writeBoolean(false);
+                out.close();
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch ( final IOException e ) {
+                throw new UserException.CouldNotCreateOutputFile(cacheFile, "Could not write activity profile cache", e);
+            }
+            finished = true;
+        }
+
+        /**
+         * Discards the temporary file if {@link #finish} was not called, leaving any existing cache file alone
+         */
+        @Override
+        public void close() {
+            if ( ! finished ) {
+                try {
+                    out.close();
+                } catch ( final IOException e ) {
+                    // the incomplete cache is discarded below anyway
+                }
+                if ( ! tempFile.delete() ) {
+                    logger.warn("Could not delete incomplete activity profile cache " + tempFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterates over assembly regions read from a cache, filling each with the reads that overlap its extended span
+     * exactly as {@link AssemblyRegionIterator} does, but without evaluating the activity of each locus.
+     */
+    private static final class CachedAssemblyRegionIterator implements Iterator<AssemblyRegion> {
+        private final Iterator<AssemblyRegion> regions;
+        private final PeekableIterator<GATKRead> reads;
+        private final SAMFileHeader readsHeader;
+        private List<GATKRead> previousRegionReads;
+
+        private CachedAssemblyRegionIterator(final List<AssemblyRegion> regions, final Iterator<GATKRead> reads, final SAMFileHeader readsHeader) {
+            this.regions = regions.iterator();
+            this.reads = new PeekableIterator<>(reads);
+            this.readsHeader = readsHeader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return regions.hasNext();
+        }
+
+        @Override
+        public AssemblyRegion next() {
+            if ( ! hasNext() ) {
+                throw new NoSuchElementException("next() called when there were no more elements");
+            }
+            final AssemblyRegion region = regions.next();
+            final SimpleInterval extendedSpan = region.getExtendedSpan();
+
+            // reads from the previous region that also belong in this region
+            if ( previousRegionReads != null ) {
+                for ( final GATKRead previousRegionRead : previousRegionReads ) {
+                    if ( extendedSpan.overlaps(previousRegionRead) ) {
+                        region.add(previousRegionRead);
+                    }
+                }
+            }
+
+            // then the new reads up to the end of the region's extended span; reads that end before it are discarded
+            while ( reads.hasNext() && ! IntervalUtils.isAfter(reads.peek(), extendedSpan, readsHeader.getSequenceDictionary()) ) {
+                final GATKRead read = reads.next();
+                if ( extendedSpan.overlaps(read) ) {
+                    region.add(read);
+                }
+            }
+
+            previousRegionReads = region.getReads();
+            return region;
+        }
+    }
+}
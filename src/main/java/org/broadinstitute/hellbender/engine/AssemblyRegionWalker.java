@@ -1,5 +1,8 @@
 package org.broadinstitute.hellbender.engine;
 
+import htsjdk.tribble.Feature;
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
 import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.CommandLineException;
@@ -9,9 +12,15 @@ import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.downsampling.PositionalDownsampler;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -80,6 +89,18 @@ public abstract class AssemblyRegionWalker extends GATKTool {
     @Argument(fullName = "maxProbPropagationDistance", shortName = "maxProbPropagationDistance", doc="Upper limit on how many bases away probability mass can be moved around when calculating the boundaries between active and inactive assembly regions", optional = true)
     protected int maxProbPropagationDistance = defaultMaxProbPropagationDistance();
 
+    public static final String ACTIVITY_PROFILE_CACHE_LONG_NAME = "activityProfileCache";
+
+    /**
+     * Evaluating the activity of every locus is a large part of the runtime of assembly region tools, and gives the
+     * same regions whenever the same reads are processed with the same arguments. With this argument the regions
+     * are written to the given file, and later runs over the same inputs (with any arguments that do not affect
+     * activity changed) read them back instead of evaluating each locus again.
+     */
+    @Advanced
+    @Argument(fullName = ACTIVITY_PROFILE_CACHE_LONG_NAME, shortName = ACTIVITY_PROFILE_CACHE_LONG_NAME, doc = "File in which to cache the assembly regions, which are reused by later runs with the same inputs and activity arguments", optional = true)
+    protected File activityProfileCache = null;
+
     /**
      * @return Default value for the {@link #readShardSize} parameter, if none is provided on the command line
      */
@@ -120,6 +141,63 @@ public abstract class AssemblyRegionWalker extends GATKTool {
      */
     protected abstract int defaultMaxProbPropagationDistance();
 
+    /**
+     * Describes the arguments of this tool that affect the activity of each locus, as determined by the
+     * {@link #assemblyRegionEvaluator}, for the key of the {@link #activityProfileCache}. Regions cached with a
+     * different description are not reused.
+     *
+     * The default implementation returns the whole command line, so that the cache is only reused by identical runs.
+     * Tools should override it to describe just the arguments used by their evaluator, so that runs differing only
+     * in other arguments (such as genotyping or annotation settings) can reuse the cache.
+     *
+     * @return a description of the arguments of this tool that affect activity
+     */
+    protected String getActivityProfileArguments() {
+        return getCommandLine();
+    }
+
+    /**
+     * @return the key identifying the inputs and arguments that determine the assembly regions of this run
+     */
+    private String makeActivityProfileCacheKey(final CountingReadFilter readFilter) {
+        final StringBuilder key = new StringBuilder(getClass().getName()).append('\n');
+        for ( final Path readPath : readArguments.getReadPaths() ) {
+            appendInputDescription(key, "reads", readPath);
+        }
+        appendInputDescription(key, "reference", referenceArguments.getReferencePath());
+        // Feature inputs (such as known alleles or a panel of normals) may be used to determine activity
+        if ( features != null ) {
+            for ( final FeatureInput<? extends Feature> featureInput : features.getAllInputs() ) {
+                final String featurePath = featureInput.getFeaturePath();
+                if ( FeatureDataSource.isGenomicsDBPath(featurePath) ) {
+                    key.append("features=").append(featurePath).append('\n');
+                } else {
+                    appendInputDescription(key, "features", IOUtils.getPath(featurePath));
+                }
+            }
+        }
+        key.append("intervals=").append(hasIntervals() ? intervalsForTraversal : "all").append('\n');
+        key.append("readFilter=").append(readFilter.getName()).append(' ').append(describeReadFilterArguments(readFilter)).append('\n');
+        key.append(String.format("readShardSize=%d readShardPadding=%d minAssemblyRegionSize=%d maxAssemblyRegionSize=%d assemblyRegionPadding=%d maxReadsPerAlignmentStart=%d activeProbabilityThreshold=%s maxProbPropagationDistance=%d%n",
+                readShardSize, readShardPadding, minAssemblyRegionSize, maxAssemblyRegionSize, assemblyRegionPadding, maxReadsPerAlignmentStart, activeProbThreshold, maxProbPropagationDistance));
+        key.append(getActivityProfileArguments());
+        return key.toString();
+    }
+
+    /**
+     * Appends a line identifying an input to a cache key: its path, and its size and modification time, so that
+     * the cache is not reused if the input is modified or replaced.
+     */
+    private static void appendInputDescription(final StringBuilder key, final String inputType, final Path path) {
+        key.append(inputType).append('=').append(path.toUri());
+        try {
+            key.append(' ').append(Files.size(path)).append(' ').append(Files.getLastModifiedTime(path).toMillis());
+        } catch ( final IOException e ) {
+            // the path alone identifies the input if its size and modification time are not available
+        }
+        key.append('\n');
+    }
+
     @Override
     public final boolean requiresReads() { return true; }
 
@@ -212,6 +290,19 @@ public abstract class AssemblyRegionWalker extends GATKTool {
         return defaultFilters;
     }
 
+    /**
+     * Read filters are identified by their serialized form, which includes the values of their arguments
+     *
+     * @return a digest of the serialized read filter, or the whole command line if it cannot be serialized
+     */
+    private String describeReadFilterArguments(final CountingReadFilter readFilter) {
+        try {
+            return Utils.calcMD5(SerializationUtils.serialize(readFilter));
+        } catch ( final SerializationException e ) {
+            return getCommandLine();
+        }
+    }
+
     @Override
     public final void traverse() {
 
@@ -221,14 +312,22 @@ public abstract class AssemblyRegionWalker extends GATKTool {
         // meter to check the time more frequently (every 10 regions instead of every 1000 regions).
         progressMeter.setRecordsBetweenTimeChecks(10L);
 
-        for ( final LocalReadShard readShard : readShards ) {
-            // Since reads in each shard are lazily fetched, we need to pass the filter to the window
-            // instead of filtering the reads directly here
-            readShard.setReadFilter(countedFilter);
-            readShard.setDownsampler(maxReadsPerAlignmentStart > 0 ? new PositionalDownsampler(maxReadsPerAlignmentStart, getHeaderForReads()) : null);
-            currentReadShard = readShard;
+        final String cacheKey = activityProfileCache == null ? null : makeActivityProfileCacheKey(countedFilter);
+        try ( final ActivityProfileCache.Reader cacheReader = activityProfileCache == null ? null : ActivityProfileCache.openIfValid(activityProfileCache, cacheKey, getHeaderForReads());
+              final ActivityProfileCache.Writer cacheWriter = activityProfileCache == null || cacheReader != null ? null : new ActivityProfileCache.Writer(activityProfileCache, cacheKey) ) {
+            for ( final LocalReadShard readShard : readShards ) {
+                // Since reads in each shard are lazily fetched, we need to pass the filter to the window
+                // instead of filtering the reads directly here
+                readShard.setReadFilter(countedFilter);
+                readShard.setDownsampler(maxReadsPerAlignmentStart > 0 ? new PositionalDownsampler(maxReadsPerAlignmentStart, getHeaderForReads()) : null);
+                currentReadShard = readShard;
+
+                processReadShard(readShard, reference, features, cacheReader, cacheWriter);
+            }
 
-            processReadShard(readShard, reference, features);
+            if ( cacheWriter != null ) {
+                cacheWriter.finish();
+            }
         }
 
         logger.info(countedFilter.getSummaryLine());
@@ -241,13 +340,23 @@ public abstract class AssemblyRegionWalker extends GATKTool {
      * @param shard Shard to process
      * @param reference Reference data source
      * @param features FeatureManager
+     * @param cacheReader if not null, the regions are read from this cache rather than found using the {@link #assemblyRegionEvaluator}
+     * @param cacheWriter if not null, the regions are recorded in this cache
      */
-    private void processReadShard(Shard<GATKRead> shard, ReferenceDataSource reference, FeatureManager features ) {
-        final Iterator<AssemblyRegion> assemblyRegionIter = new AssemblyRegionIterator(shard, getHeaderForReads(), reference, features, assemblyRegionEvaluator(), minAssemblyRegionSize, maxAssemblyRegionSize, assemblyRegionPadding, activeProbThreshold, maxProbPropagationDistance);
+    private void processReadShard(Shard<GATKRead> shard, ReferenceDataSource reference, FeatureManager features,
+                                  final ActivityProfileCache.Reader cacheReader, final ActivityProfileCache.Writer cacheWriter ) {
+        final Iterator<AssemblyRegion> assemblyRegionIter = cacheReader != null ? cacheReader.readShard(shard) :
+                new AssemblyRegionIterator(shard, getHeaderForReads(), reference, features, assemblyRegionEvaluator(), minAssemblyRegionSize, maxAssemblyRegionSize, assemblyRegionPadding, activeProbThreshold, maxProbPropagationDistance);
+        if ( cacheWriter != null ) {
+            cacheWriter.startShard(shard.getInterval());
+        }
 
         // Call into the tool implementation to process each assembly region from this shard.
         while ( assemblyRegionIter.hasNext() ) {
             final AssemblyRegion assemblyRegion = assemblyRegionIter.next();
+            if ( cacheWriter != null ) {
+                cacheWriter.add(assemblyRegion);
+            }
             
             logger.debug("Processing assembly region at " + assemblyRegion.getSpan() + " isActive: " + assemblyRegion.isActive() + " numReads: " + assemblyRegion.getReads().size() + " in read shard " + shard.getInterval());
 
@@ -12,9 +12,11 @@ import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.IndexFeatureFile;
 import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBConstants;
+import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBIntervalArraysFeatureReader;
 import org.broadinstitute.hellbender.utils.IndexUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.collections.IntervalsSkipList;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.nio.SeekableByteChannelPrefetcher;
@@ -22,9 +24,13 @@ import org.broadinstitute.hellbender.utils.nio.SeekableByteChannelPrefetcher;
 import java.io.File;
 import java.io.IOException;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -51,6 +57,12 @@ import java.util.function.Function;
  * or involves lots of very large jumps forward on the genome or lots of contig switches. Query caching
  * can be disabled, if desired.
  *
+ * Alternatively, Features from sufficiently small files can be loaded fully into memory at construction time
+ * (see the inMemoryLoadingThreshold constructor argument). In that mode queries are answered from a per-contig
+ * {@link IntervalsSkipList} instead of the query cache, so random/non-localized access patterns do not trigger
+ * repeated trips to disk, no index is required for queries, and (since the loaded Features are never modified)
+ * queries may safely be issued concurrently from multiple threads.
+ *
  * @param <T> The type of Feature returned by this data source
  */
 public final class FeatureDataSource<T extends Feature> implements GATKDataSource<T>, AutoCloseable {
@@ -90,6 +102,13 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      */
     private final FeatureCache<T> queryCache;
 
+    /**
+     * All Features in this data source, indexed for overlap queries, if our backing file was small enough
+     * to load fully into memory at construction time (see {@link #shouldLoadIntoMemory}). Null otherwise,
+     * in which case queries go through {@link #queryCache}. Never modified after construction.
+     */
+    private final IntervalsSkipList<T> inMemoryFeatures;
+
     /**
      * When we experience a cache miss (ie., a query interval not fully contained within our cache) and need
      * to re-populate the Feature cache from disk to satisfy a query, this controls the number of extra bases
@@ -125,6 +144,12 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      */
     public static final int DEFAULT_QUERY_LOOKAHEAD_BASES = 1000;
 
+    /**
+     * Default value for inMemoryLoadingThreshold, if none is specified. Loading Features into memory is
+     * disabled by default, so that every data source streams from disk through the query cache.
+     */
+    public static final int DEFAULT_IN_MEMORY_LOADING_THRESHOLD = 0;
+
     /**
      * Creates a FeatureDataSource backed by the provided File. The data source will have an automatically
      * generated name, and will look ahead the default number of bases ({@link #DEFAULT_QUERY_LOOKAHEAD_BASES})
@@ -233,7 +258,30 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      */
     public FeatureDataSource(final FeatureInput<T> featureInput, final int queryLookaheadBases, final Class<? extends Feature> targetFeatureType,
                              final int cloudPrefetchBuffer, final int cloudIndexPrefetchBuffer, final Path reference) {
+        this(featureInput, queryLookaheadBases, targetFeatureType, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference,
+             DEFAULT_IN_MEMORY_LOADING_THRESHOLD);
+    }
+
+    /**
+     * Creates a FeatureDataSource backed by the provided FeatureInput. If the backing file is no larger than
+     * inMemoryLoadingThreshold MB, all of its Features are loaded into memory up front and queries are answered
+     * from memory; otherwise we will look ahead the specified number of bases during queries that produce cache misses.
+     *
+     * @param featureInput a FeatureInput specifying a source of Features
+     * @param queryLookaheadBases look ahead this many bases during queries that produce cache misses
+     * @param targetFeatureType When searching for a {@link FeatureCodec} for this data source, restrict the search to codecs
+     *                          that produce this type of Feature. May be null, which results in an unrestricted search.
+     * @param cloudPrefetchBuffer  MB size of caching/prefetching wrapper for the data, if on Google Cloud (0 to disable).
+     * @param cloudIndexPrefetchBuffer MB size of caching/prefetching wrapper for the index, if on Google Cloud (0 to disable).
+     * @param reference Path to a reference. May be null. Needed only for reading from GenomicsDB.
+     * @param inMemoryLoadingThreshold MB size (on disk, ie. compressed size for compressed inputs) at or below which
+     *                                 the backing file is loaded fully into memory (0 to disable).
+     */
+    public FeatureDataSource(final FeatureInput<T> featureInput, final int queryLookaheadBases, final Class<? extends Feature> targetFeatureType,
+                             final int cloudPrefetchBuffer, final int cloudIndexPrefetchBuffer, final Path reference,
+                             final int inMemoryLoadingThreshold) {
         Utils.validateArg( queryLookaheadBases >= 0, "Query lookahead bases must be >= 0");
+        Utils.validateArg( inMemoryLoadingThreshold >= 0, "In-memory loading threshold must be >= 0");
         this.featureInput = Utils.nonNull(featureInput, "featureInput must not be null");
 
         final Function<SeekableByteChannel, SeekableByteChannel> cloudWrapper = (cloudPrefetchBuffer > 0 ? is -> SeekableByteChannelPrefetcher.addPrefetcher(cloudPrefetchBuffer, is) : Function.identity());
@@ -258,6 +306,56 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
         this.intervalsForTraversal = null;
         this.queryCache = new FeatureCache<>();
         this.queryLookaheadBases = queryLookaheadBases;
+        this.inMemoryFeatures = shouldLoadIntoMemory(featureInput, inMemoryLoadingThreshold) ? loadAllFeatures() : null;
+    }
+
+    /**
+     * @param featureInput source of Features
+     * Note that the threshold is compared against the size of the file on disk, so a compressed (eg., bgzipped)
+     * input may occupy considerably more memory once loaded than the threshold suggests.
+     *
+     * @param inMemoryLoadingThreshold MB size at or below which a file should be loaded fully into memory (0 to disable)
+     * @return true if featureInput is a file whose on-disk size does not exceed inMemoryLoadingThreshold, otherwise false
+     */
+    private static boolean shouldLoadIntoMemory(final FeatureInput<?> featureInput, final int inMemoryLoadingThreshold) {
+        if ( inMemoryLoadingThreshold == 0 || isGenomicsDBPath(featureInput.getFeaturePath()) ) {
+            return false;
+        }
+        final Path featurePath = IOUtils.getPath(featureInput.getFeaturePath());
+        try {
+            return Files.size(featurePath) <= (long)inMemoryLoadingThreshold * 1024 * 1024;
+        }
+        catch ( IOException e ) {
+            throw new UserException.CouldNotReadInputFile(featurePath, "Could not determine file size", e);
+        }
+    }
+
+    /**
+     * Read every Feature in our backing file and index them by position. Does not require an index file.
+     *
+     * @return all Features in this data source, indexed for overlap queries
+     */
+    private IntervalsSkipList<T> loadAllFeatures() {
+        final List<T> allFeatures = new ArrayList<>();
+        try ( CloseableTribbleIterator<T> iter = featureReader.iterator() ) {
+            while ( iter.hasNext() ) {
+                allFeatures.add(iter.next());
+            }
+        }
+        catch ( IOException e ) {
+            throw new GATKException("Error loading Features from " + featureInput.getFeaturePath() + " into memory", e);
+        }
+
+        logger.info(String.format("Loaded %d Features from %s into memory", allFeatures.size(), featureInput.getFeaturePath()));
+        return new IntervalsSkipList<>(allFeatures);
+    }
+
+    /**
+     * @return true if all Features in this data source were loaded into memory at construction time, in which
+     *         case queries are answered from memory and may be issued concurrently from multiple threads
+     */
+    public boolean isLoadedIntoMemory() {
+        return inMemoryFeatures != null;
     }
 
     /**
@@ -341,11 +439,39 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
                     ") could not be read from GenomicsDB workspace " + workspace.getAbsolutePath(), e);
         }
 
+        // a workspace into which several intervals were imported has an array for each of them
+        if ( ! new File(workspace, GenomicsDBConstants.DEFAULT_ARRAY_NAME).exists() ) {
+            final Map<SimpleInterval, String> intervalArrays = GenomicsDBIntervalArraysFeatureReader.findIntervalArrays(workspace);
+            if ( ! intervalArrays.isEmpty() ) {
+                final Map<SimpleInterval, FeatureReader<VariantContext>> intervalReaders = new LinkedHashMap<>();
+                try {
+                    intervalArrays.forEach((interval, arrayName) ->
+                            intervalReaders.put(interval, getGenomicsDBFeatureReader(workspace, arrayName, vidmapJson, callsetJson, reference)));
+                    return new GenomicsDBIntervalArraysFeatureReader(intervalReaders);
+                } catch ( RuntimeException e ) {
+                    // don't leak the readers that were opened before the failure
+                    for ( final FeatureReader<VariantContext> reader : intervalReaders.values() ) {
+                        try {
+                            reader.close();
+                        } catch ( IOException closeException ) {
+                            e.addSuppressed(closeException);
+                        }
+                    }
+                    throw e;
+                }
+            }
+        }
+        return getGenomicsDBFeatureReader(workspace, GenomicsDBConstants.DEFAULT_ARRAY_NAME, vidmapJson, callsetJson, reference);
+    }
+
+    private static FeatureReader<VariantContext> getGenomicsDBFeatureReader(final File workspace, final String arrayName,
+                                                                             final File vidmapJson, final File callsetJson,
+                                                                             final File reference) {
         try {
             return new GenomicsDBFeatureReader<>(vidmapJson.getAbsolutePath(),
                                                  callsetJson.getAbsolutePath(),
                                                  workspace.getAbsolutePath(),
-                                                 GenomicsDBConstants.DEFAULT_ARRAY_NAME,
+                                                 arrayName,
                                                  reference.getAbsolutePath(),
                                                  null,
                                                  new BCF2Codec());
@@ -392,7 +518,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
         // Treat null and empty interval lists the same
         intervalsForTraversal = (intervals != null && !intervals.isEmpty()) ? intervals : null;
 
-        if ( intervalsForTraversal != null && ! supportsRandomAccess ) {
+        if ( intervalsForTraversal != null && ! supportsRandomAccess && inMemoryFeatures == null ) {
             throw new UserException("Input " + featureInput.getFeaturePath() + " must support random access to enable traversal by intervals. " +
                                     "If it's a file, please index it using the bundled tool " + IndexFeatureFile.class.getSimpleName());
         }
@@ -413,6 +539,10 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
         // results in undefined behavior
         closeOpenIterationIfNecessary();
 
+        if ( intervalsForTraversal != null && inMemoryFeatures != null ) {
+            return getInMemoryFeaturesOverlappingIntervals(intervalsForTraversal).iterator();
+        }
+
         try {
             // Save the iterator returned so that we can close it properly later
             currentIterator = intervalsForTraversal != null ? new FeatureIntervalIterator<T>(intervalsForTraversal, featureReader, featureInput.getFeaturePath())
@@ -424,6 +554,27 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
         }
     }
 
+    /**
+     * Collects the in-memory Features overlapping the provided intervals, returning each Feature only once
+     * (using the same rule as {@link FeatureIntervalIterator}: a Feature is skipped if it overlaps the previous interval).
+     *
+     * @param intervals non-overlapping intervals sorted by increasing start position
+     * @return Features overlapping the intervals, in traversal order
+     */
+    private List<T> getInMemoryFeaturesOverlappingIntervals( final List<SimpleInterval> intervals ) {
+        final List<T> overlappingFeatures = new ArrayList<>();
+        SimpleInterval previousInterval = null;
+        for ( final SimpleInterval interval : intervals ) {
+            for ( final T feature : inMemoryFeatures.getOverlapping(interval) ) {
+                if ( previousInterval == null || ! previousInterval.overlaps(new SimpleInterval(feature)) ) {
+                    overlappingFeatures.add(feature);
+                }
+            }
+            previousInterval = interval;
+        }
+        return overlappingFeatures;
+    }
+
     /**
      * Gets an iterator over all Features in this data source that overlap the provided interval.
      *
@@ -460,10 +611,17 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      * Calling this method potentially invalidates (closes) any other open iterator obtained
      * from this data source via a call to {@link #iterator}
      *
+     * If this data source was loaded into memory (see {@link #isLoadedIntoMemory}), the query is answered
+     * directly from memory without touching the query cache or the underlying reader, and no index is required.
+     *
      * @param interval retrieve all Features overlapping this interval
      * @return a List of all Features in this data source that overlap the provided interval
      */
     public List<T> queryAndPrefetch( final SimpleInterval interval ) {
+        if ( inMemoryFeatures != null ) {
+            return inMemoryFeatures.getOverlapping(interval);
+        }
+
         if ( ! supportsRandomAccess ) {
             throw new UserException("Input " + featureInput.getFeaturePath() + " must support random access to enable queries by interval. " +
                                     "If it's a file, please index it using the bundled tool " + IndexFeatureFile.class.getSimpleName());
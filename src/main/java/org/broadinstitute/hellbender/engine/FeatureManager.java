@@ -89,6 +89,12 @@ public final class FeatureManager implements AutoCloseable {
      */
     private final Map<FeatureInput<? extends Feature>, FeatureDataSource<? extends Feature>> featureSources;
 
+    /**
+     * Feature inputs discovered in the tool instance whose files are no larger than this many MB are loaded
+     * fully into memory by their FeatureDataSource (0 to disable).
+     */
+    private final int inMemoryLoadingThreshold;
+
     /**
      * Create a FeatureManager given a CommandLineProgram tool instance, discovering all FeatureInput
      * arguments in the tool and creating query-able FeatureDataSources for them. Uses the default
@@ -148,8 +154,29 @@ public final class FeatureManager implements AutoCloseable {
      *
      */
     public FeatureManager(final CommandLineProgram toolInstance, final int featureQueryLookahead, final int cloudPrefetchBuffer, final int cloudIndexPrefetchBuffer, final Path reference) {
+        this(toolInstance, featureQueryLookahead, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference, FeatureDataSource.DEFAULT_IN_MEMORY_LOADING_THRESHOLD);
+    }
+
+    /**
+     * Create a FeatureManager given a CommandLineProgram tool instance, discovering all FeatureInput
+     * arguments in the tool and creating query-able FeatureDataSources for them. Allows control over
+     * how much caching is performed by each {@link FeatureDataSource}, and over which inputs are small
+     * enough to be loaded fully into memory.
+     *
+     * @param toolInstance Instance of the tool to be run (potentially containing one or more FeatureInput arguments)
+     *                     Must have undergone command-line argument parsing and argument value injection already.
+     * @param featureQueryLookahead When querying FeatureDataSources, cache this many extra bases of context beyond
+     *                              the end of query intervals in anticipation of future queries (>= 0).
+     * @param cloudPrefetchBuffer MB size of caching/prefetching wrapper for the data, if on Google Cloud (0 to disable).
+     * @param cloudIndexPrefetchBuffer MB size of caching/prefetching wrapper for the index, if on Google Cloud (0 to disable).
+     * @param reference reference to use when opening feature files, may be null, currently only used by Genomics DB
+     * @param inMemoryLoadingThreshold Feature files no larger than this many MB are loaded fully into memory (0 to disable).
+     *
+     */
+    public FeatureManager(final CommandLineProgram toolInstance, final int featureQueryLookahead, final int cloudPrefetchBuffer, final int cloudIndexPrefetchBuffer, final Path reference, final int inMemoryLoadingThreshold) {
         this.toolInstanceSimpleClassName = toolInstance.getClass().getSimpleName();
         this.featureSources = new LinkedHashMap<>();
+        this.inMemoryLoadingThreshold = inMemoryLoadingThreshold;
 
         initializeFeatureSources(featureQueryLookahead, toolInstance, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference);
     }
@@ -180,7 +207,7 @@ public final class FeatureManager implements AutoCloseable {
             // Only create a data source for Feature arguments that were actually specified
             if ( featureInput != null ) {
                 final Class<? extends Feature> featureType = getFeatureTypeForFeatureInputField(featureArgument.getKey());
-                addToFeatureSources(featureQueryLookahead, featureInput, featureType, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference);
+                addToFeatureSources(featureQueryLookahead, featureInput, featureType, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference, inMemoryLoadingThreshold);
             }
         }
     }
@@ -195,12 +222,19 @@ public final class FeatureManager implements AutoCloseable {
      * @param cloudPrefetchBuffer MB size of caching/prefetching wrapper for the data, if on Google Cloud (0 to disable).
      * @param cloudIndexPrefetchBuffer MB size of caching/prefetching wrapper for the index, if on Google Cloud (0 to disable).
      *
+     * Sources added this way (typically the driving source of a traversal) are always streamed from disk,
+     * never loaded into memory.
+     *
      * Note: package-visible to enable access from the core walker classes
      * (but not actual tools, so it's not protected).
      */
     void addToFeatureSources(final int featureQueryLookahead, final FeatureInput<? extends Feature> featureInput, final Class<? extends Feature> featureType, final int cloudPrefetchBuffer, final int cloudIndexPrefetchBuffer, final Path reference) {
+        addToFeatureSources(featureQueryLookahead, featureInput, featureType, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference, FeatureDataSource.DEFAULT_IN_MEMORY_LOADING_THRESHOLD);
+    }
+
+    private void addToFeatureSources(final int featureQueryLookahead, final FeatureInput<? extends Feature> featureInput, final Class<? extends Feature> featureType, final int cloudPrefetchBuffer, final int cloudIndexPrefetchBuffer, final Path reference, final int inMemoryLoadingThreshold) {
         // Create a new FeatureDataSource for this file, and add it to our query pool
-        featureSources.put(featureInput, new FeatureDataSource<>(featureInput, featureQueryLookahead, featureType, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference));
+        featureSources.put(featureInput, new FeatureDataSource<>(featureInput, featureQueryLookahead, featureType, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, reference, inMemoryLoadingThreshold));
     }
 
     /**
@@ -250,6 +284,13 @@ public final class FeatureManager implements AutoCloseable {
         return featureSources.isEmpty();
     }
 
+    /**
+     * @return the FeatureInputs of all sources of Features managed by this manager, in the order they were added
+     */
+    public List<FeatureInput<? extends Feature>> getAllInputs() {
+        return new ArrayList<>(featureSources.keySet());
+    }
+
 
     /**
      * This method finds and returns all of the variant headers from the feature sources.
@@ -36,7 +36,7 @@ public abstract class FeatureWalker<F extends Feature> extends GATKTool {
     @Override
     void initializeFeatures() {
         features = new FeatureManager(this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, cloudPrefetchBuffer, cloudIndexPrefetchBuffer,
-                                      referenceArguments.getReferencePath());
+                                      referenceArguments.getReferencePath(), featureInMemoryLoadingThreshold);
         initializeDrivingFeatures();
     }
 
@@ -116,6 +116,14 @@ public abstract class GATKTool extends CommandLineProgram {
             optional = true)
     public boolean disableBamIndexCaching = false;
 
+    @Argument(fullName = StandardArgumentDefinitions.FEATURE_IN_MEMORY_LOADING_THRESHOLD_LONG_NAME,
+            shortName = StandardArgumentDefinitions.FEATURE_IN_MEMORY_LOADING_THRESHOLD_SHORT_NAME,
+            doc = "Feature inputs (eg., known sites or truth sets) no larger than this size (in MB) are loaded fully into memory at startup, " +
+                  "which speeds up tools that query them out of order. Larger inputs are streamed from disk as usual (0 to disable). " +
+                  "The size compared is the size of the file on disk, so compressed inputs may use several times more memory once loaded.",
+            optional = true)
+    public int featureInMemoryLoadingThreshold = FeatureDataSource.DEFAULT_IN_MEMORY_LOADING_THRESHOLD;
+
     /**
      * Master sequence dictionary to be used instead of all other dictionaries (if provided).
      */
@@ -345,7 +353,7 @@ public abstract class GATKTool extends CommandLineProgram {
      */
     void initializeFeatures() {
         features = new FeatureManager(this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, cloudPrefetchBuffer, cloudIndexPrefetchBuffer,
-                                      referenceArguments.getReferencePath());
+                                      referenceArguments.getReferencePath(), featureInMemoryLoadingThreshold);
         if ( features.isEmpty() ) {  // No available sources of Features discovered for this tool
             features = null;
         }
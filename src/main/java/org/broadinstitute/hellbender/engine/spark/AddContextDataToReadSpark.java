@@ -119,15 +119,15 @@ public class AddContextDataToReadSpark {
                 // get reference bases for this shard (padded)
                 SimpleInterval paddedInterval = shard.getInterval().expandWithinContig(shardPadding, sequenceDictionary);
                 ReferenceBases referenceBases = bReferenceSource.getValue().getReferenceBases(null, paddedInterval);
-                final IntervalsSkipList<GATKVariant> intervalsSkipList = variantsPaths == null ? variantsBroadcast.getValue() :
-                        KnownSitesCache.getVariants(variantsPaths);
+                final Function<SimpleInterval, List<GATKVariant>> knownVariantsLookup = variantsPaths == null ? variantsBroadcast.getValue()::getOverlapping :
+                        interval -> KnownSitesCache.getOverlapping(variantsPaths, interval);
                 Iterator<Tuple2<GATKRead, ReadContextData>> transform = Iterators.transform(shard.iterator(), new Function<GATKRead, Tuple2<GATKRead, ReadContextData>>() {
                     @Nullable
                     @Override
                     public Tuple2<GATKRead, ReadContextData> apply(@Nullable GATKRead r) {
                         List<GATKVariant> overlappingVariants;
                         if (SimpleInterval.isValid(r.getContig(), r.getStart(), r.getEnd())) {
-                            overlappingVariants = intervalsSkipList.getOverlapping(new SimpleInterval(r));
+                            overlappingVariants = knownVariantsLookup.apply(new SimpleInterval(r));
                         } else {
                             //Sometimes we have reads that do not form valid intervals (reads that do not consume any ref bases, eg CIGAR 61S90I
                             //In those cases, we'll just say that nothing overlaps the read
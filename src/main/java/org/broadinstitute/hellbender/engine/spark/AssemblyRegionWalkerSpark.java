@@ -95,6 +95,9 @@ public abstract class AssemblyRegionWalkerSpark extends GATKSparkTool {
      */
     protected abstract int defaultMaxProbPropagationDistance();
 
+    @Argument(fullName = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_LONG_NAME, shortName = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_LONG_NAME, doc = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_DOC, optional = true)
+    public boolean balanceShardsByReadDensity = false;
+
     @Argument(doc = "whether to use the shuffle implementation or not", shortName = "shuffle", fullName = "shuffle", optional = true)
     public boolean shuffle = false;
 
@@ -127,7 +130,10 @@ public abstract class AssemblyRegionWalkerSpark extends GATKSparkTool {
     protected List<SimpleInterval> editIntervals(List<SimpleInterval> rawIntervals) {
         SAMSequenceDictionary sequenceDictionary = getBestAvailableSequenceDictionary();
         List<SimpleInterval> intervals = rawIntervals == null ? IntervalUtils.getAllIntervalsForReference(sequenceDictionary) : rawIntervals;
-        intervalShards = intervals.stream()
+        final ReadDensityHistogram readDensity = balanceShardsByReadDensity ? getReadDensityHistogram(intervals) : null;
+        intervalShards = readDensity != null ?
+                readDensity.divideIntervalsIntoShards(intervals, readShardSize, readShardPadding, sequenceDictionary) :
+                intervals.stream()
                 .flatMap(interval -> Shard.divideIntervalIntoShards(interval, readShardSize, readShardPadding, sequenceDictionary).stream())
                 .collect(Collectors.toList());
         List<SimpleInterval> paddedIntervalsForReads =
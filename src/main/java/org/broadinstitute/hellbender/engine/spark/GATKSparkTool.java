@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Base class for GATK spark tools that accept standard kinds of inputs (reads, reference, and/or intervals).
@@ -224,7 +225,7 @@ public abstract class GATKSparkTool extends SparkCommandLineProgram {
         // TODO: This if statement is a temporary hack until #959 gets resolved.
         if (readInput.endsWith(".adam")) {
             try {
-                return readsSource.getADAMReads(readInput, intervals, getHeaderForReads());
+                return readsSource.getADAMReads(readInput, intervals, getHeaderForReads(), getADAMReadFieldsToLoad());
             } catch (IOException e) {
                 throw new UserException("Failed to read ADAM file " + readInput, e);
             }
@@ -239,6 +240,44 @@ public abstract class GATKSparkTool extends SparkCommandLineProgram {
         }
     }
 
+    /**
+     * Returns the fields of ADAM {@link org.bdgenomics.formats.avro.AlignmentRecord}s that this tool needs when its
+     * reads input is in ADAM (Parquet) format, in addition to {@link ReadsSparkSource#ADAM_CORE_READ_FIELDS} which
+     * are always loaded. Only these columns are read from disk, and the other fields of the reads are left unset.
+     *
+     * The fields must include those needed by the tool's default read filters (see
+     * {@link ReadsSparkSource#ADAM_WELLFORMED_READ_FIELDS} for the {@link WellformedReadFilter}). If the user enables
+     * additional read filters then all fields are loaded.
+     *
+     * The default implementation returns null, meaning that all fields are loaded. Tools that only need a few
+     * fields of each read should override this.
+     */
+    public Set<String> getRequiredADAMReadFields() {
+        return null;
+    }
+
+    private Set<String> getADAMReadFieldsToLoad() {
+        final GATKReadFilterPluginDescriptor readFilterPlugin =
+                getCommandLineParser().getPluginDescriptor(GATKReadFilterPluginDescriptor.class);
+        if (readFilterPlugin != null && !readFilterPlugin.userArgs.getUserEnabledReadFilterNames().isEmpty()) {
+            // user-enabled read filters may look at any field
+            return null;
+        }
+        return getRequiredADAMReadFields();
+    }
+
+    /**
+     * Returns an estimate of the density of the reads input over the given intervals, for choosing read shard
+     * boundaries that balance the amount of work in each shard (see {@link ReadDensityHistogram}).
+     *
+     * @param intervals the intervals that will be sharded
+     * @return the read density, or null if it cannot be estimated for the reads input (for example if it is not an
+     * indexed BAM file)
+     */
+    public ReadDensityHistogram getReadDensityHistogram(final List<SimpleInterval> intervals) {
+        return ReadDensityHistogram.fromIndexedBAM(readInput, getHeaderForReads().getSequenceDictionary(), intervals);
+    }
+
     /**
      * Writes the reads from a {@link JavaRDD} to an output file.
      * @param ctx the JavaSparkContext to write.
@@ -3,24 +3,128 @@ package org.broadinstitute.hellbender.engine.spark;
 import htsjdk.variant.variantcontext.VariantContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.SparkFiles;
+import org.apache.spark.api.java.JavaSparkContext;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.collections.IntervalsSkipList;
+import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
+import org.broadinstitute.hellbender.utils.recalibration.KnownSitesBitSetIndex;
 import org.broadinstitute.hellbender.utils.variant.GATKVariant;
+import org.broadinstitute.hellbender.utils.variant.MinimalVariant;
 import org.broadinstitute.hellbender.utils.variant.VariantContextVariantAdapter;
 
+import java.io.File;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * A cache of known sites by file path, with the property that there is only one copy of each collection of known sites per JVM.
  * This class is an alternative for cases that can't use a Spark broadcast due to its 2GB limitation.
+ *
+ * If all of the paths are known sites index files (see {@link KnownSitesBitSetIndex}), the memory-mapped indexes
+ * are cached instead of materialized variants, and only the sites overlapping each query are turned into variants.
+ * Index files can only be memory-mapped from the local filesystem, so those that are not in the local filesystem of
+ * the driver (e.g. in HDFS or GCS) must be copied to the executors with {@link #addKnownSitesIndexesToSparkFiles}
+ * before they are queried. Mixing index files with other kinds of known sites files is not supported.
  */
-class KnownSitesCache {
+public final class KnownSitesCache {
 
     private static final Logger log = LogManager.getLogger(KnownSitesCache.class);
 
     private static final Map<List<String>, IntervalsSkipList<GATKVariant>> PATHS_TO_VARIANTS = new HashMap<>();
 
+    private static final Map<List<String>, List<KnownSitesBitSetIndex>> PATHS_TO_INDEXES = new HashMap<>();
+
+    private KnownSitesCache() {}
+
+    /**
+     * Checks whether the given known sites paths are known sites index files.
+     *
+     * @return true if all of them are index files, false if none is.
+     * @throws UserException.BadInput if only some of them are index files.
+     */
+    public static boolean areKnownSitesIndexes(final List<String> paths) {
+        final long numberOfIndexes = paths.stream().filter(KnownSitesBitSetIndex::isKnownSitesIndexFile).count();
+        if (numberOfIndexes > 0 && numberOfIndexes < paths.size()) {
+            throw new UserException.BadInput("Known sites index files (" + KnownSitesBitSetIndex.FILE_EXTENSION +
+                    ") cannot be used together with other known sites files; either create an index for each of " +
+                    "them with CreateKnownSitesIndex or use none: " + paths);
+        }
+        return numberOfIndexes > 0;
+    }
+
+    /**
+     * Makes the known sites index files that are not in the local filesystem (e.g. those in HDFS or GCS) available
+     * to the executors, by adding them to the files that Spark copies to the local filesystem of each executor.
+     *
+     * @throws UserException.BadInput if two such files have the same name, as they would be copied to the same place.
+     */
+    public static void addKnownSitesIndexesToSparkFiles(final JavaSparkContext ctx, final List<String> paths) {
+        final Map<String, String> pathsByName = new HashMap<>();
+        for (final String path : paths) {
+            if (isLocalFile(path)) {
+                continue;
+            }
+            final String name = new Path(path).getName();
+            final String otherPath = pathsByName.put(name, path);
+            if (otherPath == null) {
+                ctx.addFile(path);
+            } else if (!otherPath.equals(path)) {
+                throw new UserException.BadInput("Known sites index files that are not in the local filesystem must have different names, but "
+                        + otherPath + " and " + path + " are both named " + name);
+            }
+        }
+    }
+
+    private static boolean isLocalFile(final String path) {
+        return !BucketUtils.isRemoteStorageUrl(path) && new File(path).isFile();
+    }
+
+    /**
+     * Returns the local copy of a known sites index file, see {@link #addKnownSitesIndexesToSparkFiles}.
+     */
+    private static File getLocalIndexFile(final String path) {
+        if (isLocalFile(path)) {
+            return new File(path);
+        }
+        final File copy = new File(SparkFiles.get(new Path(path).getName()));
+        if (!copy.isFile()) {
+            throw new UserException.CouldNotReadInputFile(copy, "known sites index " + path +
+                    " is not in the local filesystem and it has not been added to the Spark files");
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the known sites from the given paths that overlap the given interval.
+     *
+     * Sites looked up in known sites index files are returned as {@link MinimalVariant}s that record only the
+     * span of the site: single-base sites are reported as SNPs, and longer sites as indels.
+     */
+    public static List<GATKVariant> getOverlapping(final List<String> paths, final SimpleInterval interval) {
+        if (!areKnownSitesIndexes(paths)) {
+            return getVariants(paths).getOverlapping(interval);
+        }
+        final List<GATKVariant> overlapping = new ArrayList<>();
+        for (final KnownSitesBitSetIndex index : getIndexes(paths)) {
+            for (final SimpleInterval site : index.getOverlapping(interval)) {
+                final boolean singleBase = site.size() == 1;
+                overlapping.add(new MinimalVariant(site, singleBase, !singleBase));
+            }
+        }
+        return overlapping;
+    }
+
+    private static synchronized List<KnownSitesBitSetIndex> getIndexes(List<String> paths) {
+        return PATHS_TO_INDEXES.computeIfAbsent(paths, p -> {
+            log.info("Loading known sites indexes " + p);
+            return p.stream().map(path -> KnownSitesBitSetIndex.load(getLocalIndexFile(path))).collect(Collectors.toList());
+        });
+    }
+
     public static synchronized IntervalsSkipList<GATKVariant> getVariants(List<String> paths) {
         if (PATHS_TO_VARIANTS.containsKey(paths)) {
             return PATHS_TO_VARIANTS.get(paths);
@@ -0,0 +1,227 @@
+package org.broadinstitute.hellbender.engine.spark;
+
+import htsjdk.samtools.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.engine.ShardBoundary;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * An estimate of the density of reads along the genome, used to choose read shard boundaries so that each shard
+ * has roughly the same amount of work, rather than the same number of bases. With fixed-size shards, deep regions
+ * (centromeres, amplicons, high-coverage targets) produce shards with far more reads than average, which become
+ * stragglers when the Spark job is run.
+ *
+ * The estimate is made from the linear index of a BAM index, without reading any reads. For each window of
+ * {@link #WINDOW_SIZE} bases (the granularity of the linear index) the amount of read data is estimated as the
+ * distance in the compressed BAM file between the first reads overlapping successive windows, so the estimate is no
+ * finer than a BGZF block. Reads are assumed to be evenly distributed within each window.
+ */
+public final class ReadDensityHistogram implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LogManager.getLogger(ReadDensityHistogram.class);
+
+    /**
+     * The size of the windows in which read density is estimated, in bases.
+     */
+    public static final int WINDOW_SIZE = 1 << LinearIndex.BAM_LIDX_SHIFT;
+
+    /**
+     * Shards are not made smaller than this many bases (unless the maximum shard size is smaller), however dense
+     * the reads, to limit the overhead of shard padding.
+     */
+    public static final int MIN_SHARD_SIZE = 1000;
+
+    /**
+     * Name and documentation of the argument that Spark tools use to turn on shard balancing by read density.
+     */
+    public static final String BALANCE_SHARDS_BY_READ_DENSITY_LONG_NAME = "balanceShardsByReadDensity";
+    public static final String BALANCE_SHARDS_BY_READ_DENSITY_DOC = "Make read shards smaller in regions with many reads, so that each shard has about the same number of reads. " +
+            "Read density is estimated from the BAM index; fixed-size shards are used for other inputs.";
+
+    // estimated number of bytes of reads in each window, by contig
+    private final Map<String, long[]> bytesPerWindow;
+
+    ReadDensityHistogram(final Map<String, long[]> bytesPerWindow) {
+        this.bytesPerWindow = bytesPerWindow;
+    }
+
+    /**
+     * Estimates read density from the index of a BAM file.
+     *
+     * @param bamPath the path to a local or GCS BAM file
+     * @param dictionary the sequence dictionary of the BAM file
+     * @param intervals density is only estimated for the contigs covered by these intervals
+     * @return the estimated read density, or null if the reads are not in an indexed BAM file that can be opened locally
+     */
+    public static ReadDensityHistogram fromIndexedBAM(final String bamPath, final SAMSequenceDictionary dictionary, final List<SimpleInterval> intervals) {
+        Utils.nonNull(bamPath);
+        if (!IOUtils.isBamFileName(bamPath) || BucketUtils.isHadoopUrl(bamPath)) {
+            logger.warn("Read density can only be estimated for local or GCS BAM files, using fixed-size shards for " + bamPath);
+            return null;
+        }
+        final Path path = IOUtils.getPath(bamPath);
+        try (final SamReader reader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT)
+                .enable(SamReaderFactory.Option.CACHE_FILE_BASED_INDEXES).open(path)) {
+            if (!reader.hasIndex()) {
+                logger.warn("No index found for " + bamPath + ", using fixed-size shards");
+                return null;
+            }
+            return fromBAMIndex(reader.indexing().getIndex(), dictionary, intervals);
+        } catch (final IOException e) {
+            throw new UserException.CouldNotReadInputFile(path, "Could not read BAM index", e);
+        }
+    }
+
+    /**
+     * Estimates read density from a BAM index.
+     *
+     * @param index the BAM index, from a reader opened with {@link SamReaderFactory.Option#CACHE_FILE_BASED_INDEXES}
+     * @param dictionary the sequence dictionary of the indexed BAM file
+     * @param intervals density is only estimated for the contigs covered by these intervals
+     * @return the estimated read density
+     */
+    public static ReadDensityHistogram fromBAMIndex(final BAMIndex index, final SAMSequenceDictionary dictionary, final List<SimpleInterval> intervals) {
+        Utils.nonNull(index);
+        Utils.nonNull(dictionary);
+        Utils.nonNull(intervals);
+        final Map<String, long[]> bytesPerWindow = new LinkedHashMap<>();
+        for (final SimpleInterval interval : intervals) {
+            final SAMSequenceRecord sequence = dictionary.getSequence(interval.getContig());
+            if (sequence != null) {  // there are no reads on contigs that are not in the BAM's dictionary
+                bytesPerWindow.computeIfAbsent(sequence.getSequenceName(), contig -> getBytesPerWindow(index, sequence));
+            }
+        }
+        return new ReadDensityHistogram(bytesPerWindow);
+    }
+
+    private static long[] getBytesPerWindow(final BAMIndex index, final SAMSequenceRecord sequence) {
+        final int numWindows = (int) ((sequence.getSequenceLength() + (long) WINDOW_SIZE - 1) / WINDOW_SIZE);
+        final long[] bytes = new long[numWindows];
+        final long[] offsets = BAMIndexLinearIndexUtils.getWindowOffsets(index, sequence.getSequenceIndex());
+        // windows with no reads have no offset, or the same offset as a neighbouring window, so they get no bytes
+        long nextOffset = compressedOffset(BAMIndexLinearIndexUtils.getEndOffset(index, sequence.getSequenceIndex()));
+        for (int window = Math.min(offsets.length, numWindows) - 1; window >= 0; window--) {
+            if (offsets[window] != 0) {
+                final long offset = compressedOffset(offsets[window]);
+                bytes[window] = Math.max(0, nextOffset - offset);
+                nextOffset = Math.min(nextOffset, offset);
+            }
+        }
+        return bytes;
+    }
+
+    private static long compressedOffset(final long virtualOffset) {
+        return virtualOffset >>> 16;
+    }
+
+    /**
+     * @return the estimated number of bytes of reads overlapping the interval
+     */
+    public double getEstimatedBytes(final SimpleInterval interval) {
+        Utils.nonNull(interval);
+        return getEstimatedBytes(interval.getContig(), interval.getStart(), interval.getEnd());
+    }
+
+    private double getEstimatedBytes(final String contig, final int start, final int end) {
+        final long[] windows = bytesPerWindow.get(contig);
+        if (windows == null) {
+            return 0;
+        }
+        double bytes = 0;
+        for (int position = start; position <= end; ) {
+            final int window = (position - 1) / WINDOW_SIZE;
+            final int windowEnd = (int) Math.min((long) (window + 1) * WINDOW_SIZE, end);
+            bytes += getDensity(windows, window) * (windowEnd - position + 1);
+            position = windowEnd + 1;
+        }
+        return bytes;
+    }
+
+    private static double getDensity(final long[] windows, final int window) {
+        return window < windows.length ? windows[window] / (double) WINDOW_SIZE : 0;
+    }
+
+    /**
+     * Divide intervals into ShardBoundaries so that each shard has about the same estimated number of reads.
+     *
+     * The target amount of reads per shard is the average for shards of maxShardSize bases, so regions of average
+     * density or less are divided into shards of maxShardSize bases, exactly as
+     * {@link org.broadinstitute.hellbender.engine.Shard#divideIntervalIntoShards}, while denser regions are divided
+     * into correspondingly smaller shards (of at least {@link #MIN_SHARD_SIZE} bases).
+     *
+     * @param intervals intervals to shard; must be on contigs in the provided dictionary
+     * @param maxShardSize maximum shard size; intervals larger than this will be divided into shards of up to this size
+     * @param shardPadding desired shard padding; each shard's interval will be padded on both sides by this number of bases (may be 0)
+     * @param dictionary sequence dictionary for reads
+     * @return List of {@link ShardBoundary} objects spanning the intervals
+     */
+    public List<ShardBoundary> divideIntervalsIntoShards(final List<SimpleInterval> intervals, final int maxShardSize, final int shardPadding, final SAMSequenceDictionary dictionary) {
+        Utils.nonNull(intervals);
+        Utils.nonNull(dictionary);
+        Utils.validateArg(maxShardSize >= 1, "maxShardSize must be >= 1");
+        Utils.validateArg(shardPadding >= 0, "shardPadding must be >= 0");
+
+        long numFixedSizeShards = 0;
+        double totalBytes = 0;
+        for (final SimpleInterval interval : intervals) {
+            numFixedSizeShards += (interval.size() + (long) maxShardSize - 1) / maxShardSize;
+            totalBytes += getEstimatedBytes(interval);
+        }
+        final double targetBytesPerShard = numFixedSizeShards == 0 ? 0 : totalBytes / numFixedSizeShards;
+        final int minShardSize = Math.min(maxShardSize, MIN_SHARD_SIZE);
+
+        final List<ShardBoundary> shards = new ArrayList<>();
+        for (final SimpleInterval interval : intervals) {
+            Utils.validateArg(IntervalUtils.intervalIsOnDictionaryContig(interval, dictionary), () ->
+                    "Interval " + interval + " not within the bounds of a contig in the provided dictionary");
+            int start = interval.getStart();
+            while (start <= interval.getEnd()) {
+                final int maxEnd = (int) Math.min((long) start + maxShardSize - 1, interval.getEnd());
+                final int minEnd = Math.min(start + minShardSize - 1, maxEnd);
+                final int end = findShardEnd(interval.getContig(), start, minEnd, maxEnd, targetBytesPerShard);
+                final SimpleInterval shardInterval = new SimpleInterval(interval.getContig(), start, end);
+                shards.add(new ShardBoundary(shardInterval, shardInterval.expandWithinContig(shardPadding, dictionary)));
+                start = end + 1;
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * @return the largest end position in [minEnd, maxEnd] for a shard starting at start with at most targetBytes of
+     * reads, or minEnd if there is no such position
+     */
+    private int findShardEnd(final String contig, final int start, final int minEnd, final int maxEnd, final double targetBytes) {
+        final long[] windows = bytesPerWindow.get(contig);
+        if (windows == null || targetBytes <= 0) {
+            return maxEnd;
+        }
+        double bytes = 0;
+        for (int position = start; position <= maxEnd; ) {
+            final int window = (position - 1) / WINDOW_SIZE;
+            final int windowEnd = (int) Math.min((long) (window + 1) * WINDOW_SIZE, maxEnd);
+            final double density = getDensity(windows, window);
+            final double windowBytes = density * (windowEnd - position + 1);
+            if (bytes + windowBytes > targetBytes) {
+                // the shard ends part way through this window
+                final int end = position - 1 + (int) ((targetBytes - bytes) / density);
+                return Math.max(minEnd, end);
+            }
+            bytes += windowBytes;
+            position = windowEnd + 1;
+        }
+        return maxEnd;
+    }
+}
@@ -40,6 +40,9 @@ public abstract class ReadWalkerSpark extends GATKSparkTool {
     @Argument(fullName="readShardPadding", shortName="readShardPadding", doc = "Each read shard has this many bases of extra context on each side.", optional = true)
     public int readShardPadding = 1000;
 
+    @Argument(fullName = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_LONG_NAME, shortName = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_LONG_NAME, doc = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_DOC, optional = true)
+    public boolean balanceShardsByReadDensity = false;
+
     @Argument(doc = "whether to use the shuffle implementation or not", shortName = "shuffle", fullName = "shuffle", optional = true)
     public boolean shuffle = false;
 
@@ -61,7 +64,10 @@ public abstract class ReadWalkerSpark extends GATKSparkTool {
         SAMSequenceDictionary sequenceDictionary = getBestAvailableSequenceDictionary();
         List<SimpleInterval> intervals = hasIntervals() ? getIntervals() : IntervalUtils.getAllIntervalsForReference(sequenceDictionary);
         // use unpadded shards (padding is only needed for reference bases)
-        final List<ShardBoundary> intervalShards = intervals.stream()
+        final ReadDensityHistogram readDensity = balanceShardsByReadDensity ? getReadDensityHistogram(intervals) : null;
+        final List<ShardBoundary> intervalShards = readDensity != null ?
+                readDensity.divideIntervalsIntoShards(intervals, readShardSize, 0, sequenceDictionary) :
+                intervals.stream()
                 .flatMap(interval -> Shard.divideIntervalIntoShards(interval, readShardSize, 0, sequenceDictionary).stream())
                 .collect(Collectors.toList());
         JavaRDD<Shard<GATKRead>> shardedReads = SparkSharder.shard(ctx, getReads(), GATKRead.class, sequenceDictionary, intervalShards, readShardSize, shuffle);
@@ -10,6 +10,10 @@ import org.broadinstitute.hellbender.utils.read.SAMRecordToGATKReadAdapter;
 /**
  * Efficient serializer for SAMRecordToGATKReadAdapters that uses SAMRecordSparkCodec for encoding/decoding.
  * Assumes that the underlying SAMRecords are headerless (and clears their header if they're not).
+ *
+ * Reads are deserialized as lazily-decoded BAMRecords, and reads whose variable-length fields (name, cigar, bases,
+ * qualities and tags) have not been modified are serialized by copying the raw bytes of those fields, so reads that
+ * are only filtered or repartitioned are never fully decoded.
  */
 public final class SAMRecordToGATKReadAdapterSerializer extends Serializer<SAMRecordToGATKReadAdapter> {
 
@@ -12,7 +12,13 @@ import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.avro.Schema;
 import org.apache.parquet.avro.AvroParquetInputFormat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.hadoop.ParquetInputFormat;
+import org.apache.parquet.io.api.Binary;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
@@ -39,9 +45,7 @@ import org.seqdoop.hadoop_bam.util.SAMHeaderReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 
 /** Loads the reads from disk either serially (using samReaderFactory) or in parallel using Hadoop-BAM.
  * The parallel code is a modified version of the example writing code from Hadoop-BAM.
@@ -55,6 +59,23 @@ public final class ReadsSparkSource implements Serializable {
 
     private static final Logger logger = LogManager.getLogger(ReadsSparkSource.class);
 
+    /**
+     * The fields of ADAM {@link AlignmentRecord}s that are always loaded, since they are needed to place and pair
+     * reads and to determine their flags.
+     */
+    public static final Set<String> ADAM_CORE_READ_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            "readInFragment", "contigName", "start", "end", "mapq", "readName", "cigar",
+            "readPaired", "properPair", "readMapped", "mateMapped", "failedVendorQualityChecks", "duplicateRead",
+            "readNegativeStrand", "mateNegativeStrand", "primaryAlignment", "secondaryAlignment", "supplementaryAlignment",
+            "mateAlignmentStart", "mateContigName", "inferredInsertSize")));
+
+    /**
+     * The fields of ADAM {@link AlignmentRecord}s, in addition to {@link #ADAM_CORE_READ_FIELDS}, that are needed by
+     * {@link org.broadinstitute.hellbender.engine.filters.WellformedReadFilter}.
+     */
+    public static final Set<String> ADAM_WELLFORMED_READ_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            "sequence", "qual", "recordGroupName")));
+
     public ReadsSparkSource(final JavaSparkContext ctx) { this.ctx = ctx; }
 
     public ReadsSparkSource(final JavaSparkContext ctx, final ValidationStringency validationStringency)
@@ -150,8 +171,32 @@ public final class ReadsSparkSource implements Serializable {
      * @return RDD of (ADAM-backed) GATKReads from the file.
      */
     public JavaRDD<GATKRead> getADAMReads(final String inputPath, final List<SimpleInterval> intervals, final SAMFileHeader header) throws IOException {
+        return getADAMReads(inputPath, intervals, header, null);
+    }
+
+    /**
+     * Loads ADAM reads stored as Parquet, reading only the requested fields (columns) of each record from disk.
+     *
+     * If intervals are specified they are also pushed down to Parquet as a filter on the contig and position
+     * columns, so that row groups whose statistics show that they cannot contain overlapping reads are skipped
+     * without being read (this is most effective for coordinate-sorted data).
+     *
+     * @param inputPath path to the Parquet data
+     * @param intervals intervals of reads to include, or null for all reads
+     * @param header header for the reads
+     * @param requiredFields names of the {@link AlignmentRecord} fields to load in addition to {@link #ADAM_CORE_READ_FIELDS},
+     *                       or null to load all fields. The other fields of the returned reads are unset.
+     * @return RDD of (ADAM-backed) GATKReads from the file.
+     */
+    public JavaRDD<GATKRead> getADAMReads(final String inputPath, final List<SimpleInterval> intervals, final SAMFileHeader header, final Set<String> requiredFields) throws IOException {
         Job job = Job.getInstance(ctx.hadoopConfiguration());
         AvroParquetInputFormat.setAvroReadSchema(job, AlignmentRecord.getClassSchema());
+        if (requiredFields != null) {
+            AvroParquetInputFormat.setRequestedProjection(job, getADAMReadProjection(requiredFields));
+        }
+        if (intervals != null && !intervals.isEmpty()) {
+            ParquetInputFormat.setFilterPredicate(job.getConfiguration(), getADAMIntervalsPredicate(intervals));
+        }
         Broadcast<SAMFileHeader> bHeader;
         if (header == null) {
             bHeader= ctx.broadcast(null);
@@ -167,6 +212,60 @@ public final class ReadsSparkSource implements Serializable {
         return putPairsInSamePartition(header, filteredRdd);
     }
 
+    /**
+     * Returns the Avro schema for reading only the given fields (plus {@link #ADAM_CORE_READ_FIELDS}) of ADAM
+     * {@link AlignmentRecord}s from Parquet.
+     */
+    static Schema getADAMReadProjection(final Set<String> requiredFields) {
+        final Schema schema = AlignmentRecord.getClassSchema();
+        final List<Schema.Field> fields = new ArrayList<>();
+        for (final String fieldName : requiredFields) {
+            if (schema.getField(fieldName) == null) {
+                throw new IllegalArgumentException("Not an ADAM AlignmentRecord field: " + fieldName);
+            }
+        }
+        for (final Schema.Field field : schema.getFields()) {
+            if (ADAM_CORE_READ_FIELDS.contains(field.name()) || requiredFields.contains(field.name())) {
+                fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+            }
+        }
+        final Schema projection = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError());
+        projection.setFields(fields);
+        return projection;
+    }
+
+    /**
+     * Returns a Parquet filter predicate on the contigName, start and end columns of ADAM {@link AlignmentRecord}s
+     * that is true for (at least) all reads that overlap one of the given intervals.
+     *
+     * The predicate is conservative, since reads it accepts are subsequently checked against the intervals
+     * exactly. In particular it accepts reads without an end position, and unmapped reads that have a start
+     * position in one of the intervals.
+     */
+    static FilterPredicate getADAMIntervalsPredicate(final List<SimpleInterval> intervals) {
+        final Operators.BinaryColumn contigName = FilterApi.binaryColumn("contigName");
+        // ADAM start and end positions are 0-based, with an exclusive end
+        final Operators.LongColumn start = FilterApi.longColumn("start");
+        final Operators.LongColumn end = FilterApi.longColumn("end");
+
+        final List<FilterPredicate> predicates = new ArrayList<>(intervals.size());
+        for (final SimpleInterval interval : intervals) {
+            predicates.add(FilterApi.and(FilterApi.eq(contigName, Binary.fromString(interval.getContig())),
+                           FilterApi.and(FilterApi.lt(start, (long)interval.getEnd()),
+                                         FilterApi.or(FilterApi.gtEq(end, (long)interval.getStart() - 1), FilterApi.eq(end, null)))));
+        }
+        // combine the intervals pairwise so that the depth of the predicate tree is logarithmic in the number of intervals
+        List<FilterPredicate> combined = predicates;
+        while (combined.size() > 1) {
+            final List<FilterPredicate> next = new ArrayList<>((combined.size() + 1) / 2);
+            for (int i = 0; i < combined.size(); i += 2) {
+                next.add(i + 1 < combined.size() ? FilterApi.or(combined.get(i), combined.get(i + 1)) : combined.get(i));
+            }
+            combined = next;
+        }
+        return combined.get(0);
+    }
+
     /**
      * Loads the header using Hadoop-BAM.
      * @param filePath path to the bam.
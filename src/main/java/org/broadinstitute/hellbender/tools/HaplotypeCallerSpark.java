@@ -24,6 +24,7 @@ import org.broadinstitute.hellbender.engine.*;
 import org.broadinstitute.hellbender.engine.datasources.ReferenceMultiSource;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.spark.GATKSparkTool;
+import org.broadinstitute.hellbender.engine.spark.ReadDensityHistogram;
 import org.broadinstitute.hellbender.engine.spark.SparkSharder;
 import org.broadinstitute.hellbender.engine.spark.datasources.VariantsSparkSink;
 import org.broadinstitute.hellbender.exceptions.GATKException;
@@ -83,6 +84,9 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
         @Argument(fullName="readShardPadding", shortName="readShardPadding", doc = "Each read shard has this many bases of extra context on each side. Read shards must have as much or more padding than assembly regions.", optional = true)
         public int readShardPadding = HaplotypeCaller.DEFAULT_READSHARD_PADDING;
 
+        @Argument(fullName = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_LONG_NAME, shortName = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_LONG_NAME, doc = ReadDensityHistogram.BALANCE_SHARDS_BY_READ_DENSITY_DOC, optional = true)
+        public boolean balanceShardsByReadDensity = false;
+
         @Argument(fullName = "minAssemblyRegionSize", shortName = "minAssemblyRegionSize", doc = "Minimum size of an assembly region", optional = true)
         public int minAssemblyRegionSize = HaplotypeCaller.DEFAULT_MIN_ASSEMBLY_REGION_SIZE;
 
@@ -122,7 +126,8 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
     @Override
     protected void runTool(final JavaSparkContext ctx) {
         final List<SimpleInterval> intervals = hasIntervals() ? getIntervals() : IntervalUtils.getAllIntervalsForReference(getHeaderForReads().getSequenceDictionary());
-        callVariantsWithHaplotypeCallerAndWriteOutput(getAuthHolder(), ctx, getReads(), getHeaderForReads(), getReference(), intervals, hcArgs, shardingArgs, numReducers, output);
+        final ReadDensityHistogram readDensity = shardingArgs.balanceShardsByReadDensity ? getReadDensityHistogram(intervals) : null;
+        callVariantsWithHaplotypeCallerAndWriteOutput(getAuthHolder(), ctx, getReads(), getHeaderForReads(), getReference(), intervals, hcArgs, shardingArgs, readDensity, numReducers, output);
     }
 
     @Override
@@ -143,6 +148,7 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
      * @param intervals the intervals to restrict calling to
      * @param hcArgs haplotype caller arguments
      * @param shardingArgs arguments to control how the assembly regions are sharded
+     * @param readDensity estimated read density, used to balance the read shards; may be null to use fixed-size shards
      * @param numReducers the number of reducers to use when sorting
      * @param output the output path for the VCF
      */
@@ -155,6 +161,7 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
             final List<SimpleInterval> intervals,
             final HaplotypeCallerArgumentCollection hcArgs,
             final ShardingArgumentCollection shardingArgs,
+            final ReadDensityHistogram readDensity,
             final int numReducers,
             final String output) {
         // Reads must be coordinate sorted to use the overlaps partitioner
@@ -163,7 +170,7 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
         final JavaRDD<GATKRead> coordinateSortedReads = SparkUtils.coordinateSortReads(reads, readsHeader, numReducers);
 
         final HaplotypeCallerEngine hcEngine = new HaplotypeCallerEngine(hcArgs, false, false, readsHeader, new ReferenceMultiSourceAdapter(reference, authHolder));
-        final JavaRDD<VariantContext> variants = callVariantsWithHaplotypeCaller(authHolder, ctx, coordinateSortedReads, readsHeader, reference, intervals, hcArgs, shardingArgs);
+        final JavaRDD<VariantContext> variants = callVariantsWithHaplotypeCaller(authHolder, ctx, coordinateSortedReads, readsHeader, reference, intervals, hcArgs, shardingArgs, readDensity);
         if (hcArgs.emitReferenceConfidence == ReferenceConfidenceMode.GVCF) {
             // VariantsSparkSink/Hadoop-BAM VCFOutputFormat do not support writing GVCF, see https://github.com/broadinstitute/gatk/issues/2738
             writeVariants(output, variants, hcEngine, readsHeader.getSequenceDictionary());
@@ -190,6 +197,7 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
      * @param intervals the intervals to restrict calling to
      * @param hcArgs haplotype caller arguments
      * @param shardingArgs arguments to control how the assembly regions are sharded
+     * @param readDensity estimated read density, used to balance the read shards; may be null to use fixed-size shards
      * @return an RDD of Variants
      */
     public static JavaRDD<VariantContext> callVariantsWithHaplotypeCaller(
@@ -200,7 +208,8 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
             final ReferenceMultiSource reference,
             final List<SimpleInterval> intervals,
             final HaplotypeCallerArgumentCollection hcArgs,
-            final ShardingArgumentCollection shardingArgs) {
+            final ShardingArgumentCollection shardingArgs,
+            final ReadDensityHistogram readDensity) {
         Utils.validateArg(hcArgs.dbsnp.dbsnp == null, "HaplotypeCallerSpark does not yet support -D or --dbsnp arguments" );
         Utils.validateArg(hcArgs.comps.isEmpty(), "HaplotypeCallerSpark does not yet support -comp or --comp arguments" );
         Utils.validateArg(hcArgs.bamOutputPath == null, "HaplotypeCallerSpark does not yet support -bamout or --bamOutput");
@@ -214,7 +223,9 @@ public final class HaplotypeCallerSpark extends GATKSparkTool {
         final VariantAnnotatorEngine variantAnnotatorEngine = VariantAnnotatorEngine.ofSelectedMinusExcluded(hcArgs.annotationGroupsToUse, hcArgs.annotationsToUse, hcArgs.annotationsToExclude, hcArgs.dbsnp.dbsnp, hcArgs.comps);
         final Broadcast<VariantAnnotatorEngine> annotatorEngineBroadcast = ctx.broadcast(variantAnnotatorEngine);
 
-        final List<ShardBoundary> shardBoundaries = getShardBoundaries(header, intervals, shardingArgs.readShardSize, shardingArgs.readShardPadding);
+        final List<ShardBoundary> shardBoundaries = readDensity != null ?
+                readDensity.divideIntervalsIntoShards(intervals, shardingArgs.readShardSize, shardingArgs.readShardPadding, header.getSequenceDictionary()) :
+                getShardBoundaries(header, intervals, shardingArgs.readShardSize, shardingArgs.readShardPadding);
 
         final int maxReadLength = reads.map(r -> r.getEnd() - r.getStart() + 1).reduce(Math::max);
 
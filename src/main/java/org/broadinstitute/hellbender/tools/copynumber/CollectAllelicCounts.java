@@ -7,16 +7,21 @@ import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.CopyNumberProgramGroup;
-import org.broadinstitute.hellbender.engine.AlignmentContext;
 import org.broadinstitute.hellbender.engine.FeatureContext;
-import org.broadinstitute.hellbender.engine.LocusWalker;
+import org.broadinstitute.hellbender.engine.ReadWalker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
 import org.broadinstitute.hellbender.engine.filters.MappingQualityReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
+import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
+import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
 import org.broadinstitute.hellbender.tools.copynumber.allelic.alleliccount.AllelicCountCollector;
-import org.broadinstitute.hellbender.utils.Nucleotide;
+import org.broadinstitute.hellbender.tools.copynumber.allelic.alleliccount.SparseAllelicCountCollector;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,6 +29,13 @@ import java.util.List;
  * and the alt nucleotide is defined as the non-ref base with the highest count, with ties broken by the order of the
  * bases in {@link AllelicCountCollector#BASES}.
  *
+ * <p>
+ *     Reads are streamed once and each is intersected with the sorted sites directly (see
+ *     {@link SparseAllelicCountCollector}), so that no pileup is built at every site.  Only bases aligned to the
+ *     reference with at least the minimum base quality are counted, from reads that pass the mapping-quality filter;
+ *     sites not covered by any read are reported with zero counts.
+ * </p>
+ *
  * <h3>Example</h3>
  *
  * <pre>
@@ -82,7 +94,7 @@ import java.util.List;
         programGroup = CopyNumberProgramGroup.class
 )
 @DocumentedFeature
-public final class CollectAllelicCounts extends LocusWalker {
+public final class CollectAllelicCounts extends ReadWalker {
 
     private static final Logger logger = LogManager.getLogger(CollectAllelicCounts.class);
 
@@ -104,10 +116,9 @@ public final class CollectAllelicCounts extends LocusWalker {
 
     private static final int DEFAULT_MINIMUM_MAPPING_QUALITY = 30;
 
-    private AllelicCountCollector allelicCountCollector = new AllelicCountCollector();
+    private SparseAllelicCountCollector allelicCountCollector;
 
-    @Override
-    public boolean emitEmptyLoci() {return true;}
+    private ReferenceDataSource referenceDataSource;
 
     @Override
     public boolean requiresReference() {return true;}
@@ -118,11 +129,16 @@ public final class CollectAllelicCounts extends LocusWalker {
     @Override
     public void onTraversalStart() {
         logger.info("Collecting allelic counts...");
+        referenceDataSource = ReferenceDataSource.of(referenceArguments.getReferenceFile());
+        final List<SimpleInterval> sites = intervalArgumentCollection.getIntervals(getBestAvailableSequenceDictionary());
+        allelicCountCollector = new SparseAllelicCountCollector(sites, minimumBaseQuality);
     }
 
     @Override
     public List<ReadFilter> getDefaultReadFilters() {
-        final List<ReadFilter> initialReadFilters = super.getDefaultReadFilters();
+        final List<ReadFilter> initialReadFilters = new ArrayList<>(3);
+        initialReadFilters.add(new WellformedReadFilter());
+        initialReadFilters.add(new ReadFilterLibrary.MappedReadFilter());
         initialReadFilters.add(new MappingQualityReadFilter(DEFAULT_MINIMUM_MAPPING_QUALITY));
 
         return initialReadFilters;
@@ -130,14 +146,20 @@ public final class CollectAllelicCounts extends LocusWalker {
 
     @Override
     public Object onTraversalSuccess() {
-        allelicCountCollector.getAllelicCounts().write(outputAllelicCountsFile);
+        allelicCountCollector.getAllelicCounts(referenceDataSource).write(outputAllelicCountsFile);
         logger.info("Allelic counts written to " + outputAllelicCountsFile.toString());
         return("SUCCESS");
     }
 
     @Override
-    public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
-        final byte refAsByte = referenceContext.getBase();
-        allelicCountCollector.collectAtLocus(Nucleotide.valueOf(refAsByte), alignmentContext.getBasePileup(), alignmentContext.getLocation(), minimumBaseQuality);
+    public void closeTool() {
+        if (referenceDataSource != null) {
+            referenceDataSource.close();
+        }
+    }
+
+    @Override
+    public void apply(GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext) {
+        allelicCountCollector.collectRead(read);
     }
 }
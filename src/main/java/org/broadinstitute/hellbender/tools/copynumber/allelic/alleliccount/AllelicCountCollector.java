@@ -12,6 +12,7 @@ import org.broadinstitute.hellbender.utils.pileup.ReadPileup;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.ToLongFunction;
 
 /**
  * Collects reference/alternate allele counts at specified sites.  The alt count is defined as the total count minus the ref count,
@@ -61,7 +62,7 @@ public final class AllelicCountCollector {
         final int totalBaseCount = BASES.stream().mapToInt(b -> (int) nucleotideCounter.get(b)).sum(); //only include total ACGT counts in binomial test (exclude N, etc.)
         final int refReadCount = (int) nucleotideCounter.get(refBase);
         final int altReadCount = totalBaseCount - refReadCount;                                 //we take alt = total - ref instead of the actual alt count
-        final Nucleotide altBase = inferAltFromPileupBaseCounts(nucleotideCounter, refBase);
+        final Nucleotide altBase = inferAltFromBaseCounts(nucleotideCounter::get, refBase);
 
         allelicCounts.add(new AllelicCount(
                 new SimpleInterval(locus.getContig(), locus.getStart(), locus.getEnd()),
@@ -81,11 +82,11 @@ public final class AllelicCountCollector {
      * Returns the non-ref base with highest count (if there is a tie, the first base in the order given in
      * {@link AllelicCountCollector#BASES} will be returned).
      */
-    private static Nucleotide inferAltFromPileupBaseCounts(final Nucleotide.Counter baseCounts,
-                                                           final Nucleotide refNucleotide) {
+    static Nucleotide inferAltFromBaseCounts(final ToLongFunction<Nucleotide> baseCounts,
+                                             final Nucleotide refNucleotide) {
         return BASES.stream()
                 .filter(b -> b != refNucleotide)
-                .sorted((b1, b2) -> Long.compare(baseCounts.get(b1), baseCounts.get(b2)))
+                .sorted((b1, b2) -> Long.compare(baseCounts.applyAsLong(b1), baseCounts.applyAsLong(b2)))
                 .findFirst().get();
     }
 }
@@ -3,8 +3,8 @@ package org.broadinstitute.hellbender.tools.copynumber.allelic.alleliccount;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.Nucleotide;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
-import org.broadinstitute.hellbender.utils.tsv.DataLine;
-import org.broadinstitute.hellbender.utils.tsv.TableReader;
+import org.broadinstitute.hellbender.utils.tsv.TypedDataLine;
+import org.broadinstitute.hellbender.utils.tsv.TypedTableReader;
 
 import java.io.File;
 import java.io.IOException;
@@ -16,14 +16,21 @@ import java.io.IOException;
  * @author Mehrtash Babadi &lt;mehrtash@broadinstitute.org&gt;
  * @author Samuel Lee &lt;slee@broadinstitute.org&gt;
  */
-final class AllelicCountReader extends TableReader<AllelicCount> {
+final class AllelicCountReader extends TypedTableReader<AllelicCount> {
 
     AllelicCountReader(final File file) throws IOException {
         super(file);
     }
 
     @Override
-    protected AllelicCount createRecord(final DataLine dataLine) {
+    protected ColumnType columnType(final String columnName) {
+        return columnName.equals(AllelicCountTableColumn.POSITION.name())
+                || columnName.equals(AllelicCountTableColumn.REF_COUNT.name())
+                || columnName.equals(AllelicCountTableColumn.ALT_COUNT.name()) ? ColumnType.INT : ColumnType.STRING;
+    }
+
+    @Override
+    protected AllelicCount createRecord(final TypedDataLine dataLine) {
         try {
             final String contig = dataLine.get(AllelicCountTableColumn.CONTIG);
             final int position = dataLine.getInt(AllelicCountTableColumn.POSITION);
@@ -1,8 +1,8 @@
 package org.broadinstitute.hellbender.tools.copynumber.allelic.alleliccount;
 
 import org.broadinstitute.hellbender.utils.Utils;
-import org.broadinstitute.hellbender.utils.tsv.DataLine;
-import org.broadinstitute.hellbender.utils.tsv.TableWriter;
+import org.broadinstitute.hellbender.utils.tsv.DataLineFormatter;
+import org.broadinstitute.hellbender.utils.tsv.TypedTableWriter;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,14 +14,14 @@ import java.io.IOException;
  * @author Samuel Lee &lt;slee@broadinstitute.org&gt;
  * @author Mehrtash Babadi &lt;mehrtash@broadinstitute.org&gt;
  */
-final class AllelicCountWriter extends TableWriter<AllelicCount> {
+final class AllelicCountWriter extends TypedTableWriter<AllelicCount> {
 
     AllelicCountWriter(final File file) throws IOException {
         super(file, AllelicCountTableColumn.COLUMNS);
     }
 
     @Override
-    protected void composeLine(final AllelicCount record, final DataLine dataLine) {
+    protected void composeLine(final AllelicCount record, final DataLineFormatter dataLine) {
         Utils.validateArg(record.getAltNucleotide() != null && record.getRefNucleotide() != null,
                 "AllelicCount must have all fields specified to be written to file.");
         dataLine.append(record.getInterval().getContig())
@@ -0,0 +1,260 @@
+package org.broadinstitute.hellbender.tools.copynumber.allelic.alleliccount;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.utils.Nucleotide;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects reference/alternate allele counts at specified sites by streaming over reads instead of pileups.
+ *
+ * <p>
+ *     Sites are kept per contig in sorted primitive arrays, and each read is intersected with them using a cursor
+ *     that only moves forward as long as reads arrive in coordinate order.  Only the aligned blocks of a read that
+ *     overlap a site are visited, so the cost per read is proportional to the number of sites it covers rather
+ *     than to its length, and no per-locus pileup objects are created.
+ * </p>
+ *
+ * <p>
+ *     Counts are identical to those of {@link AllelicCountCollector} applied to the pileups that a
+ *     {@link org.broadinstitute.hellbender.engine.LocusWalker} produces with default settings: only bases aligned to
+ *     the reference (M, = and X cigar operators) with quality at least the minimum base quality are counted,
+ *     bases inside adaptors are ignored, and the alt nucleotide is chosen in the same way.  Read-level filtering
+ *     (e.g., by mapping quality) must be done by the caller.
+ * </p>
+ */
+public final class SparseAllelicCountCollector {
+
+    private static final Logger logger = LogManager.getLogger(SparseAllelicCountCollector.class);
+
+    private static final int NUMBER_OF_BASES = AllelicCountCollector.BASES.size();
+
+    /**
+     * Index in {@link AllelicCountCollector#BASES} of each {@link Nucleotide} by ordinal, or -1 if not one of them.
+     */
+    private static final int[] BASE_INDEX_BY_NUCLEOTIDE_ORDINAL = new int[Nucleotide.values().length];
+
+    static {
+        Arrays.fill(BASE_INDEX_BY_NUCLEOTIDE_ORDINAL, -1);
+        for (int i = 0; i < NUMBER_OF_BASES; i++) {
+            BASE_INDEX_BY_NUCLEOTIDE_ORDINAL[AllelicCountCollector.BASES.get(i).ordinal()] = i;
+        }
+    }
+
+    private final List<SimpleInterval> sites;
+    private final int minBaseQuality;
+
+    /**
+     * Index of the first position of each site in the flattened list of all positions covered by the sites.
+     */
+    private final int[] siteOffsets;
+
+    /**
+     * Base counts, {@link #NUMBER_OF_BASES} consecutive entries per position in the flattened list of positions.
+     */
+    private final int[] baseCounts;
+
+    private final Map<String, ContigSites> sitesByContig = new LinkedHashMap<>();
+
+    /**
+     * @param sites sites at which to collect counts, each of which may span several positions.  Sites on the same
+     *              contig must not overlap.  Counts are reported in the same order.  Not {@code null}
+     * @param minBaseQuality minimum base quality in the read for that read to count at a position.  Must be greater than or equal to 0.
+     */
+    public SparseAllelicCountCollector(final List<SimpleInterval> sites, final int minBaseQuality) {
+        Utils.nonNull(sites);
+        ParamUtils.isPositiveOrZero(minBaseQuality, "Minimum base quality must be zero or higher.");
+        this.sites = new ArrayList<>(sites);
+        this.minBaseQuality = minBaseQuality;
+
+        siteOffsets = new int[this.sites.size()];
+        final Map<String, List<Integer>> siteIndicesByContig = new LinkedHashMap<>();
+        long numberOfPositions = 0;
+        for (int i = 0; i < this.sites.size(); i++) {
+            final SimpleInterval site = Utils.nonNull(this.sites.get(i), "Sites cannot contain null.");
+            siteOffsets[i] = (int) numberOfPositions;
+            numberOfPositions += site.size();
+            Utils.validateArg(numberOfPositions * NUMBER_OF_BASES <= Integer.MAX_VALUE,
+                    "Sites cover too many positions to be counted at once.");
+            siteIndicesByContig.computeIfAbsent(site.getContig(), c -> new ArrayList<>()).add(i);
+        }
+        baseCounts = new int[(int) numberOfPositions * NUMBER_OF_BASES];
+
+        for (final Map.Entry<String, List<Integer>> entry : siteIndicesByContig.entrySet()) {
+            final List<Integer> siteIndices = entry.getValue();
+            siteIndices.sort(Comparator.comparingInt(i -> this.sites.get(i).getStart()));
+            final ContigSites contigSites = new ContigSites(siteIndices.size());
+            for (int j = 0; j < siteIndices.size(); j++) {
+                final SimpleInterval site = this.sites.get(siteIndices.get(j));
+                Utils.validateArg(j == 0 || site.getStart() > contigSites.ends[j - 1],
+                        () -> String.format("Sites must not overlap: %s overlaps the previous site on the same contig.", site));
+                contigSites.starts[j] = site.getStart();
+                contigSites.ends[j] = site.getEnd();
+                contigSites.offsets[j] = siteOffsets[siteIndices.get(j)];
+            }
+            sitesByContig.put(entry.getKey(), contigSites);
+        }
+    }
+
+    /**
+     * Add the bases of a read at the sites it overlaps.  Reads are expected in coordinate order for best performance,
+     * but any order gives the same counts.
+     *
+     * @param read mapped read.  Not {@code null}
+     */
+    public void collectRead(final GATKRead read) {
+        Utils.nonNull(read);
+        if (read.isUnmapped()) {
+            return;
+        }
+        final ContigSites contigSites = sitesByContig.get(read.getContig());
+        if (contigSites == null) {
+            return;
+        }
+        final int readEnd = read.getEnd();
+        int site = contigSites.moveCursor(read.getStart());
+        if (site == contigSites.size() || contigSites.starts[site] > readEnd) {
+            return;
+        }
+
+        int referencePosition = read.getStart();
+        int readOffset = 0;
+        for (final CigarElement element : read.getCigarElements()) {
+            final CigarOperator operator = element.getOperator();
+            final int length = element.getLength();
+            if (operator.consumesReadBases() && operator.consumesReferenceBases()) {
+                final int blockEnd = referencePosition + length - 1;
+                while (site < contigSites.size() && contigSites.ends[site] < referencePosition) {
+                    site++;
+                }
+                for (int s = site; s < contigSites.size() && contigSites.starts[s] <= blockEnd; s++) {
+                    final int from = Math.max(contigSites.starts[s], referencePosition);
+                    final int to = Math.min(contigSites.ends[s], blockEnd);
+                    for (int position = from; position <= to; position++) {
+                        final int offsetInRead = readOffset + position - referencePosition;
+                        countBase(read, position, read.getBase(offsetInRead), read.getBaseQuality(offsetInRead),
+                                contigSites.offsets[s] + position - contigSites.starts[s]);
+                    }
+                }
+                if (site == contigSites.size() || contigSites.starts[site] > readEnd) {
+                    return;
+                }
+            }
+            if (operator.consumesReadBases()) {
+                readOffset += length;
+            }
+            if (operator.consumesReferenceBases()) {
+                referencePosition += length;
+            }
+        }
+    }
+
+    private void countBase(final GATKRead read, final int position, final byte base, final byte quality,
+                           final int positionIndex) {
+        if (quality < minBaseQuality || ReadUtils.isBaseInsideAdaptor(read, position)) {
+            return;
+        }
+        final int baseIndex = BASE_INDEX_BY_NUCLEOTIDE_ORDINAL[Nucleotide.valueOf(base).ordinal()];
+        if (baseIndex >= 0) {
+            baseCounts[positionIndex * NUMBER_OF_BASES + baseIndex]++;
+        }
+    }
+
+    /**
+     * Get the allelic counts gathered so far, one per position covered by the sites in the order they were given.
+     * Positions with an unknown reference base are skipped.
+     *
+     * @param reference source of the reference bases at the sites.  Not {@code null}
+     * @return a new AllelicCountCollection
+     */
+    public AllelicCountCollection getAllelicCounts(final ReferenceDataSource reference) {
+        Utils.nonNull(reference);
+        final AllelicCountCollection allelicCounts = new AllelicCountCollection();
+        for (int i = 0; i < sites.size(); i++) {
+            final SimpleInterval site = sites.get(i);
+            final byte[] referenceBases = reference.queryAndPrefetch(site).getBases();
+            for (int position = site.getStart(); position <= site.getEnd(); position++) {
+                final SimpleInterval locus = new SimpleInterval(site.getContig(), position, position);
+                final Nucleotide refBase = Nucleotide.valueOf(referenceBases[position - site.getStart()]);
+                final int refBaseIndex = BASE_INDEX_BY_NUCLEOTIDE_ORDINAL[refBase.ordinal()];
+                if (refBaseIndex < 0) {
+                    logger.warn(String.format("The reference position at %s has an unknown base call (value: %s). Skipping...",
+                            locus, refBase.toString()));
+                    continue;
+                }
+                final int countsOffset = (siteOffsets[i] + position - site.getStart()) * NUMBER_OF_BASES;
+                int totalBaseCount = 0;
+                for (int b = 0; b < NUMBER_OF_BASES; b++) {
+                    totalBaseCount += baseCounts[countsOffset + b];
+                }
+                final int refReadCount = baseCounts[countsOffset + refBaseIndex];
+                final Nucleotide altBase = AllelicCountCollector.inferAltFromBaseCounts(
+                        b -> baseCounts[countsOffset + BASE_INDEX_BY_NUCLEOTIDE_ORDINAL[b.ordinal()]], refBase);
+                allelicCounts.add(new AllelicCount(locus, refReadCount, totalBaseCount - refReadCount, refBase, altBase));
+            }
+        }
+        return allelicCounts;
+    }
+
+    /**
+     * Sites on a single contig sorted by start, with a cursor pointing to the first site that may overlap
+     * the next read.
+     */
+    private static final class ContigSites {
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] offsets;
+        private int cursor = 0;
+        private int lastReadStart = 0;
+
+        private ContigSites(final int size) {
+            starts = new int[size];
+            ends = new int[size];
+            offsets = new int[size];
+        }
+
+        private int size() {
+            return starts.length;
+        }
+
+        /**
+         * Moves the cursor to the first site that ends at or after a read start and returns it.  The cursor only
+         * moves forward when reads are in coordinate order; otherwise it is repositioned by binary search.
+         */
+        private int moveCursor(final int readStart) {
+            if (readStart < lastReadStart) {
+                int low = 0;
+                int high = size();
+                while (low < high) {
+                    final int middle = (low + high) >>> 1;
+                    if (ends[middle] < readStart) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                cursor = low;
+            } else {
+                while (cursor < size() && ends[cursor] < readStart) {
+                    cursor++;
+                }
+            }
+            lastReadStart = readStart;
+            return cursor;
+        }
+    }
+}
@@ -128,6 +128,10 @@ public final class CoverageModelArgumentCollection {
     public static final String NUMBER_OF_TARGET_SPACE_PARTITIONS_SHORT_NAME = "NTSP";
     public static final String NUMBER_OF_TARGET_SPACE_PARTITIONS_LONG_NAME = "numTargetSpacePartitions";
 
+    public static final int DEFAULT_NUMBER_OF_LOCAL_THREADS = 1;
+    public static final String NUMBER_OF_LOCAL_THREADS_SHORT_NAME = "NLT";
+    public static final String NUMBER_OF_LOCAL_THREADS_LONG_NAME = "numLocalThreads";
+
     public static final int DEFAULT_MIN_LEARNING_READ_COUNT = 5;
     public static final String MIN_LEARNING_READ_COUNT_SHORT_NAME = "MLRC";
     public static final String MIN_LEARNING_READ_COUNT_LONG_NAME = "minimumLearningReadCount";
@@ -315,6 +319,9 @@ public final class CoverageModelArgumentCollection {
     public static final String RUN_CHECKPOINTING_PATH_SHORT_NAME = "RCPP";
     public static final String RUN_CHECKPOINTING_PATH_LONG_NAME = "runCheckpointingPath";
 
+    public static final String RESUME_CHECKPOINT_PATH_SHORT_NAME = "RSCP";
+    public static final String RESUME_CHECKPOINT_PATH_LONG_NAME = "resumeCheckpointPath";
+
     public static final boolean DEFAULT_EXTENDED_POSTERIOR_OUTPUT_ENABLED = true;
     public static final String EXTENDED_POSTERIOR_OUTPUT_ENABLED_SHORT_NAME = "XPO";
     public static final String EXTENDED_POSTERIOR_OUTPUT_ENABLED_LONG_NAME = "extendedPosteriorOutputEnabled";
@@ -666,7 +673,7 @@ public final class CoverageModelArgumentCollection {
     protected boolean rddCheckpointingEnabled = DEFAULT_RDD_CHECKPOINTING_ENABLED;
 
     @Argument(
-            doc = "Enable model checkpointing",
+            doc = "Enable model checkpointing (saves the model, the posteriors, and a restartable EM state)",
             shortName = RUN_CHECKPOINTING_ENABLED_SHORT_NAME,
             fullName = RUN_CHECKPOINTING_ENABLED_LONG_NAME,
             optional = true
@@ -722,6 +729,17 @@ public final class CoverageModelArgumentCollection {
     )
     protected String runCheckpointingPath = DEFAULT_RUN_CHECKPOINTING_PATH;
 
+    @Argument(
+            doc = "Path to an EM state checkpoint to resume the run from (one of the " +
+                    CoverageModelGlobalConstants.EM_STATE_CHECKPOINT_PATH_PREFIX + "_iter_* directories saved in " +
+                    "the model checkpointing path). The run must be given the same inputs and arguments as the " +
+                    "one that saved the checkpoint.",
+            shortName = RESUME_CHECKPOINT_PATH_SHORT_NAME,
+            fullName = RESUME_CHECKPOINT_PATH_LONG_NAME,
+            optional = true
+    )
+    protected String resumeCheckpointPath = null;
+
     @Advanced
     @Argument(
             doc = "Enable extended posterior output",
@@ -733,13 +751,24 @@ public final class CoverageModelArgumentCollection {
 
     @Advanced
     @Argument(
-            doc = "Number of target space partitions (for spark mode)",
+            doc = "Number of target space partitions (the RDD partitions in the spark mode, or the compute blocks " +
+                    "shared among the local threads in the local mode; ignored in the local mode unless " +
+                    NUMBER_OF_LOCAL_THREADS_LONG_NAME + " is greater than one)",
             shortName = NUMBER_OF_TARGET_SPACE_PARTITIONS_SHORT_NAME,
             fullName = NUMBER_OF_TARGET_SPACE_PARTITIONS_LONG_NAME,
             optional = true
     )
     protected int numTargetSpacePartitions = DEFAULT_NUMBER_OF_TARGET_SPACE_PARTITIONS;
 
+    @Advanced
+    @Argument(
+            doc = "Number of threads for concurrent processing of the target space partitions (for local mode)",
+            shortName = NUMBER_OF_LOCAL_THREADS_SHORT_NAME,
+            fullName = NUMBER_OF_LOCAL_THREADS_LONG_NAME,
+            optional = true
+    )
+    protected int numLocalThreads = DEFAULT_NUMBER_OF_LOCAL_THREADS;
+
     @Argument(
             doc = "Enable automatic relevance determination (ARD) of bias covariates",
             shortName = ARD_ENABLED_SHORT_NAME,
@@ -934,6 +963,14 @@ public final class CoverageModelArgumentCollection {
         return rddCheckpointingPath;
     }
 
+    public boolean isResumeFromCheckpointEnabled() {
+        return resumeCheckpointPath != null;
+    }
+
+    public String getResumeCheckpointPath() {
+        return resumeCheckpointPath;
+    }
+
     public boolean extendedPosteriorOutputEnabled() {
         return extendedPosteriorOutputEnabled;
     }
@@ -942,6 +979,10 @@ public final class CoverageModelArgumentCollection {
         return numTargetSpacePartitions;
     }
 
+    public int getNumLocalThreads() {
+        return numLocalThreads;
+    }
+
     public int getSampleSpecificVarianceSolverRefinementDepth() {
         return sampleSpecificVarianceSolverRefinementDepth;
     }
@@ -1041,6 +1082,7 @@ public final class CoverageModelArgumentCollection {
         Utils.nonNull(runCheckpointingPath, "Run checkpointing path must be non-null");
         Utils.nonNull(rddCheckpointingPath, "RDD checkpointing path must be non-null");
         ParamUtils.isPositive(numTargetSpacePartitions, "Number of target space partitions must be positive");
+        ParamUtils.isPositive(numLocalThreads, "Number of local threads must be positive");
         ParamUtils.isPositive(minLearningReadCount, "The minimum learning read count must be positive");
         ParamUtils.isPositive(minPCAInitializationReadCount, "The minimum PCA initialization read count must be positive");
         ParamUtils.isPositiveOrZero(mappingErrorRate, "The mapping error rate must be non-negative");
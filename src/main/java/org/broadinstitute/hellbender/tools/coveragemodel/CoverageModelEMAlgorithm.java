@@ -4,13 +4,19 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.hmm.interfaces.AlleleMetadataProducer;
 import org.broadinstitute.hellbender.utils.hmm.interfaces.CallStringProducer;
 import org.broadinstitute.hellbender.utils.hmm.interfaces.ScalarProducer;
 
 import javax.annotation.Nonnull;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.function.Function;
@@ -25,6 +31,10 @@ import java.util.function.Supplier;
  * (2) Calculating posterior expectations for the model parameters already existing in the workspace
  *     via calling {@link CoverageModelEMAlgorithm {@link #runExpectation()}}
  *
+ * If run checkpointing is enabled, a restartable snapshot of the workspace and the control state of the
+ * algorithm is saved along with the model and posteriors checkpoints. Either run can be resumed from such
+ * a snapshot by specifying it as the resume checkpoint path in the configuration.
+ *
  * (see CNV-methods.pdf for technical details).
  *
  * This class does not store or perform any of the calculations. Rather, it controls the flow of the EM
@@ -145,6 +155,18 @@ public final class CoverageModelEMAlgorithm<STATE extends AlleleMetadataProducer
         boolean paramEstimationConverged = false;
         boolean performMStep = true;
 
+        if (config.isResumeFromCheckpointEnabled()) {
+            final EMAlgorithmState state = restoreFromCheckpoint(true);
+            iterInfo.iter = state.iter;
+            prevMStepLikelihood = state.prevLogLikelihood;
+            latestMStepLikelihood = state.latestLogLikelihood;
+            updateCopyRatioPosteriors = state.updateCopyRatioPosteriors;
+            updateARDCoefficients = state.updateARDCoefficients;
+            paramEstimationConverged = state.paramEstimationConverged;
+            performMStep = state.performMStep;
+            currentTargetSpecificVarianceUpdateMode = state.targetSpecificVarianceUpdateMode;
+        }
+
         while (iterInfo.iter <= config.getMaxEMIterations()) {
 
             /* cycle through E-step mean-field equations until they are satisfied to the desired degree */
@@ -301,8 +323,13 @@ public final class CoverageModelEMAlgorithm<STATE extends AlleleMetadataProducer
                         String.format("%s_iter_%d", CoverageModelGlobalConstants.MODEL_CHECKPOINT_PATH_PREFIX, iterInfo.iter)).getAbsolutePath();
                 final String posteriorOutputAbsolutePath = new File(config.getRunCheckpointingPath(),
                         String.format("%s_iter_%d", CoverageModelGlobalConstants.POSTERIOR_CHECKPOINT_PATH_PREFIX, iterInfo.iter)).getAbsolutePath();
+                final String checkpointOutputAbsolutePath = new File(config.getRunCheckpointingPath(),
+                        String.format("%s_iter_%d", CoverageModelGlobalConstants.EM_STATE_CHECKPOINT_PATH_PREFIX, iterInfo.iter)).getAbsolutePath();
                 saveModel(modelOutputAbsolutePath);
                 savePosteriors(posteriorOutputAbsolutePath, CoverageModelEMWorkspace.PosteriorVerbosityLevel.BASIC);
+                saveCheckpoint(checkpointOutputAbsolutePath, new EMAlgorithmState(true, iterInfo.iter,
+                        prevMStepLikelihood, latestMStepLikelihood, updateCopyRatioPosteriors, updateARDCoefficients,
+                        paramEstimationConverged, performMStep, currentTargetSpecificVarianceUpdateMode));
             }
         }
 
@@ -330,6 +357,13 @@ public final class CoverageModelEMAlgorithm<STATE extends AlleleMetadataProducer
         /* disable copy ratio posterior calculation until bias estimation is stabilized */
         boolean updateCopyRatioPosteriors = false;
 
+        if (config.isResumeFromCheckpointEnabled()) {
+            final EMAlgorithmState state = restoreFromCheckpoint(false);
+            iterInfo.iter = state.iter;
+            latestEStepLikelihood = state.latestLogLikelihood;
+            updateCopyRatioPosteriors = state.updateCopyRatioPosteriors;
+        }
+
         while (iterInfo.iter <= config.getMaxEMIterations()) {
 
             /* cycle through E-step mean-field equations until they are satisfied to the desired degree */
@@ -394,8 +428,13 @@ public final class CoverageModelEMAlgorithm<STATE extends AlleleMetadataProducer
             if (config.isRunCheckpointingEnabled() && iterInfo.iter % config.getRunCheckpointingInterval() == 0) {
                 final String posteriorOutputAbsolutePath = new File(config.getRunCheckpointingPath(),
                         String.format("%s_iter_%d", CoverageModelGlobalConstants.POSTERIOR_CHECKPOINT_PATH_PREFIX, iterInfo.iter)).getAbsolutePath();
+                final String checkpointOutputAbsolutePath = new File(config.getRunCheckpointingPath(),
+                        String.format("%s_iter_%d", CoverageModelGlobalConstants.EM_STATE_CHECKPOINT_PATH_PREFIX, iterInfo.iter)).getAbsolutePath();
                 /* the following will automatically create the directory if it doesn't exist */
                 savePosteriors(posteriorOutputAbsolutePath, CoverageModelEMWorkspace.PosteriorVerbosityLevel.BASIC);
+                saveCheckpoint(checkpointOutputAbsolutePath, new EMAlgorithmState(false, iterInfo.iter,
+                        prevEStepLikelihood, latestEStepLikelihood, updateCopyRatioPosteriors, false, false, false,
+                        config.getTargetSpecificVarianceUpdateMode()));
             }
         }
 
@@ -510,6 +549,43 @@ public final class CoverageModelEMAlgorithm<STATE extends AlleleMetadataProducer
         workspace.writePosteriors(posteriorOutputPath, verbosity);
     }
 
+    /**
+     * Saves a restartable snapshot of the workspace along with the control state of the algorithm
+     *
+     * @param checkpointOutputPath where to save
+     * @param state the control state of the algorithm
+     */
+    private void saveCheckpoint(final String checkpointOutputPath, final EMAlgorithmState state) {
+        workspace.writeCheckpoint(checkpointOutputPath);
+        state.write(new File(checkpointOutputPath, CoverageModelGlobalConstants.EM_ALGORITHM_STATE_CHECKPOINT_FILENAME));
+    }
+
+    /**
+     * Restores the workspace from the resume checkpoint given in the configuration and loads the control
+     * state of the algorithm
+     *
+     * @param expectationMaximization whether the checkpoint is to be resumed by the full EM algorithm (true)
+     *                                or by the E-step only algorithm (false)
+     * @return the control state of the algorithm
+     */
+    private EMAlgorithmState restoreFromCheckpoint(final boolean expectationMaximization) {
+        final String checkpointPath = config.getResumeCheckpointPath();
+        final EMAlgorithmState state = EMAlgorithmState.read(new File(checkpointPath,
+                CoverageModelGlobalConstants.EM_ALGORITHM_STATE_CHECKPOINT_FILENAME));
+        if (state.expectationMaximization != expectationMaximization) {
+            throw new UserException.BadInput(String.format("The checkpoint %s was saved by a %s run and can not be" +
+                    " resumed by a %s run", checkpointPath, getRunName(state.expectationMaximization),
+                    getRunName(expectationMaximization)));
+        }
+        workspace.restoreFromCheckpoint(checkpointPath);
+        logger.info("Resuming from iteration " + state.iter);
+        return state;
+    }
+
+    private static String getRunName(final boolean expectationMaximization) {
+        return expectationMaximization ? "expectation-maximization" : "expectation-only";
+    }
+
     /**
      * This enum represents the status of the EM algorithm
      */
@@ -567,4 +643,62 @@ public final class CoverageModelEMAlgorithm<STATE extends AlleleMetadataProducer
             iter++;
         }
     }
+
+    /**
+     * This class stores the control state of a run of the EM algorithm that is required for resuming it
+     * from a checkpoint, i.e. the iteration count, the latest log likelihoods, and the adaptively changing flags
+     */
+    private static final class EMAlgorithmState {
+        private final boolean expectationMaximization;
+        private final int iter;
+        private final double prevLogLikelihood;
+        private final double latestLogLikelihood;
+        private final boolean updateCopyRatioPosteriors;
+        private final boolean updateARDCoefficients;
+        private final boolean paramEstimationConverged;
+        private final boolean performMStep;
+        private final CoverageModelArgumentCollection.TargetSpecificVarianceUpdateMode targetSpecificVarianceUpdateMode;
+
+        EMAlgorithmState(final boolean expectationMaximization, final int iter,
+                         final double prevLogLikelihood, final double latestLogLikelihood,
+                         final boolean updateCopyRatioPosteriors, final boolean updateARDCoefficients,
+                         final boolean paramEstimationConverged, final boolean performMStep,
+                         @Nonnull final CoverageModelArgumentCollection.TargetSpecificVarianceUpdateMode targetSpecificVarianceUpdateMode) {
+            this.expectationMaximization = expectationMaximization;
+            this.iter = iter;
+            this.prevLogLikelihood = prevLogLikelihood;
+            this.latestLogLikelihood = latestLogLikelihood;
+            this.updateCopyRatioPosteriors = updateCopyRatioPosteriors;
+            this.updateARDCoefficients = updateARDCoefficients;
+            this.paramEstimationConverged = paramEstimationConverged;
+            this.performMStep = performMStep;
+            this.targetSpecificVarianceUpdateMode = Utils.nonNull(targetSpecificVarianceUpdateMode);
+        }
+
+        void write(@Nonnull final File outputFile) {
+            try (final DataOutputStream dos = new DataOutputStream(new FileOutputStream(outputFile))) {
+                dos.writeBoolean(expectationMaximization);
+                dos.writeInt(iter);
+                dos.writeDouble(prevLogLikelihood);
+                dos.writeDouble(latestLogLikelihood);
+                dos.writeBoolean(updateCopyRatioPosteriors);
+                dos.writeBoolean(updateARDCoefficients);
+                dos.writeBoolean(paramEstimationConverged);
+                dos.writeBoolean(performMStep);
+                dos.writeUTF(targetSpecificVarianceUpdateMode.name());
+            } catch (final IOException ex) {
+                throw new UserException.CouldNotCreateOutputFile(outputFile, "Could not write the EM algorithm state", ex);
+            }
+        }
+
+        static EMAlgorithmState read(@Nonnull final File inputFile) {
+            try (final DataInputStream dis = new DataInputStream(new FileInputStream(inputFile))) {
+                return new EMAlgorithmState(dis.readBoolean(), dis.readInt(), dis.readDouble(), dis.readDouble(),
+                        dis.readBoolean(), dis.readBoolean(), dis.readBoolean(), dis.readBoolean(),
+                        CoverageModelArgumentCollection.TargetSpecificVarianceUpdateMode.valueOf(dis.readUTF()));
+            } catch (final IOException | IllegalArgumentException ex) {
+                throw new UserException.CouldNotReadInputFile(inputFile, "Could not read the EM algorithm state", ex);
+            }
+        }
+    }
 }
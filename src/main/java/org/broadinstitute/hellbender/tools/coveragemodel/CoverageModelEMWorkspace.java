@@ -57,7 +57,10 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -86,7 +89,7 @@ import java.util.stream.Stream;
  * @author Mehrtash Babadi &lt;mehrtash@broadinstitute.org&gt;
  */
 public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer & CallStringProducer &
-        ScalarProducer> {
+        ScalarProducer> implements AutoCloseable {
 
     private static final Logger logger = LogManager.getLogger(CoverageModelEMWorkspace.class);
 
@@ -185,10 +188,20 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
 
     /* END --- Spark-related members */
 
+    /* Local-mode members --- BEGIN */
+
+    /**
+     * The latest compute blocks for the local mode, in the same order as {@link #targetBlocks}
+     */
+    private List<CoverageModelEMComputeBlock> localComputeBlocks;
+
     /**
-     * An instance of {@link CoverageModelEMComputeBlock} for the local mode
+     * The thread pool that processes {@link #localComputeBlocks} concurrently (null if the local mode is
+     * single-threaded or Spark is available)
      */
-    private CoverageModelEMComputeBlock localComputeBlock;
+    private final ForkJoinPool localComputePool;
+
+    /* END --- Local-mode members */
 
     /**
      * Number of target-space blocks
@@ -362,13 +375,22 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
                 rawReadCounts.targets().size(), numTargets));
 
         this.ctx = ctx;
-        if (ctx == null) {
-            sparkContextIsAvailable = false;
-            this.numTargetBlocks = 1;
-        } else {
-            sparkContextIsAvailable = true;
+        sparkContextIsAvailable = ctx != null;
+        /* the local mode uses a single target-space block unless it is multi-threaded */
+        if (sparkContextIsAvailable || config.getNumLocalThreads() > 1) {
             this.numTargetBlocks = ParamUtils.inRange(config.getNumTargetSpacePartitions(), 1, numTargets,
                     "Number of target blocks must be between 1 and the size of target space.");
+        } else {
+            this.numTargetBlocks = 1;
+        }
+        if (!sparkContextIsAvailable && config.getNumLocalThreads() > 1 && numTargetBlocks > 1) {
+            localComputePool = new ForkJoinPool(config.getNumLocalThreads());
+        } else {
+            localComputePool = null;
+        }
+        if (!sparkContextIsAvailable && config.getNumLocalThreads() > numTargetBlocks) {
+            logger.warn(String.format("Only %d target space partition(s) are available to the %d local threads; " +
+                    "consider increasing the number of target space partitions.", numTargetBlocks, config.getNumLocalThreads()));
         }
 
         /* allocate memory and initialize driver-node copy of posteriors */
@@ -2053,8 +2075,8 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
     }
 
     /**
-     * Instantiate compute block(s). If Spark is disabled, a single {@link CoverageModelEMComputeBlock} is
-     * instantiated. Otherwise, a {@link JavaPairRDD} of compute nodes will be created.
+     * Instantiate compute block(s). If Spark is disabled, a list of {@link CoverageModelEMComputeBlock}, one for
+     * each target-space block, is instantiated. Otherwise, a {@link JavaPairRDD} of compute nodes will be created.
      */
     private void instantiateWorkers() {
         if (sparkContextIsAvailable) {
@@ -2066,8 +2088,10 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
                     .partitionBy(new HashPartitioner(numTargetBlocks))
                     .cache();
         } else {
-            logger.info("Initializing a local compute block");
-            localComputeBlock = new CoverageModelEMComputeBlock(targetBlocks.get(0), numSamples, numLatents, ardEnabled);
+            logger.info("Initializing local compute block(s)");
+            localComputeBlocks = targetBlockStream()
+                    .map(tb -> new CoverageModelEMComputeBlock(tb, numSamples, numLatents, ardEnabled))
+                    .collect(Collectors.toList());
         }
         prevCheckpointedComputeRDD = null;
         cacheCallCounter = 0;
@@ -2083,10 +2107,9 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      *
      * If Spark is disabled:
      *
-     *      Only a single target-space block is assumed, such that {@code data} is a singleton. The map function
-     *      {@code mapper} will be called on the value contained in {@code data} and {@link #localComputeBlock}, and
-     *      the old instance of {@link CoverageModelEMComputeBlock} is replaced with the new instance returned
-     *      by {@code mapper.}
+     *      The map function {@code mapper} will be called on each of {@link #localComputeBlocks} together with the
+     *      value in {@code data} keyed by its target-space block, and the old instances of
+     *      {@link CoverageModelEMComputeBlock} are replaced with the new instances returned by {@code mapper}
      *
      * @param data the list to joined and mapped together with the compute block(s)
      * @param mapper a mapper binary function that takes a compute block together with an object of type {@code V} and
@@ -2101,12 +2124,10 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
                     ctx.parallelizePairs(data, numTargetBlocks).partitionBy(new HashPartitioner(numTargetBlocks));
             computeRDD = computeRDD.join(newRDD).mapValues(mapper);
         } else {
-            try {
-                Utils.validateArg(data.size() == 1, "Only a single data block is expected in the local mode");
-                localComputeBlock = mapper.call(new Tuple2<>(localComputeBlock, data.get(0)._2));
-            } catch (Exception e) {
-                throw new RuntimeException("Can not apply the map function to the local compute block: " + e.getMessage());
-            }
+            Utils.validateArg(data.size() == targetBlocks.size(), "A data block is expected for each local compute block");
+            final Map<LinearlySpacedIndexBlock, V> dataMap = data.stream()
+                    .collect(Collectors.toMap(Tuple2::_1, Tuple2::_2));
+            localComputeBlocks = mapLocalComputeBlocks(cb -> mapper.call(new Tuple2<>(cb, dataMap.get(cb.getTargetSpaceBlock()))));
         }
     }
 
@@ -2120,8 +2141,8 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      *
      * If Spark is disabled:
      *
-     *      Only a single target-space block is assumed; the map is applied to {@link #localComputeBlock} and the
-     *      reference is updated accordingly
+     *      The map is applied to each of {@link #localComputeBlocks} (concurrently, if more than one local thread
+     *      is requested) and the references are updated accordingly
      *
      * @param mapper a map from {@link CoverageModelEMComputeBlock} onto itself
      */
@@ -2130,11 +2151,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
         if (sparkContextIsAvailable) {
             computeRDD = computeRDD.mapValues(mapper);
         } else {
-            try {
-                localComputeBlock = mapper.call(localComputeBlock);
-            } catch (final Exception ex) {
-                throw new RuntimeException("Can not apply the map function to the local compute block", ex);
-            }
+            localComputeBlocks = mapLocalComputeBlocks(mapper);
         }
     }
 
@@ -2147,7 +2164,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      *
      * If Spark is disabled:
      *
-     *      The list will be singleton
+     *      The size of the list is the same as the number of local compute blocks
      *
      * @param mapper a map function from {@link CoverageModelEMComputeBlock} to a generic type
      * @param <V> the return type of the map function
@@ -2158,11 +2175,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
         if (sparkContextIsAvailable) {
             return computeRDD.values().map(mapper).collect();
         } else {
-            try {
-                return Collections.singletonList(mapper.call(localComputeBlock));
-            } catch (final Exception ex) {
-                throw new RuntimeException("Can not apply the map function to the local compute block", ex);
-            }
+            return mapLocalComputeBlocks(mapper);
         }
     }
 
@@ -2175,7 +2188,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      *
      * If Spark is disabled:
      *
-     *      Call on the map and reduce on {@link #localComputeBlock}
+     *      Map each of {@link #localComputeBlocks} and reduce the results in the order of the target-space blocks
      *
      * @param mapper a map from {@link CoverageModelEMComputeBlock} to a generic type
      * @param reducer a generic symmetric reducer binary function from (V, V) -> V
@@ -2188,12 +2201,16 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
         if (sparkContextIsAvailable) {
             return computeRDD.values().map(mapper).reduce(reducer);
         } else {
-            try {
-                return mapper.call(localComputeBlock);
-            } catch (final Exception ex) {
-                throw new RuntimeException("Can not apply the map function to the local compute block", ex);
+            final List<V> mapped = mapLocalComputeBlocks(mapper);
+            V result = mapped.get(0);
+            for (int i = 1; i < mapped.size(); i++) {
+                try {
+                    result = reducer.call(result, mapped.get(i));
+                } catch (final Exception ex) {
+                    throw new RuntimeException("Can not apply the reduce function to the local compute blocks", ex);
+                }
             }
-
+            return result;
         }
     }
 
@@ -2207,7 +2224,8 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      *
      * If Spark is disabled:
      *
-     *      The {@param pusher} function will be called together with {@param obj} and {@link #localComputeBlock}
+     *      The {@param pusher} function will be called together with {@param obj} and each of {@link #localComputeBlocks};
+     *      {@param obj} is shared between the blocks and must not be modified by {@param pusher}
      *
      * @param obj te object to broadcast
      * @param pusher a map from (V, {@link CoverageModelEMComputeBlock}) -> {@link CoverageModelEMComputeBlock} that
@@ -2223,11 +2241,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
                     cb -> pusher.call(broadcastedObj.value(), cb);
             mapWorkers(mapper);
         } else {
-            try {
-                localComputeBlock = pusher.call(obj, localComputeBlock);
-            } catch (final Exception ex) {
-                throw new RuntimeException("Can not apply the map function to the local compute block", ex);
-            }
+            localComputeBlocks = mapLocalComputeBlocks(cb -> pusher.call(obj, cb));
         }
     }
 
@@ -2260,11 +2274,47 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
         }
     }
 
+    /**
+     * Applies a map function to each of {@link #localComputeBlocks}, using {@link #localComputePool} if available.
+     *
+     * The compute blocks do not share any mutable state, so that they can be mapped concurrently; the result
+     * is in the same order as {@link #targetBlocks}.
+     *
+     * @param mapper a map function from {@link CoverageModelEMComputeBlock} to a generic type
+     * @param <V> the return type of the map function
+     * @return a list of mapped values
+     */
+    private <V> List<V> mapLocalComputeBlocks(@Nonnull final Function<CoverageModelEMComputeBlock, V> mapper) {
+        final java.util.function.Function<CoverageModelEMComputeBlock, V> uncheckedMapper = cb -> {
+            try {
+                return mapper.call(cb);
+            } catch (final Exception ex) {
+                throw new RuntimeException("Can not apply the map function to the local compute block", ex);
+            }
+        };
+        if (localComputePool == null) {
+            return localComputeBlocks.stream().map(uncheckedMapper).collect(Collectors.toList());
+        }
+        try {
+            return localComputePool.submit(() -> localComputeBlocks.parallelStream()
+                    .map(uncheckedMapper)
+                    .collect(Collectors.toList())).get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while mapping the local compute blocks", ex);
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException("Can not apply the map function to the local compute blocks", ex.getCause());
+        }
+    }
+
     /**
      * Fetches the blocks of a target-distributed {@link INDArray} of shape ({@link #numTargets}, ...)
      * and assembles them together by concatenating along {@param axis} (if spark is enabled)
      *
-     * If Spark is disabled, it just fetches the {@link INDArray} from {@link #localComputeBlock}.
+     * If Spark is disabled, it does the same with the {@link INDArray} blocks of {@link #localComputeBlocks}.
      *
      * @param key key of the array
      * @param axis axis to stack along
@@ -2274,8 +2324,11 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
     private INDArray fetchFromWorkers(final CoverageModelEMComputeBlock.CoverageModelICGCacheNode key, final int axis) {
         if (sparkContextIsAvailable) {
             return CoverageModelSparkUtils.assembleINDArrayBlocksFromRDD(computeRDD.mapValues(cb -> cb.getINDArrayFromCache(key)), axis);
+        } else if (targetBlocks.size() == 1) {
+            return localComputeBlocks.get(0).getINDArrayFromCache(key);
         } else {
-            return localComputeBlock.getINDArrayFromCache(key);
+            return CoverageModelSparkUtils.assembleINDArrayBlocksFromCollection(
+                    mapLocalComputeBlocks(cb -> ImmutablePair.of(cb.getTargetSpaceBlock(), cb.getINDArrayFromCache(key))), axis);
         }
     }
 
@@ -2286,7 +2339,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      * @return list of key-value blocks
      */
     private List<Tuple2<LinearlySpacedIndexBlock, INDArray>> chopINDArrayToBlocks(final INDArray arr) {
-        if (sparkContextIsAvailable) {
+        if (targetBlocks.size() > 1) {
             return CoverageModelSparkUtils.partitionINDArrayToList(targetBlocks, arr);
         } else {
             return Collections.singletonList(new Tuple2<>(targetBlocks.get(0), arr));
@@ -2300,7 +2353,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      * @return list of key-value blocks
      */
     private Map<LinearlySpacedIndexBlock, INDArray> mapINDArrayToBlocks(final INDArray arr) {
-        if (sparkContextIsAvailable) {
+        if (targetBlocks.size() > 1) {
             return CoverageModelSparkUtils.partitionINDArrayToMap(targetBlocks, arr);
         } else {
             return Collections.singletonMap(targetBlocks.get(0), arr);
@@ -2316,7 +2369,7 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
      */
     private Map<LinearlySpacedIndexBlock, ImmutablePair<INDArray, INDArray>> mapINDArrayPairToBlocks(final INDArray arr1,
                                                                                                      final INDArray arr2) {
-        if (sparkContextIsAvailable) {
+        if (targetBlocks.size() > 1) {
             final Map<LinearlySpacedIndexBlock, INDArray> map1 =
                     CoverageModelSparkUtils.partitionINDArrayToMap(targetBlocks, arr1);
             final Map<LinearlySpacedIndexBlock, INDArray> map2 =
@@ -2358,6 +2411,16 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
         }
     }
 
+    /**
+     * Shuts down {@link #localComputePool} (if any). The workspace can not map the local compute blocks afterwards.
+     */
+    @Override
+    public void close() {
+        if (localComputePool != null) {
+            localComputePool.shutdown();
+        }
+    }
+
     /**
      * Fetches mean log bias from compute blocks
      *
@@ -2503,6 +2566,223 @@ public final class CoverageModelEMWorkspace<STATE extends AlleleMetadataProducer
         }
     }
 
+    /**
+     * Saves a restartable snapshot of the model parameters and the posteriors to disk. The snapshot consists of:
+     *
+     * - the model in the format of {@link CoverageModelParameters#write} (in a subdirectory, so that it can be
+     *   used as an input model as well),
+     * - Nd4j binary dumps of the model parameters and the driver-node and worker-side posteriors, named after
+     *   their {@link CoverageModelEMComputeBlock.CoverageModelICGCacheNode} keys, and
+     * - the processed sample names and targets (for validation upon restoring).
+     *
+     * The binary dumps are loss-less; therefore, restoring the snapshot via {@link #restoreFromCheckpoint(String)}
+     * in a workspace created from the same inputs and arguments recovers the state of the workspace.
+     *
+     * @param outputPath path to write the checkpoint to
+     */
+    public void writeCheckpoint(@Nonnull final String outputPath) {
+        logger.info("Saving a checkpoint of the workspace to disk...");
+        createOutputPath(outputPath);
+        writeModel(new File(outputPath, CoverageModelGlobalConstants.EM_STATE_CHECKPOINT_MODEL_SUBDIR).getAbsolutePath());
+        writeTargets(outputPath);
+        final File sampleNamesFile = new File(outputPath, CoverageModelGlobalConstants.SAMPLE_NAMES_CHECKPOINT_FILENAME);
+        try {
+            Files.write(sampleNamesFile.toPath(), processedSampleNameList);
+        } catch (final IOException ex) {
+            throw new UserException.CouldNotCreateOutputFile(sampleNamesFile, "Could not write the sample names", ex);
+        }
+
+        /* model parameters */
+        writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.m_t, fetchMeanLogBias());
+        writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.Psi_t,
+                fetchTargetUnexplainedVariance());
+        if (biasCovariatesEnabled) {
+            writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.W_tl,
+                    fetchMeanBiasCovariates());
+        }
+        if (ardEnabled) {
+            writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.alpha_l,
+                    biasCovariatesARDCoefficients);
+        }
+
+        /* posteriors */
+        writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.log_d_s,
+                sampleMeanLogReadDepths);
+        writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.var_log_d_s,
+                sampleVarLogReadDepths);
+        writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.gamma_s,
+                sampleUnexplainedVariance);
+        if (biasCovariatesEnabled) {
+            writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.z_sl,
+                    sampleBiasLatentPosteriorFirstMoments);
+            writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.zz_sll,
+                    sampleBiasLatentPosteriorSecondMoments);
+        }
+        writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.log_c_st,
+                fetchFromWorkers(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.log_c_st, 1));
+        writeCheckpointNDArray(outputPath, CoverageModelEMComputeBlock.CoverageModelICGCacheNode.var_log_c_st,
+                fetchFromWorkers(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.var_log_c_st, 1));
+        Nd4jIOUtils.writeNDArrayToBinaryDumpFile(sampleLogChainPosteriors,
+                new File(outputPath, CoverageModelGlobalConstants.SAMPLE_LOG_CHAIN_POSTERIORS_CHECKPOINT_FILENAME));
+
+        /* histories */
+        Nd4jIOUtils.writeNDArrayToBinaryDumpFile(Nd4j.create(logLikelihoodHistory.stream()
+                        .mapToDouble(Double::doubleValue).toArray(), new int[] {1, logLikelihoodHistory.size()}),
+                new File(outputPath, CoverageModelGlobalConstants.LOG_LIKELIHOODS_HISTORY_CHECKPOINT_FILENAME));
+        if (ardEnabled && !biasCovariatesARDCoefficientsHistory.isEmpty()) {
+            Nd4jIOUtils.writeNDArrayToBinaryDumpFile(Nd4j.vstack(biasCovariatesARDCoefficientsHistory),
+                    new File(outputPath, CoverageModelGlobalConstants.BIAS_COVARIATES_ARD_COEFFICIENTS_HISTORY_CHECKPOINT_FILENAME));
+        }
+    }
+
+    /**
+     * Restores the model parameters and the posteriors from a snapshot written by {@link #writeCheckpoint(String)}
+     * and pushes them to the compute block(s). The workspace must have been created from the same read counts
+     * and arguments as the one that wrote the snapshot.
+     *
+     * @param checkpointPath path to the checkpoint
+     */
+    @UpdatesRDD @CachesRDD
+    public void restoreFromCheckpoint(@Nonnull final String checkpointPath) {
+        logger.info("Restoring the workspace from the checkpoint " + checkpointPath + "...");
+        final File sampleNamesFile = new File(checkpointPath, CoverageModelGlobalConstants.SAMPLE_NAMES_CHECKPOINT_FILENAME);
+        final List<String> checkpointSampleNames;
+        try {
+            checkpointSampleNames = Files.readAllLines(sampleNamesFile.toPath());
+        } catch (final IOException ex) {
+            throw new UserException.CouldNotReadInputFile(sampleNamesFile, ex);
+        }
+        if (!checkpointSampleNames.equals(processedSampleNameList)) {
+            throw new UserException.BadInput("The samples in the checkpoint " + checkpointPath + " do not match the" +
+                    " processed samples in the read count collection");
+        }
+        final File targetsFile = new File(checkpointPath, CoverageModelGlobalConstants.TARGET_LIST_OUTPUT_FILE);
+        if (!TargetTableReader.readTargetFile(targetsFile).equals(processedTargetList)) {
+            throw new UserException.BadInput("The targets in the checkpoint " + checkpointPath + " do not match the" +
+                    " processed targets in the read count collection");
+        }
+
+        /* model parameters */
+        final INDArray m_t = readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.m_t, 1, numTargets);
+        final INDArray Psi_t = readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.Psi_t, 1, numTargets);
+        final INDArray W_tl = biasCovariatesEnabled ? readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.W_tl, numTargets, numLatents) : null;
+        if (ardEnabled) {
+            biasCovariatesARDCoefficients.assign(readCheckpointNDArray(checkpointPath,
+                    CoverageModelEMComputeBlock.CoverageModelICGCacheNode.alpha_l, 1, numLatents));
+        }
+        initializeWorkersWithGivenModel(new CoverageModelParameters(processedTargetList, m_t, Psi_t, W_tl,
+                ardEnabled ? biasCovariatesARDCoefficients.dup() : null));
+
+        /* driver-node copy of posteriors */
+        sampleMeanLogReadDepths.assign(readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.log_d_s, numSamples, 1));
+        sampleVarLogReadDepths.assign(readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.var_log_d_s, numSamples, 1));
+        sampleUnexplainedVariance.assign(readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.gamma_s, numSamples, 1));
+        if (biasCovariatesEnabled) {
+            sampleBiasLatentPosteriorFirstMoments.assign(readCheckpointNDArray(checkpointPath,
+                    CoverageModelEMComputeBlock.CoverageModelICGCacheNode.z_sl, numSamples, numLatents));
+            sampleBiasLatentPosteriorSecondMoments.assign(readCheckpointNDArray(checkpointPath,
+                    CoverageModelEMComputeBlock.CoverageModelICGCacheNode.zz_sll, numSamples, numLatents, numLatents));
+        }
+        sampleLogChainPosteriors.assign(readCheckpointNDArray(new File(checkpointPath,
+                CoverageModelGlobalConstants.SAMPLE_LOG_CHAIN_POSTERIORS_CHECKPOINT_FILENAME), numSamples, 1));
+
+        /* push sample-specific posteriors to workers */
+        final INDArray sampleMeanLogReadDepths = this.sampleMeanLogReadDepths.dup();
+        final INDArray sampleVarLogReadDepths = this.sampleVarLogReadDepths.dup();
+        final INDArray sampleUnexplainedVariance = this.sampleUnexplainedVariance.dup();
+        mapWorkers(cb -> cb
+                .cloneWithUpdatedPrimitive(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.log_d_s,
+                        sampleMeanLogReadDepths)
+                .cloneWithUpdatedPrimitive(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.var_log_d_s,
+                        sampleVarLogReadDepths)
+                .cloneWithUpdatedPrimitive(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.gamma_s,
+                        sampleUnexplainedVariance));
+        if (biasCovariatesEnabled) {
+            final INDArray sampleBiasLatentPosteriorFirstMoments = this.sampleBiasLatentPosteriorFirstMoments.dup();
+            final INDArray sampleBiasLatentPosteriorSecondMoments = this.sampleBiasLatentPosteriorSecondMoments.dup();
+            mapWorkers(cb -> cb
+                    .cloneWithUpdatedPrimitive(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.z_sl,
+                            sampleBiasLatentPosteriorFirstMoments)
+                    .cloneWithUpdatedPrimitive(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.zz_sll,
+                            sampleBiasLatentPosteriorSecondMoments));
+        }
+
+        /* partition and push copy ratio posteriors to workers */
+        final INDArray log_c_st = readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.log_c_st, numSamples, numTargets);
+        final INDArray var_log_c_st = readCheckpointNDArray(checkpointPath,
+                CoverageModelEMComputeBlock.CoverageModelICGCacheNode.var_log_c_st, numSamples, numTargets);
+        pushToWorkers(mapINDArrayPairToBlocks(log_c_st.transpose(), var_log_c_st.transpose()),
+                (p, cb) -> cb
+                        .cloneWithUpdatedPrimitive(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.log_c_st,
+                                p.get(cb.getTargetSpaceBlock()).left.transpose())
+                        .cloneWithUpdatedPrimitive(CoverageModelEMComputeBlock.CoverageModelICGCacheNode.var_log_c_st,
+                                p.get(cb.getTargetSpaceBlock()).right.transpose()));
+        cacheWorkers("after restoring from checkpoint");
+
+        /* histories */
+        final INDArray logLikelihoodHistoryArray = Nd4jIOUtils.readNDArrayFromBinaryDumpFile(
+                new File(checkpointPath, CoverageModelGlobalConstants.LOG_LIKELIHOODS_HISTORY_CHECKPOINT_FILENAME));
+        logLikelihoodHistory.clear();
+        Arrays.stream(logLikelihoodHistoryArray.dup().data().asDouble()).forEach(logLikelihoodHistory::add);
+        if (ardEnabled) {
+            biasCovariatesARDCoefficientsHistory.clear();
+            final File biasCovariatesARDHistoryFile = new File(checkpointPath,
+                    CoverageModelGlobalConstants.BIAS_COVARIATES_ARD_COEFFICIENTS_HISTORY_CHECKPOINT_FILENAME);
+            if (biasCovariatesARDHistoryFile.exists()) {
+                final INDArray biasCovariatesARDHistory = Nd4jIOUtils.readNDArrayFromBinaryDumpFile(biasCovariatesARDHistoryFile);
+                for (int i = 0; i < biasCovariatesARDHistory.rows(); i++) {
+                    biasCovariatesARDCoefficientsHistory.add(biasCovariatesARDHistory.getRow(i).dup());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a checkpoint {@link INDArray} to a binary dump named after its cache node key
+     *
+     * @param outputPath the checkpoint path
+     * @param node the cache node the array belongs to
+     * @param arr the array
+     */
+    private static void writeCheckpointNDArray(@Nonnull final String outputPath,
+                                               @Nonnull final CoverageModelEMComputeBlock.CoverageModelICGCacheNode node,
+                                               @Nonnull final INDArray arr) {
+        Nd4jIOUtils.writeNDArrayToBinaryDumpFile(arr, new File(outputPath,
+                node.name() + CoverageModelGlobalConstants.ND4J_BINARY_DUMP_EXTENSION));
+    }
+
+    /**
+     * Reads a checkpoint {@link INDArray} written by {@link #writeCheckpointNDArray} and validates its shape
+     *
+     * @param checkpointPath the checkpoint path
+     * @param node the cache node the array belongs to
+     * @param expectedShape expected shape of the array
+     * @return the array
+     */
+    private static INDArray readCheckpointNDArray(@Nonnull final String checkpointPath,
+                                                  @Nonnull final CoverageModelEMComputeBlock.CoverageModelICGCacheNode node,
+                                                  final int... expectedShape) {
+        return readCheckpointNDArray(new File(checkpointPath,
+                node.name() + CoverageModelGlobalConstants.ND4J_BINARY_DUMP_EXTENSION), expectedShape);
+    }
+
+    private static INDArray readCheckpointNDArray(@Nonnull final File inputFile, final int... expectedShape) {
+        final INDArray arr = Nd4jIOUtils.readNDArrayFromBinaryDumpFile(inputFile);
+        if (!Arrays.equals(arr.shape(), expectedShape)) {
+            throw new UserException.BadInput(String.format("The array in %s has shape %s but %s is expected;" +
+                    " the checkpoint is not compatible with the workspace", inputFile.getAbsolutePath(),
+                    Arrays.toString(arr.shape()), Arrays.toString(expectedShape)));
+        }
+        return arr;
+    }
+
     /**
      * Create output path if non-existent
      *
@@ -168,4 +168,45 @@ public final class CoverageModelGlobalConstants implements Serializable {
      * Prefix for model checkpointing output directories
      */
     public static final String MODEL_CHECKPOINT_PATH_PREFIX = "model_checkpoint";
+
+    /**
+     * Prefix for restartable EM state checkpointing output directories
+     */
+    public static final String EM_STATE_CHECKPOINT_PATH_PREFIX = "em_state_checkpoint";
+
+    /**
+     * Model subdirectory of an EM state checkpoint (can be used as an input model)
+     */
+    public static final String EM_STATE_CHECKPOINT_MODEL_SUBDIR = "model";
+
+    /**
+     * EM algorithm control state (iteration count, convergence flags, etc.) file name in an EM state checkpoint
+     */
+    public static final String EM_ALGORITHM_STATE_CHECKPOINT_FILENAME = "em_algorithm_state.bin";
+
+    /**
+     * Processed sample names file name in an EM state checkpoint
+     */
+    public static final String SAMPLE_NAMES_CHECKPOINT_FILENAME = "sample_names.txt";
+
+    /**
+     * Extension of Nd4j binary dumps in an EM state checkpoint; the dumps of model parameters and posteriors
+     * are named after their {@link CoverageModelEMComputeBlock.CoverageModelICGCacheNode} key
+     */
+    public static final String ND4J_BINARY_DUMP_EXTENSION = ".nd4j";
+
+    /**
+     * Sample log chain posterior probabilities binary dump file name in an EM state checkpoint
+     */
+    public static final String SAMPLE_LOG_CHAIN_POSTERIORS_CHECKPOINT_FILENAME = "log_chain_posterior_s" + ND4J_BINARY_DUMP_EXTENSION;
+
+    /**
+     * Log likelihood history binary dump file name in an EM state checkpoint
+     */
+    public static final String LOG_LIKELIHOODS_HISTORY_CHECKPOINT_FILENAME = "log_likelihood_history" + ND4J_BINARY_DUMP_EXTENSION;
+
+    /**
+     * History of ARD coefficients binary dump file name in an EM state checkpoint
+     */
+    public static final String BIAS_COVARIATES_ARD_COEFFICIENTS_HISTORY_CHECKPOINT_FILENAME = "alpha_l_history" + ND4J_BINARY_DUMP_EXTENSION;
 }
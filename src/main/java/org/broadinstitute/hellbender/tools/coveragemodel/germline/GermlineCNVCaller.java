@@ -16,6 +16,7 @@ import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.coveragemodel.CoverageModelArgumentCollection;
 import org.broadinstitute.hellbender.tools.coveragemodel.CoverageModelEMAlgorithm;
 import org.broadinstitute.hellbender.tools.coveragemodel.CoverageModelEMWorkspace;
+import org.broadinstitute.hellbender.tools.coveragemodel.CoverageModelGlobalConstants;
 import org.broadinstitute.hellbender.tools.coveragemodel.CoverageModelParameters;
 import org.broadinstitute.hellbender.tools.exome.*;
 import org.broadinstitute.hellbender.tools.exome.germlinehmm.IntegerCopyNumberState;
@@ -63,7 +64,9 @@ import java.util.Map;
  *
  * <p>The tool automatically uses Spark clusters if available. Otherwise, it will run in the single-machine
  * (local) mode. If running the tool on a single machine, be sure to disable Spark
- * altogether (--disableSpark true) since a local Spark context will only add unnecessary overhead.</p>
+ * altogether (--disableSpark true) since a local Spark context will only add unnecessary overhead. In the local
+ * mode, the target space partitions (--numTargetSpacePartitions) are processed concurrently by the number of threads
+ * given by --numLocalThreads.</p>
  *
  * <p>To make an effective PoN with at least 50 samples will require use of a Spark cluster.</p>
  *
@@ -106,6 +109,33 @@ import java.util.Map;
  *     In turn, the segments folder contains the per-sample CNV calls.
  * </p>
  *
+ * <p>
+ *     If --inputModelPath is given in the LEARN_AND_CALL mode, the model parameters are initialized from the given
+ *     model instead of being initialized from scratch (warm start). This is useful for learning a model for a new
+ *     cohort that is similar to the one a previous model was learned from.
+ * </p>
+ *
+ * <p>
+ *     With --runCheckpointing true, the tool periodically saves the model, the posteriors, and a restartable
+ *     snapshot of the EM algorithm to --runCheckpointingPath. A killed job can be resumed from the latest snapshot
+ *     by rerunning it with the same arguments and --resumeCheckpointPath set to one of the
+ *     em_state_checkpoint_iter_* directories:
+ * </p>
+ *
+ * <pre>
+ * gatk-launch --javaOptions "-Xmx16g" GermlineCNVCaller \
+ *   --jobType LEARN_AND_CALL \
+ *   --input combined_read_counts.tsv \
+ *   --contigAnnotationsTable grch37_contig_annotations.tsv \
+ *   --copyNumberTransitionPriorTable grch37_germline_CN_priors.tsv \
+ *   --outputPath learn_and_call_results \
+ *   --sexGenotypeTable SEX_GENOTYPES.tsv \
+ *   --runCheckpointing true \
+ *   --runCheckpointingPath learn_and_call_checkpoints \
+ *   --resumeCheckpointPath learn_and_call_checkpoints/em_state_checkpoint_iter_20 \
+ *   --disableSpark true
+ * </pre>
+ *
  * @author Mehrtash Babadi &lt;mehrtash@broadinstitute.org&gt;
  */
 @CommandLineProgramProperties(
@@ -217,7 +247,8 @@ public final class GermlineCNVCaller extends SparkToggleCommandLineProgram {
     protected JobType jobType;
 
     @Argument(
-            doc = "Input model (panel of normals) path",
+            doc = "Input model (panel of normals) path; required in the CALL_ONLY mode and used for " +
+                    "initializing the model parameters (warm start) in the LEARN_AND_CALL mode",
             fullName = INPUT_MODEL_PATH_LONG_NAME,
             shortName = INPUT_MODEL_PATH_SHORT_NAME,
             optional = true
@@ -315,36 +346,42 @@ public final class GermlineCNVCaller extends SparkToggleCommandLineProgram {
         final IntegerCopyNumberReferenceStateFactory referenceStateFactory =
                 new IntegerCopyNumberReferenceStateFactory(ploidyAnnotatedTargetCollection);
 
-        final CoverageModelEMWorkspace<IntegerCopyNumberState> workspace = new CoverageModelEMWorkspace<>(
+        try (final CoverageModelEMWorkspace<IntegerCopyNumberState> workspace = new CoverageModelEMWorkspace<>(
                 readCounts, ploidyAnnotatedTargetCollection, sexGenotypeDataCollection,
-                integerCopyNumberExpectationsCalculator, params, model, referenceStateFactory, ctx);
-        final CoverageModelEMAlgorithm<IntegerCopyNumberState> algo = new CoverageModelEMAlgorithm<>(params,
-                workspace);
-
-        switch (jobType) {
-            case LEARN_AND_CALL:
-                algo.runExpectationMaximization();
-                logger.info("Saving the model to disk...");
-                workspace.writeModel(new File(outputPath, FINAL_MODEL_SUBDIR).getAbsolutePath());
-                break;
-
-            case CALL_ONLY:
-                algo.runExpectation();
-                break;
-
-            default:
-                throw new UnsupportedOperationException(String.format("\"%s\" is not recognized as a supported job type",
-                        jobType.name()));
-        }
+                integerCopyNumberExpectationsCalculator, params, model, referenceStateFactory, ctx)) {
+            final CoverageModelEMAlgorithm<IntegerCopyNumberState> algo = new CoverageModelEMAlgorithm<>(params,
+                    workspace);
+
+            switch (jobType) {
+                case LEARN_AND_CALL:
+                    algo.runExpectationMaximization();
+                    logger.info("Saving the model to disk...");
+                    workspace.writeModel(new File(outputPath, FINAL_MODEL_SUBDIR).getAbsolutePath());
+                    break;
+
+                case CALL_ONLY:
+                    algo.runExpectation();
+                    break;
+
+                default:
+                    throw new UnsupportedOperationException(String.format("\"%s\" is not recognized as a supported job type",
+                            jobType.name()));
+            }
 
-        logger.info("Saving posteriors to disk...");
-        workspace.writePosteriors(new File(outputPath, FINAL_POSTERIORS_SUBDIR).getAbsolutePath(),
-                CoverageModelEMWorkspace.PosteriorVerbosityLevel.EXTENDED);
+            logger.info("Saving posteriors to disk...");
+            workspace.writePosteriors(new File(outputPath, FINAL_POSTERIORS_SUBDIR).getAbsolutePath(),
+                    CoverageModelEMWorkspace.PosteriorVerbosityLevel.EXTENDED);
+        }
     }
 
     private CoverageModelParameters getCoverageModelParameters() {
         CoverageModelParameters model;
-        if (modelPath != null) {
+        if (params.isResumeFromCheckpointEnabled()) {
+            /* the model parameters in the checkpoint supersede the input model */
+            logger.info("Loading model parameters from the checkpoint...");
+            model = CoverageModelParameters.read(new File(params.getResumeCheckpointPath(),
+                    CoverageModelGlobalConstants.EM_STATE_CHECKPOINT_MODEL_SUBDIR).getAbsolutePath());
+        } else if (modelPath != null) {
             logger.info("Loading model parameters...");
             model = CoverageModelParameters.read(modelPath);
         } else {
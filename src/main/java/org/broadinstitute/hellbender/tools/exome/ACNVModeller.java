@@ -13,6 +13,7 @@ import org.broadinstitute.hellbender.utils.mcmc.DecileCollection;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterEnum;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterWriter;
 import org.broadinstitute.hellbender.utils.mcmc.PosteriorSummary;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
 import java.io.File;
 import java.io.IOException;
@@ -51,6 +52,7 @@ public final class ACNVModeller {
     private final int numBurnInCopyRatio;
     private final int numSamplesAlleleFraction;
     private final int numBurnInAlleleFraction;
+    private final int numSamplingThreads;
     private final JavaSparkContext ctx;
 
     public List<ACNVModeledSegment> getACNVModeledSegments() {
@@ -93,12 +95,36 @@ public final class ACNVModeller {
                         final int numSamplesCopyRatio, final int numBurnInCopyRatio,
                         final int numSamplesAlleleFraction, final int numBurnInAlleleFraction,
                         final JavaSparkContext ctx) {
+        this(segmentedGenome, allelicPoN, numSamplesCopyRatio, numBurnInCopyRatio, numSamplesAlleleFraction, numBurnInAlleleFraction, 1, ctx);
+    }
+
+    /**
+     * Constructs a copy-ratio and allele-fraction modeller for a {@link SegmentedGenome},
+     * specifying number of total samples and number of burn-in samples for Markov-Chain Monte Carlo model fitting,
+     * and the number of threads with which to sample segment-level parameters.
+     * An initial model fit is performed.
+     *
+     * @param segmentedGenome            contains segments, target coverages, and SNP counts to model
+     * @param allelicPoN                allelic-bias panel of normals
+     * @param numSamplesCopyRatio       number of total samples for copy-ratio model MCMC
+     * @param numBurnInCopyRatio        number of burn-in samples to discard for copy-ratio model MCMC
+     * @param numSamplesAlleleFraction  number of total samples for allele-fraction model MCMC
+     * @param numBurnInAlleleFraction   number of burn-in samples to discard for allele-fraction model MCMC
+     * @param numSamplingThreads        number of threads with which to sample segment-level parameters
+     * @param ctx                       JavaSparkContext, used for kernel density estimation in {@link PosteriorSummary}
+     */
+    public ACNVModeller(final SegmentedGenome segmentedGenome, final AllelicPanelOfNormals allelicPoN,
+                        final int numSamplesCopyRatio, final int numBurnInCopyRatio,
+                        final int numSamplesAlleleFraction, final int numBurnInAlleleFraction,
+                        final int numSamplingThreads, final JavaSparkContext ctx) {
+        ParamUtils.isPositive(numSamplingThreads, "Number of sampling threads must be positive.");
         this.segmentedGenome = segmentedGenome;
         this.allelicPoN = allelicPoN;
         this.numSamplesCopyRatio = numSamplesCopyRatio;
         this.numBurnInCopyRatio = numBurnInCopyRatio;
         this.numSamplesAlleleFraction = numSamplesAlleleFraction;
         this.numBurnInAlleleFraction = numBurnInAlleleFraction;
+        this.numSamplingThreads = numSamplingThreads;
         this.ctx = ctx;
         copyRatioModeller = new CopyRatioModeller(segmentedGenome);
         alleleFractionModeller = new AlleleFractionModeller(segmentedGenome, allelicPoN);
@@ -142,10 +168,10 @@ public final class ACNVModeller {
         //perform MCMC to generate posterior samples
         logger.info("Fitting copy-ratio model...");
         copyRatioModeller = new CopyRatioModeller(segmentedGenome);
-        copyRatioModeller.fitMCMC(numSamplesCopyRatio, numBurnInCopyRatio);
+        copyRatioModeller.fitMCMC(numSamplesCopyRatio, numBurnInCopyRatio, numSamplingThreads);
         logger.info("Fitting allele-fraction model...");
         alleleFractionModeller = new AlleleFractionModeller(segmentedGenome, allelicPoN);
-        alleleFractionModeller.fitMCMC(numSamplesAlleleFraction, numBurnInAlleleFraction);
+        alleleFractionModeller.fitMCMC(numSamplesAlleleFraction, numBurnInAlleleFraction, numSamplingThreads);
 
         //update list of ACNVModeledSegment with new PosteriorSummaries
         segments.clear();
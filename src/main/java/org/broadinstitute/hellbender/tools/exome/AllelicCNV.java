@@ -124,6 +124,9 @@ public class AllelicCNV extends SparkCommandLineProgram {
     protected static final String NUM_SIMILAR_SEGMENT_MERGING_ITERATIONS_PER_FIT_LONG_NAME = "numIterationsSimSegPerFit";
     protected static final String NUM_SIMILAR_SEGMENT_MERGING_ITERATIONS_PER_FIT_SHORT_NAME = "numIterSimPerFit";
 
+    protected static final String NUM_SAMPLING_THREADS_LONG_NAME = "numSamplingThreads";
+    protected static final String NUM_SAMPLING_THREADS_SHORT_NAME = "numThreads";
+
     @Argument(
             doc = "Input file for tumor-sample ref/alt read counts at normal-sample heterozygous-SNP sites (output of GetHetCoverage or GetBayesianHetCoverage tools).",
             fullName = ExomeStandardArgumentDefinitions.TUMOR_ALLELIC_COUNTS_FILE_LONG_NAME,
@@ -259,6 +262,17 @@ public class AllelicCNV extends SparkCommandLineProgram {
     )
     protected int numSimilarSegmentMergingIterationsPerFit = 1;
 
+    @Argument(
+            doc = "Number of threads with which to sample segment-level parameters during MCMC model fitting. " +
+                    "(Results are the same for any number of threads greater than one, " +
+                    "but differ from those of a single thread, which uses a different random-number stream.)",
+            fullName = NUM_SAMPLING_THREADS_LONG_NAME,
+            shortName = NUM_SAMPLING_THREADS_SHORT_NAME,
+            optional = true,
+            minValue = 1
+    )
+    protected int numSamplingThreads = 1;
+
     @Override
     protected void runPipeline(final JavaSparkContext ctx) {
         validateArguments();
@@ -315,7 +329,7 @@ public class AllelicCNV extends SparkCommandLineProgram {
 
         //initial MCMC model fitting performed by ACNVModeller constructor
         final ACNVModeller modeller = new ACNVModeller(segmentedGenome, allelicPoN,
-                numSamplesCopyRatio, numBurnInCopyRatio, numSamplesAlleleFraction, numBurnInAlleleFraction, ctx);
+                numSamplesCopyRatio, numBurnInCopyRatio, numSamplesAlleleFraction, numBurnInAlleleFraction, numSamplingThreads, ctx);
 
         //write initial segments and parameters to file
         writeACNVModeledSegmentAndParameterFiles(modeller, INITIAL_FIT_FILE_TAG);
@@ -1,6 +1,11 @@
 package org.broadinstitute.hellbender.tools.exome;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMReadGroupRecord;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.util.Locatable;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,7 +16,9 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.CopyNumberProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.ReadWalker;
+import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.exceptions.GATKException;
@@ -21,12 +28,18 @@ import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
+import org.broadinstitute.hellbender.transformers.ReadTransformer;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -66,6 +79,11 @@ import java.util.stream.IntStream;
  *     Do NOT use BED format. See {@link ConvertBedToTargetFile}.
  * </p>
  *
+ * <p>
+ *     To count many samples at once, e.g. to build a panel of normals, pass every BAM with its own --input,
+ *     group by SAMPLE and use --readerThreads to read several BAMs concurrently into a single output matrix.
+ * </p>
+ *
  * <p>For whole genome sequencing (WGS) data, use {@link SparkGenomeReadCounts} instead.</p>
  *
  */
@@ -112,6 +130,8 @@ public final class CalculateTargetCoverage extends ReadWalker {
     protected static final String TARGET_FILE_SHORT_NAME = "T";
     protected static final String TARGET_OUT_INFO_FULL_NAME = "targetInformationColumns";
     protected static final String TARGET_OUT_INFO_SHORT_NAME = "targetInfo";
+    protected static final String READER_THREADS_FULL_NAME = "readerThreads";
+    protected static final String READER_THREADS_SHORT_NAME = READER_THREADS_FULL_NAME;
 
     private static final String PCOV_OUTPUT_DOUBLE_FORMAT = "%.4g";
 
@@ -175,6 +195,15 @@ public final class CalculateTargetCoverage extends ReadWalker {
     )
     protected TargetOutInfo targetOutInfo = TargetOutInfo.COORDS;
 
+    @Argument(
+            doc = "Number of inputs to read concurrently, each on its own thread; with 1 the inputs are merged and read on a single thread",
+            shortName = READER_THREADS_SHORT_NAME,
+            fullName = READER_THREADS_FULL_NAME,
+            optional = true,
+            minValue = 1
+    )
+    protected int readerThreads = 1;
+
     /**
      * Writer to the main output file indicated by {@link #output}.
      */
@@ -215,6 +244,11 @@ public final class CalculateTargetCoverage extends ReadWalker {
      */
     private int[][] counts;
 
+    /**
+     * Finds the targets overlapping each read of the single-threaded traversal.
+     */
+    private TargetCursor targetCursor;
+
     @Override
     public List<ReadFilter> getDefaultReadFilters() {
         final List<ReadFilter> filters = new ArrayList<>(super.getDefaultReadFilters());
@@ -238,6 +272,7 @@ public final class CalculateTargetCoverage extends ReadWalker {
         countColumns = groupBy.countColumns(this);
         final int columnCount = countColumns.columnCount();
         counts = new int[columnCount][targetCollection.targetCount()];
+        targetCursor = new TargetCursor(targetCollection);
 
         // Open output files and write headers:
         outputWriter = openOutputWriter(output, composeMatrixOutputHeader(getCommandLine(), targetOutInfo, groupBy, countColumns.columnNames()));
@@ -330,7 +365,119 @@ public final class CalculateTargetCoverage extends ReadWalker {
 
         final int columnIndex = countColumns.columnIndex(read);
         if (columnIndex >= 0) { // < 0 would means that the read is to be ignored.
-            targetCollection.indexRange(readLocation).forEach(i -> counts[columnIndex][i]++);
+            targetCursor.countOverlapping(readLocation, counts[columnIndex]);
+        }
+    }
+
+    /**
+     * Reads each input on its own thread when {@link #readerThreads} is more than 1 and there is more than one input,
+     * rather than merging them into a single stream of reads; otherwise traverses the reads as any other read walker.
+     */
+    @Override
+    public void traverse() {
+        final List<Path> inputs = readArguments.getReadPaths();
+        if (readerThreads == 1 || inputs.size() == 1) {
+            super.traverse();
+            return;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(readerThreads, inputs.size()),
+                new ThreadFactoryBuilder().setNameFormat("readCounter-thread-%d").setDaemon(true).build());
+        try {
+            final List<Future<?>> futures = new ArrayList<>(inputs.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                final int inputIndex = i;
+                final CountingReadFilter readFilter = makeReadFilter();
+                futures.add(executor.submit(() -> countInput(inputIndex, readFilter)));
+            }
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new GATKException("Counting reads failed", e.getCause());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GATKException("Interrupted while counting reads", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Counts the reads of one input, applying the same transformers and filters as the single-threaded traversal,
+     * and adds them to {@link #counts} once done.
+     *
+     * @param inputIndex index of the input among the read inputs.
+     * @param readFilter the read filter for this input only.
+     */
+    private void countInput(final int inputIndex, final CountingReadFilter readFilter) {
+        final Path input = readArguments.getReadPaths().get(inputIndex);
+        final List<Path> indices = readArguments.getReadIndexPaths();
+        SamReaderFactory factory = SamReaderFactory.makeDefault().validationStringency(readArguments.getReadValidationStringency());
+        if (hasReference()) {
+            factory = factory.referenceSequence(referenceArguments.getReferenceFile());
+        }
+
+        // columns are only allocated for the samples or read groups found in this input
+        final int[][] inputCounts = new int[counts.length][];
+        final TargetCursor cursor = new TargetCursor(targetCursor);
+        try (final ReadsDataSource source = new ReadsDataSource(Collections.singletonList(input),
+                indices == null ? null : Collections.singletonList(indices.get(inputIndex)), factory,
+                cloudPrefetchBuffer, cloudIndexPrefetchBuffer < 0 ? cloudPrefetchBuffer : cloudIndexPrefetchBuffer)) {
+            checkReadGroupsAreNotRenamed(input, source.getHeader());
+            if (hasIntervals()) {
+                source.setTraversalBounds(intervalArgumentCollection.getTraversalParameters(getHeaderForReads().getSequenceDictionary()));
+            }
+            final ReadTransformer preTransformer = makePreReadFilterTransformer();
+            final ReadTransformer postTransformer = makePostReadFilterTransformer();
+            for (final GATKRead originalRead : source) {
+                final GATKRead read = preTransformer.apply(originalRead);
+                if (!readFilter.test(read)) {
+                    continue;
+                }
+                final GATKRead transformedRead = postTransformer.apply(read);
+                final int columnIndex = countColumns.columnIndex(transformedRead);
+                if (columnIndex >= 0 && !transformedRead.isUnmapped()
+                        && SimpleInterval.isValid(transformedRead.getContig(), transformedRead.getStart(), transformedRead.getEnd())) {
+                    if (inputCounts[columnIndex] == null) {
+                        inputCounts[columnIndex] = new int[targetCollection.targetCount()];
+                    }
+                    cursor.countOverlapping(transformedRead, inputCounts[columnIndex]);
+                }
+            }
+        }
+
+        synchronized (counts) {
+            for (int i = 0; i < inputCounts.length; i++) {
+                if (inputCounts[i] != null) {
+                    for (int j = 0; j < inputCounts[i].length; j++) {
+                        counts[i][j] += inputCounts[i][j];
+                    }
+                }
+            }
+        }
+        logger.log(Level.INFO, String.format("Done counting reads in '%s': %s", input, readFilter.getSummaryLine()));
+    }
+
+    /**
+     * Reads of different inputs are given to {@link #countColumns} as they are in each input, so read groups must
+     * not have been renamed when the input headers were merged, as happens when two inputs use the same read-group id
+     * for different read groups.
+     *
+     * @throws UserException if a read group of this input is not in the merged header as it is.
+     */
+    private void checkReadGroupsAreNotRenamed(final Path input, final SAMFileHeader inputHeader) {
+        for (final SAMReadGroupRecord readGroup : inputHeader.getReadGroups()) {
+            final SAMReadGroupRecord mergedReadGroup = getHeaderForReads().getReadGroup(readGroup.getId());
+            if (mergedReadGroup == null || !Objects.equals(mergedReadGroup.getSample(), readGroup.getSample())) {
+                throw new UserException(String.format("Read group '%s' in '%s' clashes with a read group of another input, so inputs cannot be read concurrently; use --%s 1",
+                        readGroup.getId(), input, READER_THREADS_FULL_NAME));
+            }
         }
     }
 
@@ -496,6 +643,88 @@ public final class CalculateTargetCoverage extends ReadWalker {
         return String.format(formatString, commandLine, groupBy.toString());
     }
 
+    /**
+     * Finds the targets overlapping the reads of a coordinate-sorted input.
+     * <p>
+     *     Target starts and ends are kept in primitive arrays in target index order, where targets of the same contig
+     *     are contiguous and sorted by position. Since targets do not overlap, the targets overlapping a read start
+     *     at the first target of its contig that does not end before the read, and that cursor only moves forward
+     *     while reads come in coordinate order, so no search is needed for each read.
+     * </p>
+     * <p>
+     *     Each thread needs its own cursor; cursors made with {@link #TargetCursor(TargetCursor)} share the arrays.
+     * </p>
+     */
+    private static final class TargetCursor {
+
+        /**
+         * First and last-plus-one target index of each contig.
+         */
+        private final Map<String, int[]> indexRangeByContig;
+
+        private final int[] starts;
+
+        private final int[] ends;
+
+        private String contig;
+
+        private int contigFrom;
+
+        private int contigTo;
+
+        private int cursor;
+
+        private int previousStart;
+
+        private TargetCursor(final TargetCollection<Target> targetCollection) {
+            final int targetCount = targetCollection.targetCount();
+            indexRangeByContig = new HashMap<>();
+            starts = new int[targetCount];
+            ends = new int[targetCount];
+            for (int i = 0; i < targetCount; i++) {
+                final SimpleInterval location = targetCollection.location(i);
+                starts[i] = location.getStart();
+                ends[i] = location.getEnd();
+                final int index = i;
+                indexRangeByContig.computeIfAbsent(location.getContig(), k -> new int[] {index, index})[1] = i + 1;
+            }
+        }
+
+        private TargetCursor(final TargetCursor other) {
+            indexRangeByContig = other.indexRangeByContig;
+            starts = other.starts;
+            ends = other.ends;
+        }
+
+        /**
+         * Increments the count of each target that overlaps a location.
+         *
+         * @param location the read location.
+         * @param targetCounts counts indexed by target.
+         */
+        private void countOverlapping(final Locatable location, final int[] targetCounts) {
+            final int start = location.getStart();
+            if (!location.getContig().equals(contig)) {
+                contig = location.getContig();
+                final int[] range = indexRangeByContig.get(contig);
+                contigFrom = range == null ? 0 : range[0];
+                contigTo = range == null ? 0 : range[1];
+                cursor = contigFrom;
+            } else if (start < previousStart) {
+                // reads out of order; start over from the first target in the contig
+                cursor = contigFrom;
+            }
+            previousStart = start;
+            while (cursor < contigTo && ends[cursor] < start) {
+                cursor++;
+            }
+            final int end = location.getEnd();
+            for (int i = cursor; i < contigTo && starts[i] <= end; i++) {
+                targetCounts[i]++;
+            }
+        }
+    }
+
     /////////////////////////////////
     // Count column holder classes //
     /////////////////////////////////
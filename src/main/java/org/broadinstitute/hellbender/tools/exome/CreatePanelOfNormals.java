@@ -7,6 +7,7 @@ import org.broadinstitute.hdf5.HDF5File;
 import org.broadinstitute.hdf5.HDF5Library;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
+import org.broadinstitute.hellbender.cmdline.ExomeStandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.CopyNumberProgramGroup;
 import org.broadinstitute.hellbender.exceptions.UserException;
@@ -59,6 +60,18 @@ import java.util.stream.DoubleStream;
  * To disable Spark processing, add the --disableSpark option to the command.
  * </p>
  *
+ * <p>
+ *     The following command adds the samples in new_gc_corrected_coverages.tsv to an existing PoN without
+ *     recomputing the full PoN.  See {@link HDF5PCACoveragePoNCreationUtils#update} for details.
+ * </p>
+ *
+ * <pre>
+ * gatk-launch --javaOptions "-Xmx4g" CreatePanelOfNormals \
+ *   --panelOfNormals panel_of_normals.pon \
+ *   --input new_gc_corrected_coverages.tsv \
+ *   --output updated_panel_of_normals.pon
+ * </pre>
+ *
  */
 @CommandLineProgramProperties(
         summary = "Create a coverage panel of normals (PoN) given the proportional read counts " +
@@ -233,6 +246,17 @@ public class CreatePanelOfNormals extends SparkToggleCommandLineProgram {
     )
     protected File targetWeightsOutFile = null;
 
+    @Argument(
+            doc = "Existing panel of normals to update with the samples in the input read counts, rather than creating a new one.  " +
+                    "The targets of the existing PoN are kept (the input must contain all of them) and the target factor " +
+                    "threshold is ignored.  Unless the number of eigensamples is given, that of the existing PoN is kept.  " +
+                    "PoNs older than version 6.1 can not be updated and must be recreated.",
+            shortName = ExomeStandardArgumentDefinitions.PON_FILE_SHORT_NAME,
+            fullName = ExomeStandardArgumentDefinitions.PON_FILE_LONG_NAME,
+            optional = true
+    )
+    protected File inputPoNFile = null;
+
     // This option is useful to test performance when the HDF5 lib is not
     // present for whatever reason.
     @Argument(
@@ -259,17 +283,17 @@ public class CreatePanelOfNormals extends SparkToggleCommandLineProgram {
 
         // Check parameters and load values to meet the backend PoN creation interface
         validateArguments();
-        final TargetCollection<Target> targets = targetArguments.readTargetCollection(true);
+        final TargetCollection<Target> targets = inputPoNFile == null ? targetArguments.readTargetCollection(true) : null;
         final OptionalInt numberOfEigensamples = parseNumberOfEigensamples(numberOfEigensamplesString);
+        if (inputPoNFile != null) {
+            logger.info("Updating the PoN " + inputPoNFile + " with the samples in " + inputFile + "...");
+        }
 
         // Create the PoN, including QC, if specified.
         if (!isNoQc && !dryRun) {
             logger.info("QC:  Beginning creation of QC PoN...");
             final File outputQCFile = IOUtils.createTempFile("qc-pon-",".hd5");
-            HDF5PCACoveragePoNCreationUtils.create(ctx, outputQCFile, HDF5File.OpenMode.READ_WRITE, inputFile, targets, new ArrayList<>(),
-                    targetFactorThreshold, maximumPercentZerosInColumn, maximumPercentZerosInTarget,
-                    columnExtremeThresholdPercentile, outlierTruncatePercentileThresh, OptionalInt.of(NUM_QC_EIGENSAMPLES), dryRun
-            );
+            createOrUpdatePoN(ctx, outputQCFile, HDF5File.OpenMode.READ_WRITE, targets, new ArrayList<>(), OptionalInt.of(NUM_QC_EIGENSAMPLES));
             logger.info("QC:  QC PoN created...");
 
             logger.info("QC:  Collecting suspicious samples...");
@@ -282,9 +306,11 @@ public class CreatePanelOfNormals extends SparkToggleCommandLineProgram {
                     logger.info("QC:  Suspicious sample list created...");
 
                     logger.info("Creating final PoN with " + failingSampleNames.size() + " suspicious samples removed...");
-                    HDF5PCACoveragePoNCreationUtils.create(ctx, outFile, HDF5File.OpenMode.CREATE, inputFile, targets, failingSampleNames,
-                            targetFactorThreshold, maximumPercentZerosInColumn, maximumPercentZerosInTarget,
-                            columnExtremeThresholdPercentile, outlierTruncatePercentileThresh, numberOfEigensamples, dryRun);
+                    createOrUpdatePoN(ctx, outFile, HDF5File.OpenMode.CREATE, targets, failingSampleNames, numberOfEigensamples);
+                } else if (inputPoNFile != null) {
+                    logger.info("QC:  No suspicious samples found ...");
+                    logger.info("Creating final PoN ...");
+                    createOrUpdatePoN(ctx, outFile, HDF5File.OpenMode.CREATE, targets, new ArrayList<>(), numberOfEigensamples);
                 } else {
                     logger.info("QC:  No suspicious samples found ...");
                     logger.info("Creating final PoN only redo'ing the reduction step ...");
@@ -293,10 +319,7 @@ public class CreatePanelOfNormals extends SparkToggleCommandLineProgram {
             }
         } else {
             logger.info("Creating PoN directly (skipping QC)...");
-            HDF5PCACoveragePoNCreationUtils.create(ctx, outFile, HDF5File.OpenMode.CREATE, inputFile, targets, new ArrayList<>(),
-                    targetFactorThreshold, maximumPercentZerosInColumn, maximumPercentZerosInTarget,
-                    columnExtremeThresholdPercentile, outlierTruncatePercentileThresh, numberOfEigensamples, dryRun
-            );
+            createOrUpdatePoN(ctx, outFile, HDF5File.OpenMode.CREATE, targets, new ArrayList<>(), numberOfEigensamples);
         }
 
         if (!dryRun) {
@@ -306,6 +329,25 @@ public class CreatePanelOfNormals extends SparkToggleCommandLineProgram {
         logger.info("Done...");
     }
 
+    /**
+     * Creates a PoN from the input read counts or, if an input PoN was given, updates it with them.
+     */
+    private void createOrUpdatePoN(final JavaSparkContext ctx, final File outputFile, final HDF5File.OpenMode openMode,
+                                   final TargetCollection<Target> targets, final List<String> sampleNameBlacklist,
+                                   final OptionalInt numberOfEigensamples) {
+        if (inputPoNFile == null) {
+            HDF5PCACoveragePoNCreationUtils.create(ctx, outputFile, openMode, inputFile, targets, sampleNameBlacklist,
+                    targetFactorThreshold, maximumPercentZerosInColumn, maximumPercentZerosInTarget,
+                    columnExtremeThresholdPercentile, outlierTruncatePercentileThresh, numberOfEigensamples, dryRun
+            );
+        } else {
+            HDF5PCACoveragePoNCreationUtils.update(ctx, inputPoNFile, outputFile, openMode, inputFile, sampleNameBlacklist,
+                    maximumPercentZerosInColumn, maximumPercentZerosInTarget,
+                    columnExtremeThresholdPercentile, outlierTruncatePercentileThresh, numberOfEigensamples, dryRun
+            );
+        }
+    }
+
     private void validateArguments() {
         Utils.validateArg(targetFactorThreshold >= 0 && targetFactorThreshold <= 100 && !Double.isNaN(targetFactorThreshold),
                 TARGET_FACTOR_THRESHOLD_PERCENTILE_FULL_NAME + " must be in [0, 100].");
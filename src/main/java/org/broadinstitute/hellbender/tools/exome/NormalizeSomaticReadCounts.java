@@ -1,5 +1,7 @@
 package org.broadinstitute.hellbender.tools.exome;
 
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.logging.log4j.Level;
 import org.broadinstitute.barclay.argparser.*;
 import org.broadinstitute.barclay.argparser.Argument;
@@ -18,11 +20,18 @@ import org.broadinstitute.hellbender.utils.io.IOUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
+import java.util.*;
 
 /**
  * Normalizes read counts given the PanelOfNormals (PoN).
  *
+ * <p>
+ *     More than one read-count input file can be given, in which case all the case samples are normalized
+ *     together as a batch: the panel of normals is read only once and the projection onto the panel is done
+ *     with a single matrix-matrix product rather than one matrix-vector product per sample. Each output then
+ *     contains a column per input sample.
+ * </p>
+ *
  * <p> A note to developers:  If this is extended to use Spark, please be wary that the parallelization in tangent normalization is
  * by case sample, which may not yield benefits for most use cases (which are one sample)  </p>
  *
@@ -42,6 +51,21 @@ import java.util.List;
  *   --preTangentNormalized tumor.preTN.tsv
  * </pre>
  *
+ * <p>
+ *     The following command normalizes several tumors in a single batch.
+ * </p>
+ *
+ * <pre>
+ * gatk-launch --javaOptions "-Xmx4g" NormalizeSomaticReadCounts \
+ *   --input tumor1.coverage.tsv \
+ *   --input tumor2.coverage.tsv \
+ *   --input tumor3.coverage.tsv \
+ *   --targets padded_targets.tsv \
+ *   --panelOfNormals panel_of_normals.pon \
+ *   --tangentNormalized tumors.tn.tsv \
+ *   --preTangentNormalized tumors.preTN.tsv
+ * </pre>
+ *
  * The resulting data are log2 transformed. Currently, the tool can only produce log2-transformed counts.
  */
 @CommandLineProgramProperties(
@@ -62,12 +86,13 @@ public final class NormalizeSomaticReadCounts extends CommandLineProgram {
     public static final String FACTOR_NORMALIZED_COUNTS_SHORT_NAME = "FNO";
 
     @Argument(
-            doc = "read counts input file.  This can only contain one sample.",
+            doc = "read counts input file.  This can only contain one sample.  If given more than once, all the samples " +
+                    "are normalized together and the outputs contain one column per input file.",
             shortName = READ_COUNTS_FILE_SHORT_NAME,
             fullName = READ_COUNTS_FILE_FULL_NAME,
             optional = false
     )
-    protected File readCountsFile;
+    protected List<File> readCountsFiles = new ArrayList<>();
 
     @Argument(
             doc = "target file -- not a BED file.  Should be formatted as a tsv with at least the following header columns: contig, start, stop, name.",
@@ -127,8 +152,8 @@ public final class NormalizeSomaticReadCounts extends CommandLineProgram {
         try (final HDF5File hdf5PoNFile = new HDF5File(ponFile)) {
             final PCACoveragePoN pon = new HDF5PCACoveragePoN(hdf5PoNFile, logger);
             final TargetCollection<Target> targetCollection = readTargetCollection(targetFile);
-            final ReadCountCollection proportionalCoverageProfile = readInputReadCounts(readCountsFile, targetCollection);
-            final PCATangentNormalizationResult tangentNormalizationResult = pon.normalize(proportionalCoverageProfile);;
+            final ReadCountCollection proportionalCoverageProfile = readInputReadCounts(readCountsFiles, targetCollection);
+            final PCATangentNormalizationResult tangentNormalizationResult = pon.normalize(proportionalCoverageProfile);
             tangentNormalizationResult.write(getCommandLine(), tangentNormalizationOutFile, preTangentNormalizationOutFile, betaHatsOutFile, fntOutFile);
             return "SUCCESS";
         }
@@ -150,6 +175,51 @@ public final class NormalizeSomaticReadCounts extends CommandLineProgram {
         }
     }
 
+    /**
+     * Reads the read-counts from all the input files and puts them together in a single collection
+     * with one column per input file.
+     *
+     * <p>
+     *     The target order is the one in the first input file; all the other inputs must contain exactly the same
+     *     targets, although not necessarily in the same order.
+     * </p>
+     *
+     * @param readCountsFiles the read-counts files.
+     * @param targetCollection the input target collection. {@code null} indicates that no collection was provided by the user.
+     * @return never {@code null}.
+     * @throws UserException.BadInput if any of the inputs is not valid as per {@link #readInputReadCounts(File, TargetCollection)},
+     *                                if the inputs do not share the same targets or if a sample name is repeated.
+     */
+    private ReadCountCollection readInputReadCounts(final List<File> readCountsFiles,
+                                                    final TargetCollection<Target> targetCollection) {
+        Utils.nonEmpty(readCountsFiles, "there must be at least one read-counts input file");
+        final ReadCountCollection first = readInputReadCounts(readCountsFiles.get(0), targetCollection);
+        if (readCountsFiles.size() == 1) {
+            return first;
+        }
+        logger.info(String.format("Normalizing %d case samples as a batch ...", readCountsFiles.size()));
+        final List<Target> targets = first.targets();
+        final Set<Target> targetSet = new HashSet<>(targets);
+        final RealMatrix counts = new Array2DRowRealMatrix(targets.size(), readCountsFiles.size());
+        final List<String> sampleNames = new ArrayList<>(readCountsFiles.size());
+        for (int i = 0; i < readCountsFiles.size(); i++) {
+            final File readCountsFile = readCountsFiles.get(i);
+            final ReadCountCollection sample = i == 0 ? first : readInputReadCounts(readCountsFile, targetCollection);
+            if (!targetSet.equals(new HashSet<>(sample.targets()))) {
+                throw new UserException.BadInput(String.format("the read-count input file '%s' does not contain the same targets as '%s'",
+                        readCountsFile, readCountsFiles.get(0)));
+            }
+            final String sampleName = sample.columnNames().get(0);
+            if (sampleNames.contains(sampleName)) {
+                throw new UserException.BadInput(String.format("the sample name '%s' in the read-count input file '%s' is repeated in a previous input file",
+                        sampleName, readCountsFile));
+            }
+            sampleNames.add(sampleName);
+            counts.setColumn(i, sample.arrangeTargets(targets).getColumn(0));
+        }
+        return new ReadCountCollection(targets, sampleNames, counts);
+    }
+
     /**
      * Reads the read-counts from the input file using a target collection (if provided) to resolve target names if this
      * are missing.
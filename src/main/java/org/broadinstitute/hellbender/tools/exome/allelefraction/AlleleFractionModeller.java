@@ -100,8 +100,20 @@ public final class AlleleFractionModeller {
      * @param numBurnIn     number of burn-in samples to discard
      */
     public void fitMCMC(final int numSamples, final int numBurnIn) {
+        fitMCMC(numSamples, numBurnIn, 1);
+    }
+
+    /**
+     * Adds {@code numSamples - numBurnIn} Markov-Chain Monte-Carlo samples of the parameter posteriors as
+     * {@link #fitMCMC(int, int)} does, sampling the minor-allele fractions of the segments on {@code numThreads} threads.
+     * @param numSamples    total number of samples per posterior
+     * @param numBurnIn     number of burn-in samples to discard
+     * @param numThreads    number of threads to sample the minor-allele fractions of the segments with
+     */
+    public void fitMCMC(final int numSamples, final int numBurnIn, final int numThreads) {
         //run MCMC
         final GibbsSampler<AlleleFractionParameter, AlleleFractionState, AlleleFractionData> gibbsSampler = new GibbsSampler<>(numSamples, model);
+        gibbsSampler.setNumThreads(numThreads);
         gibbsSampler.runMCMC();
 
         //update posterior samples
@@ -2,12 +2,12 @@ package org.broadinstitute.hellbender.tools.exome.allelefraction;
 
 import org.apache.commons.math3.random.RandomGenerator;
 import org.broadinstitute.hellbender.tools.pon.allelic.AllelicPanelOfNormals;
+import org.broadinstitute.hellbender.utils.mcmc.BlockParameterSampler;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterSampler;
 import org.broadinstitute.hellbender.utils.mcmc.SliceSampler;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Sampler classes for the allele-fraction model.
@@ -113,8 +113,9 @@ final class AlleleFractionSamplers {
         }
     }
 
-    // sample minor fractions of all segments
-    protected static final class MinorFractionsSampler implements ParameterSampler<AlleleFractionState.MinorFractions, AlleleFractionParameter, AlleleFractionState, AlleleFractionData> {
+    // sample minor fractions of all segments; segments are conditionally independent given the global parameters,
+    // so each segment is a block that may be sampled in parallel
+    protected static final class MinorFractionsSampler implements BlockParameterSampler<Double, AlleleFractionState.MinorFractions, AlleleFractionParameter, AlleleFractionState, AlleleFractionData> {
         private final List<PerSegmentMinorFractionSampler> perSegmentSamplers = new ArrayList<>();
 
         public MinorFractionsSampler(final List<Double> sliceSamplingWidths) {
@@ -125,9 +126,18 @@ final class AlleleFractionSamplers {
         }
 
         @Override
-        public AlleleFractionState.MinorFractions sample(final RandomGenerator rng, final AlleleFractionState state, final AlleleFractionData data) {
-            return new AlleleFractionState.MinorFractions(perSegmentSamplers.stream()
-                    .map(sampler -> sampler.sample(rng, state, data)).collect(Collectors.toList()));
+        public int numBlocks(final AlleleFractionState state, final AlleleFractionData data) {
+            return perSegmentSamplers.size();
+        }
+
+        @Override
+        public Double sampleBlock(final RandomGenerator rng, final int segment, final AlleleFractionState state, final AlleleFractionData data) {
+            return perSegmentSamplers.get(segment).sample(rng, state, data);
+        }
+
+        @Override
+        public AlleleFractionState.MinorFractions combineBlocks(final List<Double> minorFractions) {
+            return new AlleleFractionState.MinorFractions(minorFractions);
         }
     }
 }
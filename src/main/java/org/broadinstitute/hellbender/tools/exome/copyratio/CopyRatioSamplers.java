@@ -3,12 +3,14 @@ package org.broadinstitute.hellbender.tools.exome.copyratio;
 import org.apache.commons.math3.distribution.BetaDistribution;
 import org.apache.commons.math3.random.RandomGenerator;
 import org.broadinstitute.hellbender.utils.MathUtils;
+import org.broadinstitute.hellbender.utils.mcmc.BlockParameterSampler;
 import org.broadinstitute.hellbender.utils.mcmc.ParameterSampler;
 import org.broadinstitute.hellbender.utils.mcmc.SliceSampler;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -81,7 +83,8 @@ final class CopyRatioSamplers {
     //samples log conditional posteriors for the segment-mean parameters, assuming uniform priors bounded by minimum and maximum coverage;
     //for each segment s, this is given by the product of Gaussian likelihoods for each non-outlier target t:
     //  log[product_{non-outlier t in s} exp(-(coverage_t - mean_s)^2 / (2 * variance))] + constant
-    protected static final class SegmentMeansSampler implements ParameterSampler<CopyRatioState.SegmentMeans, CopyRatioParameter, CopyRatioState, CopyRatioData> {
+    //segments are conditionally independent, so each segment is a block that may be sampled in parallel
+    protected static final class SegmentMeansSampler implements BlockParameterSampler<Double, CopyRatioState.SegmentMeans, CopyRatioParameter, CopyRatioState, CopyRatioData> {
         private final double coverageMin;
         private final double coverageMax;
         private final double meanSliceSamplingWidth;
@@ -93,23 +96,28 @@ final class CopyRatioSamplers {
         }
 
         @Override
-        public CopyRatioState.SegmentMeans sample(final RandomGenerator rng, final CopyRatioState state, final CopyRatioData dataCollection) {
-            final List<Double> means = new ArrayList<>(dataCollection.getNumSegments());
-            for (int segment = 0; segment < dataCollection.getNumSegments(); segment++) {
-                final List<CopyRatioData.IndexedCoverage> indexedCoveragesInSegment = dataCollection.getIndexedCoveragesInSegment(segment);
-                if (indexedCoveragesInSegment.isEmpty()) {
-                    means.add(Double.NaN);
-                } else {
-                    final Function<Double, Double> logConditionalPDF = newMean ->
-                            indexedCoveragesInSegment.stream()
-                                    .filter(c -> !state.targetOutlierIndicator(c.getTargetIndex()))
-                                    .mapToDouble(c -> -normalTerm(c.getCoverage(), newMean, state.variance()))
-                                    .sum();
-                    //slice sample within range given by minimum and maximum coverages
-                    final SliceSampler sampler = new SliceSampler(rng, logConditionalPDF, coverageMin, coverageMax, meanSliceSamplingWidth);
-                    means.add(sampler.sample(state.segmentMean(segment)));
-                }
+        public int numBlocks(final CopyRatioState state, final CopyRatioData dataCollection) {
+            return dataCollection.getNumSegments();
+        }
+
+        @Override
+        public Double sampleBlock(final RandomGenerator rng, final int segment, final CopyRatioState state, final CopyRatioData dataCollection) {
+            final List<CopyRatioData.IndexedCoverage> indexedCoveragesInSegment = dataCollection.getIndexedCoveragesInSegment(segment);
+            if (indexedCoveragesInSegment.isEmpty()) {
+                return Double.NaN;
             }
+            final Function<Double, Double> logConditionalPDF = newMean ->
+                    indexedCoveragesInSegment.stream()
+                            .filter(c -> !state.targetOutlierIndicator(c.getTargetIndex()))
+                            .mapToDouble(c -> -normalTerm(c.getCoverage(), newMean, state.variance()))
+                            .sum();
+            //slice sample within range given by minimum and maximum coverages
+            final SliceSampler sampler = new SliceSampler(rng, logConditionalPDF, coverageMin, coverageMax, meanSliceSamplingWidth);
+            return sampler.sample(state.segmentMean(segment));
+        }
+
+        @Override
+        public CopyRatioState.SegmentMeans combineBlocks(final List<Double> means) {
             return new CopyRatioState.SegmentMeans(means);
         }
     }
@@ -122,7 +130,8 @@ final class CopyRatioSamplers {
     //note that we compute the normalizing constant, so that we can sample a new indicator value by simply sampling
     //uniformly in [0, 1] and checking whether the resulting value is less than the probability of being an outlier
     //(corresponding to the first line in the unnormalized expression above)
-    protected static final class OutlierIndicatorsSampler implements ParameterSampler<CopyRatioState.OutlierIndicators, CopyRatioParameter, CopyRatioState, CopyRatioData> {
+    //indicators are conditionally independent, so the indicators of each segment are a block that may be sampled in parallel
+    protected static final class OutlierIndicatorsSampler implements BlockParameterSampler<List<Boolean>, CopyRatioState.OutlierIndicators, CopyRatioParameter, CopyRatioState, CopyRatioData> {
         private final double outlierUniformLogLikelihood;
 
         public OutlierIndicatorsSampler(final double outlierUniformLogLikelihood) {
@@ -130,27 +139,35 @@ final class CopyRatioSamplers {
         }
 
         @Override
-        public CopyRatioState.OutlierIndicators sample(final RandomGenerator rng, final CopyRatioState state, final CopyRatioData dataCollection) {
+        public int numBlocks(final CopyRatioState state, final CopyRatioData dataCollection) {
+            return dataCollection.getNumSegments();
+        }
+
+        @Override
+        public List<Boolean> sampleBlock(final RandomGenerator rng, final int segment, final CopyRatioState state, final CopyRatioData dataCollection) {
             final double outlierUnnormalizedLogProbability =
                     Math.log(state.outlierProbability()) + outlierUniformLogLikelihood;
             final double notOutlierUnnormalizedLogProbabilityPrefactor =
                     Math.log(1. - state.outlierProbability()) - 0.5 * Math.log(2 * Math.PI * state.variance());
-            final List<Boolean> indicators = new ArrayList<>();
-            for (int segment = 0; segment < dataCollection.getNumSegments(); segment++) {
-                final List<CopyRatioData.IndexedCoverage> indexedCoveragesInSegment = dataCollection.getIndexedCoveragesInSegment(segment);
-                for (final CopyRatioData.IndexedCoverage c : indexedCoveragesInSegment) {
-                    final double notOutlierUnnormalizedLogProbability =
-                            notOutlierUnnormalizedLogProbabilityPrefactor
-                                    - normalTerm(c.getCoverage(), state.segmentMean(segment), state.variance());
-                    //note: we are working in natural log space, so we divide by ln(10) before using normalizeFromLog10
-                    final double conditionalProbability =
-                            MathUtils.normalizeFromLog10ToLinearSpace(new double[]{
-                                    MathUtils.logToLog10(outlierUnnormalizedLogProbability),
-                                    MathUtils.logToLog10(notOutlierUnnormalizedLogProbability)})[0];
-                    indicators.add(rng.nextDouble() < conditionalProbability);
-                }
+            final List<CopyRatioData.IndexedCoverage> indexedCoveragesInSegment = dataCollection.getIndexedCoveragesInSegment(segment);
+            final List<Boolean> indicators = new ArrayList<>(indexedCoveragesInSegment.size());
+            for (final CopyRatioData.IndexedCoverage c : indexedCoveragesInSegment) {
+                final double notOutlierUnnormalizedLogProbability =
+                        notOutlierUnnormalizedLogProbabilityPrefactor
+                                - normalTerm(c.getCoverage(), state.segmentMean(segment), state.variance());
+                //note: we are working in natural log space, so we divide by ln(10) before using normalizeFromLog10
+                final double conditionalProbability =
+                        MathUtils.normalizeFromLog10ToLinearSpace(new double[]{
+                                MathUtils.logToLog10(outlierUnnormalizedLogProbability),
+                                MathUtils.logToLog10(notOutlierUnnormalizedLogProbability)})[0];
+                indicators.add(rng.nextDouble() < conditionalProbability);
             }
-            return new CopyRatioState.OutlierIndicators(indicators);
+            return indicators;
+        }
+
+        @Override
+        public CopyRatioState.OutlierIndicators combineBlocks(final List<List<Boolean>> indicatorsBySegment) {
+            return new CopyRatioState.OutlierIndicators(indicatorsBySegment.stream().flatMap(List::stream).collect(Collectors.toList()));
         }
     }
 }
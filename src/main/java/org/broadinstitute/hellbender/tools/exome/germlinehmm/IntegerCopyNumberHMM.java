@@ -93,6 +93,19 @@ public final class IntegerCopyNumberHMM<DATA>
         }
     }
 
+    @Override
+    public void logTransitionProbabilities(@Nonnull final Target currentPosition,
+                                           @Nonnull final Target nextPosition,
+                                           @Nonnull final double[][] result) {
+        final double distance = Target.calculateDistance(currentPosition, nextPosition);
+        if (distance == Double.POSITIVE_INFINITY) {
+            HMM.super.logTransitionProbabilities(currentPosition, nextPosition, result);
+        } else {
+            transitionProbabilityCacheCollection.logTransitionProbabilities((int) distance, sampleSexGenotype,
+                    currentPosition.getContig(), result);
+        }
+    }
+
     @Override
     public double logEmissionProbability(@Nonnull final DATA data,
                                          @Nonnull final IntegerCopyNumberState state,
@@ -133,6 +133,22 @@ public final class IntegerCopyNumberTransitionProbabilityCache implements Serial
         return get(distance).get(to, from);
     }
 
+    /**
+     * Get the log transition probabilities between all pairs of states
+     *
+     * @param distance distance between targets
+     * @param result a square array where to store the log transition probability from the copy number given by
+     *               the row index to the copy number given by the column index
+     */
+    public void logTransitionProbabilities(final int distance, final double[][] result) {
+        final RealMatrix logTransitionMatrix = get(distance).getMatrix();
+        for (int from = 0; from < result.length; from++) {
+            for (int to = 0; to < result[from].length; to++) {
+                result[from][to] = logTransitionMatrix.getEntry(to, from);
+            }
+        }
+    }
+
     public double logStationaryProbability(final IntegerCopyNumberState state) {
         Utils.nonNull(state, "The integer copy number state must be non-null");
         return logStationaryProbabilities[state.getCopyNumber()];
@@ -89,6 +89,24 @@ public final class IntegerCopyNumberTransitionProbabilityCacheCollection impleme
                 .logTransitionProbability(distance, to, from);
     }
 
+    /**
+     * Calculates the log transition probabilities between all pairs of integer copy number states for a given
+     * distance, sex genotype, and contig
+     *
+     * @param distance distance between the two targets (must be positive)
+     * @param sexGenotype a string identifier for the sex genotype
+     * @param contig a string identifier for the contig
+     * @param result a square array where to store the log transition probability from the copy number given by
+     *               the row index to the copy number given by the column index
+     */
+    public void logTransitionProbabilities(final int distance, final String sexGenotype, final String contig,
+                                           final double[][] result) {
+        ParamUtils.isPositive(distance, "The distance between two two targets must be positive");
+        Utils.nonNull(result, "The result array must be non-null");
+        sexGenotypeAndContigToTransitionMatrixCacheMap.get(checkKey(sexGenotype, contig))
+                .logTransitionProbabilities(distance, result);
+    }
+
     public double logStationaryProbability(final String sexGenotype, final String contig,
                                            final IntegerCopyNumberState state) {
         return sexGenotypeAndContigToTransitionMatrixCacheMap.get(checkKey(sexGenotype, contig))
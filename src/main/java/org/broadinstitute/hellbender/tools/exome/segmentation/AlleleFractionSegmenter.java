@@ -100,6 +100,7 @@ public final class AlleleFractionSegmenter extends ScalarHMMSegmenter<AllelicCou
                 RELATIVE_TOLERANCE_FOR_OPTIMIZATION, ABSOLUTE_TOLERANCE_FOR_OPTIMIZATION, MAX_EVALUATIONS_FOR_OPTIMIZATION);
 
         globalParameters = new AlleleFractionGlobalParameters(newMeanBias, newBiasVariance, newOutlierProbability);
+        invalidateLogEmissionProbabilities();
 
         logger.info(String.format("Global allelic bias parameters learned.  Mean allelic bias: %f, variance of allelic bias: %f, outlier probability: %f.",
                 newMeanBias, newBiasVariance, newOutlierProbability));
@@ -69,6 +69,22 @@ public abstract class ClusteringGenomicHMM<DATA, HIDDEN> implements HMM<DATA, Si
                                            final Integer nextState, final SimpleInterval nextPosition) {
         return logTransitionProbability(currentState, nextState, calculateDistance(currentPosition, nextPosition));
     }
+
+    // the probability to remember the state only depends on the distance, so we compute it once for the whole matrix
+    @Override
+    public void logTransitionProbabilities(final SimpleInterval currentPosition, final SimpleInterval nextPosition,
+                                           final double[][] result) {
+        final double pRemember = Math.exp(-calculateDistance(currentPosition, nextPosition) / memoryLength);
+        final int numStates = hiddenStateValues.size();
+        for (int nextState = 0; nextState < numStates; nextState++) {
+            final double pForgetToNextState = (1 - pRemember) * weights.get(nextState);
+            final double logTransitionFromOtherState = Math.log(pForgetToNextState);
+            final double logTransitionFromSameState = Math.log(pRemember + pForgetToNextState);
+            for (int currentState = 0; currentState < numStates; currentState++) {
+                result[currentState][nextState] = currentState == nextState ? logTransitionFromSameState : logTransitionFromOtherState;
+            }
+        }
+    }
     // Done with implementation ----------------------------------------------------------------------------------------
 
     private double logTransitionProbability(final Integer currentState, final Integer nextState, final double distance) {
@@ -8,18 +8,32 @@ import org.apache.commons.math3.analysis.integration.UnivariateIntegrator;
 import org.apache.commons.math3.special.Gamma;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.utils.*;
 import org.broadinstitute.hellbender.utils.hmm.ForwardBackwardAlgorithm;
 import org.broadinstitute.hellbender.utils.hmm.ViterbiAlgorithm;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
  * Segmentation and parameter learning corresponding to {@link ClusteringGenomicHMM}
  *
+ * <p>
+ *     The log emission probabilities of every datum for every hidden state are cached across EM iterations and
+ *     only recomputed for a hidden state when its value changes, or for all of them when child classes change the
+ *     parameters of the emission model (see {@link #invalidateLogEmissionProbabilities()}).  Consecutive positions
+ *     on different contigs are infinitely far apart, so the hidden-state chains of different contigs are independent
+ *     and the forward-backward algorithm is run on each of them separately, on {@link #setNumThreads} threads.
+ * </p>
+ *
  * @author David Benjamin &lt;davidben@broadinstitute.org&gt;
  */
 public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
@@ -37,6 +51,18 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
     protected final List<SimpleInterval> positions;
     private final double[] distances;   // distances[n] is the n to n+1 distance
 
+    // log emission probabilities, one array by position per hidden state; null for states whose probabilities need to
+    // be recomputed
+    private List<double[]> logEmissionProbabilitiesByState;
+
+    // chain c comprises positions chainStarts[c] (inclusive) to chainStarts[c + 1] (exclusive), all on the same contig
+    private final int[] chainStarts;
+
+    private int numThreads = 1;
+
+    // pool shared by the parallel steps of a learning run or an expectation step (see #withPool); null otherwise
+    private ForkJoinPool pool;
+
     protected static double NEGLIGIBLE_POSTERIOR_FOR_M_STEP = 0.001;
 
     private static final double MINIMUM_MEMORY_LENGTH = 1;
@@ -89,6 +115,24 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
         this.weights = Utils.nonEmpty(weights);
         Utils.validateArg(hiddenStateValues.size() == weights.size(), "The number of hidden states must equal the number of weights.");
         this.memoryLength = memoryLength;
+        logEmissionProbabilitiesByState = new ArrayList<>(Collections.nCopies(hiddenStateValues.size(), null));
+        chainStarts = calculateChainStarts(positions);
+    }
+
+    private static int[] calculateChainStarts(final List<SimpleInterval> positions) {
+        return IntStream.rangeClosed(0, positions.size())
+                .filter(n -> n == 0 || n == positions.size() || !positions.get(n).getContig().equals(positions.get(n - 1).getContig()))
+                .toArray();
+    }
+
+    /**
+     * Changes the number of threads used to compute the emission probabilities of the hidden states and to run the
+     * forward-backward algorithm on the chains of different contigs.  Results are the same for any number of threads.
+     * @param numThreads    number of threads; must be positive
+     */
+    public void setNumThreads(final int numThreads) {
+        ParamUtils.isPositive(numThreads, "Number of threads must be positive.");
+        this.numThreads = numThreads;
     }
 
     private static double[] calculateDistances(final List<SimpleInterval> positions) {
@@ -138,21 +182,24 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
     }
 
     private void learn() {
-        int iteration = 0;
-        boolean converged = false;
-        while (!converged && iteration++ < MAX_EM_ITERATIONS) {
-            logger.info(String.format("Beginning iteration %d of learning.", iteration));
-            logger.info(String.format("Current memory length: %f bases.", memoryLength));
-
-            final double oldMemoryLength = memoryLength;
-            final List<Double> oldWeights = new ArrayList<>(weights);
-            final List<HIDDEN> oldHiddenStateValues = new ArrayList<>(hiddenStateValues);
-            performEMIteration();
-            converged = oldWeights.size() == numStates() &&
-                    Math.abs(oldMemoryLength - memoryLength) < MEMORY_LENGTH_CONVERGENCE_THRESHOLD &&
-                    GATKProtectedMathUtils.maxDifference(oldWeights, weights) < CONVERGENCE_THRESHOLD &&
-                    hiddenStateValuesHaveConverged(oldHiddenStateValues);
-        }
+        withPool(() -> {
+            int iteration = 0;
+            boolean converged = false;
+            while (!converged && iteration++ < MAX_EM_ITERATIONS) {
+                logger.info(String.format("Beginning iteration %d of learning.", iteration));
+                logger.info(String.format("Current memory length: %f bases.", memoryLength));
+
+                final double oldMemoryLength = memoryLength;
+                final List<Double> oldWeights = new ArrayList<>(weights);
+                final List<HIDDEN> oldHiddenStateValues = new ArrayList<>(hiddenStateValues);
+                performEMIteration();
+                converged = oldWeights.size() == numStates() &&
+                        Math.abs(oldMemoryLength - memoryLength) < MEMORY_LENGTH_CONVERGENCE_THRESHOLD &&
+                        GATKProtectedMathUtils.maxDifference(oldWeights, weights) < CONVERGENCE_THRESHOLD &&
+                        hiddenStateValuesHaveConverged(oldHiddenStateValues);
+            }
+            return null;
+        });
         parametersHaveBeenLearned = true;
     }
 
@@ -195,10 +242,102 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
     protected void removeStates(Collection<Integer> componentsToPrune) {
         weights = IntStream.range(0, numStates())
                 .filter(n -> !componentsToPrune.contains(n)).mapToObj(weights::get).collect(Collectors.toList());
+        logEmissionProbabilitiesByState = IntStream.range(0, numStates())
+                .filter(n -> !componentsToPrune.contains(n)).mapToObj(logEmissionProbabilitiesByState::get).collect(Collectors.toList());
         hiddenStateValues = IntStream.range(0, numStates())
                 .filter(n -> !componentsToPrune.contains(n)).mapToObj(hiddenStateValues::get).collect(Collectors.toList());
     }
 
+    /**
+     * Discards the cached emission probabilities of every hidden state.  Child classes must call this whenever they
+     * change a parameter of the emission model other than the hidden state values.
+     */
+    protected void invalidateLogEmissionProbabilities() {
+        Collections.fill(logEmissionProbabilitiesByState, null);
+    }
+
+    /**
+     * Returns the log emission probability of each datum for each hidden state of a model generated by
+     * {@link #makeModel()}, indexed by hidden state and then by position, computing those that are not cached.
+     */
+    private double[][] logEmissionProbabilities(final ClusteringGenomicHMM<DATA, HIDDEN> model) {
+        final int[] statesToCompute = IntStream.range(0, numStates())
+                .filter(state -> logEmissionProbabilitiesByState.get(state) == null).toArray();
+        final List<double[]> computed = mapInParallel(statesToCompute.length, i -> {
+            final int state = statesToCompute[i];
+            final double[] result = new double[data.size()];
+            for (int n = 0; n < result.length; n++) {
+                result[n] = model.logEmissionProbability(data.get(n), state, positions.get(n));
+            }
+            return result;
+        });
+        for (int i = 0; i < statesToCompute.length; i++) {
+            logEmissionProbabilitiesByState.set(statesToCompute[i], computed.get(i));
+        }
+        return logEmissionProbabilitiesByState.toArray(new double[numStates()][]);
+    }
+
+    /**
+     * Runs the forward-backward algorithm on the positions of a chain, whose indices are offset by the start of the
+     * chain in the result.
+     */
+    private ForwardBackwardAlgorithm.Result<DATA, SimpleInterval, Integer> runForwardBackwardOnChain(
+            final ClusteringGenomicHMM<DATA, HIDDEN> model, final double[][] logEmissionProbabilities, final int chain) {
+        final int start = chainStarts[chain];
+        final int end = chainStarts[chain + 1];
+        final double[][] chainLogEmissionProbabilities = new double[end - start][logEmissionProbabilities.length];
+        for (int state = 0; state < logEmissionProbabilities.length; state++) {
+            final double[] stateLogEmissionProbabilities = logEmissionProbabilities[state];
+            for (int n = start; n < end; n++) {
+                chainLogEmissionProbabilities[n - start][state] = stateLogEmissionProbabilities[n];
+            }
+        }
+        return ForwardBackwardAlgorithm.apply(data.subList(start, end), positions.subList(start, end), model, chainLogEmissionProbabilities);
+    }
+
+    private int numChains() { return chainStarts.length - 1; }
+
+    /**
+     * Runs an action with a pool of {@link #numThreads} threads available to {@link #mapInParallel}, so that the pool
+     * is created once per action rather than once per parallel step, and shut down when the action is done.
+     */
+    private <R> R withPool(final Supplier<R> action) {
+        if (pool != null || numThreads == 1) {
+            return action.get();
+        }
+        pool = new ForkJoinPool(numThreads);
+        try {
+            return action.get();
+        } finally {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Applies a function to 0, 1, . . . n - 1 on the threads of {@link #pool} (or on the calling thread if there is
+     * no pool), returning the results in that order.
+     */
+    private <R> List<R> mapInParallel(final int n, final IntFunction<R> function) {
+        if (pool == null || n <= 1) {
+            return IntStream.range(0, n).mapToObj(function).collect(Collectors.toList());
+        }
+        try {
+            return pool.submit(() -> IntStream.range(0, n).parallel().mapToObj(function).collect(Collectors.toList())).get();
+        } catch (final ExecutionException e) {
+            throw new GATKException("Exception encountered during segmentation in parallel.", e.getCause());
+        } catch (final InterruptedException e) {
+            throw new GATKException("Interrupted during segmentation in parallel.", e);
+        }
+    }
+
+    // the data likelihood is the product of those of the independent chains
+    private double logDataLikelihood(final ClusteringGenomicHMM<DATA, HIDDEN> model) {
+        final double[][] logEmissionProbabilities = logEmissionProbabilities(model);
+        return mapInParallel(numChains(), chain -> runForwardBackwardOnChain(model, logEmissionProbabilities, chain).logDataLikelihood())
+                .stream().mapToDouble(x -> x).sum();
+    }
+
     /**
      * Compute the effective value of the Dirichlet concentration parameter, which defines the prior on weights in
      * subsequent iterations.  This value is the expectation of the concentration with respect to it mean-field
@@ -218,8 +357,11 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
                 / UNIVARIATE_INTEGRATOR.integrate(MAX_INTEGRATION_EVALUATIONS, distribution::apply, MINIMUM_CONCENTRATION, MAXIMUM_CONCENTRATION);
     }
 
+    // positions on different contigs are infinitely far apart and their state is always forgotten, so they contribute
+    // nothing to the objective; leaving them in would only add round-off from pForget = 1 times an infinite distance
     private void relearnMemoryLength(final ExpectationStep eStep) {
         final Function<Double, Double> objective = D -> IntStream.range(0, distances.length)
+                .filter(n -> Double.isFinite(distances[n]))
                 .mapToDouble(n -> eStep.pForget(n)*Math.log(1 - Math.exp(-distances[n]/D)) - (1 - eStep.pForget(n))*(distances[n]/D))
                 .sum();
         memoryLength = OptimizationUtils.argmax(objective, MINIMUM_MEMORY_LENGTH, MAXIMUM_MEMORY_LENGTH, memoryLength,
@@ -230,10 +372,10 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
     // exact model log-likelihood
     private void attemptBigChangeInMemoryLength() {
         final double memoryLengthMultiplier = Math.exp(random.nextGaussian()/2);
-        final double currentLogLikelihood = ForwardBackwardAlgorithm.apply(data, positions, makeModel()).logDataLikelihood();
+        final double currentLogLikelihood = logDataLikelihood(makeModel());
         final double oldMemoryLength = memoryLength;
-        memoryLength = memoryLength * memoryLengthMultiplier;
-        final double proposalLogLikelihood = ForwardBackwardAlgorithm.apply(data, positions, makeModel()).logDataLikelihood();
+        memoryLength = Math.min(Math.max(memoryLength * memoryLengthMultiplier, MINIMUM_MEMORY_LENGTH), MAXIMUM_MEMORY_LENGTH);
+        final double proposalLogLikelihood = logDataLikelihood(makeModel());
         if (proposalLogLikelihood < currentLogLikelihood) {
             memoryLength = oldMemoryLength;
         }
@@ -260,39 +402,82 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
         private final double[] transitionCountsByState = new double[K];
 
         public ExpectationStep() {
-            final ForwardBackwardAlgorithm.Result<DATA, SimpleInterval, Integer> fbResult =
-                    ForwardBackwardAlgorithm.apply(data, positions, makeModel());
+            final ClusteringGenomicHMM<DATA, HIDDEN> model = makeModel();
+            final double[][] logEmissionProbabilities = logEmissionProbabilities(model);
+
+            // chains are processed independently; their transition counts are added up afterwards, in order,
+            // so that the result does not depend on the number of threads
+            final List<double[]> transitionCountsByChain = mapInParallel(numChains(), chain -> {
+                final ForwardBackwardAlgorithm.Result<DATA, SimpleInterval, Integer> fbResult =
+                        runForwardBackwardOnChain(model, logEmissionProbabilities, chain);
+                final int start = chainStarts[chain];
+                final int end = chainStarts[chain + 1];
+                for (int n = start; n < end; n++) {
+                    for (int state = 0; state < K; state++) {
+                        pStateByPosition[state][n] = Math.exp(fbResult.logProbability(n - start, state));
+                    }
+                }
 
-            IntStream.range(0, K).forEach(state ->
-                    pStateByPosition[state] = IntStream.range(0, N).mapToDouble(n -> Math.exp(fbResult.logProbability(n, state))).toArray());
+                final double[] chainTransitionCounts = new double[K];
+                final double[][] logTransitionProbabilities = new double[K][K];
+                final double[] logForwardProbabilities = new double[K];
+                final double[] logWeightedNextProbabilities = new double[K];
+                for (int n = start; n < end - 1; n++) {
+                    // the log probability that from -> to transition occurred going from position n to n + 1 is the
+                    // sum of the log forward probability of from at n, the log transition probability, and the log
+                    // emission and backward probabilities of to at n + 1, minus the log data likelihood
+                    model.logTransitionProbabilities(positions.get(n), positions.get(n + 1), logTransitionProbabilities);
+                    final double logDataLikelihood = fbResult.logDataLikelihood(n + 1 - start);
+                    for (int state = 0; state < K; state++) {
+                        logForwardProbabilities[state] = fbResult.logForwardProbability(n - start, state);
+                        logWeightedNextProbabilities[state] = logEmissionProbabilities[state][n + 1]
+                                + fbResult.logBackwardProbability(n + 1 - start, state) - logDataLikelihood;
+                    }
+                    for (int from = 0; from < K; from++) {
+                        for (int to = 0; to < K; to++) {
+                            final double pTransition = Math.exp(logForwardProbabilities[from]
+                                    + logTransitionProbabilities[from][to] + logWeightedNextProbabilities[to]);
+                            addTransition(n, from, to, pTransition, chainTransitionCounts);
+                        }
+                    }
+                }
+                return chainTransitionCounts;
+            });
+            transitionCountsByChain.forEach(counts -> IntStream.range(0, K).forEach(state -> transitionCountsByState[state] += counts[state]));
 
-            for (int n = 0; n < N-1; n++) {
+            // the states at either side of the boundary between chains are independent
+            for (int chain = 1; chain < numChains(); chain++) {
+                final int n = chainStarts[chain] - 1;
                 for (int from = 0; from < K; from++) {
                     for (int to = 0; to < K; to++) {
-                        // probability that from -> to transition occurred going from position n to n + 1
-                        final double pTransition = Math.exp(fbResult.logProbability(n, Arrays.asList(from, to)));
-                        if (to != from ) {
-                            transitionCountsByState[to] += pTransition;
-                            pForget[n] += pTransition;
-                        } else {
-                            final double priorPForget = 1 - Math.exp(-distances[n] / memoryLength);
-                            // Bayes' Rule gives the probability that the state was forgotten given that toState == fromState
-                            final double pForgetAndTransition = pTransition * (priorPForget * getWeight(to) / ((1-priorPForget) + priorPForget * getWeight(to)));
-                            transitionCountsByState[to] += pForgetAndTransition;
-                            pForget[n] += pForgetAndTransition;
-                        }
+                        addTransition(n, from, to, pStateByPosition[from][n] * pStateByPosition[to][n + 1], transitionCountsByState);
                     }
                 }
             }
         }
 
+        // add the probability that from -> to transition occurred going from position n to n + 1
+        private void addTransition(final int n, final int from, final int to, final double pTransition,
+                                   final double[] transitionCounts) {
+            if (to != from ) {
+                transitionCounts[to] += pTransition;
+                pForget[n] += pTransition;
+            } else {
+                final double priorPForget = 1 - Math.exp(-distances[n] / memoryLength);
+                // Bayes' Rule gives the probability that the state was forgotten given that toState == fromState
+                final double pForgetAndTransition = pTransition * (priorPForget * getWeight(to) / ((1-priorPForget) + priorPForget * getWeight(to)));
+                transitionCounts[to] += pForgetAndTransition;
+                pForget[n] += pForgetAndTransition;
+            }
+        }
+
         public double pForget(final int position) { return pForget[position]; }
         public double pStateAtPosition(final int state, final int position) { return pStateByPosition[state][position]; }
         public double[] transitionCounts() { return transitionCountsByState; }
         public int numPositions() { return N; }
     }
 
-    protected ExpectationStep getExpectationStep() { return new ExpectationStep(); }
+    protected ExpectationStep getExpectationStep() { return withPool(ExpectationStep::new); }
 
     public int numStates() { return hiddenStateValues.size(); }
     public int numPositions() { return positions.size(); }
@@ -302,7 +487,11 @@ public abstract class ClusteringGenomicHMMSegmenter<DATA, HIDDEN> {
     public double getMemoryLength() { return memoryLength; }
     protected double getWeight(final int n) { return weights.get(n); }
     protected HIDDEN getState(final int n) { return hiddenStateValues.get(n); }
-    protected void setState(final int n, final HIDDEN value) { hiddenStateValues.set(n, value); }
+    protected void setState(final int n, final HIDDEN value) {
+        if (!value.equals(hiddenStateValues.set(n, value))) {
+            logEmissionProbabilitiesByState.set(n, null);
+        }
+    }
     protected List<Double> getWeights() { return Collections.unmodifiableList(weights); }
     protected List<HIDDEN> getStates() { return Collections.unmodifiableList(hiddenStateValues); }
 }
@@ -86,6 +86,7 @@ public final class CopyRatioSegmenter extends ScalarHMMSegmenter<Double> {
 
         logCoverageCauchyWidth = OptimizationUtils.argmax(emissionLogLikelihood, 0, MAX_REASONABLE_CAUCHY_WIDTH, logCoverageCauchyWidth,
                 RELATIVE_TOLERANCE_FOR_OPTIMIZATION, ABSOLUTE_TOLERANCE_FOR_OPTIMIZATION, MAX_EVALUATIONS_FOR_OPTIMIZATION);
+        invalidateLogEmissionProbabilities();
 
         logger.info("New coverage standard deviation learned: " + logCoverageCauchyWidth);
     }
@@ -51,10 +51,23 @@ public class JointAFCRSegmenter extends ClusteringGenomicHMMSegmenter<JointSegme
 
     public static JointAFCRSegmenter createJointSegmenter(final int initialNumCRStates, final ReadCountCollection rcc,
                                                           final int initialNumAFStates, final AllelicCountCollection acc, final AllelicPanelOfNormals allelicPoN) {
+        return createJointSegmenter(initialNumCRStates, rcc, initialNumAFStates, acc, allelicPoN, 1);
+    }
+
+    /**
+     * As {@link #createJointSegmenter(int, ReadCountCollection, int, AllelicCountCollection, AllelicPanelOfNormals)},
+     * learning the copy-ratio and allele-fraction models and running the joint model on {@code numThreads} threads.
+     */
+    public static JointAFCRSegmenter createJointSegmenter(final int initialNumCRStates, final ReadCountCollection rcc,
+                                                          final int initialNumAFStates, final AllelicCountCollection acc, final AllelicPanelOfNormals allelicPoN,
+                                                          final int numThreads) {
         final CopyRatioSegmenter copyRatioSegmenter = new CopyRatioSegmenter(initialNumCRStates, rcc);
         final AlleleFractionSegmenter alleleFractionSegmenter = new AlleleFractionSegmenter(initialNumAFStates, acc, allelicPoN);
-        return createJointSegmenter(copyRatioSegmenter, alleleFractionSegmenter);
-
+        copyRatioSegmenter.setNumThreads(numThreads);
+        alleleFractionSegmenter.setNumThreads(numThreads);
+        final JointAFCRSegmenter jointSegmenter = createJointSegmenter(copyRatioSegmenter, alleleFractionSegmenter);
+        jointSegmenter.setNumThreads(numThreads);
+        return jointSegmenter;
     }
 
     private void logStatesAndWeights() {
@@ -55,6 +55,9 @@ public final class PerformAlleleFractionSegmentation extends CommandLineProgram
     protected static final String INITIAL_NUM_STATES_LONG_NAME = "initialNumberOfStates";
     protected static final String INITIAL_NUM_STATES_SHORT_NAME = "initialNumStates";
 
+    protected static final String NUM_THREADS_LONG_NAME = "numSegmentationThreads";
+    protected static final String NUM_THREADS_SHORT_NAME = "numThreads";
+
     @Argument(
             doc = "Input file for tumor-sample ref/alt read counts at normal-sample heterozygous-SNP sites (output of GetHetCoverage tool).",
             fullName = ExomeStandardArgumentDefinitions.TUMOR_ALLELIC_COUNTS_FILE_LONG_NAME,
@@ -87,6 +90,16 @@ public final class PerformAlleleFractionSegmentation extends CommandLineProgram
     )
     protected File outputSegmentsFile;
 
+    @Argument(
+            doc = "Number of threads with which to run the forward-backward algorithm on different contigs while learning " +
+                    "the model.  (Results do not depend on the number of threads.)",
+            fullName = NUM_THREADS_LONG_NAME,
+            shortName = NUM_THREADS_SHORT_NAME,
+            optional = true,
+            minValue = 1
+    )
+    protected int numThreads = 1;
+
     @Override
     public Object doWork() {
         final String sampleName = FilenameUtils.getBaseName(snpCountsFile.getAbsolutePath());
@@ -94,6 +107,7 @@ public final class PerformAlleleFractionSegmentation extends CommandLineProgram
                 allelicPoNFile != null ? AllelicPanelOfNormals.read(allelicPoNFile) : AllelicPanelOfNormals.EMPTY_PON;
         final AllelicCountCollection acc = new AllelicCountCollection(snpCountsFile);
         final AlleleFractionSegmenter segmenter = new AlleleFractionSegmenter(initialNumStates, acc, allelicPoN);
+        segmenter.setNumThreads(numThreads);
         final List<ModeledSegment> segments = segmenter.getModeledSegments();
 
         SegmentUtils.writeModeledSegmentFile(outputSegmentsFile, segments, sampleName, true);
@@ -33,6 +33,9 @@ public final class PerformCopyRatioSegmentation extends CommandLineProgram {
     protected static final String INITIAL_NUM_STATES_LONG_NAME = "initialNumberOfStates";
     protected static final String INITIAL_NUM_STATES_SHORT_NAME = "initialNumStates";
 
+    protected static final String NUM_THREADS_LONG_NAME = "numSegmentationThreads";
+    protected static final String NUM_THREADS_SHORT_NAME = "numThreads";
+
     @Argument(
             doc = "Tangent-normalized log2 read counts file",
             fullName = ExomeStandardArgumentDefinitions.TANGENT_NORMALIZED_COUNTS_FILE_LONG_NAME,
@@ -57,6 +60,16 @@ public final class PerformCopyRatioSegmentation extends CommandLineProgram {
     )
     protected File outputSegmentsFile;
 
+    @Argument(
+            doc = "Number of threads with which to run the forward-backward algorithm on different contigs while learning " +
+                    "the model.  (Results do not depend on the number of threads.)",
+            fullName = NUM_THREADS_LONG_NAME,
+            shortName = NUM_THREADS_SHORT_NAME,
+            optional = true,
+            minValue = 1
+    )
+    protected int numThreads = 1;
+
     @Override
     public Object doWork() {
         final String sampleName = ReadCountCollectionUtils.getSampleNameForCLIsFromReadCountsFile(new File(coverageFile));
@@ -68,6 +81,7 @@ public final class PerformCopyRatioSegmentation extends CommandLineProgram {
         }
 
         final CopyRatioSegmenter segmenter = new CopyRatioSegmenter(initialNumStates, rcc);
+        segmenter.setNumThreads(numThreads);
         final List<ModeledSegment> segments = segmenter.getModeledSegments();
         SegmentUtils.writeModeledSegmentFile(outputSegmentsFile, segments, sampleName, false);
 
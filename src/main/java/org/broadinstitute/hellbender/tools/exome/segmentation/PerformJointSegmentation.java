@@ -43,6 +43,9 @@ public class PerformJointSegmentation extends CommandLineProgram {
     protected static final String INITIAL_NUM_ALLELE_FRACTION_STATES_LONG_NAME = "initialNumberOfAlleleFractionStates";
     protected static final String INITIAL_NUM_ALLELE_FRACTION_STATES_SHORT_NAME = "initialNumAFStates";
 
+    protected static final String NUM_THREADS_LONG_NAME = "numSegmentationThreads";
+    protected static final String NUM_THREADS_SHORT_NAME = "numThreads";
+
     @Argument(
             doc = "Tangent-normalized log2 read counts file",
             shortName = ExomeStandardArgumentDefinitions.TANGENT_NORMALIZED_COUNTS_FILE_SHORT_NAME,
@@ -91,6 +94,16 @@ public class PerformJointSegmentation extends CommandLineProgram {
     )
     protected File outputSegmentsFile;
 
+    @Argument(
+            doc = "Number of threads with which to run the forward-backward algorithm on different contigs while learning " +
+                    "the model.  (Results do not depend on the number of threads.)",
+            fullName = NUM_THREADS_LONG_NAME,
+            shortName = NUM_THREADS_SHORT_NAME,
+            optional = true,
+            minValue = 1
+    )
+    protected int numThreads = 1;
+
     @Override
     public Object doWork() {
         ParamUtils.isPositive(initialNumAFStates, "Must have at least one allele-fraction state.");
@@ -106,7 +119,7 @@ public class PerformJointSegmentation extends CommandLineProgram {
             throw new UserException.BadInput("could not read input file");
         }
 
-        final JointAFCRSegmenter jointSegmenter = JointAFCRSegmenter.createJointSegmenter(initialNumCRStates, rcc, initialNumAFStates, acc, allelicPoN);
+        final JointAFCRSegmenter jointSegmenter = JointAFCRSegmenter.createJointSegmenter(initialNumCRStates, rcc, initialNumAFStates, acc, allelicPoN, numThreads);
         final List<Pair<SimpleInterval, AFCRHiddenState>> segmentation = jointSegmenter.findSegments();
 
         final List<ACNVModeledSegment> segments = segmentation.stream().map(pair ->
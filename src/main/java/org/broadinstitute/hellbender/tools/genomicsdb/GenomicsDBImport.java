@@ -44,7 +44,9 @@ import java.util.function.Function;
 
 /**
  * This tool imports GVCFs to GenomicsDB. To run this tool,
- * 1. A single interval must be provided
+ * 1. One or more intervals must be provided. If there is more than one, each interval
+ *    is imported into its own array in the workspace, and several intervals may be
+ *    imported at once with --maxNumIntervalsToImportInParallel
  * 2. The tool accepts multiple GVCFs each of which must contain data
  *    for one sample
  * 3. The path to the GenomicsDB workspace must be specified
@@ -74,6 +76,7 @@ public final class GenomicsDBImport extends GATKTool {
     public static final String SAMPLE_NAME_MAP_LONG_NAME = "sampleNameMap";
     public static final String VALIDATE_SAMPLE_MAP_LONG_NAME = "validateSampleNameMap";
     public static final String VCF_INITIALIZER_THREADS_LONG_NAME = "readerThreads";
+    public static final String MAX_NUM_INTERVALS_TO_IMPORT_IN_PARALLEL = "maxNumIntervalsToImportInParallel";
 
     @Argument(fullName = WORKSPACE_ARG_NAME,
               shortName = WORKSPACE_ARG_NAME,
@@ -167,7 +170,19 @@ public final class GenomicsDBImport extends GATKTool {
             minValue = 1)
     private int vcfInitializerThreads = 1;
 
+    @Advanced
+    @Argument(fullName = MAX_NUM_INTERVALS_TO_IMPORT_IN_PARALLEL,
+            shortName = MAX_NUM_INTERVALS_TO_IMPORT_IN_PARALLEL,
+            doc = "Max number of intervals to import in parallel; higher values may improve performance, but require more" +
+                    " memory and a higher number of file descriptors open at the same time. The tool uses this many" +
+                    " threads to import, in addition to the " + VCF_INITIALIZER_THREADS_LONG_NAME + " threads which are" +
+                    " shared by all of the intervals being imported",
+            optional = true,
+            minValue = 1)
+    private int maxNumIntervalsToImportInParallel = 1;
+
     //executor service used when vcfInitializerThreads > 1
+    //while a batch is being imported, the readers for the next batch of the same interval are opened with this
     private ExecutorService inputPreloadExecutorService;
 
     @Override
@@ -194,7 +209,7 @@ public final class GenomicsDBImport extends GATKTool {
     @Override
     public String getProgressMeterRecordLabel() { return "batches"; }
 
-    // Intervals from command line (singleton for now)
+    // Intervals from command line
     private List<ChromosomeInterval> intervals;
 
     // Linked hash map between sample names and corresponding GVCF file name
@@ -343,7 +358,9 @@ public final class GenomicsDBImport extends GATKTool {
 
         logger.info("Vid Map JSON file will be written to " + vidMapJSONFile);
         logger.info("Callset Map JSON file will be written to " + callsetMapJSONFile);
-        logger.info("Importing to array - " + workspace + "/" + GenomicsDBConstants.DEFAULT_ARRAY_NAME);
+        for (final ChromosomeInterval interval : intervals) {
+            logger.info("Importing to array - " + workspace + "/" + getArrayName(interval));
+        }
 
         // Passing in false here so that sample names will be sorted.
         // This is needed for consistent ordering across partitions/machines
@@ -366,51 +383,121 @@ public final class GenomicsDBImport extends GATKTool {
 
     /**
      * A complete traversal from start to finish. This method will import all samples
-     * specified in the input GVCF files.
+     * specified in the input GVCF files into each interval.
      */
     @Override
     public void traverse() {
         // Force the progress meter to update after every batch
         progressMeter.setRecordsBetweenTimeChecks(1L);
 
+        if (maxNumIntervalsToImportInParallel == 1 || intervals.size() == 1) {
+            intervals.forEach(this::importInterval);
+            return;
+        }
+
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("intervalImporter-thread-%d")
+                .setDaemon(true)
+                .build();
+        final ExecutorService importExecutorService =
+                Executors.newFixedThreadPool(Math.min(maxNumIntervalsToImportInParallel, intervals.size()), threadFactory);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(intervals.size());
+            intervals.forEach(interval -> futures.add(importExecutorService.submit(() -> importInterval(interval))));
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new GATKException("GenomicsDB import failed", e.getCause());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GATKException("Interrupted while importing to GenomicsDB", e);
+                }
+            }
+        } finally {
+            importExecutorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Imports all samples into the array for one interval, one batch at a time. When there is a reader executor
+     * the readers for the next batch are opened, and start reading, while the current batch is imported, so two
+     * batches worth of readers may be open at once.
+     */
+    private void importInterval(final ChromosomeInterval interval) {
         final int sampleCount = sampleNameToVcfPath.size();
         final int updatedBatchSize = (batchSize == DEFAULT_ZERO_BATCH_SIZE) ? sampleCount : batchSize;
         final int totalBatchCount = (sampleCount/updatedBatchSize) + (sampleCount%updatedBatchSize==0 ? 0 : 1);
+        final String arrayName = getArrayName(interval);
 
-        GenomicsDBImporter importer;
+        // readers that have been submitted but not yet handed to a batch, which must be closed if the import fails
+        List<Future<FeatureReader<VariantContext>>> nextBatchReaders =
+                inputPreloadExecutorService != null ? submitFeatureReaders(sampleNameToVcfPath, updatedBatchSize, 0, interval) : null;
 
-        for (int i = 0, batchCount = 1; i < sampleCount; i += updatedBatchSize, ++batchCount) {
-
-            final Map<String, FeatureReader<VariantContext>> sampleToReaderMap =
-                    inputPreloadExecutorService != null
-                            ? getFeatureReadersInParallel(sampleNameToVcfPath, updatedBatchSize, i)
-                            : getFeatureReadersSerially(sampleNameToVcfPath, updatedBatchSize, i);
-
-            logger.info("Importing batch " + batchCount + " with " + sampleToReaderMap.size() + " samples");
-            final long variantContextBufferSize = vcfBufferSizePerSample * sampleToReaderMap.size();
-            final GenomicsDBImportConfiguration.ImportConfiguration importConfiguration =
-                    createImportConfiguration(workspace, GenomicsDBConstants.DEFAULT_ARRAY_NAME,
-                            variantContextBufferSize, segmentSize,
-                            i, (i+updatedBatchSize-1));
-
-            try {
-                importer = new GenomicsDBImporter(sampleToReaderMap, mergedHeaderLines, intervals.get(0), validateSampleToReaderMap, importConfiguration);
-            } catch (final IOException e) {
-                throw new UserException("Error initializing GenomicsDBImporter in batch " + batchCount, e);
-            } catch (final IllegalArgumentException iae) {
-                throw new GATKException("Null feature reader found in sampleNameMap file: " + sampleNameMapFile, iae);
+        try {
+            for (int i = 0, batchCount = 1; i < sampleCount; i += updatedBatchSize, ++batchCount) {
+
+                final List<Future<FeatureReader<VariantContext>>> batchReaders = nextBatchReaders;
+                nextBatchReaders = null;
+                final Map<String, FeatureReader<VariantContext>> sampleToReaderMap =
+                        batchReaders != null
+                                ? getFeatureReaders(batchReaders, sampleNameToVcfPath)
+                                : getFeatureReadersSerially(sampleNameToVcfPath, updatedBatchSize, i);
+                try {
+                    nextBatchReaders = inputPreloadExecutorService != null && i + updatedBatchSize < sampleCount
+                            ? submitFeatureReaders(sampleNameToVcfPath, updatedBatchSize, i + updatedBatchSize, interval)
+                            : null;
+                    importBatch(sampleToReaderMap, interval, arrayName, i, updatedBatchSize, batchCount);
+                } finally {
+                    closeReaders(sampleToReaderMap);
+                }
+                synchronized (progressMeter) {
+                    progressMeter.update(interval);
+                }
+                logger.info("Done importing batch " + batchCount + "/" + totalBatchCount + " into " + arrayName);
             }
-            try {
-                importer.importBatch();
-            } catch (final IOException e) {
-                throw new UserException("GenomicsDB import failed in batch " + batchCount, e);
+        } finally {
+            if (nextBatchReaders != null) {
+                closeSubmittedReaders(nextBatchReaders);
             }
-            closeReaders(sampleToReaderMap);
-            progressMeter.update(intervals.get(0));
-            logger.info("Done importing batch " + batchCount + "/" + totalBatchCount);
         }
     }
 
+    private void importBatch(final Map<String, FeatureReader<VariantContext>> sampleToReaderMap, final ChromosomeInterval interval,
+                             final String arrayName, final int lowerSampleIndex, final int batchSize, final int batchCount) {
+        logger.info("Importing batch " + batchCount + " with " + sampleToReaderMap.size() + " samples into " + arrayName);
+        final long variantContextBufferSize = vcfBufferSizePerSample * sampleToReaderMap.size();
+        final GenomicsDBImportConfiguration.ImportConfiguration importConfiguration =
+                createImportConfiguration(workspace, arrayName,
+                        variantContextBufferSize, segmentSize,
+                        lowerSampleIndex, (lowerSampleIndex+batchSize-1));
+
+        final GenomicsDBImporter importer;
+        try {
+            importer = new GenomicsDBImporter(sampleToReaderMap, mergedHeaderLines, interval, validateSampleToReaderMap, importConfiguration);
+        } catch (final IOException e) {
+            throw new UserException("Error initializing GenomicsDBImporter in batch " + batchCount, e);
+        } catch (final IllegalArgumentException iae) {
+            throw new GATKException("Null feature reader found in sampleNameMap file: " + sampleNameMapFile, iae);
+        }
+        try {
+            importer.importBatch();
+        } catch (final IOException e) {
+            throw new UserException("GenomicsDB import failed in batch " + batchCount, e);
+        }
+    }
+
+    /**
+     * @return the name of the array for an interval: the default array if there is a single interval, so that a
+     * workspace with one interval can be read as before
+     */
+    private String getArrayName(final ChromosomeInterval interval) {
+        return intervals.size() == 1 ? GenomicsDBConstants.DEFAULT_ARRAY_NAME : GenomicsDBIntervalArraysFeatureReader.getArrayName(interval);
+    }
+
     @Override
     public Object onTraversalSuccess() {
         if (batchSize==DEFAULT_ZERO_BATCH_SIZE) {
@@ -433,7 +520,9 @@ public final class GenomicsDBImport extends GATKTool {
 
         if (doConsolidation) {
             logger.info("GenomicsDB consolidation started");
-            GenomicsDBImporter.consolidateTileDBArray(workspace, GenomicsDBConstants.DEFAULT_ARRAY_NAME);
+            for (final ChromosomeInterval interval : intervals) {
+                GenomicsDBImporter.consolidateTileDBArray(workspace, getArrayName(interval));
+            }
             logger.info("GenomicsDB consolidation completed");
         }
 
@@ -441,17 +530,18 @@ public final class GenomicsDBImport extends GATKTool {
     }
 
     /**
-     * Method to create feature readers for input files or GCS URLs
-     * in the current batch
+     * Method to start creating feature readers for input files or GCS URLs
+     * in a batch, in parallel
      *
      * @param sampleNametoPath  Sample name to file name mapping
      * @param batchSize  Current batch size
      * @param lowerSampleIndex  0-based Lower bound of sample index -- inclusive
-     * @return  Feature readers to be imported in the current batch
+     * @param interval  the interval that will be imported, which is queried as soon as each reader is created
+     * @return  Futures for the feature readers to be imported in the batch
      */
-    private Map<String, FeatureReader<VariantContext>> getFeatureReadersInParallel(final LinkedHashMap<String, Path> sampleNametoPath,
-                                                                                   final int batchSize, final int lowerSampleIndex) {
-        final Map<String, FeatureReader<VariantContext>> sampleToReaderMap = new LinkedHashMap<>();
+    private List<Future<FeatureReader<VariantContext>>> submitFeatureReaders(final LinkedHashMap<String, Path> sampleNametoPath,
+                                                                             final int batchSize, final int lowerSampleIndex,
+                                                                             final ChromosomeInterval interval) {
         logger.info("Starting batch input file preload");
         final List<Future<FeatureReader<VariantContext>>> futures = new ArrayList<>();
         final List<String> sampleNames = new ArrayList<>(sampleNametoPath.keySet());
@@ -460,13 +550,24 @@ public final class GenomicsDBImport extends GATKTool {
             futures.add(inputPreloadExecutorService.submit(() -> {
                 final Path variantPath = sampleNametoPath.get(sampleName);
                 try {
-                    return new InitializedQueryWrapper(getReaderFromPath(variantPath), intervals.get(0));
+                    return new InitializedQueryWrapper(getReaderFromPath(variantPath), interval);
                 } catch (final IOException e) {
                     throw new UserException.CouldNotReadInputFile("Couldn't read file: " + variantPath.toUri(), e);
                 }
             }));
         }
+        return futures;
+    }
 
+    /**
+     * Waits for the feature readers of a batch started by {@link #submitFeatureReaders}. If any of them
+     * could not be opened, all of the others are closed.
+     *
+     * @return  Feature readers to be imported in the batch
+     */
+    private Map<String, FeatureReader<VariantContext>> getFeatureReaders(final List<Future<FeatureReader<VariantContext>>> futures,
+                                                                         final LinkedHashMap<String, Path> sampleNametoPath) {
+        final Map<String, FeatureReader<VariantContext>> sampleToReaderMap = new LinkedHashMap<>();
         for (final Future<FeatureReader<VariantContext>> f : futures) {
             try {
                 final FeatureReader<VariantContext> reader = f.get();
@@ -476,6 +577,7 @@ public final class GenomicsDBImport extends GATKTool {
                 assert sampleNametoPath.containsKey(sampleName);
                 sampleToReaderMap.put(sampleName, reader);
             } catch (InterruptedException | ExecutionException e) {
+                closeSubmittedReaders(futures);
                 throw new UserException.CouldNotReadInputFile("Failure while waiting for FeatureReader to initialize ",
                                                               e);
             }
@@ -488,11 +590,16 @@ public final class GenomicsDBImport extends GATKTool {
                                                                                  final int batchSize, final int lowerSampleIndex){
         final Map<String, FeatureReader<VariantContext>> sampleToReaderMap = new LinkedHashMap<>();
         final List<String> sampleNames = new ArrayList<>(sampleNameToPath.keySet());
-        for(int i = lowerSampleIndex; i < sampleNameToPath.size() && i < lowerSampleIndex+batchSize; ++i) {
-            final String sampleName = sampleNames.get(i);
-            final AbstractFeatureReader<VariantContext, LineIterator> reader = getReaderFromPath(sampleNameToPath.get(sampleName));
-            assert sampleName.equals(((VCFHeader) reader.getHeader()).getGenotypeSamples().get(0));
-            sampleToReaderMap.put(sampleName, reader);
+        try {
+            for(int i = lowerSampleIndex; i < sampleNameToPath.size() && i < lowerSampleIndex+batchSize; ++i) {
+                final String sampleName = sampleNames.get(i);
+                final AbstractFeatureReader<VariantContext, LineIterator> reader = getReaderFromPath(sampleNameToPath.get(sampleName));
+                assert sampleName.equals(((VCFHeader) reader.getHeader()).getGenotypeSamples().get(0));
+                sampleToReaderMap.put(sampleName, reader);
+            }
+        } catch (final RuntimeException e) {
+            sampleToReaderMap.values().forEach(this::closeReaderQuietly);
+            throw e;
         }
         return sampleToReaderMap;
     }
@@ -577,6 +684,33 @@ public final class GenomicsDBImport extends GATKTool {
         }
     }
 
+    /**
+     * Closes the feature readers started by {@link #submitFeatureReaders} that were opened successfully, waiting for
+     * the ones still being opened. Used when the readers will not be imported, so failures to close are ignored.
+     *
+     * @param futures  Futures for the feature readers
+     */
+    private void closeSubmittedReaders(final List<Future<FeatureReader<VariantContext>>> futures) {
+        for (final Future<FeatureReader<VariantContext>> future : futures) {
+            try {
+                closeReaderQuietly(future.get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException | CancellationException e) {
+                // this reader was never opened
+            }
+        }
+    }
+
+    private void closeReaderQuietly(final FeatureReader<VariantContext> reader) {
+        try {
+            reader.close();
+        } catch (final IOException e) {
+            logger.warn("FeatureReader close() failed", e);
+        }
+    }
+
     /**
      * Input argument "overwriteExistingWorkspace" defaults to false.
      * The tool creates a new workspace if it doesn't exist. Deletes
@@ -633,10 +767,6 @@ public final class GenomicsDBImport extends GATKTool {
             final List<SimpleInterval> simpleIntervalList =
                 intervalArgumentCollection.getIntervals(intervalDictionary);
 
-            if (simpleIntervalList.size() > 1) {
-                throw new UserException("More than one interval specified. The tool takes only one");
-            }
-
             for (final SimpleInterval simpleInterval : simpleIntervalList) {
                 intervals.add(new ChromosomeInterval(simpleInterval.getContig(),
                   simpleInterval.getStart(), simpleInterval.getEnd()));
@@ -0,0 +1,226 @@
+package org.broadinstitute.hellbender.tools.genomicsdb;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.Locatable;
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFHeader;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Reads a GenomicsDB workspace into which several intervals were imported by {@link GenomicsDBImport}, each into its
+ * own array, as if it were a single source of VariantContexts.
+ *
+ * Queries are sent to the arrays of the intervals they overlap, in order. A record spanning the boundary between two
+ * adjacent imported intervals is in the arrays of both, so it is only returned from the first of them.
+ */
+public final class GenomicsDBIntervalArraysFeatureReader implements FeatureReader<VariantContext> {
+
+    private static final String ARRAY_NAME_SEPARATOR = "_";
+
+    // the readers of each array, in order of their intervals
+    private final List<SimpleInterval> intervals;
+    private final List<FeatureReader<VariantContext>> readers;
+
+    /**
+     * @param intervalToReader readers for the arrays in a workspace, keyed by the interval imported into each array;
+     *                         the intervals must not overlap
+     */
+    public GenomicsDBIntervalArraysFeatureReader(final Map<SimpleInterval, FeatureReader<VariantContext>> intervalToReader) {
+        Utils.nonEmpty(intervalToReader.keySet(), "at least one array is required");
+        final SAMSequenceDictionary dictionary = ((VCFHeader) intervalToReader.values().iterator().next().getHeader()).getSequenceDictionary();
+        Utils.validateArg(dictionary != null, "GenomicsDB header has no sequence dictionary");
+        intervals = new ArrayList<>(intervalToReader.keySet());
+        intervals.sort((a, b) -> IntervalUtils.compareLocatables(a, b, dictionary));
+        readers = new ArrayList<>(intervals.size());
+        intervals.forEach(interval -> readers.add(intervalToReader.get(interval)));
+    }
+
+    /**
+     * @return the name of the array into which the interval is imported, when more than one interval is imported
+     * into a workspace
+     */
+    public static String getArrayName(final Locatable interval) {
+        return String.join(ARRAY_NAME_SEPARATOR, GenomicsDBConstants.DEFAULT_ARRAY_NAME,
+                interval.getContig(), Integer.toString(interval.getStart()), Integer.toString(interval.getEnd()));
+    }
+
+    /**
+     * Finds the arrays into which intervals were imported in a workspace.
+     *
+     * @return the name of each array, keyed by its interval
+     */
+    public static Map<SimpleInterval, String> findIntervalArrays(final File workspace) {
+        final Map<SimpleInterval, String> intervalToArrayName = new LinkedHashMap<>();
+        final File[] files = workspace.listFiles(File::isDirectory);
+        if (files == null) {
+            return intervalToArrayName;
+        }
+        final String prefix = GenomicsDBConstants.DEFAULT_ARRAY_NAME + ARRAY_NAME_SEPARATOR;
+        for (final File file : files) {
+            final String name = file.getName();
+            if (name.startsWith(prefix)) {
+                // the contig name may itself contain the separator, so the start and end are found from the right
+                final int endSeparator = name.lastIndexOf(ARRAY_NAME_SEPARATOR);
+                final int startSeparator = name.lastIndexOf(ARRAY_NAME_SEPARATOR, endSeparator - 1);
+                if (startSeparator >= prefix.length()) {
+                    try {
+                        final SimpleInterval interval = new SimpleInterval(name.substring(prefix.length(), startSeparator),
+                                Integer.parseInt(name.substring(startSeparator + 1, endSeparator)),
+                                Integer.parseInt(name.substring(endSeparator + 1)));
+                        intervalToArrayName.put(interval, name);
+                    } catch (final NumberFormatException e) {
+                        // not an interval array
+                    }
+                }
+            }
+        }
+        return intervalToArrayName;
+    }
+
+    @Override
+    public CloseableTribbleIterator<VariantContext> query(final String chr, final int start, final int end) throws IOException {
+        final SimpleInterval query = new SimpleInterval(chr, start, end);
+        final List<Integer> overlapping = new ArrayList<>();
+        for (int i = 0; i < intervals.size(); i++) {
+            if (intervals.get(i).overlaps(query)) {
+                overlapping.add(i);
+            }
+        }
+        return new ArraysIterator(overlapping, i -> readers.get(i).query(chr, start, end));
+    }
+
+    @Override
+    public CloseableTribbleIterator<VariantContext> iterator() throws IOException {
+        final List<Integer> all = new ArrayList<>(intervals.size());
+        for (int i = 0; i < intervals.size(); i++) {
+            all.add(i);
+        }
+        return new ArraysIterator(all, i -> readers.get(i).iterator());
+    }
+
+    @Override
+    public void close() throws IOException {
+        // close every reader even if closing one of them fails
+        IOException failure = null;
+        for (final FeatureReader<VariantContext> reader : readers) {
+            try {
+                reader.close();
+            } catch (final IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public List<String> getSequenceNames() {
+        return readers.get(0).getSequenceNames();
+    }
+
+    @Override
+    public Object getHeader() {
+        return readers.get(0).getHeader();
+    }
+
+    @FunctionalInterface
+    private interface ArrayIteratorFactory {
+        CloseableTribbleIterator<VariantContext> open(int arrayIndex) throws IOException;
+    }
+
+    /**
+     * Iterates over the records of several arrays in turn, opening each array's iterator only once the previous one
+     * is exhausted, and skipping records already returned from the array of the previous interval.
+     */
+    private final class ArraysIterator implements CloseableTribbleIterator<VariantContext> {
+        private final Iterator<Integer> arrayIndices;
+        private final ArrayIteratorFactory factory;
+        private CloseableTribbleIterator<VariantContext> current;
+        private SimpleInterval previousInterval;
+        private SimpleInterval currentInterval;
+        private VariantContext next;
+
+        private ArraysIterator(final List<Integer> arrayIndices, final ArrayIteratorFactory factory) {
+            this.arrayIndices = arrayIndices.iterator();
+            this.factory = factory;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null) {
+                if (current != null && current.hasNext()) {
+                    final VariantContext vc = current.next();
+                    if (!isInPreviousArray(vc)) {
+                        next = vc;
+                    }
+                } else if (arrayIndices.hasNext()) {
+                    closeCurrent();
+                    final int arrayIndex = arrayIndices.next();
+                    previousInterval = currentInterval;
+                    currentInterval = intervals.get(arrayIndex);
+                    try {
+                        current = factory.open(arrayIndex);
+                    } catch (final IOException e) {
+                        throw new GATKException("Error querying GenomicsDB array for " + currentInterval, e);
+                    }
+                } else {
+                    closeCurrent();
+                    return;
+                }
+            }
+        }
+
+        private boolean isInPreviousArray(final VariantContext vc) {
+            return previousInterval != null && previousInterval.getContig().equals(vc.getContig())
+                    && vc.getStart() < currentInterval.getStart() && vc.getStart() <= previousInterval.getEnd()
+                    && vc.getEnd() >= previousInterval.getStart();
+        }
+
+        private void closeCurrent() {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public VariantContext next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final VariantContext result = next;
+            advance();
+            return result;
+        }
+
+        @Override
+        public Iterator<VariantContext> iterator() {
+            return this;
+        }
+
+        @Override
+        public void close() {
+            closeCurrent();
+        }
+    }
+}
@@ -55,8 +55,11 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
      *
      * Note: the logical choice is to use a free form string but, the Python version was using
      * a HDF5 double, so we are keeping the tradition here.
+     *
+     * Version 6.1 has the same layout as 6.0, but some 6.0 PoNs hold log-normalized counts in place of the
+     * normalized counts (see {@link HDF5PCACoveragePoNCreationUtils#update}).
      */
-    public static final double CURRENT_PON_VERSION = 6.0;
+    public static final double CURRENT_PON_VERSION = 6.1;
 
     private static final String VERSION_GROUP_NAME = "/version";
     private static final String VERSION_PATH = VERSION_GROUP_NAME + "/values";
@@ -122,6 +125,11 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
     private Lazy<List<String>> sampleNames;
     private Lazy<List<String>> panelSampleNames;
 
+    // values needed to normalize case samples; these are read at most once however many samples are normalized.
+    private Lazy<double[]> targetFactors;
+    private Lazy<RealMatrix> reducedPanelCounts;
+    private Lazy<RealMatrix> reducedPanelPInverseCounts;
+
     /*===============================================================================================================*
      * METHODS                                                                                                       *
      *===============================================================================================================*/
@@ -146,6 +154,9 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
         panelTargets = new Lazy<>(() -> readTargets(file, PANEL_TARGETS_PATH, PANEL_TARGET_NAMES_PATH));
         sampleNames = new Lazy<>(() -> readNames(file, SAMPLE_NAMES_PATH));
         panelSampleNames = new Lazy<>(() -> readNames(file, PANEL_SAMPLE_NAMES_PATH));
+        targetFactors = new Lazy<>(this::readTargetFactors);
+        reducedPanelCounts = new Lazy<>(this::readReducedPanelCounts);
+        reducedPanelPInverseCounts = new Lazy<>(this::readReducedPanelPInverseCounts);
     }
 
     /**
@@ -186,6 +197,10 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
 
     @Override
     public double[] getTargetFactors() {
+        return targetFactors.get().clone();
+    }
+
+    private double[] readTargetFactors() {
         final double[] values = file.readDoubleArray(TARGET_FACTORS_PATH);
         if (values.length != targetNames.get().size()) {
             throw new GATKException(String.format("Wrong number of elements in the target factors recovered " +
@@ -230,6 +245,10 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
 
     @Override
     public RealMatrix getReducedPanelCounts() {
+        return reducedPanelCounts.get().copy();
+    }
+
+    private RealMatrix readReducedPanelCounts() {
         // Note the check is using sample names as number of rows and targets as number of columns.  This is due to the
         //  transposed storage.  The returned matrix is still targets (rows) x pseudo-samples (columns).
         return readMatrixAndCheckDimensions(REDUCED_PANEL_COUNTS_PATH,
@@ -239,6 +258,10 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
 
     @Override
     public RealMatrix getReducedPanelPInverseCounts() {
+        return reducedPanelPInverseCounts.get().copy();
+    }
+
+    private RealMatrix readReducedPanelPInverseCounts() {
         return readMatrixAndCheckDimensions(REDUCED_PANEL_PINV_PATH,
                 r -> r <= getPanelSampleNames().size(),
                 c -> c == panelTargetNames.get().size());
@@ -413,6 +436,7 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
 
     private void setTargetFactors(final double[] targetFactors) {
         writeTargetFactors(targetFactors);
+        this.targetFactors = new Lazy<>(this::readTargetFactors);
     }
 
     private void setTargetVariances(final double[] targetVariances) {
@@ -433,10 +457,12 @@ public final class HDF5PCACoveragePoN implements PCACoveragePoN {
 
     private void setReducedPanelCounts(final RealMatrix counts) {
         file.makeDoubleMatrix(REDUCED_PANEL_COUNTS_PATH, counts.transpose().getData());
+        reducedPanelCounts = new Lazy<>(this::readReducedPanelCounts);
     }
 
     private void setReducedPanelPInverseCounts(final RealMatrix counts) {
         file.makeDoubleMatrix(REDUCED_PANEL_PINV_PATH, counts.getData());
+        reducedPanelPInverseCounts = new Lazy<>(this::readReducedPanelPInverseCounts);
     }
 
     private void setTargetNames(final List<String> names) {
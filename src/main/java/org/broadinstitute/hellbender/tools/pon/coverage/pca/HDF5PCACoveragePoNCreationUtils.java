@@ -4,6 +4,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.DefaultRealMatrixChangingVisitor;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.stat.descriptive.rank.Median;
@@ -20,11 +21,13 @@ import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
 import org.broadinstitute.hellbender.utils.svd.SVD;
+import org.broadinstitute.hellbender.utils.svd.RandomizedSingularValueDecomposer;
 import org.broadinstitute.hellbender.utils.svd.SVDFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
@@ -37,6 +40,16 @@ public final class HDF5PCACoveragePoNCreationUtils {
     public static final double EPSILON = 1E-9;
     private static final double INV_LN_2 = 1.0 / Math.log(2);
 
+    /**
+     * PoNs older than this version may hold log-normalized counts in place of the normalized counts, so they can not be updated.
+     */
+    private static final double MINIMUM_UPDATABLE_PON_VERSION = 6.1;
+
+    /**
+     * The median of the normalized counts of a PoN that is updated must be within this factor of 1.
+     */
+    private static final double MAXIMUM_NORMALIZED_COUNTS_MEDIAN_FOLD_CHANGE = 2;
+
     private static final Logger logger = LogManager.getLogger(HDF5PCACoveragePoNCreationUtils.class);
 
     private HDF5PCACoveragePoNCreationUtils() {}
@@ -87,14 +100,125 @@ public final class HDF5PCACoveragePoNCreationUtils {
 
         final Pair<ReadCountCollection, double[]> inputSubsetByUsableTargets = subsetReadCountsToUsableTargets(inputPCov, targetFactorPercentileThreshold, logger);
 
+        createFromUsableTargets(outputHDF5Filename, openMode, initialTargets.targets(), inputSubsetByUsableTargets.getLeft(),
+                inputSubsetByUsableTargets.getRight(), sampleNameBlacklist, maximumPercentageZeroColumns, maximumPercentageZeroTargets,
+                extremeColumnMedianCountPercentileThreshold, countTruncatePercentile,
+                logNormalizedCounts -> calculateReducedPanelAndPInverses(logNormalizedCounts, numberOfEigensamples, logger, ctx),
+                ctx, isDryRun);
+    }
+
+    /**
+     * Creates a new PoN file that adds new samples to the normals of a given PoN file.
+     *
+     * <p>
+     *     The targets are those of the input PoN; targets that were discarded due to their target factor when the input
+     *     PoN was created are not recovered.  The target factors are recalculated as the median coverage across the
+     *     samples of the input PoN and the new samples, and the remaining sample and target filters are applied to
+     *     all of them, as {@link #create} does.
+     * </p>
+     * <p>
+     *     Rather than the full SVD of the new log-normalized panel, only its leading singular vectors are calculated
+     *     using a {@link RandomizedSingularValueDecomposer randomized decomposition} whose sampled range includes the
+     *     eigensamples of the input PoN.  Consequently, the log-normalized pseudoinverse stored in the output PoN is
+     *     that of the panel reduced to the eigensamples rather than that of the full panel.  Small panels, where
+     *     there would be little to gain, are decomposed fully.
+     * </p>
+     * <p>
+     *     PoNs older than version {@value #MINIMUM_UPDATABLE_PON_VERSION} may hold log-normalized counts in place of
+     *     the normalized counts needed to recover the raw counts of their samples, so they are rejected and must be
+     *     recreated from the read counts of their samples.
+     * </p>
+     *
+     * @param ctx If no spark context is available, specify {@code null}
+     * @param inputHDF5Filename   input PoN file
+     * @param outputHDF5Filename  final filename for the output PoN HDF5 file
+     * @param openMode            desired {@link HDF5File.OpenMode} (if {@code HDF5File.OpenMode.READ_ONLY}, an exception will be thrown if not a dry run)
+     * @param inputPCovFile  pcov file from {@link CombineReadCounts} with the new samples as columns.  It must contain all the targets of the input PoN.  Never {@code null}
+     * @param sampleNameBlacklist  sample names in the input PoN or {@code inputPCovFile} that should be ignored.  Never {@code null}.
+     * @param maximumPercentageZeroColumns  the maximum percentage of zero values in a sample (across targets) before the sample is filtered.
+     * @param maximumPercentageZeroTargets  the maximum percentage of zero values in a target (across samples) before the target is filtered.
+     * @param extremeColumnMedianCountPercentileThreshold Percentile to cut columns after they are ranked by median value
+     * @param countTruncatePercentile percentile (on either end) to truncate extreme values
+     * @param numberOfEigensamples  desired number of eigensamples in the final PoN.  If missing, the number of eigensamples in the input PoN is used.
+     * @param isDryRun  whether this is a dry run.  If you wish to do diagnostics and skip the actual writing of a PoN file, set this to true.
+     * @throws UserException.BadInput if the input PoN is older than version {@value #MINIMUM_UPDATABLE_PON_VERSION}
+     *                                or its normalized counts do not look like normalized counts.
+     */
+    public static void update(final JavaSparkContext ctx,
+                              final File inputHDF5Filename,
+                              final File outputHDF5Filename,
+                              final HDF5File.OpenMode openMode,
+                              final File inputPCovFile,
+                              final List<String> sampleNameBlacklist,
+                              final double maximumPercentageZeroColumns,
+                              final double maximumPercentageZeroTargets,
+                              final double extremeColumnMedianCountPercentileThreshold,
+                              final double countTruncatePercentile,
+                              final OptionalInt numberOfEigensamples,
+                              final boolean isDryRun) {
+        IOUtils.canReadFile(inputHDF5Filename);
+        Utils.nonNull(outputHDF5Filename);
+        IOUtils.canReadFile(inputPCovFile);
+        Utils.nonNull(sampleNameBlacklist, "Blacklist sample list cannot be null.  Use empty list if no blacklisting is desired.");
+        ParamUtils.inRange(maximumPercentageZeroColumns, 0, 100, "Maximum percentage of zero-columns must be in range [0, 100].");
+        ParamUtils.inRange(maximumPercentageZeroTargets, 0, 100, "Maximum percentage of zero-targets must be in range [0, 100].");
+        ParamUtils.inRange(extremeColumnMedianCountPercentileThreshold, 0, 50, "Extreme column median percentile threshold must be in range [0, 50].");
+        ParamUtils.inRange(countTruncatePercentile, 0, 50, "Count truncation threshold percentile threshold must be in range [0, 50].");
+        Utils.nonNull(numberOfEigensamples, "Number of eigensamples cannot be null.");
+        if (inputHDF5Filename.getAbsolutePath().equals(outputHDF5Filename.getAbsolutePath())) {
+            throw new UserException.CouldNotCreateOutputFile(outputHDF5Filename, "Cannot create a new PoN overwriting an old one.");
+        }
+
+        try (final HDF5File ponReader = new HDF5File(inputHDF5Filename, HDF5File.OpenMode.READ_ONLY)) {
+            final PCACoveragePoN inputPoN = new HDF5PCACoveragePoN(ponReader, logger);
+            validatePoNForUpdate(inputPoN, inputHDF5Filename);
+            final ReadCountCollection combinedCounts = combineReadCounts(inputPoN, inputPCovFile);
+            logger.info(String.format("Updating a PoN with %d samples with %d new samples", inputPoN.getSampleNames().size(),
+                    combinedCounts.columnNames().size() - inputPoN.getSampleNames().size()));
+            final double[] targetFactors = calculateTargetFactors(combinedCounts);
+            final RealMatrix previousReducedPanelCounts = inputPoN.getReducedPanelCounts();
+            final ReadCountCollection previousReducedCounts = new ReadCountCollection(inputPoN.getPanelTargets(),
+                    IntStream.range(0, previousReducedPanelCounts.getColumnDimension()).mapToObj(i -> "eigensample_" + (i + 1)).collect(Collectors.toList()),
+                    previousReducedPanelCounts);
+
+            createFromUsableTargets(outputHDF5Filename, openMode, inputPoN.getRawTargets(), combinedCounts, targetFactors,
+                    sampleNameBlacklist, maximumPercentageZeroColumns, maximumPercentageZeroTargets,
+                    extremeColumnMedianCountPercentileThreshold, countTruncatePercentile,
+                    logNormalizedCounts -> calculateReducedPanelAndPInversesIncrementally(logNormalizedCounts, numberOfEigensamples, previousReducedCounts, logger, ctx),
+                    ctx, isDryRun);
+        }
+    }
+
+    /**
+     * Normalizes and cleans the read counts of the usable targets, reduces the resulting panel and writes the PoN.
+     *
+     * @param usableCounts raw read counts on the targets that passed the target factor filter.
+     * @param targetFactors target factors corresponding to the targets in {@code usableCounts}.
+     * @param reducer calculates the reduction given the log-normalized panel.
+     */
+    private static void createFromUsableTargets(final File outputHDF5Filename,
+                                                final HDF5File.OpenMode openMode,
+                                                final List<Target> rawTargets,
+                                                final ReadCountCollection usableCounts,
+                                                final double[] targetFactors,
+                                                final List<String> sampleNameBlacklist,
+                                                final double maximumPercentageZeroColumns,
+                                                final double maximumPercentageZeroTargets,
+                                                final double extremeColumnMedianCountPercentileThreshold,
+                                                final double countTruncatePercentile,
+                                                final Function<ReadCountCollection, ReductionResult> reducer,
+                                                final JavaSparkContext ctx,
+                                                final boolean isDryRun) {
         // Remove samples listed on the blacklist and normalize read-counts by removing the target factor component
-        ReadCountCollection normalizedCounts = inputSubsetByUsableTargets.getLeft();
+        ReadCountCollection normalizedCounts = usableCounts;
         normalizedCounts = normalizedCounts.subsetColumns(Sets.difference(new HashSet<>(normalizedCounts.columnNames()), new HashSet<>(sampleNameBlacklist)) );
-        final double[] targetFactors = inputSubsetByUsableTargets.getRight();
         PCATangentNormalizationUtils.factorNormalize(normalizedCounts.counts(), targetFactors);
 
         // Impute zeros as median values for columns and targets with too many zeros, remove targets with extreme medians, and truncate extreme counts
-        final ReadCountCollection logNormalizedCounts = cleanNormalizedCounts(normalizedCounts, logger, maximumPercentageZeroColumns, maximumPercentageZeroTargets, extremeColumnMedianCountPercentileThreshold, countTruncatePercentile);
+        // The cleaning works on a copy as it returns its input when nothing is filtered and the steps below modify it in-place,
+        // whereas the normalized counts are stored in the PoN (and used to add samples to it later).
+        final ReadCountCollection logNormalizedCounts = cleanNormalizedCounts(
+                new ReadCountCollection(normalizedCounts.targets(), normalizedCounts.columnNames(), normalizedCounts.counts().copy()), logger, maximumPercentageZeroColumns, maximumPercentageZeroTargets, extremeColumnMedianCountPercentileThreshold, countTruncatePercentile);
 
         // Normalize by the median and log_2 scale the read counts.
         normalizeAndLogReadCounts(logNormalizedCounts, logger);
@@ -103,7 +227,7 @@ public final class HDF5PCACoveragePoNCreationUtils {
         subtractMedianOfMedians(logNormalizedCounts, logger);
 
         // Perform the SVD and calculate the pseudoinverse
-        final ReductionResult reduction = calculateReducedPanelAndPInverses(logNormalizedCounts, numberOfEigensamples, logger, ctx);
+        final ReductionResult reduction = reducer.apply(logNormalizedCounts);
 
         // Calculate the target variances
         final List<String> panelTargetNames = logNormalizedCounts.targets().stream().map(Target::getName).collect(Collectors.toList());
@@ -111,7 +235,7 @@ public final class HDF5PCACoveragePoNCreationUtils {
 
         // Write the PoN to HDF5 file
         if (!isDryRun) {
-            HDF5PCACoveragePoN.write(outputHDF5Filename, openMode, initialTargets.targets(), normalizedCounts, logNormalizedCounts, targetFactors, targetVariances, reduction);
+            HDF5PCACoveragePoN.write(outputHDF5Filename, openMode, rawTargets, normalizedCounts, logNormalizedCounts, targetFactors, targetVariances, reduction);
         }
     }
 
@@ -160,6 +284,77 @@ public final class HDF5PCACoveragePoNCreationUtils {
         }
     }
 
+    /**
+     * Checks that the raw counts of the samples in a PoN can be recovered from its normalized counts.
+     * <p>
+     *     Before version {@value #MINIMUM_UPDATABLE_PON_VERSION}, the normalized counts were overwritten by the
+     *     log-normalized counts when no sample or target was filtered out during cleaning.  As the version does not
+     *     tell whether a PoN was affected, all older PoNs are rejected.  So are PoNs whose normalized counts are
+     *     negative or whose median is far from 1, as the median of each target is about 1 by construction.
+     * </p>
+     *
+     * @throws UserException.BadInput if the PoN can not be updated.
+     */
+    private static void validatePoNForUpdate(final PCACoveragePoN pon, final File ponFile) {
+        final String rebuildAdvice = " Please recreate the panel of normals from the read counts of its samples and the new ones instead.";
+        if (pon.getVersion() < MINIMUM_UPDATABLE_PON_VERSION) {
+            throw new UserException.BadInput(String.format("The panel of normals %s has version %s, but only panels of normals of " +
+                    "version %s or later can be updated.%s", ponFile, pon.getVersion(), MINIMUM_UPDATABLE_PON_VERSION, rebuildAdvice));
+        }
+        final double[] normalizedCounts = Arrays.stream(pon.getNormalizedCounts().getData()).flatMapToDouble(Arrays::stream).toArray();
+        if (Arrays.stream(normalizedCounts).anyMatch(x -> !(x >= 0))) {
+            throw new UserException.BadInput(String.format("The panel of normals %s has negative or missing normalized counts.%s",
+                    ponFile, rebuildAdvice));
+        }
+        final double median = new Median().evaluate(normalizedCounts);
+        if (!(median >= 1 / MAXIMUM_NORMALIZED_COUNTS_MEDIAN_FOLD_CHANGE && median <= MAXIMUM_NORMALIZED_COUNTS_MEDIAN_FOLD_CHANGE)) {
+            throw new UserException.BadInput(String.format("The normalized counts in the panel of normals %s have median %f, " +
+                    "rather than close to 1.%s", ponFile, median, rebuildAdvice));
+        }
+    }
+
+    /**
+     * Composes the raw read counts of the samples in a PoN followed by those in a read counts file on the PoN targets.
+     * <p>
+     *     The raw counts of the samples in the PoN are recovered from its normalized counts and target factors.
+     * </p>
+     *
+     * @throws UserException.BadInput if the read counts file lacks any of the PoN targets or contains any of its samples.
+     */
+    private static ReadCountCollection combineReadCounts(final PCACoveragePoN pon, final File inputPCovFile) {
+        final List<Target> targets = pon.getTargets();
+        final ReadCountCollection newCounts = readReadCountsFromFile(inputPCovFile, new HashedListTargetCollection<>(targets));
+        final Set<Target> newTargets = new HashSet<>(newCounts.targets());
+        final List<String> missingTargetNames = targets.stream().filter(t -> !newTargets.contains(t)).map(Target::getName).collect(Collectors.toList());
+        if (!missingTargetNames.isEmpty()) {
+            throw new UserException.BadInput(String.format("The input read counts lack %d targets of the panel of normals: e.g. %s",
+                    missingTargetNames.size(), missingTargetNames.stream().limit(5).collect(Collectors.joining(", "))));
+        }
+        final List<String> ponSampleNames = pon.getSampleNames();
+        final Set<String> repeatedSampleNames = Sets.intersection(new HashSet<>(ponSampleNames), new HashSet<>(newCounts.columnNames()));
+        if (!repeatedSampleNames.isEmpty()) {
+            throw new UserException.BadInput(String.format("Some input samples are already part of the panel of normals: e.g. %s",
+                    repeatedSampleNames.stream().limit(5).collect(Collectors.joining(", "))));
+        }
+
+        final RealMatrix ponCounts = pon.getNormalizedCounts();
+        final double[] targetFactors = pon.getTargetFactors();
+        final RealMatrix newTargetCounts = newCounts.arrangeTargets(targets).counts();
+        final int ponSampleCount = ponCounts.getColumnDimension();
+        final RealMatrix counts = new Array2DRowRealMatrix(targets.size(), ponSampleCount + newTargetCounts.getColumnDimension());
+        for (int i = 0; i < targets.size(); i++) {
+            final double[] row = ponCounts.getRow(i);
+            for (int j = 0; j < row.length; j++) {
+                row[j] *= targetFactors[i];
+            }
+            counts.setSubMatrix(new double[][] {row}, i, 0);
+            counts.setSubMatrix(new double[][] {newTargetCounts.getRow(i)}, i, ponSampleCount);
+        }
+        final List<String> sampleNames = new ArrayList<>(ponSampleNames);
+        sampleNames.addAll(newCounts.columnNames());
+        return new ReadCountCollection(targets, sampleNames, counts);
+    }
+
     /**
      * Subsets targets in the input count to the usable ones based on the percentile threshold indicated
      * by the user.
@@ -326,6 +521,67 @@ public final class HDF5PCACoveragePoNCreationUtils {
         return new ReductionResult(logNormalizedPseudoInverse, reducedCounts, reducedCountsPseudoInverse, logNormalizedSVD.getSingularValues());
     }
 
+    /**
+     * SVD and Pseudo inverse calculation of a panel that extends that of a previous PoN.
+     * <p>
+     *     Only the leading singular vectors of the log-normalized panel are calculated using a
+     *     {@link RandomizedSingularValueDecomposer}, whose sampled range includes the previous eigensamples.  The
+     *     log-normalized pseudoinverse is therefore that of the reduced panel.  If the number of samples is too small
+     *     for this to pay off, this falls back to {@link #calculateReducedPanelAndPInverses}.
+     * </p>
+     *
+     * @param logNormalized the input counts for the SVD and reduction steps, fully normalized and already logged.
+     * @param requestedNumberOfEigensamples user requested number of eigensamples for the reduced panel; if empty, that of the previous PoN.
+     * @param previousReducedCounts the reduced panel of the previous PoN, with its panel targets.
+     * @return never {@code null}.
+     */
+    @VisibleForTesting
+    static ReductionResult calculateReducedPanelAndPInversesIncrementally(final ReadCountCollection logNormalized,
+                                                                          final OptionalInt requestedNumberOfEigensamples,
+                                                                          final ReadCountCollection previousReducedCounts,
+                                                                          final Logger logger,
+                                                                          final JavaSparkContext ctx) {
+        final RealMatrix logNormalizedCounts = logNormalized.counts();
+        final int numberOfCountColumns = logNormalizedCounts.getColumnDimension();
+        final int previousNumberOfEigensamples = previousReducedCounts.columnNames().size();
+        final int numberOfEigensamples = determineNumberOfEigensamples(
+                OptionalInt.of(requestedNumberOfEigensamples.orElse(previousNumberOfEigensamples)), numberOfCountColumns, null, logger);
+        if (numberOfEigensamples + RandomizedSingularValueDecomposer.DEFAULT_OVERSAMPLING + previousNumberOfEigensamples >= numberOfCountColumns) {
+            logger.info(String.format("The panel is too small (%d samples) to benefit from an incremental update of %d eigensamples; performing the full SVD", numberOfCountColumns, numberOfEigensamples));
+            return calculateReducedPanelAndPInverses(logNormalized, OptionalInt.of(numberOfEigensamples), logger, ctx);
+        }
+        logger.info(String.format("Including %d eigensamples in the reduced PoN", numberOfEigensamples));
+
+        // previous eigensamples on the current panel targets; those targets that were not in the previous panel are left as zeros.
+        final List<Target> panelTargets = logNormalized.targets();
+        final RealMatrix previousBasis = new Array2DRowRealMatrix(panelTargets.size(), previousNumberOfEigensamples);
+        final Map<Target, Integer> previousTargetIndex = IntStream.range(0, previousReducedCounts.targets().size()).boxed()
+                .collect(Collectors.toMap(previousReducedCounts.targets()::get, i -> i));
+        for (int i = 0; i < panelTargets.size(); i++) {
+            final Integer previousIndex = previousTargetIndex.get(panelTargets.get(i));
+            if (previousIndex != null) {
+                previousBasis.setRow(i, previousReducedCounts.counts().getRow(previousIndex));
+            }
+        }
+
+        logger.info("Starting the incremental SVD decomposition of the log-normalized counts ...");
+        final long svdStartTime = System.currentTimeMillis();
+        final SVD logNormalizedSVD = new RandomizedSingularValueDecomposer(numberOfEigensamples, previousBasis).createSVD(logNormalizedCounts);
+        final long svdEndTime = System.currentTimeMillis();
+        logger.info(String.format("Finished the incremental SVD decomposition of the log-normal counts. Elapse of %d seconds", (svdEndTime - svdStartTime) / 1000));
+
+        final double[] singularValues = logNormalizedSVD.getSingularValues();
+        final RealMatrix reducedCounts = logNormalizedSVD.getU().copy();
+        reducedCounts.walkInOptimizedOrder(new DefaultRealMatrixChangingVisitor() {
+            @Override
+            public double visit(final int row, final int column, final double value) { return singularValues[column]*value; }
+        });
+
+        logger.info("Calculating the reduced PoN inverse matrix...");
+        final RealMatrix reducedCountsPseudoInverse = SVDFactory.createSVD(reducedCounts, ctx).getPinv();
+        return new ReductionResult(logNormalizedSVD.getPinv(), reducedCounts, reducedCountsPseudoInverse, singularValues);
+    }
+
     /**
      * Determine the variance for each target in the PoN (panel targets).
      *
@@ -17,6 +17,7 @@ import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.spark.AddContextDataToReadSpark;
 import org.broadinstitute.hellbender.engine.spark.GATKSparkTool;
 import org.broadinstitute.hellbender.engine.spark.JoinStrategy;
+import org.broadinstitute.hellbender.engine.spark.KnownSitesCache;
 import org.broadinstitute.hellbender.engine.spark.datasources.VariantsSparkSource;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.spark.transforms.BaseRecalibratorSparkFn;
@@ -25,6 +26,7 @@ import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.recalibration.BaseRecalibrationEngine;
+import org.broadinstitute.hellbender.utils.recalibration.KnownSitesBitSetIndex;
 import org.broadinstitute.hellbender.utils.recalibration.RecalUtils;
 import org.broadinstitute.hellbender.utils.recalibration.RecalibrationArgumentCollection;
 import org.broadinstitute.hellbender.utils.recalibration.RecalibrationReport;
@@ -59,7 +61,11 @@ public class BaseRecalibratorSpark extends GATKSparkTool {
         return BaseRecalibrator.getStandardBQSRReadFilterList();
     }
 
-    @Argument(doc = "the known variants", shortName = "knownSites", fullName = "knownSites", optional = false)
+    /**
+     * Either all of them must be known sites index files created by CreateKnownSitesIndex or none. Index files that are
+     * not in the local filesystem (e.g. in HDFS or GCS) are copied to each executor, so they must have different names.
+     */
+    @Argument(doc = "the known variants, or known sites index files (" + KnownSitesBitSetIndex.FILE_EXTENSION + ") created by CreateKnownSitesIndex", shortName = "knownSites", fullName = "knownSites", optional = false)
     private List<String> knownVariants;
 
     @Argument(doc = "the join strategy for reference bases and known variants", shortName = "joinStrategy", fullName = "joinStrategy", optional = true)
@@ -91,9 +97,21 @@ public class BaseRecalibratorSpark extends GATKSparkTool {
             throw new UserException.BadInput("Reads must be coordinate sorted when using the overlaps partitioner join strategy.");
         }
 
+        // known sites indexes are memory-mapped on each executor, so there is no need to load them into an RDD
+        final boolean useKnownSitesIndexes = KnownSitesCache.areKnownSitesIndexes(knownVariants);
+        if (useKnownSitesIndexes && joinStrategy == JoinStrategy.SHUFFLE) {
+            throw new UserException.BadInput("Known sites index files are not supported with the SHUFFLE join strategy.");
+        }
+        if (useKnownSitesIndexes) {
+            KnownSitesCache.addKnownSitesIndexesToSparkFiles(ctx, knownVariants);
+        }
+
         JavaRDD<GATKRead> initialReads = getReads();
-        VariantsSparkSource variantsSparkSource = new VariantsSparkSource(ctx);
-        JavaRDD<GATKVariant> bqsrKnownVariants = variantsSparkSource.getParallelVariants(knownVariants, getIntervals());
+        JavaRDD<GATKVariant> bqsrKnownVariants = null;
+        if (!useKnownSitesIndexes) {
+            VariantsSparkSource variantsSparkSource = new VariantsSparkSource(ctx);
+            bqsrKnownVariants = variantsSparkSource.getParallelVariants(knownVariants, getIntervals());
+        }
 
         // TODO: Look into broadcasting the reference to all of the workers. This would make AddContextDataToReadSpark
         // TODO: and ApplyBQSRStub simpler (#855).
@@ -9,10 +9,12 @@ import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.SparkProgramGroup;
 import org.broadinstitute.hellbender.engine.spark.GATKSparkTool;
+import org.broadinstitute.hellbender.engine.spark.datasources.ReadsSparkSource;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 import java.io.PrintStream;
+import java.util.Set;
 
 @CommandLineProgramProperties(summary = "Counts bases in the input SAM/BAM",
         oneLineSummary = "CountBases on Spark",
@@ -26,6 +28,9 @@ public final class CountBasesSpark extends GATKSparkTool {
     @Override
     public boolean requiresReads() { return true; }
 
+    @Override
+    public Set<String> getRequiredADAMReadFields() { return ReadsSparkSource.ADAM_WELLFORMED_READ_FIELDS; }
+
     @Argument(doc = "uri for the output file: a local file path",
             shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME, fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
             optional = true)
@@ -23,6 +23,7 @@ import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.spark.AddContextDataToReadSpark;
 import org.broadinstitute.hellbender.engine.spark.GATKSparkTool;
 import org.broadinstitute.hellbender.engine.spark.JoinStrategy;
+import org.broadinstitute.hellbender.engine.spark.ReadDensityHistogram;
 import org.broadinstitute.hellbender.engine.spark.datasources.VariantsSparkSource;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.ApplyBQSRUniqueArgumentCollection;
@@ -152,6 +153,8 @@ public class ReadsPipelineSpark extends GATKSparkTool {
         final JavaRDD<GATKRead> filteredReadsForHC = finalReads.filter(read -> hcReadFilter.test(read));
         filteredReadsForHC.persist(StorageLevel.DISK_ONLY()); // without caching, computations are run twice as a side effect of finding partition boundaries for sorting
         final List<SimpleInterval> intervals = hasIntervals() ? getIntervals() : IntervalUtils.getAllIntervalsForReference(getHeaderForReads().getSequenceDictionary());
-        HaplotypeCallerSpark.callVariantsWithHaplotypeCallerAndWriteOutput(getAuthHolder(), ctx, filteredReadsForHC, getHeaderForReads(), getReference(), intervals, hcArgs, shardingArgs, numReducers, output);
+        // the reads have been transformed, but their positions (and so their density) are those of the input
+        final ReadDensityHistogram readDensity = shardingArgs.balanceShardsByReadDensity ? getReadDensityHistogram(intervals) : null;
+        HaplotypeCallerSpark.callVariantsWithHaplotypeCallerAndWriteOutput(getAuthHolder(), ctx, filteredReadsForHC, getHeaderForReads(), getReference(), intervals, hcArgs, shardingArgs, readDensity, numReducers, output);
     }
 }
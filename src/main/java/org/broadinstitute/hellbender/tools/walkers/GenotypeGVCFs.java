@@ -10,6 +10,7 @@ import org.broadinstitute.hellbender.cmdline.*;
 import org.broadinstitute.hellbender.cmdline.argumentcollections.DbsnpArgumentCollection;
 import org.broadinstitute.hellbender.cmdline.programgroups.VariantProgramGroup;
 import org.broadinstitute.hellbender.engine.*;
+import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.annotator.*;
 import org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific.AS_RMSMappingQuality;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.*;
@@ -65,6 +66,13 @@ import java.util.*;
  *   -O output.vcf
  * </pre>
  *
+ * <p>
+ * When more than one GVCF is given the inputs are merged as they are read, without first combining them with
+ * GenomicsDBImport. Each input is read once, in order, and only the most recent reference block or variant record of
+ * each sample is kept in memory, so this is practical for a moderate number of samples; for large cohorts importing
+ * the GVCFs into a GenomicsDB workspace and genotyping that is still the recommended approach.
+ * </p>
+ *
  * <h3>Caveat</h3>
  * <p>Only GVCF files produced by HaplotypeCaller (or CombineGVCFs) can be used as input for this tool. Some other
  * programs produce files that they call GVCFs but those lack some important information (accurate genotype likelihoods
@@ -77,7 +85,7 @@ import java.util.*;
  */
 @CommandLineProgramProperties(summary = "Perform joint genotyping on one or more samples pre-called with HaplotypeCaller", oneLineSummary = "Perform joint genotyping on one or more samples pre-called with HaplotypeCaller", programGroup = VariantProgramGroup.class)
 @DocumentedFeature
-public final class GenotypeGVCFs extends VariantWalker {
+public final class GenotypeGVCFs extends MultiVariantWalker {
 
     public static final String PHASED_HOM_VAR_STRING = "1|1";
     public static final String ONLY_OUTPUT_CALLS_STARTING_IN_INTERVALS_FULL_NAME = "onlyOutputCallsStartingInIntervals";
@@ -87,8 +95,8 @@ public final class GenotypeGVCFs extends VariantWalker {
             doc="File to which variants should be written", optional=false)
     private File outputFile;
 
-    //@Argument(fullName="includeNonVariantSites", shortName="allSites", doc="Include loci found to be non-variant after genotyping", optional=true)
-    //TODO This option is currently not supported.
+    //TODO the output with this option has not been validated against GATK3 yet (see the integration tests)
+    @Argument(fullName="includeNonVariantSites", shortName="allSites", doc="Include loci found to be non-variant after genotyping", optional=true)
     private boolean includeNonVariants = false;
 
     @ArgumentCollection
@@ -143,6 +151,21 @@ public final class GenotypeGVCFs extends VariantWalker {
     /** these are used when {@link #onlyOutputCallsStartingInIntervals) is true */
     private List<SimpleInterval> intervals;
 
+    // these are used to merge the inputs as they are traversed when there is more than one, see mergeInputsAndApply
+    private boolean mergeInputs;
+    private SampleList samples;
+    // the records seen for each sample that may still overlap later sites, ordered by end position and indexed by
+    // the sample's index in samples (a record starting inside a deletion does not end the deletion)
+    private List<PriorityQueue<VariantContext>> activeRecords;
+    private String activeContig;
+    // the site at which records are currently being collected, and the contexts of the first variant record starting
+    // there (null if no record starting there has a real alternate allele), or of the first record starting there
+    // if there is no such variant record and non-variant sites are included
+    private SimpleInterval pendingSite;
+    private ReferenceContext pendingRef;
+    private FeatureContext pendingFeatures;
+    private boolean pendingSiteIsVariant;
+
     @Override
     public boolean requiresReference() {
         return true;
@@ -160,7 +183,10 @@ public final class GenotypeGVCFs extends VariantWalker {
         intervals = hasIntervals() ? intervalArgumentCollection.getIntervals(getBestAvailableSequenceDictionary()) :
                 Collections.emptyList();
 
-        final SampleList samples = new IndexedSampleList(inputVCFHeader.getGenotypeSamples()); //todo should this be getSampleNamesInOrder?
+        mergeInputs = getDrivingVariantsFeatureInputs().size() > 1;
+        // the merged header of multiple inputs has no samples, so they are collected from the individual inputs
+        samples = mergeInputs ? getSamplesFromInputs() :
+                new IndexedSampleList(inputVCFHeader.getGenotypeSamples()); //todo should this be getSampleNamesInOrder?
 
         genotypingEngine = new MinimalGenotypingEngine(createUAC(), samples, new GeneralPloidyFailOverAFCalculatorProvider(genotypeArgs));
 
@@ -168,9 +194,28 @@ public final class GenotypeGVCFs extends VariantWalker {
 
         merger = new ReferenceConfidenceVariantContextMerger();
 
+        if (mergeInputs) {
+            activeRecords = new ArrayList<>(samples.numberOfSamples());
+            for (int i = 0; i < samples.numberOfSamples(); i++) {
+                activeRecords.add(new PriorityQueue<>(Comparator.comparingInt(VariantContext::getEnd)));
+            }
+        }
+
         setupVCFWriter(inputVCFHeader, samples);
     }
 
+    private SampleList getSamplesFromInputs() {
+        final Set<String> sampleNames = new LinkedHashSet<>();
+        for (final FeatureInput<VariantContext> input : getDrivingVariantsFeatureInputs()) {
+            for (final String sample : ((VCFHeader) getHeaderForFeatures(input)).getGenotypeSamples()) {
+                if (!sampleNames.add(sample)) {
+                    throw new UserException.BadInput("Sample " + sample + " is present in more than one input. Each sample must be in a single input when genotyping multiple inputs.");
+                }
+            }
+        }
+        return new IndexedSampleList(sampleNames);
+    }
+
     private static boolean annotationShouldBeSkippedForHomRefSites(VariantAnnotation annotation) {
         return annotation instanceof RankSumTest || annotation instanceof RMSMappingQuality || annotation instanceof AS_RMSMappingQuality;
     }
@@ -203,8 +248,16 @@ public final class GenotypeGVCFs extends VariantWalker {
 
     @Override
     public void apply(VariantContext variant, ReadsContext reads, ReferenceContext ref, FeatureContext features) {
+        if (mergeInputs) {
+            mergeInputsAndApply(variant, ref, features);
+            return;
+        }
         ref.setWindow(10, 10); //TODO this matches the gatk3 behavior but may be unnecessary
         final VariantContext mergedVC = merger.merge(Collections.singletonList(variant), variant, includeNonVariants ? ref.getBase() : null, true, false);
+        regenotypeAndWrite(mergedVC, ref, features);
+    }
+
+    private void regenotypeAndWrite(final VariantContext mergedVC, final ReferenceContext ref, final FeatureContext features) {
         final VariantContext regenotypedVC = regenotypeVC(mergedVC, ref, features, includeNonVariants);
         if (regenotypedVC != null) {
             final SimpleInterval variantStart = new SimpleInterval(regenotypedVC.getContig(), regenotypedVC.getStart(), regenotypedVC.getStart());
@@ -214,6 +267,115 @@ public final class GenotypeGVCFs extends VariantWalker {
         }
     }
 
+    /**
+     * Handles a record from one of several inputs. The inputs are traversed together in coordinate order, so all of
+     * the records starting at a site are seen one after another, and the site can be merged and genotyped as soon as
+     * a record starting at a later site is seen. At that point every record of a sample that hasn't ended yet
+     * overlaps the site: records starting at the site, and reference blocks or deletions spanning it. A deletion
+     * stays open when a later record of the same sample starts inside it (see {@link #getRecordToMerge}).
+     *
+     * Unless non-variant sites are included, only sites where some record has a real alternate allele are merged,
+     * since sites covered only by reference blocks cannot be polymorphic.
+     */
+    private void mergeInputsAndApply(final VariantContext variant, final ReferenceContext ref, final FeatureContext features) {
+        if (pendingSite != null && (variant.getStart() != pendingSite.getStart() || !variant.getContig().equals(pendingSite.getContig()))) {
+            mergeAndRegenotypePendingSite();
+        }
+        if (!variant.getContig().equals(activeContig)) {
+            activeRecords.forEach(PriorityQueue::clear);
+            activeContig = variant.getContig();
+        }
+
+        for (final Genotype genotype : variant.getGenotypes()) {
+            final int sampleIndex = samples.indexOfSample(genotype.getSampleName());
+            if (sampleIndex >= 0) {
+                activeRecords.get(sampleIndex).add(variant);
+            }
+        }
+
+        if (pendingSite == null) {
+            pendingSite = new SimpleInterval(variant.getContig(), variant.getStart(), variant.getStart());
+        }
+        final boolean isVariant = hasRealAlternateAllele(variant);
+        if (!pendingSiteIsVariant && (isVariant || (includeNonVariants && pendingRef == null))) {
+            ref.setWindow(10, 10); //TODO this matches the gatk3 behavior but may be unnecessary
+            pendingRef = ref;
+            pendingFeatures = features;
+            pendingSiteIsVariant = isVariant;
+        }
+    }
+
+    private void mergeAndRegenotypePendingSite() {
+        if (pendingRef != null) {
+            final int start = pendingSite.getStart();
+            // a record from a multi-sample input is active for each of its samples, but must only be merged once
+            final Set<VariantContext> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            final List<VariantContext> overlapping = new ArrayList<>();
+            for (final PriorityQueue<VariantContext> sampleRecords : activeRecords) {
+                while (!sampleRecords.isEmpty() && sampleRecords.peek().getEnd() < start) {
+                    sampleRecords.poll();
+                }
+                final VariantContext record = getRecordToMerge(sampleRecords, start);
+                if (record != null && seen.add(record)) {
+                    overlapping.add(record);
+                }
+            }
+            final VariantContext mergedVC = merger.merge(overlapping, pendingSite, includeNonVariants ? pendingRef.getBase() : null, true, false);
+            if (mergedVC != null) {
+                regenotypeAndWrite(mergedVC, pendingRef, pendingFeatures);
+            }
+        }
+        pendingSite = null;
+        pendingRef = null;
+        pendingFeatures = null;
+        pendingSiteIsVariant = false;
+    }
+
+    /**
+     * Chooses which of the records of a sample overlapping a site represents the sample there, so that each sample
+     * is merged only once. A variant record starting at the site is preferred, then a variant (ie. a deletion)
+     * spanning the site, so that the sample gets a spanning deletion genotype at every position covered by its
+     * deletion, and finally the reference block starting last.
+     *
+     * @param sampleRecords the records of the sample that overlap the site
+     * @param start the start of the site
+     * @return the record to merge, or null if the sample has no record overlapping the site
+     */
+    private static VariantContext getRecordToMerge(final Collection<VariantContext> sampleRecords, final int start) {
+        VariantContext startingVariant = null;
+        VariantContext spanningVariant = null;
+        VariantContext lastReferenceBlock = null;
+        for (final VariantContext record : sampleRecords) {
+            if (!hasRealAlternateAllele(record)) {
+                if (lastReferenceBlock == null || record.getStart() > lastReferenceBlock.getStart()) {
+                    lastReferenceBlock = record;
+                }
+            } else if (record.getStart() == start) {
+                startingVariant = record;
+            } else if (spanningVariant == null || record.getStart() > spanningVariant.getStart()) {
+                spanningVariant = record;
+            }
+        }
+        return startingVariant != null ? startingVariant : spanningVariant != null ? spanningVariant : lastReferenceBlock;
+    }
+
+    private static boolean hasRealAlternateAllele(final VariantContext vc) {
+        for (final Allele allele : vc.getAlternateAlleles()) {
+            if (!allele.equals(GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object onTraversalSuccess() {
+        if (mergeInputs && pendingSite != null) {
+            mergeAndRegenotypePendingSite();
+        }
+        return null;
+    }
+
 
 
     /**
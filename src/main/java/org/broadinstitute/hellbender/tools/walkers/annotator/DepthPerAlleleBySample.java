@@ -12,7 +12,6 @@ import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.genotyper.ReadLikelihoods;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Depth of coverage of each allele per sample
@@ -57,9 +56,7 @@ public final class DepthPerAlleleBySample extends GenotypeAnnotation implements
         for ( final Allele allele : vc.getAlleles() ) {
             alleleCounts.put(allele, 0);
         }
-        final Map<Allele, List<Allele>> alleleSubset = alleles.stream().collect(Collectors.toMap(a -> a, Arrays::asList));
-        final ReadLikelihoods<Allele> subsettedLikelihoods = likelihoods.marginalize(alleleSubset);
-        subsettedLikelihoods.bestAlleles(g.getSampleName()).stream()
+        likelihoods.bestAlleles(g.getSampleName(), alleles).stream()
                 .filter(ba -> ba.isInformative())
                 .forEach(ba -> alleleCounts.compute(ba.allele, (allele,prevCount) -> prevCount + 1));
 
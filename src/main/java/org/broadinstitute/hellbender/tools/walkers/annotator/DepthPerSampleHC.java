@@ -14,7 +14,6 @@ import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.genotyper.ReadLikelihoods;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Depth of informative coverage for each sample.
@@ -72,9 +71,7 @@ public final class DepthPerSampleHC extends GenotypeAnnotation implements Standa
         // the depth for the HC is the sum of the informative alleles at this site.  It's not perfect (as we cannot
         // differentiate between reads that align over the event but aren't informative vs. those that aren't even
         // close) but it's a pretty good proxy and it matches with the AD field (i.e., sum(AD) = DP).
-        final Map<Allele, List<Allele>> alleleSubset = alleles.stream().collect(Collectors.toMap(a -> a, a -> Arrays.asList(a)));
-        final ReadLikelihoods<Allele> subsettedLikelihoods = likelihoods.marginalize(alleleSubset);
-        final int depth = (int) subsettedLikelihoods.bestAlleles(sample).stream().filter(ba -> ba.isInformative()).count();
+        final int depth = (int) likelihoods.bestAlleles(sample, alleles).stream().filter(ba -> ba.isInformative()).count();
         gb.DP(depth);
     }
 
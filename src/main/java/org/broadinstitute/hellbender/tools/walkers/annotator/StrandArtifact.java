@@ -41,7 +41,15 @@ public class StrandArtifact extends GenotypeAnnotation implements StandardSomati
         ART_FWD, ART_REV, NO_ARTIFACT
     }
 
-    private static final EnumMap<StrandArtifactZ, Double> pi = new EnumMap<>(StrandArtifactZ.class);
+    // prior probabilities of z, which are only read once set up here so that the annotation can be shared by threads
+    private static final Map<StrandArtifactZ, Double> pi;
+    static {
+        final EnumMap<StrandArtifactZ, Double> prior = new EnumMap<>(StrandArtifactZ.class);
+        prior.put(StrandArtifactZ.NO_ARTIFACT, 0.95);
+        prior.put(StrandArtifactZ.ART_FWD, 0.025);
+        prior.put(StrandArtifactZ.ART_REV, 0.025);
+        pi = Collections.unmodifiableMap(prior);
+    }
 
     @Override
     public List<String> getKeyNames() {
@@ -63,10 +71,6 @@ public class StrandArtifact extends GenotypeAnnotation implements StandardSomati
             return;
         }
 
-        pi.put(NO_ARTIFACT, 0.95);
-        pi.put(ART_FWD, 0.025);
-        pi.put(ART_REV, 0.025);
-
         // We use the allele with highest LOD score
         final double[] tumorLods = GATKProtectedVariantContextUtils.getAttributeAsDoubleArray(vc, GATKVCFConstants.TUMOR_LOD_KEY, () -> null, -1);
         final int indexOfMaxTumorLod = MathUtils.maxElementIndex(tumorLods);
@@ -22,6 +22,9 @@ import java.util.stream.Collectors;
  * Annotations are auto-discovered - ie, any class that extends {@link VariantAnnotation} and
  * lives in this package is treated as an annotation and the engine will attempt to create instances of it
  * by calling the non-arg constructor (loading will fail if there is no no-arg constructor).
+ *
+ * The engine keeps no state between variants, and annotations must not either, so one engine may annotate variants
+ * on several threads at once.
  */
 public final class VariantAnnotatorEngine {
     private final List<InfoFieldAnnotation> infoAnnotations;
@@ -17,6 +17,7 @@ import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.recalibration.BaseRecalibrationEngine;
+import org.broadinstitute.hellbender.utils.recalibration.KnownSitesBitSetIndex;
 import org.broadinstitute.hellbender.utils.recalibration.QuantizationInfo;
 import org.broadinstitute.hellbender.utils.recalibration.RecalUtils;
 import org.broadinstitute.hellbender.utils.recalibration.RecalibrationArgumentCollection;
@@ -98,9 +99,17 @@ public final class BaseRecalibrator extends ReadWalker {
      * use -XL my.interval.list to skip over processing those sites. Please note however that the statistics reported by the tool will not accurately
      * reflected those sites skipped by the -XL argument.
      */
-    @Argument(fullName = "knownSites", shortName = "knownSites", doc = "One or more databases of known polymorphic sites used to exclude regions around known polymorphisms from analysis.", optional = false)
+    @Argument(fullName = "knownSites", shortName = "knownSites", doc = "One or more databases of known polymorphic sites used to exclude regions around known polymorphisms from analysis.", optional = true)
     private List<FeatureInput<Feature>> knownSites;
 
+    /**
+     * A compact index of known sites created by {@link CreateKnownSitesIndex}, which can be used instead of -knownSites.
+     * The index is memory-mapped rather than parsed, which avoids the cost of decoding large databases such as dbSNP.
+     * Exactly one of -knownSites and -knownSitesIndex must be specified.
+     */
+    @Argument(fullName = "knownSitesIndex", shortName = "knownSitesIndex", doc = "A known sites index created by CreateKnownSitesIndex, to use instead of -knownSites.", optional = true)
+    private File knownSitesIndexFile = null;
+
     /**
      * After the header, data records occur one per line until the end of the file. The first several items on a line are the
      * values of the individual covariates and will change depending on which covariates were specified at runtime. The last
@@ -112,6 +121,8 @@ public final class BaseRecalibrator extends ReadWalker {
 
     private BaseRecalibrationEngine recalibrationEngine;
 
+    private KnownSitesBitSetIndex knownSitesIndex = null;
+
     private ReferenceDataSource referenceDataSource; // datasource for the reference. We're using a different one from the engine itself to avoid messing with its caches.
 
     /**
@@ -124,6 +135,15 @@ public final class BaseRecalibrator extends ReadWalker {
         return true;
     }
 
+    @Override
+    protected String[] customCommandLineValidation() {
+        final boolean hasKnownSites = knownSites != null && ! knownSites.isEmpty();
+        if ( hasKnownSites == (knownSitesIndexFile != null) ) {
+            return new String[]{"Exactly one of -knownSites and -knownSitesIndex must be specified"};
+        }
+        return null;
+    }
+
     /**
      * Parse the -cov arguments and create a list of covariates to be used here
      * Based on the covariates' estimates for initial capacity allocate the data hashmap
@@ -139,6 +159,9 @@ public final class BaseRecalibrator extends ReadWalker {
         recalibrationEngine = new BaseRecalibrationEngine(recalArgs, getHeaderForReads());
         recalibrationEngine.logCovariatesUsed();
         referenceDataSource = ReferenceDataSource.of(referenceArguments.getReferenceFile());
+        if ( knownSitesIndexFile != null ) {
+            knownSitesIndex = KnownSitesBitSetIndex.load(knownSitesIndexFile);
+        }
     }
 
     @Override
@@ -177,7 +200,11 @@ public final class BaseRecalibrator extends ReadWalker {
      */
     @Override
     public void apply( GATKRead read, ReferenceContext ref, FeatureContext featureContext ) {
-        recalibrationEngine.processRead(read, referenceDataSource, featureContext.getValues(knownSites));
+        if ( knownSitesIndex != null ) {
+            recalibrationEngine.processRead(read, referenceDataSource, knownSitesIndex, featureContext.getInterval());
+        } else {
+            recalibrationEngine.processRead(read, referenceDataSource, featureContext.getValues(knownSites));
+        }
     }
 
     @Override
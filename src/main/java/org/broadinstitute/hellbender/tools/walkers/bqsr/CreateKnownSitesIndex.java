@@ -0,0 +1,81 @@
+package org.broadinstitute.hellbender.tools.walkers.bqsr;
+
+import htsjdk.tribble.Feature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.BetaFeature;
+import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
+import org.broadinstitute.barclay.help.DocumentedFeature;
+import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
+import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.cmdline.programgroups.ReadProgramGroup;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.utils.recalibration.KnownSitesBitSetIndex;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Combines one or more databases of known polymorphic sites (VCF, BED, etc.) into a single compact known sites
+ * index for use with BaseRecalibrator and the Spark BQSR tools.
+ *
+ * <p>
+ * The index stores only the positions covered by each known site, as a bitset per contig, and is memory-mapped
+ * when loaded. This makes it much faster to load and much smaller in memory than the original files, which is
+ * significant for large databases such as dbSNP. Recalibration tables produced from the index are identical to
+ * those produced from the original files.
+ * </p>
+ *
+ * <h3>Example</h3>
+ * <pre>
+ * ./gatk-launch CreateKnownSitesIndex \
+ *   -knownSites dbsnp_138.b37.vcf \
+ *   -knownSites Mills_and_1000G_gold_standard.indels.b37.vcf \
+ *   -O b37.known_sites.ksi
+ * </pre>
+ */
+@CommandLineProgramProperties(
+        summary = "Combines one or more databases of known polymorphic sites into a compact, memory-mappable index for BQSR",
+        oneLineSummary = "Creates a known sites index for BQSR",
+        programGroup = ReadProgramGroup.class
+)
+@DocumentedFeature
+@BetaFeature
+public final class CreateKnownSitesIndex extends CommandLineProgram {
+    private static final Logger logger = LogManager.getLogger(CreateKnownSitesIndex.class);
+
+    @Argument(fullName = "knownSites", shortName = "knownSites", doc = "One or more databases of known polymorphic sites to include in the index.", optional = false)
+    public List<String> knownSites;
+
+    @Argument(shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME, fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
+            doc = "The output known sites index file (must end with " + KnownSitesBitSetIndex.FILE_EXTENSION + ")", optional = false)
+    public File outputFile;
+
+    @Override
+    protected String[] customCommandLineValidation() {
+        if ( ! KnownSitesBitSetIndex.isKnownSitesIndexFile(outputFile.getName()) ) {
+            return new String[]{"Output file name must end with " + KnownSitesBitSetIndex.FILE_EXTENSION};
+        }
+        return null;
+    }
+
+    @Override
+    protected Object doWork() {
+        final KnownSitesBitSetIndex.Builder builder = new KnownSitesBitSetIndex.Builder();
+        for ( final String knownSitesPath : knownSites ) {
+            long count = 0;
+            try ( final FeatureDataSource<Feature> source = new FeatureDataSource<>(knownSitesPath, null, 0, null) ) {
+                for ( final Feature site : source ) {
+                    builder.add(site);
+                    count++;
+                }
+            }
+            logger.info(String.format("Added %d known sites from %s", count, knownSitesPath));
+        }
+
+        builder.write(outputFile);
+        logger.info("Successfully wrote known sites index to " + outputFile.getAbsolutePath());
+        return outputFile.getAbsolutePath();
+    }
+}
@@ -137,7 +137,7 @@ public final class GenotypeAlleleCounts implements Comparable<GenotypeAlleleCoun
      *
      * <p>
      *     This method must not be invoked on cached genotype-allele-counts that are meant to remain constant,
-     *     such as the ones contained in {@link GenotypeLikelihoodCalculators#genotypeTableByPloidy}.
+     *     such as the ones contained in the shared genotype tables of {@link GenotypeLikelihoodCalculators}.
      * </p>
      *
      * @param times the number of times to increase.
@@ -156,7 +156,7 @@ public final class GenotypeAlleleCounts implements Comparable<GenotypeAlleleCoun
      *
      * <p>
      *     This method must not be invoked on cached genotype-allele-counts that are meant to remain constant,
-     *     such as the ones contained in {@link GenotypeLikelihoodCalculators#genotypeTableByPloidy}
+     *     such as the ones contained in the shared genotype tables of {@link GenotypeLikelihoodCalculators}
      * </p>
      */
     protected void increase() {
@@ -6,11 +6,16 @@ import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.PriorityQueue;
 
 /**
  * Helper to calculate genotype likelihoods given a ploidy and an allele count (number of possible distinct alleles).
+ *
+ * <p>
+ *     Calculators reuse scratch buffers between calls, so they are not thread-safe.
+ * </p>
  */
 public final class GenotypeLikelihoodCalculator {
 
@@ -23,7 +28,7 @@ public final class GenotypeLikelihoodCalculator {
      * Offset table for this calculator.
      *
      * <p>
-     *     This is a shallow copy of {@link GenotypeLikelihoodCalculators#alleleFirstGenotypeOffsetByPloidy} when the calculator was created
+     *     This is a shallow copy of the shared offset table of {@link GenotypeLikelihoodCalculators} when the calculator was created
      *     thus it follows the same format as that array. Please refer to its documentation.
      * </p>
      *
@@ -104,22 +109,6 @@ public final class GenotypeLikelihoodCalculator {
      */
     private int readCapacity = -1;
 
-    /**
-     * Buffer field use as a temporal container for sorted allele counts when calculating the likelihood of a
-     * read in a genotype.
-     * <p>
-     *      This array follows the same format as {@link GenotypeAlleleCounts#sortedAlleleCounts}. Each component in the
-     *      genotype takes up two positions in the array where the first indicate the allele index and the second its frequency in the
-     *      genotype. Only non-zero frequency alleles are represented, taking up the first positions of the array.
-     * </p>
-     *
-     * <p>
-     *     This array is sized so that it can accommodate the maximum possible number of distinct alleles in any
-     *     genotype supported by the calculator, value stored in {@link #maximumDistinctAllelesInGenotype}.
-     * </p>
-     */
-    private final int[] genotypeAllelesAndCounts;
-
     /**
      * Buffer field use as a temporal container for component likelihoods when calculating the likelihood of a
      * read in a genotype. It is stratified by read and the allele component of the genotype likelihood... that is
@@ -137,6 +126,30 @@ public final class GenotypeLikelihoodCalculator {
      */
     private double[] readGenotypeLikelihoodComponents;
 
+    /**
+     * Dense table of the components of every genotype of this calculator, built the first time that likelihoods are
+     * calculated so that genotypes beyond {@link GenotypeLikelihoodCalculators#MAXIMUM_STRONG_REF_GENOTYPE_PER_PLOIDY}
+     * are not reconstructed for every call.
+     *
+     * <p>
+     *     The components of the genotype with index <i>g</i> are found in {@link #genotypeComponents} from position
+     *     <code>genotypeComponentOffsets[g]</code> (inclusive) to <code>genotypeComponentOffsets[g + 1]</code> (exclusive).
+     * </p>
+     */
+    private int[] genotypeComponentOffsets;
+
+    /**
+     * Components of each genotype in the order of {@link GenotypeAlleleCounts#sortedAlleleCounts}, where a component
+     * for allele <i>a</i> with <i>f</i> copies is encoded as <code>a * (ploidy + 1) + f</code>. That is the position
+     * of its likelihoods in {@link #readAlleleLikelihoodByAlleleCount} in units of the read count.
+     */
+    private int[] genotypeComponents;
+
+    /**
+     * Log10 of each possible allele frequency in a genotype, indexed by the frequency; entry 0 is never used.
+     */
+    private final double[] log10Frequencies;
+
     /**
      * Creates a new calculator providing its ploidy and number of genotyping alleles.
      */
@@ -153,7 +166,38 @@ public final class GenotypeLikelihoodCalculator {
         readLikelihoodsByGenotypeIndex = new double[genotypeCount][];
         // The number of possible components is limited by distinct allele count and ploidy.
         maximumDistinctAllelesInGenotype = Math.min(ploidy, alleleCount);
-        genotypeAllelesAndCounts = new int[maximumDistinctAllelesInGenotype * 2];
+        log10Frequencies = new double[ploidy + 1];
+        for (int frequency = 1; frequency <= ploidy; frequency++) {
+            log10Frequencies[frequency] = MathUtils.log10(frequency);
+        }
+    }
+
+    /**
+     * Builds {@link #genotypeComponentOffsets} and {@link #genotypeComponents} if not done already.
+     */
+    private void ensureGenotypeComponentTable() {
+        if (genotypeComponentOffsets != null) {
+            return;
+        }
+        final int[] offsets = new int[genotypeCount + 1];
+        int[] components = new int[Math.max(genotypeCount, 1) * Math.min(2, maximumDistinctAllelesInGenotype)];
+        int size = 0;
+        GenotypeAlleleCounts alleleCounts = genotypeAlleleCounts[0];
+        for (int genotypeIndex = 0; genotypeIndex < genotypeCount; genotypeIndex++) {
+            final int componentCount = alleleCounts.distinctAlleleCount();
+            if (size + componentCount > components.length) {
+                components = Arrays.copyOf(components, Math.max(components.length << 1, size + componentCount));
+            }
+            for (int c = 0; c < componentCount; c++) {
+                components[size++] = alleleCounts.alleleIndexAt(c) * (ploidy + 1) + alleleCounts.alleleCountAt(c);
+            }
+            offsets[genotypeIndex + 1] = size;
+            if (genotypeIndex < genotypeCount - 1) {
+                alleleCounts = nextGenotypeAlleleCounts(alleleCounts);
+            }
+        }
+        genotypeComponents = Arrays.copyOf(components, size);
+        genotypeComponentOffsets = offsets;
     }
 
     /**
@@ -294,25 +338,23 @@ public final class GenotypeLikelihoodCalculator {
      */
     private double[][] genotypeLikelihoodByRead(final double[] readLikelihoodComponentsByAlleleCount, final int readCount) {
 
-        // Here we don't use the convenience of {@link #genotypeAlleleCountsAt(int)} within the loop to spare instantiations of
-        // GenotypeAlleleCounts class when we are dealing with many genotypes.
-        GenotypeAlleleCounts alleleCounts = genotypeAlleleCounts[0];
+        // The genotype components come from the dense table rather than from GenotypeAlleleCounts instances, which
+        // beyond the strongly referenced genotypes would have to be reconstructed for every call.
+        ensureGenotypeComponentTable();
 
         for (int genotypeIndex = 0; genotypeIndex < genotypeCount; genotypeIndex++) {
             final double[] readLikelihoods = this.readLikelihoodsByGenotypeIndex[genotypeIndex];
-            final int componentCount = alleleCounts.distinctAlleleCount();
-            switch (componentCount) {
+            final int fromComponent = genotypeComponentOffsets[genotypeIndex];
+            final int toComponent = genotypeComponentOffsets[genotypeIndex + 1];
+            switch (toComponent - fromComponent) {
                 case 1: //
-                    singleComponentGenotypeLikelihoodByRead(alleleCounts, readLikelihoods, readLikelihoodComponentsByAlleleCount, readCount);
+                    singleComponentGenotypeLikelihoodByRead(genotypeComponents[fromComponent], readLikelihoods, readLikelihoodComponentsByAlleleCount, readCount);
                     break;
                 case 2:
-                    twoComponentGenotypeLikelihoodByRead(alleleCounts,readLikelihoods,readLikelihoodComponentsByAlleleCount, readCount);
+                    twoComponentGenotypeLikelihoodByRead(genotypeComponents[fromComponent], genotypeComponents[fromComponent + 1], readLikelihoods, readLikelihoodComponentsByAlleleCount, readCount);
                     break;
                 default:
-                    manyComponentGenotypeLikelihoodByRead(alleleCounts,readLikelihoods,readLikelihoodComponentsByAlleleCount, readCount);
-            }
-            if (genotypeIndex < genotypeCount - 1) {
-                alleleCounts = nextGenotypeAlleleCounts(alleleCounts);
+                    manyComponentGenotypeLikelihoodByRead(fromComponent, toComponent, readLikelihoods, readLikelihoodComponentsByAlleleCount, readCount);
             }
         }
         return readLikelihoodsByGenotypeIndex;
@@ -337,22 +379,22 @@ public final class GenotypeLikelihoodCalculator {
     /**
      * General genotype likelihood component by read calculator. It does not make any assumption in the exact
      * number of alleles present in the genotype.
+     *
+     * @param fromComponent position of the first component of the genotype in {@link #genotypeComponents}.
+     * @param toComponent position after the last component of the genotype in {@link #genotypeComponents}.
      */
-    private void manyComponentGenotypeLikelihoodByRead(final GenotypeAlleleCounts genotypeAlleleCounts,
+    private void manyComponentGenotypeLikelihoodByRead(final int fromComponent,
+                                                       final int toComponent,
                                                        final double[] likelihoodByRead,
                                                        final double[]readLikelihoodComponentsByAlleleCount,
                                                        final int readCount) {
 
         // First we collect the allele likelihood component for all reads and place it
         // in readGenotypeLikelihoodComponents for the final calculation per read.
-        genotypeAlleleCounts.copyAlleleCounts(genotypeAllelesAndCounts,0);
-        final int componentCount = genotypeAlleleCounts.distinctAlleleCount();
-        final int alleleDataSize = (ploidy + 1) * readCount;
-        for (int c = 0,cc = 0; c < componentCount; c++) {
-            final int alleleIndex = genotypeAllelesAndCounts[cc++];
-            final int alleleCount = genotypeAllelesAndCounts[cc++];
+        final int componentCount = toComponent - fromComponent;
+        for (int c = 0; c < componentCount; c++) {
             // alleleDataOffset will point to the index of the first read likelihood for that allele and allele count.
-            int alleleDataOffset = alleleDataSize * alleleIndex + alleleCount * readCount;
+            int alleleDataOffset = genotypeComponents[fromComponent + c] * readCount;
             for (int r = 0, readDataOffset = c; r < readCount; r++, readDataOffset += maximumDistinctAllelesInGenotype) {
                 readGenotypeLikelihoodComponents[readDataOffset] = readLikelihoodComponentsByAlleleCount[alleleDataOffset++];
             }
@@ -365,19 +407,19 @@ public final class GenotypeLikelihoodCalculator {
     }
 
     /**
-     * Calculates the likelihood component by read for a given genotype allele count assuming that there are
+     * Calculates the likelihood component by read for a given genotype assuming that there are
      * exactly two alleles present in the genotype (with arbitrary non-zero counts each).
+     *
+     * @param component0 the first genotype component, encoded as in {@link #genotypeComponents}.
+     * @param component1 the second genotype component, encoded as in {@link #genotypeComponents}.
      */
-    private void twoComponentGenotypeLikelihoodByRead(final GenotypeAlleleCounts genotypeAlleleCounts,
+    private void twoComponentGenotypeLikelihoodByRead(final int component0,
+                                                      final int component1,
                                                       final double[] likelihoodByRead,
                                                       final double[] readLikelihoodComponentsByAlleleCount,
                                                       final int readCount) {
-        final int allele0 = genotypeAlleleCounts.alleleIndexAt(0);
-        final int freq0 = genotypeAlleleCounts.alleleCountAt(0);
-        final int allele1 = genotypeAlleleCounts.alleleIndexAt(1);
-        final int freq1 = ploidy - freq0; // no need to get it from genotypeAlleleCounts.
-        int allele0LnLkOffset = readCount * ((ploidy + 1) * allele0 + freq0);
-        int allele1LnLkOffset = readCount * ((ploidy + 1) * allele1 + freq1);
+        int allele0LnLkOffset = readCount * component0;
+        int allele1LnLkOffset = readCount * component1;
         for (int r = 0; r < readCount; r++) {
             final double lnLk0 = readLikelihoodComponentsByAlleleCount[allele0LnLkOffset++];
             final double lnLk1 = readLikelihoodComponentsByAlleleCount[allele1LnLkOffset++];
@@ -386,18 +428,15 @@ public final class GenotypeLikelihoodCalculator {
     }
 
     /**
-     * Calculates the likelihood component by read for a given genotype allele count assuming that there are
+     * Calculates the likelihood component by read for a given genotype assuming that there are
      * exactly one allele present in the genotype.
+     *
+     * @param component the only genotype component, encoded as in {@link #genotypeComponents}; its count must be
+     *                  the ploidy.
      */
-    private void singleComponentGenotypeLikelihoodByRead(final GenotypeAlleleCounts genotypeAlleleCounts,
+    private void singleComponentGenotypeLikelihoodByRead(final int component,
                                                          final double[] likelihoodByRead, final double[] readLikelihoodComponentsByAlleleCount, final int readCount) {
-        final int allele = genotypeAlleleCounts.alleleIndexAt(0);
-        // the count of the only component must be = ploidy.
-        int offset = (allele * (ploidy + 1) + ploidy) * readCount;
-        for (int r = 0; r < readCount; r++) {
-            likelihoodByRead[r] =
-                    readLikelihoodComponentsByAlleleCount[offset++];
-        }
+        System.arraycopy(readLikelihoodComponentsByAlleleCount, component * readCount, likelihoodByRead, 0, readCount);
     }
 
     /**
@@ -420,7 +459,7 @@ public final class GenotypeLikelihoodCalculator {
 
             // p = 2 because the frequency == 1 we already have it.
             for (int frequency = 2, destinationOffset = frequency1Offset + readCount; frequency <= ploidy; frequency++) {
-                final double log10frequency = MathUtils.log10(frequency);
+                final double log10frequency = log10Frequencies[frequency];
                 for (int r = 0, sourceOffset = frequency1Offset; r < readCount; r++) {
                     readAlleleLikelihoodByAlleleCount[destinationOffset++] =
                             readAlleleLikelihoodByAlleleCount[sourceOffset++] + log10frequency;
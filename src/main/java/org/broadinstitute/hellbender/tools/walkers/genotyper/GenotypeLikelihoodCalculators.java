@@ -15,20 +15,15 @@ import java.util.Arrays;
  *     This class provide genotype likelihood calculators with any number of alleles able given an arbitrary ploidy and allele
  *     count (number of distinct alleles).
  * </p>
+ * <p>
+ *     An instance can be shared by several threads. The calculators it returns are not thread-safe, so each thread
+ *     must use its own.
+ * </p>
  */
 public final class GenotypeLikelihoodCalculators {
 
     private static final Logger logger = LogManager.getLogger(GenotypeLikelihoodCalculators.class);
 
-    /**
-     * The current maximum ploidy supported by the tables.
-     * <p>
-     *     Its initial value indicates the initial capacity of the shared {@link #genotypeTableByPloidy}. Feel free
-     *     to change it to anything reasonable that is non-negative.
-     * </p>
-     */
-    private int maximumPloidy = 2; // its initial value is the initial capacity of the shared tables.
-
     /**
      * Maximum possible number of genotypes that this calculator can handle.
      */
@@ -40,32 +35,58 @@ public final class GenotypeLikelihoodCalculators {
     static final int GENOTYPE_COUNT_OVERFLOW = -1;
 
     /**
-     * The current maximum allele index supported by the tables.
+     * The shared tables, with the largest capacity requested so far in terms of maximum-allele and maximum-ploidy.
      * <p>
-     *     Its initial value indicates the initial capacity of the shared {@link #alleleFirstGenotypeOffsetByPloidy} table.
-     *     Feel free to change it to anything reasonable that is non-negative.
+     *     The tables are never modified once built; when more capacity is needed, larger tables are built and
+     *     replace these. Thus an instance may be shared by several threads: each reads this field once and works
+     *     with a consistent set of tables.
+     * </p>
+     * <p>
+     *     Its initial capacity (ploidy 2 and allele index 1) is anything reasonable that is non-negative.
      * </p>
      */
-    private int maximumAllele = 1; // its initial value is the initial capacity of the shared tables.
+    private volatile GenotypeTables tables = new GenotypeTables(2, 1);
 
     /**
-     * Shared copy of the offset table as described in {@link #buildGenotypeAlleleCountsTable(int, int, int[][])}.
-     *
-     * This reference holds the largest requested so far in terms of maximum-allele and maximum-ploidy.
+     * Immutable snapshot of the offset and genotype tables for a maximum ploidy and allele index.
      */
-    private int[][] alleleFirstGenotypeOffsetByPloidy =
-            buildAlleleFirstGenotypeOffsetTable(maximumPloidy, maximumAllele);
-
+    private static final class GenotypeTables {
+
+        /**
+         * The maximum ploidy supported by the tables.
+         */
+        private final int maximumPloidy;
+
+        /**
+         * The maximum allele index supported by the tables.
+         */
+        private final int maximumAllele;
+
+        /**
+         * Offset table as described in {@link GenotypeLikelihoodCalculators#buildGenotypeAlleleCountsTable(int, int, int[][])}.
+         */
+        private final int[][] alleleFirstGenotypeOffsetByPloidy;
+
+        /**
+         * Table of genotypes give the ploidy sorted by their index in the likelihood array.
+         *
+         * <p>
+         *  Its format is described in {@link GenotypeLikelihoodCalculators#buildGenotypeAlleleCountsTable(int, int, int[][])}.
+         * </p>
+         */
+        private final GenotypeAlleleCounts[][] genotypeTableByPloidy;
+
+        private GenotypeTables(final int maximumPloidy, final int maximumAllele) {
+            this.maximumPloidy = maximumPloidy;
+            this.maximumAllele = maximumAllele;
+            alleleFirstGenotypeOffsetByPloidy = buildAlleleFirstGenotypeOffsetTable(maximumPloidy, maximumAllele);
+            genotypeTableByPloidy = buildGenotypeAlleleCountsTable(maximumPloidy, maximumAllele, alleleFirstGenotypeOffsetByPloidy);
+        }
 
-    /**
-     * Shared table of genotypes give the ploidy sorted by their index in the likelihood array.
-     *
-     * <p>
-     *  Its format is described in {@link #buildGenotypeAlleleCountsTable(int, int, int[][])}.
-     * </p>
-     */
-    private GenotypeAlleleCounts[][] genotypeTableByPloidy =
-            buildGenotypeAlleleCountsTable(maximumPloidy,maximumAllele,alleleFirstGenotypeOffsetByPloidy);
+        private boolean hasCapacity(final int ploidy, final int alleleCount) {
+            return ploidy <= maximumPloidy && alleleCount <= maximumAllele;
+        }
+    }
 
     public GenotypeLikelihoodCalculators(){
 
@@ -260,13 +281,26 @@ public final class GenotypeLikelihoodCalculators {
     public GenotypeLikelihoodCalculator getInstance(final int ploidy, final int alleleCount) {
         checkPloidyAndMaximumAllele(ploidy, alleleCount);
 
-        if (calculateGenotypeCountUsingTables(ploidy, alleleCount) == GENOTYPE_COUNT_OVERFLOW) {
+        final GenotypeTables tables = tablesWithCapacity(ploidy, alleleCount);
+        if (tables.alleleFirstGenotypeOffsetByPloidy[ploidy][alleleCount] == GENOTYPE_COUNT_OVERFLOW) {
             final double largeGenotypeCount = Math.pow(10, MathUtils.log10BinomialCoefficient(ploidy + alleleCount - 1, alleleCount - 1));
             throw new IllegalArgumentException(String.format("the number of genotypes is too large for ploidy %d and allele %d: approx. %.0f", ploidy, alleleCount, largeGenotypeCount));
         }
 
-        // At this point the tables must have at least the requested capacity, likely to be much more.
-        return new GenotypeLikelihoodCalculator(ploidy, alleleCount, alleleFirstGenotypeOffsetByPloidy, genotypeTableByPloidy);
+        // The tables have at least the requested capacity, likely to be much more.
+        return new GenotypeLikelihoodCalculator(ploidy, alleleCount, tables.alleleFirstGenotypeOffsetByPloidy, tables.genotypeTableByPloidy);
+    }
+
+    /**
+     * Returns the shared tables, first replacing them with larger ones if they do not have the requested capacity.
+     *
+     * @param requestedMaximumPloidy the requested ploidy maximum.
+     * @param requestedMaximumAllele the requested maximum allele maximum.
+     * @return never {@code null}, tables with at least the requested capacity.
+     */
+    private GenotypeTables tablesWithCapacity(final int requestedMaximumPloidy, final int requestedMaximumAllele) {
+        final GenotypeTables current = tables;
+        return current.hasCapacity(requestedMaximumPloidy, requestedMaximumAllele) ? current : ensureCapacity(requestedMaximumAllele, requestedMaximumPloidy);
     }
 
     /**
@@ -274,32 +308,24 @@ public final class GenotypeLikelihoodCalculators {
      *
      * @param requestedMaximumAllele the new requested maximum allele maximum.
      * @param requestedMaximumPloidy the new requested ploidy maximum.
+     * @return the updated tables.
      */
-    private void ensureCapacity(final int requestedMaximumAllele, final int requestedMaximumPloidy) {
-
-        final boolean needsToExpandAlleleCapacity = requestedMaximumAllele > maximumAllele;
-        final boolean needsToExpandPloidyCapacity = requestedMaximumPloidy > maximumPloidy;
+    private synchronized GenotypeTables ensureCapacity(final int requestedMaximumAllele, final int requestedMaximumPloidy) {
+        final GenotypeTables current = tables;
 
         // Double check with the lock on to avoid double work.
-        if (!needsToExpandAlleleCapacity && !needsToExpandPloidyCapacity) {
-            return;
+        if (current.hasCapacity(requestedMaximumPloidy, requestedMaximumAllele)) {
+            return current;
         }
 
-        final int newMaximumPloidy = Math.max(maximumPloidy, requestedMaximumPloidy);
-        final int newMaximumAllele = Math.max(maximumAllele, requestedMaximumAllele);
+        final int newMaximumPloidy = Math.max(current.maximumPloidy, requestedMaximumPloidy);
+        final int newMaximumAllele = Math.max(current.maximumAllele, requestedMaximumAllele);
 
-        logger.debug("Expanding capacity ploidy:" + maximumPloidy + "->" + newMaximumPloidy + " allele:" +  maximumAllele +"->" + newMaximumAllele );
+        logger.debug("Expanding capacity ploidy:" + current.maximumPloidy + "->" + newMaximumPloidy + " allele:" +  current.maximumAllele +"->" + newMaximumAllele );
 
-        // Update tables first.
-        alleleFirstGenotypeOffsetByPloidy = buildAlleleFirstGenotypeOffsetTable(newMaximumPloidy,newMaximumAllele);
-        genotypeTableByPloidy = buildGenotypeAlleleCountsTable(newMaximumPloidy,newMaximumAllele,alleleFirstGenotypeOffsetByPloidy);
-
-        if (needsToExpandAlleleCapacity) {
-            maximumAllele = requestedMaximumAllele;
-        }
-        if (needsToExpandPloidyCapacity) {
-            maximumPloidy = requestedMaximumPloidy;
-        }
+        final GenotypeTables result = new GenotypeTables(newMaximumPloidy, newMaximumAllele);
+        tables = result;
+        return result;
     }
 
     /**
@@ -382,9 +408,6 @@ public final class GenotypeLikelihoodCalculators {
 
     private int calculateGenotypeCountUsingTables(int ploidy, int alleleCount) {
         checkPloidyAndMaximumAllele(ploidy, alleleCount);
-        if (ploidy > maximumPloidy || alleleCount > maximumAllele) {
-            ensureCapacity(alleleCount, ploidy);
-        }
-        return alleleFirstGenotypeOffsetByPloidy[ploidy][alleleCount];
+        return tablesWithCapacity(ploidy, alleleCount).alleleFirstGenotypeOffsetByPloidy[ploidy][alleleCount];
     }
 }
\ No newline at end of file
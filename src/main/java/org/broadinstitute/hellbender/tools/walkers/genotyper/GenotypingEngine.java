@@ -27,6 +27,13 @@ import java.util.stream.Stream;
 
 /**
  * Base class for genotyper engines.
+ *
+ * <p>
+ *     The AF calculators, priors and annotation engine used by the genotyper engines can be shared by several threads,
+ *     so one engine may genotype sites on different threads. The record of upstream deletions used to validate spanning
+ *     deletion alleles is the only state kept between sites; it is guarded by the engine, but assumes that the sites
+ *     of each contig are genotyped in order.
+ * </p>
  */
 public abstract class GenotypingEngine<Config extends StandardCallerArgumentCollection> {
 
@@ -392,7 +399,7 @@ public abstract class GenotypingEngine<Config extends StandardCallerArgumentColl
         return new OutputAlleleSubset(outputAlleles,mleCounts,siteIsMonomorphic);
     }
 
-    void clearUpstreamDeletionsLoc() {
+    synchronized void clearUpstreamDeletionsLoc() {
         upstreamDeletionsLoc.clear();
     }
 
@@ -403,7 +410,7 @@ public abstract class GenotypingEngine<Config extends StandardCallerArgumentColl
      * @param deletionSize  size of deletion in bases
      * @param vc            variant context
      */
-    void recordDeletion(final int deletionSize, final VariantContext vc) {
+    synchronized void recordDeletion(final int deletionSize, final VariantContext vc) {
 
         // In a deletion
         if (deletionSize > 0) {
@@ -418,7 +425,7 @@ public abstract class GenotypingEngine<Config extends StandardCallerArgumentColl
      * @param vc    variant context
      * @return  true if the location is covered by an upstream deletion, false otherwise
      */
-    boolean isVcCoveredByDeletion(final VariantContext vc) {
+    synchronized boolean isVcCoveredByDeletion(final VariantContext vc) {
         for (Iterator<SimpleInterval> it = upstreamDeletionsLoc.iterator(); it.hasNext(); ) {
             final SimpleInterval loc = it.next();
             if (!loc.getContig().equals(vc.getContig())) { // deletion is not on contig.
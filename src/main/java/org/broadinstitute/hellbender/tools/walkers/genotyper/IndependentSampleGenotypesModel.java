@@ -8,19 +8,25 @@ import org.broadinstitute.hellbender.utils.genotyper.AlleleListPermutation;
 import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class delegates genotyping to allele count- and ploidy-dependent {@link GenotypeLikelihoodCalculator}s
  * under the assumption that sample genotypes are independent conditional on their population frequencies.
+ *
+ * <p>
+ *     The model can be shared by several threads: since calculators are not thread-safe, each thread caches its own.
+ * </p>
  */
 public final class IndependentSampleGenotypesModel {
     private static final int DEFAULT_CACHE_PLOIDY_CAPACITY = 10;
     private static final int DEFAULT_CACHE_ALLELE_CAPACITY = 50;
 
     private final int cacheAlleleCountCapacity;
-    private final int cachePloidyCapacity;
-    private GenotypeLikelihoodCalculator[][] likelihoodCalculators;
+    private final int initialCachePloidyCapacity;
+    // calculators by ploidy and allele count, for the current thread
+    private final ThreadLocal<GenotypeLikelihoodCalculator[][]> likelihoodCalculators;
     private final GenotypeLikelihoodCalculators calculators;
 
     public IndependentSampleGenotypesModel() { this(DEFAULT_CACHE_PLOIDY_CAPACITY, DEFAULT_CACHE_ALLELE_CAPACITY); }
@@ -29,9 +35,9 @@ public final class IndependentSampleGenotypesModel {
      *  Initialize model with given maximum allele count and ploidy for caching
      */
     public IndependentSampleGenotypesModel(final int calculatorCachePloidyCapacity, final int calculatorCacheAlleleCapacity) {
-        cachePloidyCapacity = calculatorCachePloidyCapacity;
+        initialCachePloidyCapacity = calculatorCachePloidyCapacity;
         cacheAlleleCountCapacity = calculatorCacheAlleleCapacity;
-        likelihoodCalculators = new GenotypeLikelihoodCalculator[calculatorCachePloidyCapacity][calculatorCacheAlleleCapacity];
+        likelihoodCalculators = ThreadLocal.withInitial(() -> new GenotypeLikelihoodCalculator[initialCachePloidyCapacity][cacheAlleleCountCapacity]);
         calculators = new GenotypeLikelihoodCalculators();
     }
 
@@ -63,15 +69,28 @@ public final class IndependentSampleGenotypesModel {
     }
 
     private GenotypeLikelihoodCalculator getLikelihoodsCalculator(final int samplePloidy, final int alleleCount) {
-        if (samplePloidy >= cachePloidyCapacity || alleleCount >= cacheAlleleCountCapacity) {
+        if (alleleCount >= cacheAlleleCountCapacity) {
             return calculators.getInstance(samplePloidy, alleleCount);
         }
-        final GenotypeLikelihoodCalculator result = likelihoodCalculators[samplePloidy][alleleCount];
+        // Calculators are also cached for high (e.g. pooled sample) ploidies, where building their genotype tables is
+        // most costly; the allele count capacity bounds the size of the cache.
+        GenotypeLikelihoodCalculator[][] cache = likelihoodCalculators.get();
+        if (samplePloidy >= cache.length) {
+            final int cachePloidyCapacity = samplePloidy + 1;
+            cache = Arrays.copyOf(cache, cachePloidyCapacity);
+            for (int ploidy = 0; ploidy < cachePloidyCapacity; ploidy++) {
+                if (cache[ploidy] == null) {
+                    cache[ploidy] = new GenotypeLikelihoodCalculator[cacheAlleleCountCapacity];
+                }
+            }
+            likelihoodCalculators.set(cache);
+        }
+        final GenotypeLikelihoodCalculator result = cache[samplePloidy][alleleCount];
         if (result != null) {
             return result;
         } else {
             final GenotypeLikelihoodCalculator newOne = calculators.getInstance(samplePloidy, alleleCount);
-            likelihoodCalculators[samplePloidy][alleleCount] = newOne;
+            cache[samplePloidy][alleleCount] = newOne;
             return newOne;
         }
     }
@@ -8,12 +8,18 @@ import org.broadinstitute.hellbender.utils.Utils;
 
 /**
  * Generic interface for calculating the probability of alleles segregating given priors and genotype likelihoods
+ *
+ * <p>
+ *     Calculators keep the state of a calculation in a {@link StateTracker} of the calling thread, so an instance can
+ *     be shared by several threads as long as implementations keep no other mutable state.
+ * </p>
  */
 public abstract class AFCalculator {
 
     protected static final Logger logger = LogManager.getLogger(AFCalculator.class);
 
-    private StateTracker stateTracker;
+    // reused by calculations on the same thread
+    private final ThreadLocal<StateTracker> stateTracker = new ThreadLocal<>();
 
     /**
      * Compute the probability of the alleles segregating given the genotype likelihoods of the samples in vc
@@ -69,7 +75,7 @@ public abstract class AFCalculator {
                                                         final double[] log10AlleleFrequencyPriors, final StateTracker stateTracker);
 
     /**
-     * Retrieves the state tracker.
+     * Retrieves the state tracker of the calling thread.
      *
      * <p>
      *     The tracker will be reset if so requested or if it needs to be resized due to an increase in the
@@ -83,14 +89,17 @@ public abstract class AFCalculator {
      * @return {@code null} iff this calculator implementation does not use a state tracker.
      */
     protected StateTracker getStateTracker(final boolean reset, final int maximumAlternativeAlleleCount) {
-        if (stateTracker == null) {
-            stateTracker = new StateTracker(maximumAlternativeAlleleCount);
+        final StateTracker result = stateTracker.get();
+        if (result == null) {
+            final StateTracker newOne = new StateTracker(maximumAlternativeAlleleCount);
+            stateTracker.set(newOne);
+            return newOne;
         } else if (reset) {
-            stateTracker.reset(maximumAlternativeAlleleCount);
+            result.reset(maximumAlternativeAlleleCount);
         } else {
-            stateTracker.ensureMaximumAlleleCapacity(maximumAlternativeAlleleCount);
+            result.ensureMaximumAlleleCapacity(maximumAlternativeAlleleCount);
         }
-        return stateTracker;
+        return result;
     }
 
     /**
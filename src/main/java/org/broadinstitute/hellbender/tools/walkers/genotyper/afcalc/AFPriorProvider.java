@@ -4,10 +4,15 @@ import java.util.Arrays;
 
 /**
  * Class that produces allele-frequency priors.
+ *
+ * <p>
+ *     Priors are cached by total-ploidy. A provider can be shared by several threads: the cache is only replaced,
+ *     never modified in place, once published, so lookups of priors already built take no lock.
+ * </p>
  */
 public abstract class AFPriorProvider {
 
-    private double[][] priorByTotalPloidy;
+    private volatile double[][] priorByTotalPloidy;
 
     protected AFPriorProvider() {
 
@@ -31,20 +36,30 @@ public abstract class AFPriorProvider {
         if (totalPloidy < 0) {
             throw new IllegalArgumentException("the total-ploidy cannot be negative");
         }
+        final double[][] cache = priorByTotalPloidy;
+        final double[] cachedResult = cache != null && totalPloidy < cache.length ? cache[totalPloidy] : null;
+        return cachedResult != null ? cachedResult : buildAndCachePriors(totalPloidy);
+    }
+
+    private synchronized double[] buildAndCachePriors(final int totalPloidy) {
         ensureCapacity(totalPloidy);
         final double[] cachedResult = priorByTotalPloidy[totalPloidy];
-        if (cachedResult == null) {
-            return priorByTotalPloidy[totalPloidy] = buildPriors(totalPloidy);
-        } else {
+        if (cachedResult != null) {
             return cachedResult;
         }
+        final double[] result = buildPriors(totalPloidy);
+        // a copy of the cache is published so that unsynchronized readers never see a partially built entry
+        final double[][] newCache = priorByTotalPloidy.clone();
+        newCache[totalPloidy] = result;
+        priorByTotalPloidy = newCache;
+        return result;
     }
 
     /**
      * Make sure that structures have enough capacity to hold the information up to the given total-ploidy.
      * @param totalPloidy
      */
-    protected void ensureCapacity(final int totalPloidy) {
+    protected synchronized void ensureCapacity(final int totalPloidy) {
         if (totalPloidy < 0) {
             throw new IllegalArgumentException("the total-ploidy cannot be negative");
         }
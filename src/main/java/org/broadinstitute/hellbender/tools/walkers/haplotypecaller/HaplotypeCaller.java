@@ -189,6 +189,11 @@ public final class HaplotypeCaller extends AssemblyRegionWalker {
         return HaplotypeCallerEngine.makeStandardHCReadFilters();
     }
 
+    @Override
+    protected String getActivityProfileArguments() {
+        return HaplotypeCallerEngine.describeActiveRegionArguments(hcArgs);
+    }
+
     @Override
     public AssemblyRegionEvaluator assemblyRegionEvaluator() {
         return hcEngine;
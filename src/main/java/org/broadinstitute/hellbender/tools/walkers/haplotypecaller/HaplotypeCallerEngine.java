@@ -271,6 +271,23 @@ public final class HaplotypeCallerEngine implements AssemblyRegionEvaluator {
         }
     }
 
+    /**
+     * @return a description of the arguments that affect {@link #isActive}, so that runs differing only in other
+     * arguments can reuse the same assembly regions
+     */
+    public static String describeActiveRegionArguments(final HaplotypeCallerArgumentCollection hcArgs) {
+        final GenotypeCalculationArgumentCollection genotypeArgs = hcArgs.genotypeArgs;
+        return String.format("genotypingOutputMode=%s alleles=%s useAllelesTrigger=%b minBaseQualityScore=%d " +
+                        "confidence=%s ploidy=%d snpHeterozygosity=%s indelHeterozygosity=%s heterozygosityStandardDeviation=%s " +
+                        "inputPrior=%s useNewAFCalculator=%b maxAlternateAlleles=%d maxGenotypeCount=%d",
+                hcArgs.genotypingOutputMode, hcArgs.alleles == null ? null : hcArgs.alleles.getFeaturePath(),
+                hcArgs.USE_ALLELES_TRIGGER, hcArgs.minBaseQualityScore,
+                Math.min(MAXMIN_CONFIDENCE_FOR_CONSIDERING_A_SITE_AS_POSSIBLE_VARIANT_IN_ACTIVE_REGION_DISCOVERY, genotypeArgs.STANDARD_CONFIDENCE_FOR_CALLING),
+                Math.max(MINIMUM_PUTATIVE_PLOIDY_FOR_ACTIVE_REGION_DISCOVERY, genotypeArgs.samplePloidy),
+                genotypeArgs.snpHeterozygosity, genotypeArgs.indelHeterozygosity, genotypeArgs.heterozygosityStandardDeviation,
+                genotypeArgs.inputPrior, genotypeArgs.USE_NEW_AF_CALCULATOR, genotypeArgs.MAX_ALTERNATE_ALLELES, genotypeArgs.MAX_GENOTYPE_COUNT);
+    }
+
     private void initializeActiveRegionEvaluationGenotyperEngine() {
         // create a UAC but with the exactCallsLog = null, so we only output the log for the HC caller itself, if requested
         final UnifiedArgumentCollection simpleUAC = new UnifiedArgumentCollection();
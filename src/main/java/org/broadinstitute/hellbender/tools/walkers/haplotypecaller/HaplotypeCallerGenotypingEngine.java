@@ -28,6 +28,7 @@ import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -44,7 +45,7 @@ public class HaplotypeCallerGenotypingEngine extends AssemblyBasedCallerGenotypi
     private final PloidyModel ploidyModel;
 
     private final int maxGenotypeCountToEnumerate;
-    private final Map<Integer, Integer> practicalAlleleCountForPloidy = new HashMap<>();
+    private final Map<Integer, Integer> practicalAlleleCountForPloidy = new ConcurrentHashMap<>();
 
     /**
      * {@inheritDoc}
@@ -179,8 +180,7 @@ public class HaplotypeCallerGenotypingEngine extends AssemblyBasedCallerGenotypi
     private VariantContext removeAltAllelesIfTooManyGenotypes(final int ploidy, final Map<Allele, List<Haplotype>> alleleMapper, final VariantContext mergedVC) {
 
         final int originalAlleleCount = alleleMapper.size();
-        practicalAlleleCountForPloidy.putIfAbsent(ploidy, GenotypeLikelihoodCalculators.computeMaxAcceptableAlleleCount(ploidy, maxGenotypeCountToEnumerate));
-        final int practicalAlleleCount = practicalAlleleCountForPloidy.get(ploidy);
+        final int practicalAlleleCount = practicalAlleleCountForPloidy.computeIfAbsent(ploidy, p -> GenotypeLikelihoodCalculators.computeMaxAcceptableAlleleCount(p, maxGenotypeCountToEnumerate));
 
         if (originalAlleleCount > practicalAlleleCount) {
             final List<Allele> allelesToKeep = whichAllelesToKeepBasedonHapScores(alleleMapper, practicalAlleleCount);
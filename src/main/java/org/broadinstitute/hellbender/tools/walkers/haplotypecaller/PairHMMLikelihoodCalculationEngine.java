@@ -269,11 +269,11 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
         for (final GATKRead read : reads) {
             final byte[] readBases = read.getBases();
 
-            // NOTE -- must clone anything that gets modified here so we don't screw up future uses of the read
-            //Using close here is justified - it's an array of primitives.
-            final byte[] readQuals = read.getBaseQualities().clone();
-            final byte[] readInsQuals = ReadUtils.getBaseInsertionQualities(read).clone();
-            final byte[] readDelQuals = ReadUtils.getBaseDeletionQualities(read).clone();
+            // NOTE -- these are all new arrays (the read's qualities are copied and its insertion and deletion qualities
+            // are decoded or made afresh), so modifying them here doesn't screw up future uses of the read
+            final byte[] readQuals = read.getBaseQualities();
+            final byte[] readInsQuals = ReadUtils.getBaseInsertionQualities(read);
+            final byte[] readDelQuals = ReadUtils.getBaseDeletionQualities(read);
 
             applyPCRErrorModel(readBases, readInsQuals, readDelQuals);
             capMinimumReadQualities(read, readQuals, readInsQuals, readDelQuals, baseQualityScoreThreshold);
@@ -297,9 +297,17 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
         return currentVal < minQual ? fixedQual : currentVal;
     }
 
-    private static Map<GATKRead, byte[]> buildGapContinuationPenalties(final List<GATKRead> reads, final byte gapPenalty) {
+    /**
+     * The gap continuation penalties are constant, so reads of the same length share a single (read-only) array
+     * instead of each getting their own copy.
+     */
+    @VisibleForTesting
+    static Map<GATKRead, byte[]> buildGapContinuationPenalties(final List<GATKRead> reads, final byte gapPenalty) {
         final Map<GATKRead, byte[]> result = new HashMap<>(reads.size());
-        reads.stream().forEach(read -> result.put(read, Utils.dupBytes(gapPenalty, read.getLength())));
+        final Map<Integer, byte[]> penaltiesByLength = new HashMap<>();
+        for (final GATKRead read : reads) {
+            result.put(read, penaltiesByLength.computeIfAbsent(read.getLength(), length -> Utils.dupBytes(gapPenalty, length)));
+        }
         return result;
     }
 
@@ -26,6 +26,7 @@ import org.broadinstitute.hellbender.utils.read.AlignmentUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
+import org.broadinstitute.hellbender.utils.variant.writers.ReferenceConfidenceVariantContext;
 
 import java.util.*;
 
@@ -194,11 +195,6 @@ public final class ReferenceConfidenceModel {
         final RefVsAnyResult homRefCalc = calcGenotypeLikelihoodsOfRefVsAny(ploidy, pileup, refBase, BASE_QUAL_THRESHOLD, null);
 
         final Allele refAllele = Allele.create(refBase, true);
-        final List<Allele> refSiteAlleles = Arrays.asList(refAllele, GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE);
-        final VariantContextBuilder vcb = new VariantContextBuilder("HC", curPos.getContig(), curPos.getStart(), curPos.getStart(), refSiteAlleles);
-        final GenotypeBuilder gb = new GenotypeBuilder(sampleName, GATKVariantContextUtils.homozygousAlleleList(refAllele, ploidy));
-        gb.AD(homRefCalc.getAD());
-        gb.DP(homRefCalc.getDP());
 
         // genotype likelihood calculation
         final GenotypeLikelihoods snpGLs = GenotypeLikelihoods.fromLog10Likelihoods(homRefCalc.getGenotypeLikelihoodsCappedByHomRefLikelihood());
@@ -214,11 +210,11 @@ public final class ReferenceConfidenceModel {
         final GenotypeLikelihoods leastConfidenceGLs = getGLwithWorstGQ(indelGLs, snpGLs);
 
         final int[] leastConfidenceGLsAsPLs = leastConfidenceGLs.getAsPLs();
-        gb.GQ(GATKVariantContextUtils.calculateGQFromPLs(leastConfidenceGLsAsPLs));
-        gb.PL(leastConfidenceGLsAsPLs);
 
-        vcb.genotypes(gb.make());
-        return vcb.make();
+        // the genotype is only created if needed; the GVCF writer bands these sites from their GQ, DP and PLs alone
+        return new ReferenceConfidenceVariantContext(curPos.getContig(), curPos.getStart(), refAllele, sampleName, ploidy,
+                GATKVariantContextUtils.calculateGQFromPLs(leastConfidenceGLsAsPLs), homRefCalc.getDP(), homRefCalc.getAD(),
+                leastConfidenceGLsAsPLs);
     }
 
     /**
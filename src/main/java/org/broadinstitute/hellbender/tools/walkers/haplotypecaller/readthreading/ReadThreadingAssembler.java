@@ -120,8 +120,9 @@ public final class ReadThreadingAssembler {
             // now correct all reads in active region after filtering/downsampling
             // Note that original reads in active region are NOT modified by default, since they will be used later for GL computation,
             // and we only want the read-error corrected reads for graph building.
-            readErrorCorrector.addReadsToKmers(assemblyRegion.getReads());
-            correctedReads = new ArrayList<>(readErrorCorrector.correctReads(assemblyRegion.getReads()));
+            final List<GATKRead> reads = assemblyRegion.getReads();
+            readErrorCorrector.addReadsToKmers(reads);
+            correctedReads = new ArrayList<>(readErrorCorrector.correctReads(reads));
         } else {
             correctedReads = assemblyRegion.getReads();
         }
@@ -382,9 +383,15 @@ public final class ReadThreadingAssembler {
     List<AssemblyResult> assemble(final List<GATKRead> reads, final Haplotype refHaplotype, final List<Haplotype> givenHaplotypes, final SAMFileHeader header) {
         final List<AssemblyResult> results = new LinkedList<>();
 
+        // the usable bases of each read don't depend on the kmer size, so find them once for all of the graphs
+        final List<ReadThreadingGraph.ReadSegment> readSegments = new ArrayList<>(reads.size());
+        for ( final GATKRead read : reads ) {
+            readSegments.addAll(ReadThreadingGraph.findUsableReadSegments(read, header, MIN_BASE_QUALITY_TO_USE_IN_ASSEMBLY));
+        }
+
         // first, try using the requested kmer sizes
         for ( final int kmerSize : kmerSizes ) {
-            addResult(results, createGraph(reads, refHaplotype, kmerSize, givenHaplotypes, dontIncreaseKmerSizesForCycles, allowNonUniqueKmersInRef, header));
+            addResult(results, createGraph(readSegments, refHaplotype, kmerSize, givenHaplotypes, dontIncreaseKmerSizesForCycles, allowNonUniqueKmersInRef));
         }
 
         // if none of those worked, iterate over larger sizes if allowed to do so
@@ -394,7 +401,7 @@ public final class ReadThreadingAssembler {
             while ( results.isEmpty() && numIterations <= MAX_KMER_ITERATIONS_TO_ATTEMPT ) {
                 // on the last attempt we will allow low complexity graphs
                 final boolean lastAttempt = numIterations == MAX_KMER_ITERATIONS_TO_ATTEMPT;
-                addResult(results, createGraph(reads, refHaplotype, kmerSize, givenHaplotypes, lastAttempt, lastAttempt, header));
+                addResult(results, createGraph(readSegments, refHaplotype, kmerSize, givenHaplotypes, lastAttempt, lastAttempt));
                 kmerSize += KMER_SIZE_ITERATION_INCREASE;
                 numIterations++;
             }
@@ -410,7 +417,7 @@ public final class ReadThreadingAssembler {
     /**
      * Creates the sequence graph for the given kmerSize
      *
-     * @param reads            reads to use
+     * @param readSegments     the usable segments of the reads to use
      * @param refHaplotype     reference haplotype
      * @param kmerSize         kmer size
      * @param activeAlleleHaplotypes the GGA haplotypes to inject into the graph
@@ -418,13 +425,12 @@ public final class ReadThreadingAssembler {
      * @param allowNonUniqueKmersInRef if true, do not fail if the reference has non-unique kmers
      * @return sequence graph or null if one could not be created (e.g. because it contains cycles or too many paths or is low complexity)
      */
-    private AssemblyResult createGraph(final Iterable<GATKRead> reads,
+    private AssemblyResult createGraph(final List<ReadThreadingGraph.ReadSegment> readSegments,
                                          final Haplotype refHaplotype,
                                          final int kmerSize,
                                          final Iterable<Haplotype> activeAlleleHaplotypes,
                                          final boolean allowLowComplexityGraphs,
-                                         final boolean allowNonUniqueKmersInRef,
-                                         final SAMFileHeader header) {
+                                         final boolean allowNonUniqueKmersInRef) {
         if ( refHaplotype.length() < kmerSize ) {
             // happens in cases where the assembled region is just too small
             return new AssemblyResult(AssemblyResult.Status.FAILED, null, null);
@@ -451,8 +457,8 @@ public final class ReadThreadingAssembler {
         }
 
         // Next pull kmers out of every read and throw them on the graph
-        for( final GATKRead read : reads ) {
-            rtgraph.addRead(read, header);
+        for( final ReadThreadingGraph.ReadSegment segment : readSegments ) {
+            rtgraph.addReadSegment(segment);
         }
 
         // actually build the read threading graph
@@ -1135,21 +1135,53 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
      */
     @VisibleForTesting
     void addRead(final GATKRead read, final SAMFileHeader header) {
+        for ( final ReadSegment segment : findUsableReadSegments(read, header, minBaseQualityToUseInAssembly) ) {
+            addReadSegment(segment);
+        }
+    }
+
+    /**
+     * Add a segment of a read, found by {@link #findUsableReadSegments}, to the sequence graph, if it is long enough
+     * to contain a kmer of this graph
+     *
+     * @param segment a non-null read segment
+     */
+    void addReadSegment(final ReadSegment segment) {
+        if ( segment.length() >= kmerSize ) {
+            addSequence(segment.name, segment.sampleName, segment.bases, segment.start, segment.stop, 1, false);
+        }
+    }
+
+    /**
+     * Find the maximal runs of bases in a read that can be used for assembly, i.e. that are not Ns and have at least
+     * the minimum base quality.
+     *
+     * The segments do not depend on the kmer size, so they are found once for each read and shared by the graphs
+     * for all kmer sizes, instead of copying the bases and qualities of each read for each graph.
+     *
+     * @param read a non-null read
+     * @param header the header of the read
+     * @param minBaseQualityToUseInAssembly bases with lower quality are not used
+     * @return the usable segments of the read, in order
+     */
+    static List<ReadSegment> findUsableReadSegments(final GATKRead read, final SAMFileHeader header, final byte minBaseQualityToUseInAssembly) {
         final byte[] sequence = read.getBases();
         final byte[] qualities = read.getBaseQualities();
+        String sampleName = null;
 
+        final List<ReadSegment> segments = new ArrayList<>(1);
         int lastGood = -1;
         for( int end = 0; end <= sequence.length; end++ ) {
-            if ( end == sequence.length || ! baseIsUsableForAssembly(sequence[end], qualities[end]) ) {
+            if ( end == sequence.length || ! baseIsUsableForAssembly(sequence[end], qualities[end], minBaseQualityToUseInAssembly) ) {
                 // the first good base is at lastGood, can be -1 if last base was bad
                 final int start = lastGood;
-                // the stop base is end - 1 (if we're not at the end of the sequence)
-                final int len = end - start;
 
-                if ( start != -1 && len >= kmerSize ) {
-                    // if the sequence is long enough to get some value out of, add it to the graph
-                    final String name = read.getName() + '_' + start + '_' + end;
-                    addSequence(name, ReadUtils.getSampleName(read, header), read.getBases(), start, end, 1, false);
+                if ( start != -1 ) {
+                    if ( sampleName == null ) {
+                        sampleName = ReadUtils.getSampleName(read, header);
+                    }
+                    // the stop base is end - 1 (if we're not at the end of the sequence)
+                    segments.add(new ReadSegment(read.getName() + '_' + start + '_' + end, sampleName, sequence, start, end));
                 }
 
                 lastGood = -1; // reset the last good base
@@ -1157,6 +1189,7 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
                 lastGood = end; // we're at a good base, the last good one is us
             }
         }
+        return segments;
     }
 
     /**
@@ -1165,12 +1198,43 @@ public class ReadThreadingGraph extends BaseGraph<MultiDeBruijnVertex, MultiSamp
      *
      * @param base  the base under consideration
      * @param qual  the quality of that base
+     * @param minBaseQualityToUseInAssembly the minimum quality of a usable base
      * @return true if the base can be used for assembly, false otherwise
      */
-    private boolean baseIsUsableForAssembly(final byte base, final byte qual) {
+    private static boolean baseIsUsableForAssembly(final byte base, final byte qual, final byte minBaseQualityToUseInAssembly) {
         return base != BaseUtils.Base.N.base && qual >= minBaseQualityToUseInAssembly;
     }
 
+    /**
+     * A run of bases of a read that can be used for assembly
+     */
+    static final class ReadSegment {
+        final String name;
+        final String sampleName;
+        final byte[] bases;
+        final int start;
+        final int stop;
+
+        /**
+         * @param name the name of the sequence for debugging purposes
+         * @param sampleName the sample of the read
+         * @param bases all of the bases of the read
+         * @param start the offset of the first base of the segment in bases, inclusive
+         * @param stop the offset of the last base of the segment in bases, exclusive
+         */
+        ReadSegment(final String name, final String sampleName, final byte[] bases, final int start, final int stop) {
+            this.name = name;
+            this.sampleName = sampleName;
+            this.bases = bases;
+            this.start = start;
+            this.stop = stop;
+        }
+
+        int length() {
+            return stop - start;
+        }
+    }
+
     /**
      * Get the set of non-unique kmers in this graph.  For debugging purposes
      * @return a non-null set of kmers
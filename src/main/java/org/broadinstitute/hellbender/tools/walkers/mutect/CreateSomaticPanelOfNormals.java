@@ -1,8 +1,11 @@
 package org.broadinstitute.hellbender.tools.walkers.mutect;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.samtools.util.CloseableIterator;
 import htsjdk.samtools.util.MergingIterator;
+import htsjdk.tribble.TribbleException;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.VariantContextComparator;
@@ -18,16 +21,22 @@ import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.VariantProgramGroup;
+import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyBasedCallerUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.text.XReadLines;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -87,6 +96,15 @@ import java.util.stream.StreamSupport;
  *
  *  <p>The tool also accepts multiple .list files. Pass each in with the -vcfs option.</p>
  *
+ * <p>Large panels may be built faster by merging several contigs at once with --numThreads. This requires every
+ * normal VCF to be indexed.</p>
+ * <pre>
+ * gatk-launch --javaOptions "-Xmx4g" CreateSomaticPanelOfNormals \
+ *   -vcfs normals_for_pon_vcf.list \
+ *   --numThreads 8 \
+ *   -O pon.vcf.gz
+ * </pre>
+ *
  * @author David Benjamin &lt;davidben@brgoadinstitute.org&gt;
  */
 @CommandLineProgramProperties(
@@ -100,6 +118,7 @@ public class CreateSomaticPanelOfNormals extends CommandLineProgram {
 
     public static final String INPUT_VCFS_LIST_LONG_NAME = "vcfsListFile";
     public static final String INPUT_VCFS_LIST_SHORT_NAME = "vcfs";
+    public static final String NUM_THREADS_LONG_NAME = "numThreads";
 
     /**
      * The VCFs can be input as either one or more .list file(s) containing one VCF per line, or VCFs can be
@@ -115,26 +134,110 @@ public class CreateSomaticPanelOfNormals extends CommandLineProgram {
             doc="Output vcf", optional = false)
     private File outputVcf = null;
 
+    /**
+     * With more than one thread, each contig is merged separately from indexed queries on the inputs, and the merged
+     * contigs are concatenated in the order of the sequence dictionary.
+     */
+    @Argument(fullName = NUM_THREADS_LONG_NAME,
+            doc = "Number of contigs to merge in parallel. More than one requires all input VCFs to be indexed.",
+            optional = true, minValue = 1)
+    private int numThreads = 1;
+
     public Object doWork() {
         final List<File> inputVcfs = new ArrayList<>(vcfs);
-        final Collection<CloseableIterator<VariantContext>> iterators = new ArrayList<>(inputVcfs.size());
         final Collection<VCFHeader> headers = new HashSet<>(inputVcfs.size());
         final VCFHeader headerOfFirstVcf = new VCFFileReader(inputVcfs.get(0), false).getFileHeader();
         final SAMSequenceDictionary sequenceDictionary = headerOfFirstVcf.getSequenceDictionary();
         final VariantContextComparator comparator = headerOfFirstVcf.getVCFRecordComparator();
 
-
         for (final File vcf : inputVcfs) {
-            final VCFFileReader reader = new VCFFileReader(vcf, false);
-            iterators.add(reader.iterator());
-            final VCFHeader header = reader.getFileHeader();
-            Utils.validateArg(comparator.isCompatible(header.getContigLines()), () -> vcf.getAbsolutePath() + " has incompatible contigs.");
-            headers.add(header);
+            try (final VCFFileReader reader = new VCFFileReader(vcf, false)) {
+                final VCFHeader header = reader.getFileHeader();
+                Utils.validateArg(comparator.isCompatible(header.getContigLines()), () -> vcf.getAbsolutePath() + " has incompatible contigs.");
+                headers.add(header);
+            }
+        }
+
+        final VCFHeader mergedHeader = new VCFHeader(VCFUtils.smartMergeHeaders(headers, false));
+        try (final VariantContextWriter writer = GATKVariantContextUtils.createVCFWriter(outputVcf, sequenceDictionary, false, Options.INDEX_ON_THE_FLY)) {
+            writer.writeHeader(mergedHeader);
+            if (numThreads > 1) {
+                if (sequenceDictionary == null) {
+                    throw new UserException.BadInput("Contigs cannot be merged in parallel since " + inputVcfs.get(0).getAbsolutePath() + " has no contig lines.");
+                }
+                mergeContigsInParallel(inputVcfs, sequenceDictionary, comparator, mergedHeader, writer);
+            } else {
+                final List<VCFFileReader> readers = inputVcfs.stream().map(vcf -> new VCFFileReader(vcf, false)).collect(Collectors.toList());
+                mergeAndWrite(readers.stream().map(VCFFileReader::iterator).collect(Collectors.toList()), comparator, writer);
+                readers.forEach(VCFFileReader::close);
+            }
         }
 
-        final VariantContextWriter writer = GATKVariantContextUtils.createVCFWriter(outputVcf, sequenceDictionary, false, Options.INDEX_ON_THE_FLY);
-        writer.writeHeader(new VCFHeader(VCFUtils.smartMergeHeaders(headers, false)));
+        return "SUCCESS";
+    }
 
+    /**
+     * Merges each contig into a temporary VCF on its own thread, and appends them to the output in dictionary order
+     * as they are completed.
+     */
+    private void mergeContigsInParallel(final List<File> inputVcfs, final SAMSequenceDictionary sequenceDictionary,
+                                        final VariantContextComparator comparator, final VCFHeader mergedHeader,
+                                        final VariantContextWriter writer) {
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads,
+                new ThreadFactoryBuilder().setNameFormat("ponContigMerger-thread-%d").setDaemon(true).build());
+        try {
+            final List<Future<File>> contigVcfs = sequenceDictionary.getSequences().stream()
+                    .map(sequence -> executor.submit(() -> mergeContig(inputVcfs, sequence, comparator, mergedHeader)))
+                    .collect(Collectors.toList());
+            for (final Future<File> contigVcf : contigVcfs) {
+                final File file = contigVcf.get();
+                try (final VCFFileReader reader = new VCFFileReader(file, false)) {
+                    reader.iterator().forEachRemaining(writer::add);
+                }
+                file.delete();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GATKException("Interrupted while merging contigs", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GATKException("Error merging contigs", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static File mergeContig(final List<File> inputVcfs, final SAMSequenceRecord sequence,
+                                    final VariantContextComparator comparator, final VCFHeader mergedHeader) {
+        final List<VCFFileReader> readers = new ArrayList<>(inputVcfs.size());
+        final File contigVcf = IOUtils.createTempFile("pon_" + sequence.getSequenceIndex() + "_", ".vcf");
+        try (final VariantContextWriter writer = GATKVariantContextUtils.createVCFWriter(contigVcf, null, false)) {
+            writer.writeHeader(mergedHeader);
+            final List<CloseableIterator<VariantContext>> iterators = new ArrayList<>(inputVcfs.size());
+            for (final File vcf : inputVcfs) {
+                final VCFFileReader reader;
+                try {
+                    reader = new VCFFileReader(vcf, true);
+                } catch (final TribbleException e) {
+                    throw new UserException.CouldNotReadInputFile(vcf, "an index is required to merge contigs in parallel", e);
+                }
+                readers.add(reader);
+                iterators.add(reader.query(sequence.getSequenceName(), 1, sequence.getSequenceLength()));
+            }
+            mergeAndWrite(iterators, comparator, writer);
+        } finally {
+            readers.forEach(VCFFileReader::close);
+        }
+        return contigVcf;
+    }
+
+    /**
+     * Merges sorted VCF records with a k-way merge and writes the sites found in more than one of them.
+     */
+    private static void mergeAndWrite(final Collection<CloseableIterator<VariantContext>> iterators,
+                                      final VariantContextComparator comparator, final VariantContextWriter writer) {
         final MergingIterator<VariantContext> mergingIterator = new MergingIterator<>(comparator, iterators);
         SimpleInterval currentPosition = new SimpleInterval("FAKE", 1, 1);
         final List<VariantContext> variantsAtThisPosition = new ArrayList<>(20);
@@ -147,10 +250,8 @@ public class CreateSomaticPanelOfNormals extends CommandLineProgram {
             }
             variantsAtThisPosition.add(vc);
         }
+        processVariantsAtSamePosition(variantsAtThisPosition, writer);
         mergingIterator.close();
-        writer.close();
-
-        return "SUCCESS";
     }
 
     //TODO: this is the old Mutect behavior that just looks for multiple hits
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.walkers.mutect;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
@@ -13,12 +14,17 @@ import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.VariantProgramGroup;
 import org.broadinstitute.hellbender.engine.*;
+import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFHeaderLines;
 import org.broadinstitute.hellbender.tools.exome.FilterByOrientationBias;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -54,6 +60,11 @@ import java.util.stream.Collectors;
  *   -O tumor_matched_m2_filtered.vcf.gz
  * </pre>
  *
+ * <p>
+ *     Since each site is filtered independently, large callsets may be filtered faster with --numThreads,
+ *     which filters several contigs at once.
+ * </p>
+ *
  */
 @CommandLineProgramProperties(
         summary = "Filter somatic SNVs and indels called by Mutect2",
@@ -69,9 +80,14 @@ public final class FilterMutectCalls extends VariantWalker {
             doc="The output filtered VCF file", optional=false)
     private final String outputVcf = null;
 
+    public static final String NUM_THREADS_LONG_NAME = "numThreads";
+
     @ArgumentCollection
     protected M2FiltersArgumentCollection MTFAC = new M2FiltersArgumentCollection();
 
+    @Argument(fullName = NUM_THREADS_LONG_NAME, doc = "Number of contigs to filter in parallel", optional = true, minValue = 1)
+    private int numThreads = 1;
+
     private VariantContextWriter vcfWriter;
 
     private final List<VariantContext> unfilteredCalls = new ArrayList<>();
@@ -99,12 +115,44 @@ public final class FilterMutectCalls extends VariantWalker {
         final String tumorSample = getHeaderForVariants().getMetaDataLine(Mutect2Engine.TUMOR_SAMPLE_KEY_IN_VCF_HEADER).getValue();
         final Mutect2FilteringEngine filteringEngine = new Mutect2FilteringEngine(MTFAC, tumorSample);
         // TODO: implement sophisticated filtering
-        for (final VariantContext vc : unfilteredCalls) {
+        if (numThreads == 1) {
+            filterCalls(unfilteredCalls, filteringEngine).forEach(vcfWriter::add);
+        } else {
+            // the calls are in order, so grouping by contig preserves it
+            final Collection<List<VariantContext>> callsByContig = unfilteredCalls.stream()
+                    .collect(Collectors.groupingBy(VariantContext::getContig, LinkedHashMap::new, Collectors.toList())).values();
+            final ExecutorService executor = Executors.newFixedThreadPool(numThreads,
+                    new ThreadFactoryBuilder().setNameFormat("contigFilter-thread-%d").setDaemon(true).build());
+            try {
+                final List<Future<List<VariantContext>>> filteredCallsByContig = callsByContig.stream()
+                        .map(calls -> executor.submit(() -> filterCalls(calls, filteringEngine)))
+                        .collect(Collectors.toList());
+                for (final Future<List<VariantContext>> filteredCalls : filteredCallsByContig) {
+                    filteredCalls.get().forEach(vcfWriter::add);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GATKException("Interrupted while filtering calls", e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new GATKException("Error filtering calls", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return "SUCCESS";
+    }
+
+    private List<VariantContext> filterCalls(final List<VariantContext> calls, final Mutect2FilteringEngine filteringEngine) {
+        final List<VariantContext> filteredCalls = new ArrayList<>(calls.size());
+        for (final VariantContext vc : calls) {
             final VariantContextBuilder vcb = new VariantContextBuilder(vc);
             vcb.filters(filteringEngine.calculateFilters(MTFAC, vc));
-            vcfWriter.add(vcb.make());
+            filteredCalls.add(vcb.make());
         }
-        return "SUCCESS";
+        return filteredCalls;
     }
 
     @Override
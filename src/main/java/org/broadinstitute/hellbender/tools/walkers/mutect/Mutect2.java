@@ -224,6 +224,11 @@ public final class Mutect2 extends AssemblyRegionWalker {
         return Mutect2Engine.makeStandardMutect2ReadFilters();
     }
 
+    @Override
+    protected String getActivityProfileArguments() {
+        return Mutect2Engine.describeActiveRegionArguments(MTAC);
+    }
+
     @Override
     public AssemblyRegionEvaluator assemblyRegionEvaluator() { return m2Engine; }
 
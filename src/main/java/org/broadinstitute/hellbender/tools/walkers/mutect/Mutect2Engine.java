@@ -279,6 +279,18 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator {
         }
     }
 
+    /**
+     * @return a description of the arguments that affect {@link #isActive}, so that runs differing only in other
+     * arguments can reuse the same assembly regions
+     */
+    public static String describeActiveRegionArguments(final M2ArgumentCollection MTAC) {
+        return String.format("tumorSampleName=%s normalSampleName=%s initialTumorLodThreshold=%s germlineResource=%s " +
+                        "maxPopulationAlleleFrequency=%s pon=%s genotypePonSites=%b",
+                MTAC.tumorSampleName, MTAC.normalSampleName, MTAC.initialTumorLodThreshold,
+                MTAC.germlineResource == null ? null : MTAC.germlineResource.getFeaturePath(), MTAC.maxPopulationAlleleFrequency,
+                MTAC.pon == null ? null : MTAC.pon.getFeaturePath(), MTAC.genotypePonSites);
+    }
+
     @Override
     public ActivityProfileState isActive(final AlignmentContext context, final ReferenceContext ref, final FeatureContext featureContext) {
         final byte refBase = ref.getBase();
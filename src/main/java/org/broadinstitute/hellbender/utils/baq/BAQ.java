@@ -17,6 +17,7 @@ import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /*
   The topology of the profile HMM:
@@ -142,30 +143,73 @@ public final class BAQ implements Serializable {
     private static final double EM = 0.33333333333;
     private static final double EI = 0.25;
 
-    private final double[][][] EPSILONS = new double[256][256][SAMUtils.MAX_PHRED_SCORE+1];
+    /**
+     * The index of each of ACGTacgt in the epsilon tables, ignoring case, or -1 for any other base, whose epsilon is
+     * always 1.0
+     */
+    private static final int[] BASE_INDEX = new int[256];
+    static {
+        Arrays.fill(BASE_INDEX, -1);
+        final String bases = "ACGT";
+        for ( int i = 0; i < bases.length(); i++ ) {
+            BASE_INDEX[bases.charAt(i)] = i;
+            BASE_INDEX[Character.toLowerCase(bases.charAt(i))] = i;
+        }
+    }
 
-    private void initializeCachedData() {
-        for ( int i = 0; i < 256; i++ )
-            for ( int j = 0; j < 256; j++ )
-                for ( int q = 0; q <= SAMUtils.MAX_PHRED_SCORE; q++ ) {
-                    EPSILONS[i][j][q] = 1.0;
-                }
+    // the epsilon of a base with each quality that matches or mismatches the reference
+    private final double[] matchEpsilons = new double[SAMUtils.MAX_PHRED_SCORE+1];
+    private final double[] mismatchEpsilons = new double[SAMUtils.MAX_PHRED_SCORE+1];
 
-        for ( char b1 : "ACGTacgt".toCharArray() ) {
-            for ( char b2 : "ACGTacgt".toCharArray() ) {
-                for ( int q = 0; q <= SAMUtils.MAX_PHRED_SCORE; q++ ) {
-                    double qual = qual2prob[q < minBaseQual ? minBaseQual : q];
-                    double e = Character.toLowerCase(b1) == Character.toLowerCase(b2) ? 1 - qual : qual * EM;
-                    EPSILONS[(byte)b1][(byte)b2][q] = e;
-                }
-            }
+    private void initializeCachedData() {
+        for ( int q = 0; q <= SAMUtils.MAX_PHRED_SCORE; q++ ) {
+            double qual = qual2prob[q < minBaseQual ? minBaseQual : q];
+            matchEpsilons[q] = 1 - qual;
+            mismatchEpsilons[q] = qual * EM;
         }
     }
 
     protected double calcEpsilon( byte ref, byte read, byte qualB ) {
-        return EPSILONS[ref][read][qualB];
+        final int refIndex = BASE_INDEX[ref & 0xff];
+        final int readIndex = BASE_INDEX[read & 0xff];
+        if ( refIndex == -1 || readIndex == -1 ) {
+            return 1.0;
+        }
+        return refIndex == readIndex ? matchEpsilons[qualB] : mismatchEpsilons[qualB];
     }
 
+    /**
+     * The forward and backward matrices and the scaling array of the HMM, which are reused by the calculations for
+     * successive reads on the same thread rather than allocated for each read.
+     */
+    private static final class ForwardBackwardMatrices {
+        private double[][] f = new double[0][0];
+        private double[][] b = new double[0][0];
+        private double[] s = new double[0];
+
+        /**
+         * Make sure the matrices have at least the given number of rows and columns, and zero the part of them that
+         * will be used
+         */
+        private void prepare(final int rows, final int columns) {
+            if ( f.length < rows || f[0].length < columns ) {
+                final int capacityRows = Math.max(rows, f.length);
+                final int capacityColumns = Math.max(columns, f.length == 0 ? 0 : f[0].length);
+                f = new double[capacityRows][capacityColumns];
+                b = new double[capacityRows][capacityColumns];
+                s = new double[capacityRows + 1];
+                return;
+            }
+            for ( int i = 0; i < rows; i++ ) {
+                Arrays.fill(f[i], 0, columns, 0.0);
+                Arrays.fill(b[i], 0, columns, 0.0);
+            }
+            Arrays.fill(s, 0, rows + 1, 0.0);
+        }
+    }
+
+    private static final ThreadLocal<ForwardBackwardMatrices> FORWARD_BACKWARD_MATRICES = ThreadLocal.withInitial(ForwardBackwardMatrices::new);
+
     // ####################################################################################################
     //
     // NOTE -- THIS CODE IS SYNCHRONIZED WITH CODE IN THE SAMTOOLS REPOSITORY.  CHANGES TO THIS CODE SHOULD BE
@@ -204,10 +248,12 @@ public final class BAQ implements Serializable {
         //System.out.printf("c->bw = %d, bw = %d, l_ref = %d, l_query = %d\n", cb, bw, l_ref, l_query);
 		bw2 = bw * 2 + 1;
 
-        // allocate the forward and backward matrices f[][] and b[][] and the scaling array s[]
-		double[][] f = new double[l_query+1][bw2*3 + 6];
-		double[][] b = new double[l_query+1][bw2*3 + 6];
-		double[] s = new double[l_query+2];
+        // get this thread's forward and backward matrices f[][] and b[][] and the scaling array s[], zeroed
+        final ForwardBackwardMatrices matrices = FORWARD_BACKWARD_MATRICES.get();
+        matrices.prepare(l_query+1, bw2*3 + 6);
+		final double[][] f = matrices.f;
+		final double[][] b = matrices.b;
+		final double[] s = matrices.s;
 
 		// initialize transition probabilities
 		double sM, sI, bM, bI;
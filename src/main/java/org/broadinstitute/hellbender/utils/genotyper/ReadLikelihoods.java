@@ -91,6 +91,14 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      */
     private final LikelihoodMatrix<A>[] sampleMatrices;
 
+    /**
+     * Best alleles of the reads of each sample, keyed by the alleles considered (all alleles if {@code null}).
+     *
+     * <p>Annotations ask for the best alleles of the same reads over and over, so these are computed on demand and
+     * cached until the likelihoods change.</p>
+     */
+    private final Map<Set<A>, List<BestAllele>[]> bestAllelesByAlleleSubset = new HashMap<>(2);
+
     /**
      * Constructs a new read-likelihood collection.
      *
@@ -332,6 +340,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      * @throws IllegalArgumentException if {@code maximumDifferenceWithBestAlternative} is not 0 or less.
      */
     public void normalizeLikelihoods(final boolean bestToZero, final double maximumLikelihoodDifferenceCap) {
+        invalidateBestAlleles();
         Utils.validateArg(maximumLikelihoodDifferenceCap < 0.0 && !Double.isNaN(maximumLikelihoodDifferenceCap),
                 "the minimum reference likelihood fall must be negative");
 
@@ -464,6 +473,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
     }
 
     public void changeReads(final Map<GATKRead, GATKRead> readRealignments) {
+        invalidateBestAlleles();
         final int sampleCount = samples.numberOfSamples();
         for (int s = 0; s < sampleCount; s++) {
             final GATKRead[] sampleReads = readsBySampleIndex[s];
@@ -499,6 +509,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      * a reference allele.
      */
     public boolean addMissingAlleles(final Collection<A> candidateAlleles, final double defaultLikelihood) {
+        invalidateBestAlleles();
         Utils.nonNull(candidateAlleles, "the candidateAlleles list cannot be null");
         if (candidateAlleles.isEmpty()) {
             return false;
@@ -772,6 +783,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      * @throws IllegalArgumentException if {@code maximumErrorPerBase} is negative.
      */
     public void filterPoorlyModeledReads(final double maximumErrorPerBase) {
+        invalidateBestAlleles();
         Utils.validateArg(alleles.numberOfAlleles() > 0, "unsupported for read-likelihood collections with no alleles");
         Utils.validateArg(!Double.isNaN(maximumErrorPerBase) && maximumErrorPerBase > 0.0, "the maximum error per base must be a positive number");
 
@@ -810,6 +822,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      *  collection.
      */
     public void addReads(final Map<String,List<GATKRead>> readsBySample, final double initialLikelihood) {
+        invalidateBestAlleles();
         for (final Map.Entry<String,List<GATKRead>> entry : readsBySample.entrySet()) {
             final String sample = entry.getKey();
             final List<GATKRead> newSampleReads = entry.getValue();
@@ -884,6 +897,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      * symbolic allele {@link org.broadinstitute.hellbender.utils.variant.GATKVCFConstants#NON_REF_SYMBOLIC_ALLELE}.
      */
     public void addNonReferenceAllele(final A nonRefAllele) {
+        invalidateBestAlleles();
         Utils.nonNull(nonRefAllele, "non-ref allele cannot be null");
         if (!nonRefAllele.equals(GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE)) {
             throw new IllegalArgumentException("the non-ref allele is not valid");
@@ -912,6 +926,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      */
     @SuppressWarnings("unchecked")  // for the cast (A) GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE below
     public void updateNonRefAlleleLikelihoods(final AlleleList<A> allelesToConsider) {
+        invalidateBestAlleles();
         final int nonRefAlleleIndex = indexOfAllele((A) GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE);
         if ( nonRefAlleleIndex < 0) {
             return;
@@ -956,6 +971,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      * @throws IllegalArgumentException if {@code perSampleDownsamplingFraction} is {@code null}.
      */
     public void contaminationDownsampling(final Map<String, Double> perSampleDownsamplingFraction) {
+        invalidateBestAlleles();
         Utils.nonNull(perSampleDownsamplingFraction);
 
         final int alleleCount = alleles.numberOfAlleles();
@@ -1011,15 +1027,84 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      */
     private Collection<BestAllele> bestAlleles(final int sampleIndex) {
         Utils.validIndex(sampleIndex, numberOfSamples());
+        return cachedBestAlleles(null, sampleIndex);
+    }
 
-        final GATKRead[] sampleReads = readsBySampleIndex[sampleIndex];
-        final int readCount = sampleReads.length;
-        final List<BestAllele> result = new ArrayList<>(readCount);
-        for (int r = 0; r < readCount; r++) {
-            result.add(searchBestAllele(sampleIndex, r, true));
+    /**
+     * Returns the best allele estimates for one sample's reads considering only some of the alleles.
+     *
+     * <p>
+     *     The result is the same as the best alleles of that sample in the likelihoods {@link #marginalize marginalized}
+     *     to those alleles, without copying the likelihoods of every sample.
+     * </p>
+     *
+     * @param sample the sample.
+     * @param allelesToConsider alleles of this collection among which to pick the best allele of each read.
+     *
+     * @throws IllegalArgumentException if {@code allelesToConsider} is empty or contains alleles not in this collection.
+     *
+     * @return never {@code null}, one element per read in the read-likelihoods collection.
+     */
+    public Collection<BestAllele> bestAlleles(final String sample, final Collection<A> allelesToConsider) {
+        Utils.nonEmpty(allelesToConsider, "the alleles to consider cannot be empty");
+        final int sampleIndex = indexOfSample(sample);
+        Utils.validIndex(sampleIndex, numberOfSamples());
+        final Set<A> alleleSubset = new HashSet<>(allelesToConsider);
+        for (final A allele : alleleSubset) {
+            Utils.validateArg(indexOfAllele(allele) >= 0, () -> "allele " + allele + " is not in the read-likelihoods collection");
         }
+        return cachedBestAlleles(alleleSubset.size() == alleles.numberOfAlleles() ? null : alleleSubset, sampleIndex);
+    }
 
-        return result;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<BestAllele> cachedBestAlleles(final Set<A> alleleSubset, final int sampleIndex) {
+        final List<BestAllele>[] bySample = bestAllelesByAlleleSubset.computeIfAbsent(alleleSubset, k -> new List[samples.numberOfSamples()]);
+        if (bySample[sampleIndex] == null) {
+            final boolean[] consider = alleleSubset == null ? null : new boolean[alleles.numberOfAlleles()];
+            if (consider != null) {
+                alleleSubset.forEach(a -> consider[indexOfAllele(a)] = true);
+            }
+            final int readCount = readsBySampleIndex[sampleIndex].length;
+            final List<BestAllele> result = new ArrayList<>(readCount);
+            for (int r = 0; r < readCount; r++) {
+                result.add(consider == null ? searchBestAllele(sampleIndex, r, true) : searchBestAllele(sampleIndex, r, consider));
+            }
+            bySample[sampleIndex] = Collections.unmodifiableList(result);
+        }
+        return bySample[sampleIndex];
+    }
+
+    /**
+     * Search the best allele for a read among those marked in {@code consider}, which must have at least one.
+     */
+    private BestAllele searchBestAllele(final int sampleIndex, final int readIndex, final boolean[] consider) {
+        final double[][] sampleValues = valuesBySampleIndex[sampleIndex];
+        int bestAlleleIndex = -1;
+        double bestLikelihood = Double.NEGATIVE_INFINITY;
+        double secondBestLikelihood = Double.NEGATIVE_INFINITY;
+        for (int a = 0; a < consider.length; a++) {
+            if (!consider[a]) {
+                continue;
+            }
+            final double candidateLikelihood = sampleValues[a][readIndex];
+            if (bestAlleleIndex == -1 || candidateLikelihood > bestLikelihood) {
+                if (bestAlleleIndex != -1) {
+                    secondBestLikelihood = bestLikelihood;
+                }
+                bestAlleleIndex = a;
+                bestLikelihood = candidateLikelihood;
+            } else if (candidateLikelihood > secondBestLikelihood) {
+                secondBestLikelihood = candidateLikelihood;
+            }
+        }
+        return new BestAllele(sampleIndex, readIndex, bestAlleleIndex, bestLikelihood, secondBestLikelihood);
+    }
+
+    /**
+     * Must be called before the likelihoods, reads or alleles change.
+     */
+    private void invalidateBestAlleles() {
+        bestAllelesByAlleleSubset.clear();
     }
 
 
@@ -1060,11 +1145,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
     }
 
     private void readsByBestAlleleMap(final int sampleIndex, final Map<A,List<GATKRead>> result) {
-        final GATKRead[] reads = readsBySampleIndex[sampleIndex];
-        final int readCount = reads.length;
-
-        for (int r = 0; r < readCount; r++) {
-            final BestAllele bestAllele = searchBestAllele(sampleIndex,r,true);
+        for (final BestAllele bestAllele : cachedBestAlleles(null, sampleIndex)) {
             if (!bestAllele.isInformative()) {
                 continue;
             }
@@ -1126,6 +1207,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
      * @throws IllegalArgumentException the location cannot be {@code null} nor unmapped.
      */
     public void filterToOnlyOverlappingUnclippedReads(final SimpleInterval location) {
+        invalidateBestAlleles();
         Utils.nonNull(location, "the location cannot be null");
 
         final int sampleCount = samples.numberOfSamples();
@@ -1190,6 +1272,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
     }
 
     private void removeSampleReads(final int sampleIndex, final List<Integer> removeIndices, final int alleleCount) {
+        invalidateBestAlleles();
         if (removeIndices.isEmpty()) {
             return;
         }
@@ -1229,6 +1312,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
 
     // Requires that the collection passed iterator can remove elements, and it can be modified.
     public void removeSampleReads(final int sampleIndex, final Collection<GATKRead> readsToRemove, final int alleleCount) {
+        invalidateBestAlleles();
         final GATKRead[] sampleReads = readsBySampleIndex[sampleIndex];
         final int sampleReadCount = sampleReads.length;
 
@@ -1320,6 +1404,7 @@ public final class ReadLikelihoods<A extends Allele> implements SampleList, Alle
 
         @Override
         public void set(final int alleleIndex, final int readIndex, final double value) {
+            invalidateBestAlleles();
             Utils.validIndex(alleleIndex, valuesBySampleIndex[sampleIndex].length);
             Utils.validIndex(readIndex, valuesBySampleIndex[sampleIndex][alleleIndex].length);
             valuesBySampleIndex[sampleIndex][alleleIndex][readIndex] = value;
@@ -26,6 +26,11 @@ import java.util.stream.IntStream;
  */
 public final class ForwardBackwardAlgorithm {
 
+    /**
+     * Log of the smallest normalizing factor that does not lose precision in linear scale.
+     */
+    private static final double LOG_MIN_NORMAL = FastMath.log(Double.MIN_NORMAL);
+
     /**
      * The forward-backward algorithm result query interface.
      *
@@ -308,37 +313,112 @@ public final class ForwardBackwardAlgorithm {
         final List<T> positionList = Collections.unmodifiableList(new ArrayList<>(positions));
         Utils.validateArg(dataList.size()== positionList.size(), "the data sequence and position sequence must have the same number of elements");
 
-        final double[][] forwardProbabilities = calculateLogForwardProbabilities(model, dataList, positionList);
-        final double[][] backwardProbabilities = calculateLogBackwardProbabilities(model, dataList, positionList);
+        final double[][] logEmissionProbabilities = calculateLogEmissionProbabilities(model, dataList, positionList);
+        final double[][] forwardProbabilities = calculateLogForwardProbabilities(model, positionList, logEmissionProbabilities);
+        final double[][] backwardProbabilities = calculateLogBackwardProbabilities(model, positionList, logEmissionProbabilities);
 
         return new ArrayResult<>(dataList, positionList, model, forwardProbabilities, backwardProbabilities);
     }
 
     /**
-     * Calculates the forward probabilities (the forward phase of the algorithm). These are in log scale.
-     * <p>
-     *     The returned array is uni-dimensional. Forward probabilities are arranged by position, thus the
-     *     forward probability for the ith hidden state and jth position is stored in the
-     *     index: i + j * number-of-hidden-states.
-     * </p>
+     * Runs the forward-backward algorithm as {@link #apply(List, List, HMM)} does, but with emission probabilities
+     * already computed by the calling code, e.g. because they are cached across runs with models that only differ
+     * in their transition probabilities.
+     *
+     * @param data the observed data sequence.
+     * @param positions the observation time/position points.
+     * @param model the HMM model.
+     * @param logEmissionProbabilities the emission probability of each datum for each hidden state in log scale,
+     *   indexed by position and then by hidden state in the order of {@link HMM#hiddenStates()}. It is not modified.
+     * @param <D> the observed data type.
+     * @param <T> the observation time/position type.
+     * @param <S> the hidden state type.
+     * @return never {@code null}.
+     * @throws IllegalArgumentException if any of the arguments is {@code null}, {@code data} and {@code positions}
+     *   have different length, {@code logEmissionProbabilities} does not have a row per position and a column per
+     *   hidden state, or if the {@code model} does not recognized any of the values in {@code positions}.
+     */
+    public static <D, T, S> Result<D, T, S> apply(final List<D> data, final List<T> positions,
+                                                 final HMM<D, T, S> model, final double[][] logEmissionProbabilities) {
+        Utils.nonNull(data, "the input data sequence cannot be null.");
+        Utils.nonNull(positions, "the input position sequence cannot be null.");
+        Utils.nonNull(model, "the input model cannot be null");
+        Utils.nonNull(logEmissionProbabilities, "the input emission probabilities cannot be null");
+
+        final List<D> dataList = Collections.unmodifiableList(new ArrayList<>(data));
+        final List<T> positionList = Collections.unmodifiableList(new ArrayList<>(positions));
+        Utils.validateArg(dataList.size()== positionList.size(), "the data sequence and position sequence must have the same number of elements");
+        Utils.validateArg(logEmissionProbabilities.length == dataList.size(), "there must be emission probabilities for every position");
+        final int numStates = model.hiddenStates().size();
+        for (final double[] logEmissions : logEmissionProbabilities) {
+            Utils.validateArg(logEmissions != null && logEmissions.length == numStates, "there must be an emission probability for every hidden state");
+        }
+
+        final double[][] forwardProbabilities = calculateLogForwardProbabilities(model, positionList, logEmissionProbabilities);
+        final double[][] backwardProbabilities = calculateLogBackwardProbabilities(model, positionList, logEmissionProbabilities);
+
+        return new ArrayResult<>(dataList, positionList, model, forwardProbabilities, backwardProbabilities);
+    }
+
+    /**
+     * Calculates the emission probability of each datum for each hidden state, so that the forward and backward
+     * phases do not need to ask the model for them again. These are in log scale.
      * @param model the HMM model.
      * @param data the observed data sequence.
      * @param positions the observation time/position points.
      * @param <D> the observed data type.
      * @param <T> the observation time/position type.
      * @param <S> the hidden state type.
-     * @return never {@code null}, the calling code can modify this array at will.
+     * @return never {@code null}, indexed by position and then by hidden state.
      * @throws IllegalArgumentException if the {@code model} does not recognize any of the values in {@code data}
      *   or {@code positions}.
      */
-    private static <D, T, S> double[][] calculateLogForwardProbabilities(
+    private static <D, T, S> double[][] calculateLogEmissionProbabilities(
             final HMM<D, T, S> model,
             final List<D> data,
             final List<T> positions) {
+        final List<S> states = model.hiddenStates();
+        final int numStates = states.size();
+        final double[][] result = new double[data.size()][numStates];
+        for (int positionIndex = 0; positionIndex < data.size(); positionIndex++) {
+            final D datum = data.get(positionIndex);
+            final T position = positions.get(positionIndex);
+            for (int stateIndex = 0; stateIndex < numStates; stateIndex++) {
+                result[positionIndex][stateIndex] = model.logEmissionProbability(datum, states.get(stateIndex), position);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the forward probabilities (the forward phase of the algorithm). These are in log scale.
+     * <p>
+     *     The recursion is done in linear scale, normalizing the probabilities at each position so that they
+     *     add up to 1 and keeping track of the log of the normalizing factors, which is cheaper than
+     *     doing a log-sum-exp for every position and state. Positions are calculated in log scale instead
+     *     where a non-zero emission or transition probability underflows in linear scale, e.g. due to emission
+     *     probabilities that differ by hundreds of orders of magnitude between states, or where the normalizing
+     *     factor does (e.g. when all the probabilities in linear scale are 0).  Probabilities that are exactly 0
+     *     (e.g. due to a log emission probability of {@link Double#NEGATIVE_INFINITY}) do not count as underflow.
+     * </p>
+     * @param model the HMM model.
+     * @param positions the observation time/position points.
+     * @param logEmissionProbabilities the log emission probabilities as returned by {@link #calculateLogEmissionProbabilities}.
+     * @param <D> the observed data type.
+     * @param <T> the observation time/position type.
+     * @param <S> the hidden state type.
+     * @return never {@code null}, indexed by position and then by hidden state;
+     *   the calling code can modify this array at will.
+     * @throws IllegalArgumentException if the {@code model} does not recognize any of the values in {@code positions}.
+     */
+    private static <D, T, S> double[][] calculateLogForwardProbabilities(
+            final HMM<D, T, S> model,
+            final List<T> positions,
+            final double[][] logEmissionProbabilities) {
 
         final List<S> states = model.hiddenStates();
         final int numStates = states.size();
-        final int length = data.size();
+        final int length = positions.size();
         final double[][] result = new double[length][numStates];
         // Empty data? then we just return the empty array:
         if (length == 0) {
@@ -346,31 +426,66 @@ public final class ForwardBackwardAlgorithm {
         }
         // We first initialize the probabilities at the first position.
         final T position0 = positions.get(0);
-        final D datum0 = data.get(0);
-        for (int stateIndex = 0; stateIndex < states.size(); stateIndex++) {
-            final S state = states.get(stateIndex);
-            result[0][stateIndex] =
-                    model.logPriorProbability(state, position0)
-                + model.logEmissionProbability(datum0, state, position0);
+        for (int stateIndex = 0; stateIndex < numStates; stateIndex++) {
+            result[0][stateIndex] = model.logPriorProbability(states.get(stateIndex), position0)
+                    + logEmissionProbabilities[0][stateIndex];
         }
+        double[] scaledProbabilities = new double[numStates];
+        double logScale = scaleLogProbabilities(result[0], scaledProbabilities);
+        boolean underflow = hasUnderflow(result[0], scaledProbabilities);
 
         // Then we do the rest t_1, t_2, ... and so on.
-        // Array re-used to hold the elements of log-sum-exp operations:
-        final double[] logSumBuffer = new double[states.size()];
-        for (int thisPositionIndex = 1; thisPositionIndex < data.size(); thisPositionIndex++) {
-            final int previousPositionIndex = thisPositionIndex - 1;
-            final T previousPosition = positions.get(previousPositionIndex);
-            final T thisPosition = positions.get(thisPositionIndex);
-            for (int thisStateIndex = 0; thisStateIndex < numStates; thisStateIndex++) {
-                final S thisState = states.get(thisStateIndex);
+        final TransitionMatrix transitions = new TransitionMatrix(numStates);
+        final double[] logSumBuffer = new double[numStates];
+        double[] previousScaledProbabilities = new double[numStates];
+        for (int thisPositionIndex = 1; thisPositionIndex < length; thisPositionIndex++) {
+            final double[] swap = previousScaledProbabilities;
+            previousScaledProbabilities = scaledProbabilities;
+            scaledProbabilities = swap;
+            Arrays.fill(scaledProbabilities, 0);
+
+            transitions.fill(model, positions.get(thisPositionIndex - 1), positions.get(thisPositionIndex));
+            final double[] logEmissions = logEmissionProbabilities[thisPositionIndex];
+            underflow |= transitions.underflow;
+            if (!underflow) {
                 for (int previousStateIndex = 0; previousStateIndex < numStates; previousStateIndex++) {
-                    logSumBuffer[previousStateIndex] =
-                            result[previousPositionIndex][previousStateIndex]
-                                    + model.logTransitionProbability(states.get(previousStateIndex),
-                                        previousPosition, thisState, thisPosition);
+                    final double previousProbability = previousScaledProbabilities[previousStateIndex];
+                    if (previousProbability == 0) {
+                        continue;
+                    }
+                    final double[] transitionRow = transitions.probabilities[previousStateIndex];
+                    for (int thisStateIndex = transitions.firstNonZero[previousStateIndex]; thisStateIndex <= transitions.lastNonZero[previousStateIndex]; thisStateIndex++) {
+                        scaledProbabilities[thisStateIndex] += previousProbability * transitionRow[thisStateIndex];
+                    }
+                }
+                final double maxLogEmission = finiteMax(logEmissions);
+                for (int thisStateIndex = 0; thisStateIndex < numStates; thisStateIndex++) {
+                    final double logEmission = logEmissions[thisStateIndex];
+                    final double emissionFactor = FastMath.exp(logEmission - maxLogEmission);
+                    underflow |= emissionFactor < Double.MIN_NORMAL && logEmission != Double.NEGATIVE_INFINITY;
+                    scaledProbabilities[thisStateIndex] *= emissionFactor;
+                }
+                final double logNormalizer = normalize(scaledProbabilities);
+                underflow |= logNormalizer < LOG_MIN_NORMAL;
+                if (!underflow) {
+                    logScale += maxLogEmission + logNormalizer;
+                    storeLogProbabilities(scaledProbabilities, logScale, result[thisPositionIndex]);
+                }
+            }
+            if (underflow) {
+                // some probability is too small relative to the others to be represented in linear scale, so we
+                // calculate this position in log scale from the previous one.
+                final double[] previousLogProbabilities = result[thisPositionIndex - 1];
+                for (int thisStateIndex = 0; thisStateIndex < numStates; thisStateIndex++) {
+                    for (int previousStateIndex = 0; previousStateIndex < numStates; previousStateIndex++) {
+                        logSumBuffer[previousStateIndex] = previousLogProbabilities[previousStateIndex]
+                                + transitions.logProbabilities[previousStateIndex][thisStateIndex];
+                    }
+                    result[thisPositionIndex][thisStateIndex] = GATKProtectedMathUtils.logSumExp(logSumBuffer)
+                            + logEmissions[thisStateIndex];
                 }
-                result[thisPositionIndex][thisStateIndex] = GATKProtectedMathUtils.logSumExp(logSumBuffer)
-                        + model.logEmissionProbability(data.get(thisPositionIndex), thisState, thisPosition);
+                logScale = scaleLogProbabilities(result[thisPositionIndex], scaledProbabilities);
+                underflow = hasUnderflow(result[thisPositionIndex], scaledProbabilities);
             }
         }
         return result;
@@ -379,27 +494,26 @@ public final class ForwardBackwardAlgorithm {
     /**
      * Calculates the backward probabilities (the backward phase of the algorithm). These are in log scale.
      * <p>
-     *     The returned array is uni-dimensional. Back probabilities are arranged by position, thus the
-     *     back probability for the ith hidden state and jth position is stored in the
-     *     index: i + j * number-of-hidden-states.
+     *     As with the forward probabilities, the recursion is done in linear scale normalizing the probabilities
+     *     at each position and falling back to log scale under the same conditions.
      * </p>
      * @param model the HMM model.
-     * @param dataList the observed data sequence.
-     * @param positionList the observation time/position points.
+     * @param positions the observation time/position points.
+     * @param logEmissionProbabilities the log emission probabilities as returned by {@link #calculateLogEmissionProbabilities}.
      * @param <D> the observed data type.
      * @param <T> the observation time/position type.
      * @param <S> the hidden state type.
-     * @return never {@code null}, the calling code can modify this array at will.
-     * @throws IllegalArgumentException if the {@code model} does not recognize any of the values in {@code dataList}
-     *   or {@code positionList}.
+     * @return never {@code null}, indexed by position and then by hidden state;
+     *   the calling code can modify this array at will.
+     * @throws IllegalArgumentException if the {@code model} does not recognize any of the values in {@code positions}.
      */
-    private static <D, T, S> double[][] calculateLogBackwardProbabilities(final HMM<D, T, S> model,
-                                                                        final List<D> dataList,
-                                                                        final List<T> positionList) {
+    private static <D, T, S> double[][] calculateLogBackwardProbabilities(
+            final HMM<D, T, S> model,
+            final List<T> positions,
+            final double[][] logEmissionProbabilities) {
 
-        final List<S> states = model.hiddenStates();
-        final int numStates = states.size();
-        final int length = dataList.size();
+        final int numStates = model.hiddenStates().size();
+        final int length = positions.size();
 
         // result contains is implicitly initialized to all 0.
         final double[][] result = new double[length][numStates];
@@ -413,29 +527,167 @@ public final class ForwardBackwardAlgorithm {
         // last position in the input data/position sequence.
         // = 0 (i.e. log(1))
         // thus we proceed directly to t_L - 1.
-
-        // "small" buffer array reused to do the log-sum-exp trick:
-        final double[] logSumBuffer = new double[states.size()];
-
+        double[] scaledProbabilities = new double[numStates];
+        Arrays.fill(scaledProbabilities, 1);
+        double logScale = 0;
+        boolean underflow = false;
+
+        final TransitionMatrix transitions = new TransitionMatrix(numStates);
+        // next position probabilities times the emission probabilities at the next position:
+        final double[] weightedNextProbabilities = new double[numStates];
+        final double[] logSumBuffer = new double[numStates];
         for (int thisPositionIndex = length - 2; thisPositionIndex >= 0; --thisPositionIndex) {
             final int nextPositionIndex = thisPositionIndex + 1;
-            final T thisPosition = positionList.get(thisPositionIndex);
-            final T nextPosition = positionList.get(nextPositionIndex);
-            for (int thisStateIndex = 0; thisStateIndex < numStates; thisStateIndex++) {
-                final S thisState = states.get(thisStateIndex);
+            final double[] logEmissions = logEmissionProbabilities[nextPositionIndex];
+            transitions.fill(model, positions.get(thisPositionIndex), positions.get(nextPositionIndex));
+            underflow |= transitions.underflow;
+            if (!underflow) {
+                final double maxLogEmission = finiteMax(logEmissions);
                 for (int nextStateIndex = 0; nextStateIndex < numStates; nextStateIndex++) {
-                    logSumBuffer[nextStateIndex] = result[nextPositionIndex][nextStateIndex]
-                                    + model.logTransitionProbability(thisState, thisPosition,
-                                                states.get(nextStateIndex), nextPosition)
-                                    + model.logEmissionProbability(dataList.get(nextPositionIndex),
-                                                states.get(nextStateIndex), nextPosition);
+                    final double logEmission = logEmissions[nextStateIndex];
+                    final double emissionFactor = FastMath.exp(logEmission - maxLogEmission);
+                    underflow |= emissionFactor < Double.MIN_NORMAL && logEmission != Double.NEGATIVE_INFINITY;
+                    weightedNextProbabilities[nextStateIndex] = scaledProbabilities[nextStateIndex] * emissionFactor;
                 }
-                result[thisPositionIndex][thisStateIndex] = GATKProtectedMathUtils.logSumExp(logSumBuffer);
+                for (int thisStateIndex = 0; thisStateIndex < numStates; thisStateIndex++) {
+                    final double[] transitionRow = transitions.probabilities[thisStateIndex];
+                    double sum = 0;
+                    for (int nextStateIndex = transitions.firstNonZero[thisStateIndex]; nextStateIndex <= transitions.lastNonZero[thisStateIndex]; nextStateIndex++) {
+                        sum += transitionRow[nextStateIndex] * weightedNextProbabilities[nextStateIndex];
+                    }
+                    scaledProbabilities[thisStateIndex] = sum;
+                }
+                final double logNormalizer = normalize(scaledProbabilities);
+                underflow |= logNormalizer < LOG_MIN_NORMAL;
+                if (!underflow) {
+                    logScale += maxLogEmission + logNormalizer;
+                    storeLogProbabilities(scaledProbabilities, logScale, result[thisPositionIndex]);
+                }
+            }
+            if (underflow) {
+                // as in the forward phase, we fall back to log scale for this position.
+                final double[] nextLogProbabilities = result[nextPositionIndex];
+                for (int thisStateIndex = 0; thisStateIndex < numStates; thisStateIndex++) {
+                    final double[] logTransitionRow = transitions.logProbabilities[thisStateIndex];
+                    for (int nextStateIndex = 0; nextStateIndex < numStates; nextStateIndex++) {
+                        logSumBuffer[nextStateIndex] = logTransitionRow[nextStateIndex] + logEmissions[nextStateIndex]
+                                + nextLogProbabilities[nextStateIndex];
+                    }
+                    result[thisPositionIndex][thisStateIndex] = GATKProtectedMathUtils.logSumExp(logSumBuffer);
+                }
+                logScale = scaleLogProbabilities(result[thisPositionIndex], scaledProbabilities);
+                underflow = hasUnderflow(result[thisPositionIndex], scaledProbabilities);
             }
         }
         return result;
     }
 
+    /**
+     * Returns the largest finite value in an array, or 0 if there is none, to be subtracted from log-scaled values
+     * before exponentiating them.
+     */
+    private static double finiteMax(final double[] values) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (final double value : values) {
+            if (value > result && value != Double.POSITIVE_INFINITY) {
+                result = value;
+            }
+        }
+        return result == Double.NEGATIVE_INFINITY ? 0 : result;
+    }
+
+    /**
+     * Divides the values in an array by their sum.
+     * @return the log of the sum, or {@link Double#NEGATIVE_INFINITY} if all the values are 0 (and left as such).
+     */
+    private static double normalize(final double[] values) {
+        double sum = 0;
+        for (final double value : values) {
+            sum += value;
+        }
+        if (sum == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] /= sum;
+        }
+        return FastMath.log(sum);
+    }
+
+    /**
+     * Checks whether any of the non-zero probabilities in log scale has a linear scale counterpart that is
+     * too small to be represented accurately.
+     */
+    private static boolean hasUnderflow(final double[] logProbabilities, final double[] scaledProbabilities) {
+        for (int i = 0; i < logProbabilities.length; i++) {
+            if (logProbabilities[i] != Double.NEGATIVE_INFINITY && scaledProbabilities[i] < Double.MIN_NORMAL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the probabilities in linear scale normalized so that they add up to 1.
+     * @return the log of the normalizing factor, {@link Double#NEGATIVE_INFINITY} if all the probabilities are 0.
+     */
+    private static double scaleLogProbabilities(final double[] logProbabilities, final double[] scaledProbabilities) {
+        final double logScale = GATKProtectedMathUtils.logSumExp(logProbabilities);
+        for (int i = 0; i < logProbabilities.length; i++) {
+            scaledProbabilities[i] = logScale == Double.NEGATIVE_INFINITY ? 0 : FastMath.exp(logProbabilities[i] - logScale);
+        }
+        return logScale;
+    }
+
+    private static void storeLogProbabilities(final double[] scaledProbabilities, final double logScale, final double[] result) {
+        for (int i = 0; i < result.length; i++) {
+            result[i] = FastMath.log(scaledProbabilities[i]) + logScale;
+        }
+    }
+
+    /**
+     * Transition probabilities between hidden states from one position to the next in log and linear scale, together with
+     * the range of next states that can be reached from each state, so that the zero blocks of sparse
+     * (e.g. block-diagonal or banded) transition matrices are skipped.
+     */
+    private static final class TransitionMatrix {
+        private final double[][] logProbabilities;
+        private final double[][] probabilities;
+        private final int[] firstNonZero;
+        private final int[] lastNonZero;
+
+        /**
+         * Whether any non-zero transition probability is too small to be represented accurately in linear scale.
+         */
+        private boolean underflow;
+
+        private TransitionMatrix(final int numStates) {
+            logProbabilities = new double[numStates][numStates];
+            probabilities = new double[numStates][numStates];
+            firstNonZero = new int[numStates];
+            lastNonZero = new int[numStates];
+        }
+
+        private <D, T, S> void fill(final HMM<D, T, S> model, final T currentPosition, final T nextPosition) {
+            model.logTransitionProbabilities(currentPosition, nextPosition, logProbabilities);
+            underflow = false;
+            for (int i = 0; i < probabilities.length; i++) {
+                final double[] logRow = logProbabilities[i];
+                final double[] row = probabilities[i];
+                firstNonZero[i] = row.length;
+                lastNonZero[i] = -1;
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = FastMath.exp(logRow[j]);
+                    underflow |= row[j] < Double.MIN_NORMAL && logRow[j] != Double.NEGATIVE_INFINITY;
+                    if (row[j] != 0) {
+                        firstNonZero[i] = Math.min(firstNonZero[i], j);
+                        lastNonZero[i] = j;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Implementation of the interface {@link Result} returned by the {@link #apply} method.
      * @param <D> the observed data type.
@@ -491,14 +743,15 @@ public final class ForwardBackwardAlgorithm {
          */
         private static double[] calculateLogDataLikelihood(final double[][] logForwardProbabilities,
                                                            final double[][] logBackwardProbabilities) {
-            return IntStream.range(0, logForwardProbabilities.length)
-                    .mapToObj(i ->
-                            IntStream.range(0, logForwardProbabilities[i].length)
-                                    .mapToDouble(j -> logBackwardProbabilities[i][j]
-                                                    + logForwardProbabilities[i][j])
-                                    .toArray())
-                    .mapToDouble(GATKProtectedMathUtils::logSumExp)
-                    .toArray();
+            final double[] result = new double[logForwardProbabilities.length];
+            final double[] logSumBuffer = new double[logForwardProbabilities.length == 0 ? 0 : logForwardProbabilities[0].length];
+            for (int i = 0; i < result.length; i++) {
+                for (int j = 0; j < logSumBuffer.length; j++) {
+                    logSumBuffer[j] = logBackwardProbabilities[i][j] + logForwardProbabilities[i][j];
+                }
+                result[i] = GATKProtectedMathUtils.logSumExp(logSumBuffer);
+            }
+            return result;
         }
 
         /**
@@ -99,6 +99,32 @@ public interface HMM<D, T, S> {
      */
     double logTransitionProbability(final S currentState, final T currentPosition, final S nextState, final T nextPosition);
 
+    /**
+     * Fills in the transition probabilities between every pair of hidden states from one position to the next.
+     *
+     * <p>
+     *     The entry {@code result[i][j]} is set to the transition probability from the ith to the jth state
+     *     in {@link #hiddenStates()}, as returned by {@link #logTransitionProbability}. Models that can compute
+     *     the whole matrix more cheaply than one entry at a time (e.g. by looking up the distance between
+     *     positions once) should override this method.
+     * </p>
+     *
+     * @param currentPosition the source time before the transition.
+     * @param nextPosition the destination time.
+     * @param result a square matrix with a row and a column per hidden state where to store the result.
+     * @throws IllegalArgumentException if any of the input positions is not recognized by the model.
+     */
+    default void logTransitionProbabilities(final T currentPosition, final T nextPosition, final double[][] result) {
+        final List<S> states = hiddenStates();
+        for (int currentStateIndex = 0; currentStateIndex < states.size(); currentStateIndex++) {
+            final S currentState = states.get(currentStateIndex);
+            for (int nextStateIndex = 0; nextStateIndex < states.size(); nextStateIndex++) {
+                result[currentStateIndex][nextStateIndex] =
+                        logTransitionProbability(currentState, currentPosition, states.get(nextStateIndex), nextPosition);
+            }
+        }
+    }
+
     /**
      * Returns the emission probability of the data given hidden state and position in the sequence.
      *
@@ -0,0 +1,108 @@
+package org.broadinstitute.hellbender.utils.mcmc;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Interface for a {@link ParameterSampler} of a {@link Parameter} whose value is made up of blocks (e.g., one value
+ * per segment) that are conditionally independent given the rest of the {@link ParameterizedState},
+ * so that {@link GibbsSampler} can sample the blocks in parallel.
+ *
+ * Without a pool, the blocks are sampled in order with the generator passed to {@link #sample}, which gives the same
+ * samples as a sampler that is not split into blocks.  With a pool, each block is sampled with its own
+ * {@link RandomGenerator}, seeded from a single draw of the generator passed to {@link #sample}, so samples do not
+ * depend on the number of threads in the pool or on the order in which blocks are sampled.
+ * @param <B>   type of the value of a block
+ * @param <U>   type of parameter value to be sampled
+ * @param <V>   type of enumerated parameters, see {@link ParameterEnum}
+ * @param <S>   type of {@link ParameterizedState}
+ * @param <T>   type of {@link DataCollection}
+ */
+public interface BlockParameterSampler<B, U, V extends Enum<V> & ParameterEnum, S extends ParameterizedState<V>, T extends DataCollection>
+        extends ParameterSampler<U, V, S, T> {
+    /**
+     * Returns the number of blocks of the parameter value.
+     * @param state             ParameterizedState to use in generating random sample
+     * @param dataCollection    DataCollection to use in generating random sample
+     * @return                  number of blocks
+     */
+    int numBlocks(final S state, final T dataCollection);
+
+    /**
+     * Returns a random sample of the value of one block.  May be called concurrently for different blocks, so it
+     * must not modify the state, the data collection, or this sampler.
+     * @param rng               RandomGenerator to use in generating random sample, used only for this block
+     * @param block             index of the block
+     * @param state             ParameterizedState to use in generating random sample
+     * @param dataCollection    DataCollection to use in generating random sample
+     * @return                  random sample of the value of the block
+     */
+    B sampleBlock(final RandomGenerator rng, final int block, final S state, final T dataCollection);
+
+    /**
+     * Returns the parameter value made up of the given block values.
+     * @param blockSamples      value of each block, in block order
+     * @return                  parameter value
+     */
+    U combineBlocks(final List<B> blockSamples);
+
+    @Override
+    default U sample(final RandomGenerator rng, final S state, final T dataCollection) {
+        return sample(rng, state, dataCollection, null);
+    }
+
+    /**
+     * Returns a random sample of a value that is dependent on an {@link ParameterizedState} and a
+     * {@link DataCollection}, sampling the blocks in parallel.
+     * @param rng               RandomGenerator to use in generating random sample, or in seeding the generator of
+     *                          each block if {@code pool} is not null
+     * @param state             ParameterizedState to use in generating random sample
+     * @param dataCollection    DataCollection to use in generating random sample
+     * @param pool              ForkJoinPool to sample the blocks on, or null to sample them on the calling thread
+     * @return                  random sample of value
+     */
+    default U sample(final RandomGenerator rng, final S state, final T dataCollection, final ForkJoinPool pool) {
+        final int numBlocks = numBlocks(state, dataCollection);
+        if (pool == null) {
+            return combineBlocks(IntStream.range(0, numBlocks)
+                    .mapToObj(block -> sampleBlock(rng, block, state, dataCollection)).collect(Collectors.toList()));
+        }
+        final long seed = rng.nextLong();
+        final IntFunction<B> blockSampler = block -> sampleBlock(blockRandomGenerator(seed, block), block, state, dataCollection);
+        try {
+            return combineBlocks(pool.submit(() -> IntStream.range(0, numBlocks).parallel()
+                    .mapToObj(blockSampler).collect(Collectors.toList())).get());
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GATKException("Exception encountered while sampling blocks in parallel.", e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GATKException("Interrupted while sampling blocks in parallel.", e);
+        }
+    }
+
+    /**
+     * Returns the generator for a block, seeded by mixing the block index into the seed
+     * (as in the SplitMix64 generator) so that the generators of adjacent blocks are not correlated.
+     * @param seed      seed drawn for all blocks of one sample
+     * @param block     index of the block
+     * @return          RandomGenerator for the block
+     */
+    static RandomGenerator blockRandomGenerator(final long seed, final int block) {
+        long z = seed + (block + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return RandomGeneratorFactory.createRandomGenerator(new Random(z ^ (z >>> 31)));
+    }
+}
@@ -10,6 +10,7 @@ import org.broadinstitute.hellbender.utils.param.ParamUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.Random;
 import java.util.stream.Collectors;
 
@@ -29,6 +30,7 @@ public final class GibbsSampler<V extends Enum<V> & ParameterEnum, S extends Par
 
     private final int numSamples;
     private int numSamplesPerLogEntry;
+    private int numThreads = 1;
 
     private final ParameterizedModel<V, S, T> model;
 
@@ -62,6 +64,17 @@ public final class GibbsSampler<V extends Enum<V> & ParameterEnum, S extends Par
         this.numSamplesPerLogEntry = numSamplesPerLogEntry;
     }
 
+    /**
+     * Changes the number of threads used to sample the blocks of parameters with a {@link BlockParameterSampler}.
+     * With one thread, the blocks are sampled in order from the chain's generator; with more, each block draws from
+     * its own generator, so samples are the same for any number of threads greater than one.
+     * @param numThreads    number of threads; must be positive
+     */
+    public void setNumThreads(final int numThreads) {
+        ParamUtils.isPositive(numThreads, "Number of threads must be positive.");
+        this.numThreads = numThreads;
+    }
+
     /**
      * Runs the Monte Carlo Markov Chain, using the state of the model provided in the constructor to initialize.
      * Progress is logged according to {@code numSamplesPerLogEntry}.
@@ -69,12 +82,19 @@ public final class GibbsSampler<V extends Enum<V> & ParameterEnum, S extends Par
     public void runMCMC() {
         rng.setSeed(RANDOM_SEED);
         logger.info("Starting MCMC sampling.");
-        for (int sample = 1; sample < numSamples; sample++) {
-            if (sample % numSamplesPerLogEntry == 0) {
-                logger.info(sample + " of " + numSamples + " samples generated.");
+        final ForkJoinPool pool = numThreads > 1 ? new ForkJoinPool(numThreads) : null;
+        try {
+            for (int sample = 1; sample < numSamples; sample++) {
+                if (sample % numSamplesPerLogEntry == 0) {
+                    logger.info(sample + " of " + numSamples + " samples generated.");
+                }
+                model.update(rng, pool);
+                samples.add(model.state());
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
             }
-            model.update(rng);
-            samples.add(model.state());
         }
         logger.info(numSamples + " of " + numSamples + " samples generated.");
         logger.info("MCMC sampling complete.");
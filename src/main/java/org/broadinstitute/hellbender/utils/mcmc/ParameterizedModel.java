@@ -4,6 +4,7 @@ import org.apache.commons.math3.random.RandomGenerator;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a parameterized model.  The parameterized state of the model is represented by an
@@ -120,8 +121,18 @@ public final class ParameterizedModel<V1 extends Enum<V1> & ParameterEnum, S1 ex
      * @param rng   {@link RandomGenerator} to pass to {@link ParameterSampler}s to generate samples
      */
     protected void update(final RandomGenerator rng) {
+        update(rng, null);
+    }
+
+    /**
+     * Updates the {@link ParameterizedState} held internally as {@link #update(RandomGenerator)} does, sampling the
+     * blocks of parameters with a {@link BlockParameterSampler} in parallel on {@code pool}.
+     * @param rng   {@link RandomGenerator} to pass to {@link ParameterSampler}s to generate samples
+     * @param pool  ForkJoinPool to sample blocks on, or null to sample them on the calling thread
+     */
+    protected void update(final RandomGenerator rng, final ForkJoinPool pool) {
         if (updateMethod == UpdateMethod.GIBBS) {
-            doGibbsUpdate(rng);
+            doGibbsUpdate(rng, pool);
         }
     }
 
@@ -129,9 +140,14 @@ public final class ParameterizedModel<V1 extends Enum<V1> & ParameterEnum, S1 ex
         return updateMethod;
     }
 
-    private void doGibbsUpdate(final RandomGenerator rng) {
+    private void doGibbsUpdate(final RandomGenerator rng, final ForkJoinPool pool) {
         for (final V1 parameterName : state.keySet()) {
-            state.update(parameterName, samplerMap.get(parameterName).sample(rng, state, dataCollection));
+            final ParameterSampler<?, V1, S1, T1> sampler = samplerMap.get(parameterName);
+            if (sampler instanceof BlockParameterSampler) {
+                state.update(parameterName, ((BlockParameterSampler<?, ?, V1, S1, T1>) sampler).sample(rng, state, dataCollection, pool));
+            } else {
+                state.update(parameterName, sampler.sample(rng, state, dataCollection));
+            }
         }
     }
 }
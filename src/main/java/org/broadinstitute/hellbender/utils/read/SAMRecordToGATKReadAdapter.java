@@ -20,6 +20,13 @@ import java.util.Objects;
  * This adapter wraps a {@link SAMRecord} without making a copy, so construction is cheap,
  * but care must be exercised if the underlying read has been exposed somewhere before
  * wrapping.
+ *
+ * When the wrapped record is a {@link BAMRecord} (as is the case for reads from BAM files and for
+ * reads deserialized on Spark), the variable-length fields (name, cigar, bases, qualities and tags)
+ * are only decoded from the raw record bytes on first access. This adapter takes care not to force
+ * that decoding where the information is available from the fixed-length fields, and copies of
+ * unmodified records are made by copying the raw bytes. Writing or serializing a record whose
+ * variable-length fields have not been modified is a byte copy.
  */
 public class SAMRecordToGATKReadAdapter implements GATKRead, Serializable {
     private static final long serialVersionUID = 1L;
@@ -219,8 +226,8 @@ public class SAMRecordToGATKReadAdapter implements GATKRead, Serializable {
 
     @Override
     public int getLength() {
-        final byte[] bases = samRecord.getReadBases();
-        return bases == null ? 0 : bases.length;
+        // For BAMRecords this comes from the fixed-length fields, and avoids decoding the bases
+        return samRecord.getReadLength();
     }
 
     @Override
@@ -576,8 +583,8 @@ public class SAMRecordToGATKReadAdapter implements GATKRead, Serializable {
 
     @Override
     public GATKRead deepCopy() {
-        // Produces a true deep copy.
-        return new SAMRecordToGATKReadAdapter(samRecord.deepCopy());
+        // Produces a true deep copy. Unmodified BAMRecords are copied without decoding them.
+        return new SAMRecordToGATKReadAdapter(BAMRecordCopyUtils.deepCopy(samRecord));
     }
 
     @Override
@@ -28,6 +28,7 @@ import org.broadinstitute.hellbender.utils.recalibration.covariates.StandardCova
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
 
 public final class BaseRecalibrationEngine implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -107,6 +108,18 @@ public final class BaseRecalibrationEngine implements Serializable {
         }
     }
 
+    /**
+     * As {@link #processRead(GATKRead, ReferenceDataSource, Iterable)}, but looks up the known sites overlapping
+     * the read's interval in a {@link KnownSitesBitSetIndex} instead of taking them from materialized Features.
+     *
+     * @param readInterval interval spanned by the read (null if the read has no valid interval, in which case
+     *                     no known sites are used)
+     */
+    public void processRead( final GATKRead originalRead, final ReferenceDataSource refDS, final KnownSitesBitSetIndex knownSitesIndex, final SimpleInterval readInterval ) {
+        Utils.nonNull(knownSitesIndex);
+        processRead(originalRead, refDS, readInterval != null ? knownSitesIndex.getOverlapping(readInterval) : Collections.emptyList());
+    }
+
     /**
      * For each read at this locus get the various covariate values and increment that location in the map based on
      * whether or not the base matches the reference at this particular location
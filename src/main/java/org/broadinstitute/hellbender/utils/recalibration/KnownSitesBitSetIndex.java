@@ -0,0 +1,252 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import htsjdk.samtools.util.Locatable;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact, memory-mapped index of known polymorphic sites for BQSR.
+ *
+ * BQSR only needs to know which reference positions/spans are covered by a known site, not the full variant
+ * records. For each contig this index stores a bitset with one bit per reference position for all single-base
+ * known sites (SNPs and anchored insertions), plus a sorted list of the comparatively few multi-base spans
+ * (deletions, MNPs, etc.). The bitsets are memory-mapped directly from the index file, so opening an index is
+ * nearly instantaneous and all processes on a host share a single copy through the page cache. Queries do not
+ * modify any state, so a single instance may be shared between threads.
+ *
+ * Queries return exactly the single-base sites and spans of the Features the index was built from, so BQSR
+ * produces the same recalibration tables as when it is given the original files.
+ *
+ * Index files are created from one or more Feature files using {@link Builder} (see the CreateKnownSitesIndex tool).
+ */
+public final class KnownSitesBitSetIndex {
+
+    public static final String FILE_EXTENSION = ".ksi";
+
+    private static final long MAGIC_NUMBER = 0x4B53495F42495431L;  // "KSI_BIT1"
+
+    private final Map<String, ContigSites> contigSites;
+
+    private KnownSitesBitSetIndex( final Map<String, ContigSites> contigSites ) {
+        this.contigSites = contigSites;
+    }
+
+    /**
+     * @param path path to test
+     * @return true if path looks like a known sites index file (based on its extension)
+     */
+    public static boolean isKnownSitesIndexFile( final String path ) {
+        return path != null && path.endsWith(FILE_EXTENSION);
+    }
+
+    /**
+     * Opens a known sites index file, memory-mapping the per-contig bitsets.
+     *
+     * @param indexFile index file created via {@link Builder#write(File)}
+     * @return the opened index
+     */
+    public static KnownSitesBitSetIndex load( final File indexFile ) {
+        Utils.nonNull(indexFile);
+        final Map<String, ContigSites> contigSites = new LinkedHashMap<>();
+
+        try ( final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+              final FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ) ) {
+            if ( in.readLong() != MAGIC_NUMBER ) {
+                throw new UserException.MalformedFile(indexFile, "Not a known sites index file");
+            }
+            final long dataStart = Long.BYTES + Integer.BYTES + in.readInt();
+            final int numContigs = in.readInt();
+            for ( int i = 0; i < numContigs; i++ ) {
+                final String contig = in.readUTF();
+                final long wordsOffset = in.readLong();
+                final int numWords = in.readInt();
+                final int numSpans = in.readInt();
+                final int[] spanStarts = new int[numSpans];
+                final int[] spanEnds = new int[numSpans];
+                for ( int span = 0; span < numSpans; span++ ) {
+                    spanStarts[span] = in.readInt();
+                    spanEnds[span] = in.readInt();
+                }
+
+                final LongBuffer words = channel.map(FileChannel.MapMode.READ_ONLY, dataStart + wordsOffset, (long)numWords * Long.BYTES)
+                                                .order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+                contigSites.put(contig, new ContigSites(words, spanStarts, spanEnds));
+            }
+        }
+        catch ( final IOException e ) {
+            throw new UserException.CouldNotReadInputFile(indexFile, "Could not read known sites index", e);
+        }
+
+        return new KnownSitesBitSetIndex(contigSites);
+    }
+
+    /**
+     * Returns all known sites overlapping the query interval, as single-base intervals for sites stored in
+     * the bitset and as full spans for multi-base sites. Results are not guaranteed to be sorted.
+     *
+     * @param query interval to query
+     * @return all known sites that overlap query
+     */
+    public List<SimpleInterval> getOverlapping( final SimpleInterval query ) {
+        Utils.nonNull(query);
+        final List<SimpleInterval> overlapping = new ArrayList<>();
+        final ContigSites sites = contigSites.get(query.getContig());
+        if ( sites == null ) {
+            return overlapping;
+        }
+
+        final int lastWord = Math.min(sites.words.limit() - 1, query.getEnd() >>> 6);
+        for ( int wordIndex = query.getStart() >>> 6; wordIndex <= lastWord; wordIndex++ ) {
+            long word = sites.words.get(wordIndex);
+            while ( word != 0 ) {
+                final int position = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                if ( position >= query.getStart() && position <= query.getEnd() ) {
+                    overlapping.add(new SimpleInterval(query.getContig(), position, position));
+                }
+                word &= word - 1;  // clear the lowest set bit
+            }
+        }
+
+        for ( int span = sites.firstSpanPotentiallyOverlapping(query.getStart());
+              span < sites.spanStarts.length && sites.spanStarts[span] <= query.getEnd(); span++ ) {
+            if ( sites.spanEnds[span] >= query.getStart() ) {
+                overlapping.add(new SimpleInterval(query.getContig(), sites.spanStarts[span], sites.spanEnds[span]));
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * @return true if the given position is covered by any known site
+     */
+    public boolean isKnownSite( final String contig, final int position ) {
+        return ! getOverlapping(new SimpleInterval(contig, position, position)).isEmpty();
+    }
+
+    /**
+     * Known sites on a single contig: bit p of words is set iff there is a single-base known site at
+     * position p; multi-base sites are stored as spans sorted by start position.
+     */
+    private static final class ContigSites {
+        private final LongBuffer words;
+        private final int[] spanStarts;
+        private final int[] spanEnds;
+        private final int maxSpanLength;
+
+        private ContigSites( final LongBuffer words, final int[] spanStarts, final int[] spanEnds ) {
+            this.words = words;
+            this.spanStarts = spanStarts;
+            this.spanEnds = spanEnds;
+            int maxLength = 0;
+            for ( int span = 0; span < spanStarts.length; span++ ) {
+                maxLength = Math.max(maxLength, spanEnds[span] - spanStarts[span] + 1);
+            }
+            this.maxSpanLength = maxLength;
+        }
+
+        /**
+         * @return index of the first span that could possibly end at or after position
+         */
+        private int firstSpanPotentiallyOverlapping( final int position ) {
+            final int minStart = position - maxSpanLength + 1;
+            int low = 0;
+            int high = spanStarts.length;
+            while ( low < high ) {
+                final int mid = (low + high) >>> 1;
+                if ( spanStarts[mid] < minStart ) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Accumulates known sites and writes them out as a known sites index file.
+     */
+    public static final class Builder {
+        private final Map<String, BitSet> singleBaseSites = new LinkedHashMap<>();
+        private final Map<String, SortedSet<SimpleInterval>> multiBaseSites = new LinkedHashMap<>();
+
+        /**
+         * Adds a known site to the index. Sites may be added in any order, and duplicates are ignored.
+         *
+         * @param site the site to add
+         * @return this builder
+         */
+        public Builder add( final Locatable site ) {
+            Utils.nonNull(site);
+            Utils.validateArg(site.getStart() >= 0 && site.getEnd() >= site.getStart(), () -> "invalid site " + site);
+
+            if ( site.getStart() == site.getEnd() ) {
+                singleBaseSites.computeIfAbsent(site.getContig(), contig -> new BitSet()).set(site.getStart());
+            } else {
+                multiBaseSites.computeIfAbsent(site.getContig(), contig -> new TreeSet<>(Comparator.comparingInt(SimpleInterval::getStart).thenComparingInt(SimpleInterval::getEnd)))
+                              .add(new SimpleInterval(site));
+            }
+            return this;
+        }
+
+        /**
+         * Writes the index. The file consists of a magic number, the header size, a header listing each contig
+         * together with its multi-base spans and the location of its bitset, and finally the bitsets themselves
+         * as big-endian longs.
+         *
+         * @param output file to write to
+         */
+        public void write( final File output ) {
+            Utils.nonNull(output);
+            final Set<String> contigs = new LinkedHashSet<>(singleBaseSites.keySet());
+            contigs.addAll(multiBaseSites.keySet());
+
+            final Map<String, long[]> wordsByContig = new LinkedHashMap<>();
+            final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            try ( final DataOutputStream header = new DataOutputStream(headerBytes) ) {
+                header.writeInt(contigs.size());
+                long wordsOffset = 0;
+                for ( final String contig : contigs ) {
+                    final long[] words = singleBaseSites.getOrDefault(contig, new BitSet()).toLongArray();
+                    final Collection<SimpleInterval> spans = multiBaseSites.getOrDefault(contig, Collections.emptySortedSet());
+                    wordsByContig.put(contig, words);
+
+                    header.writeUTF(contig);
+                    header.writeLong(wordsOffset);
+                    header.writeInt(words.length);
+                    header.writeInt(spans.size());
+                    for ( final SimpleInterval span : spans ) {
+                        header.writeInt(span.getStart());
+                        header.writeInt(span.getEnd());
+                    }
+                    wordsOffset += (long)words.length * Long.BYTES;
+                }
+            }
+            catch ( final IOException e ) {
+                throw new UserException.CouldNotCreateOutputFile(output, "Could not write known sites index", e);
+            }
+
+            try ( final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output))) ) {
+                out.writeLong(MAGIC_NUMBER);
+                out.writeInt(headerBytes.size());
+                headerBytes.writeTo(out);
+                for ( final long[] words : wordsByContig.values() ) {
+                    for ( final long word : words ) {
+                        out.writeLong(word);
+                    }
+                }
+            }
+            catch ( final IOException e ) {
+                throw new UserException.CouldNotCreateOutputFile(output, "Could not write known sites index", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.broadinstitute.hellbender.utils.svd;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+
+import java.util.Random;
+
+/**
+ * Truncated SVD calculated with a randomized range finder (Halko, Martinsson and Tropp, 2011).
+ *
+ * <p>
+ *     Only the leading {@code rank} singular triplets are calculated. The range of the input matrix is sampled by
+ *     multiplying it with a Gaussian random matrix with {@code rank + oversampling} columns, optionally together
+ *     with the columns of an initial basis that is expected to span most of the leading left singular subspace
+ *     (e.g. the left singular vectors of a previous decomposition of a very similar matrix).
+ *     The sampled range is then refined with a number of power iterations and the decomposition is
+ *     completed with an exact SVD of the projection of the input matrix onto that range, which is small.
+ * </p>
+ *
+ * <p>
+ *     For a {@code M x N} input, the cost is proportional to {@code M * N * (rank + oversampling)} rather than to
+ *     {@code M * N * min(M, N)}. The result is exact if the sampled range has as many dimensions as the rank of the
+ *     input.
+ * </p>
+ *
+ * <p>
+ *     The pseudoinverse returned is that of the truncated decomposition.
+ * </p>
+ */
+public final class RandomizedSingularValueDecomposer implements SingularValueDecomposer {
+
+    private static final Logger logger = LogManager.getLogger(RandomizedSingularValueDecomposer.class);
+
+    public static final int DEFAULT_OVERSAMPLING = 10;
+
+    public static final int DEFAULT_NUMBER_OF_POWER_ITERATIONS = 2;
+
+    public static final long DEFAULT_RANDOM_SEED = 1337L;
+
+    /**
+     * Columns whose norm is reduced below this fraction of the original after projecting out the
+     * previous basis vectors are considered linearly dependent and are dropped.
+     */
+    private static final double DEPENDENT_COLUMN_RELATIVE_NORM = 1e-10;
+
+    private final int rank;
+    private final int oversampling;
+    private final int numberOfPowerIterations;
+    private final RealMatrix initialBasis;
+    private final RandomGenerator rng;
+
+    /**
+     * Creates a decomposer with default oversampling, number of power iterations and random seed.
+     *
+     * @param rank number of leading singular triplets to calculate.  Must be positive.
+     * @param initialBasis matrix whose columns are added to the sampled range of the input; {@code null} if none.
+     */
+    public RandomizedSingularValueDecomposer(final int rank, final RealMatrix initialBasis) {
+        this(rank, DEFAULT_OVERSAMPLING, DEFAULT_NUMBER_OF_POWER_ITERATIONS, initialBasis, DEFAULT_RANDOM_SEED);
+    }
+
+    /**
+     * Creates a decomposer.
+     *
+     * @param rank number of leading singular triplets to calculate.  Must be positive.
+     * @param oversampling number of random samples of the range beyond {@code rank}.  Must be non-negative.
+     * @param numberOfPowerIterations number of power iterations used to refine the sampled range.  Must be non-negative.
+     * @param initialBasis matrix whose columns are added to the sampled range of the input; {@code null} if none.
+     *                     It must have as many rows as the matrices to decompose.
+     * @param seed random seed for the Gaussian sampling matrix.
+     */
+    public RandomizedSingularValueDecomposer(final int rank, final int oversampling, final int numberOfPowerIterations,
+                                             final RealMatrix initialBasis, final long seed) {
+        this.rank = ParamUtils.isPositive(rank, "The rank must be positive.");
+        this.oversampling = ParamUtils.isPositiveOrZero(oversampling, "The oversampling must be non-negative.");
+        this.numberOfPowerIterations = ParamUtils.isPositiveOrZero(numberOfPowerIterations, "The number of power iterations must be non-negative.");
+        this.initialBasis = initialBasis;
+        this.rng = RandomGeneratorFactory.createRandomGenerator(new Random(seed));
+    }
+
+    /**
+     * Create a truncated SVD instance.
+     *
+     * @param m matrix that is not {@code null}
+     * @return SVD instance that is never {@code null}, with at most {@code rank} singular values.
+     */
+    @Override
+    public SVD createSVD(final RealMatrix m) {
+        Utils.nonNull(m, "Cannot create SVD on a null matrix.");
+        final int rowCount = m.getRowDimension();
+        final int columnCount = m.getColumnDimension();
+        Utils.validateArg(initialBasis == null || initialBasis.getRowDimension() == rowCount,
+                "The initial basis must have as many rows as the input matrix.");
+        // products are calculated on the underlying arrays as RealMatrix#multiply is very slow for large matrices.
+        final double[][] values = m instanceof Array2DRowRealMatrix ? ((Array2DRowRealMatrix) m).getDataRef() : m.getData();
+        final int maximumRank = Math.min(rowCount, columnCount);
+        final int sampleCount = Math.min(rank + oversampling, columnCount);
+
+        logger.info(String.format("Sampling the range of a %d x %d matrix with %d random vectors...", rowCount, columnCount, sampleCount));
+        final double[][] gaussian = new double[sampleCount][columnCount];
+        for (final double[] sample : gaussian) {
+            for (int j = 0; j < columnCount; j++) {
+                sample[j] = rng.nextGaussian();
+            }
+        }
+        double[][] basis = orthonormalize(multiplyByRows(values, gaussian),
+                initialBasis == null ? null : initialBasis.transpose().getData(), maximumRank);
+        for (int i = 0; i < numberOfPowerIterations; i++) {
+            logger.info(String.format("Power iteration %d of %d...", i + 1, numberOfPowerIterations));
+            basis = orthonormalize(multiplyByRows(values, projectRows(basis, values)), null, maximumRank);
+        }
+
+        logger.info(String.format("Calculating the SVD of the %d x %d projection onto the sampled range...", basis.length, columnCount));
+        final SingularValueDecomposition projectionSVD = new SingularValueDecomposition(new Array2DRowRealMatrix(projectRows(basis, values), false));
+        final double[] allSingularValues = projectionSVD.getSingularValues();
+        final int resultRank = Math.min(rank, allSingularValues.length);
+        final double[] singularValues = new double[resultRank];
+        System.arraycopy(allSingularValues, 0, singularValues, 0, resultRank);
+        final double[][] projectionU = projectionSVD.getU().getData();
+        final double[][] uColumns = new double[resultRank][rowCount];
+        for (int k = 0; k < basis.length; k++) {
+            for (int c = 0; c < resultRank; c++) {
+                final double weight = projectionU[k][c];
+                final double[] uColumn = uColumns[c];
+                final double[] basisVector = basis[k];
+                for (int i = 0; i < rowCount; i++) {
+                    uColumn[i] += weight * basisVector[i];
+                }
+            }
+        }
+        final RealMatrix u = new Array2DRowRealMatrix(uColumns, false).transpose();
+        final RealMatrix v = projectionSVD.getV().getSubMatrix(0, columnCount - 1, 0, resultRank - 1);
+        return new SimpleSVD(u, singularValues, v, pseudoInverse(uColumns, singularValues, v, Math.max(rowCount, columnCount)));
+    }
+
+    /**
+     * Composes {@code V * S^-1 * U^T} ignoring singular values that are negligible relative to the largest one.
+     */
+    private static RealMatrix pseudoInverse(final double[][] uColumns, final double[] singularValues, final RealMatrix v, final int maximumDimension) {
+        final double threshold = singularValues.length == 0 ? 0 : maximumDimension * singularValues[0] * Math.ulp(1.0);
+        final double[][] result = new double[v.getRowDimension()][uColumns.length == 0 ? 0 : uColumns[0].length];
+        for (int j = 0; j < result.length; j++) {
+            final double[] row = result[j];
+            for (int c = 0; c < singularValues.length; c++) {
+                if (singularValues[c] <= threshold) {
+                    continue;
+                }
+                final double weight = v.getEntry(j, c) / singularValues[c];
+                final double[] uColumn = uColumns[c];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] += weight * uColumn[i];
+                }
+            }
+        }
+        return new Array2DRowRealMatrix(result, false);
+    }
+
+    /**
+     * Returns the transpose of {@code values * vectors^T}, i.e. one row per vector with as many elements as rows in {@code values}.
+     */
+    private static double[][] multiplyByRows(final double[][] values, final double[][] vectors) {
+        final double[][] result = new double[vectors.length][values.length];
+        for (int i = 0; i < values.length; i++) {
+            final double[] row = values[i];
+            for (int k = 0; k < vectors.length; k++) {
+                final double[] vector = vectors[k];
+                double dot = 0;
+                for (int j = 0; j < row.length; j++) {
+                    dot += row[j] * vector[j];
+                }
+                result[k][i] = dot;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code basis * values}, where each row of {@code basis} has as many elements as rows in {@code values}.
+     */
+    private static double[][] projectRows(final double[][] basis, final double[][] values) {
+        final double[][] result = new double[basis.length][values.length == 0 ? 0 : values[0].length];
+        for (int i = 0; i < values.length; i++) {
+            final double[] row = values[i];
+            for (int k = 0; k < basis.length; k++) {
+                final double weight = basis[k][i];
+                final double[] resultRow = result[k];
+                for (int j = 0; j < row.length; j++) {
+                    resultRow[j] += weight * row[j];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an orthonormal basis of the span of the vectors in {@code extraVectors} (if any) followed by those in
+     * {@code vectors}, using modified Gram-Schmidt with reorthogonalization.  The input vectors are modified.
+     *
+     * @param maximumVectors maximum number of vectors in the result.
+     */
+    private static double[][] orthonormalize(final double[][] vectors, final double[][] extraVectors, final int maximumVectors) {
+        final double[][] candidates = extraVectors == null ? vectors : concatenate(extraVectors, vectors);
+        final double[][] result = new double[Math.min(maximumVectors, candidates.length)][];
+        int resultCount = 0;
+        for (int c = 0; c < candidates.length && resultCount < result.length; c++) {
+            final double[] candidate = candidates[c];
+            final double originalNorm = norm(candidate);
+            if (originalNorm == 0 || Double.isNaN(originalNorm)) {
+                continue;
+            }
+            for (int pass = 0; pass < 2; pass++) {
+                for (int k = 0; k < resultCount; k++) {
+                    final double[] q = result[k];
+                    double dot = 0;
+                    for (int i = 0; i < q.length; i++) {
+                        dot += q[i] * candidate[i];
+                    }
+                    for (int i = 0; i < q.length; i++) {
+                        candidate[i] -= dot * q[i];
+                    }
+                }
+            }
+            final double residualNorm = norm(candidate);
+            if (residualNorm <= DEPENDENT_COLUMN_RELATIVE_NORM * originalNorm) {
+                continue;
+            }
+            for (int i = 0; i < candidate.length; i++) {
+                candidate[i] /= residualNorm;
+            }
+            result[resultCount++] = candidate;
+        }
+        Utils.validateArg(resultCount > 0, "Cannot create SVD on a matrix with all values equal to zero.");
+        final double[][] trimmedResult = new double[resultCount][];
+        System.arraycopy(result, 0, trimmedResult, 0, resultCount);
+        return trimmedResult;
+    }
+
+    private static double[][] concatenate(final double[][] first, final double[][] second) {
+        final double[][] result = new double[first.length + second.length][];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static double norm(final double[] values) {
+        double sumOfSquares = 0;
+        for (final double value : values) {
+            sumOfSquares += value * value;
+        }
+        return Math.sqrt(sumOfSquares);
+    }
+}
@@ -0,0 +1,195 @@
+package org.broadinstitute.hellbender.utils.tsv;
+
+import org.broadinstitute.hellbender.utils.Utils;
+
+/**
+ * Formats the values of a data-line into a reusable character buffer on behalf of {@link TypedTableWriter}.
+ * <p>
+ * Values are appended in column order using the {@link #append append} method family. Numbers are formatted
+ * directly into the buffer without creating intermediate {@link String} instances, and the output is the same as that
+ * of {@link TableWriter} for the corresponding {@link DataLine#append DataLine.append} calls: doubles with an integer
+ * value are written without decimals and any other double as {@link Double#toString} does. String values are quoted
+ * and escaped only if they contain special characters.
+ * </p>
+ */
+public final class DataLineFormatter {
+
+    private final TableColumnCollection columns;
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Next appending index used by {@link #append append} methods.
+     */
+    private int nextIndex = 0;
+
+    DataLineFormatter(final TableColumnCollection columns) {
+        this.columns = Utils.nonNull(columns, "the columns cannot be null");
+    }
+
+    /**
+     * Returns the column collection for this data-line instance.
+     *
+     * @return never {@code null}.
+     */
+    public TableColumnCollection columns() {
+        return columns;
+    }
+
+    /**
+     * Sets the next column value to a string.
+     *
+     * @param value the new value.
+     * @return reference to this formatter.
+     * @throws IllegalArgumentException if {@code value} is {@code null}.
+     * @throws IllegalStateException if the next column to set is beyond the last column.
+     */
+    public DataLineFormatter append(final String value) {
+        Utils.nonNull(value, "the value cannot be null");
+        startValue();
+        appendString(value);
+        return this;
+    }
+
+    /**
+     * Sets the next column value to an int.
+     *
+     * @param value the new value.
+     * @return reference to this formatter.
+     * @throws IllegalStateException if the next column to set is beyond the last column.
+     */
+    public DataLineFormatter append(final int value) {
+        startValue();
+        line.append(value);
+        return this;
+    }
+
+    /**
+     * Sets the next column value to a long.
+     *
+     * @param value the new value.
+     * @return reference to this formatter.
+     * @throws IllegalStateException if the next column to set is beyond the last column.
+     */
+    public DataLineFormatter append(final long value) {
+        startValue();
+        line.append(value);
+        return this;
+    }
+
+    /**
+     * Sets the next column value to a double.
+     *
+     * @param value the new value.
+     * @return reference to this formatter.
+     * @throws IllegalStateException if the next column to set is beyond the last column.
+     */
+    public DataLineFormatter append(final double value) {
+        startValue();
+        final long rounded = Math.round(value);
+        if (rounded == value) {
+            line.append(rounded);
+        } else {
+            line.append(value);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the next column value to a boolean.
+     *
+     * @param value the new value.
+     * @return reference to this formatter.
+     * @throws IllegalStateException if the next column to set is beyond the last column.
+     */
+    public DataLineFormatter append(final boolean value) {
+        startValue();
+        line.append(value);
+        return this;
+    }
+
+    /**
+     * Sets the next column values to several doubles.
+     *
+     * @param values the new values.
+     * @return reference to this formatter.
+     * @throws IllegalArgumentException if {@code values} is {@code null}.
+     * @throws IllegalStateException if this operation goes beyond the last column index.
+     */
+    public DataLineFormatter append(final double... values) {
+        for (final double value : Utils.nonNull(values, "the values cannot be null")) {
+            append(value);
+        }
+        return this;
+    }
+
+    private void startValue() {
+        if (nextIndex == columns.columnCount()) {
+            throw new IllegalStateException("gone beyond of the end of the data-line");
+        } else if (nextIndex++ > 0) {
+            line.append(TableUtils.COLUMN_SEPARATOR);
+        }
+    }
+
+    /**
+     * Appends a string to the line, quoting it if it contains special characters as {@link com.opencsv.CSVWriter} does.
+     */
+    private void appendString(final String value) {
+        if (!containsSpecialCharacters(value)) {
+            line.append(value);
+            return;
+        }
+        line.append(TableUtils.QUOTE_CHARACTER);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == TableUtils.QUOTE_CHARACTER || c == TableUtils.ESCAPE_CHARACTER) {
+                line.append(TableUtils.ESCAPE_CHARACTER);
+            }
+            line.append(c);
+        }
+        line.append(TableUtils.QUOTE_CHARACTER);
+    }
+
+    private static boolean containsSpecialCharacters(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == TableUtils.QUOTE_CHARACTER || c == TableUtils.ESCAPE_CHARACTER || c == TableUtils.COLUMN_SEPARATOR
+                    || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends a whole line that consists of a single string value, regardless of the number of columns.
+     */
+    void appendLine(final String value) {
+        appendString(value);
+    }
+
+    /**
+     * Checks that all the values of the line have been set.
+     */
+    void checkComplete() {
+        if (nextIndex != columns.columnCount()) {
+            throw new IllegalStateException(String.format("some data line value remains undefined: e.g. column '%s' index %d",
+                    columns.nameAt(nextIndex), nextIndex));
+        }
+    }
+
+    /**
+     * Ends the current line and returns the buffer that holds it, which is cleared by {@link #clear()}.
+     */
+    StringBuilder terminate() {
+        return line.append('\n');
+    }
+
+    /**
+     * Discards the content of the buffer to start a new line.
+     */
+    void clear() {
+        line.setLength(0);
+        nextIndex = 0;
+    }
+}
@@ -0,0 +1,665 @@
+package org.broadinstitute.hellbender.utils.tsv;
+
+import com.opencsv.CSVParser;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.tsv.TypedTableReader.ColumnType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Data-line view used by {@link TypedTableReader} to pass the values of an input line to
+ * {@link TypedTableReader#createRecord(TypedDataLine) createRecord}.
+ * <p>
+ * Values in columns of a numeric or boolean {@link ColumnType} are decoded directly from the input bytes when the line
+ * is loaded, whereas string values are only decoded when requested. Consecutive lines often share the same value in
+ * string columns (e.g. the contig name), so the last string decoded for each column is reused when the input bytes
+ * are the same.
+ * </p>
+ * <p>
+ * Instances are reused for the following input lines and therefore they are only valid during the invocation of
+ * {@link TypedTableReader#createRecord(TypedDataLine) createRecord}.
+ * </p>
+ */
+public final class TypedDataLine {
+
+    /**
+     * Powers of ten that can be represented exactly as a {@code double}.
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * Maximum number of significant decimal digits of an integer that is always exactly representable as a {@code double}.
+     */
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+
+    /**
+     * Maximum number of decimal digits that always fit in a {@code long}.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private static final byte[] COMMENT_PREFIX_BYTES = TableUtils.COMMENT_PREFIX.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] TRUE_BYTES = Boolean.toString(true).getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] FALSE_BYTES = Boolean.toString(false).getBytes(StandardCharsets.UTF_8);
+
+    private final TypedTableReader<?> reader;
+
+    /**
+     * The enclosing table's columns; {@code null} while the header line has not been found.
+     */
+    private final TableColumnCollection columns;
+
+    private final ColumnType[] columnTypes;
+
+    private final byte[][] columnNameBytes;
+
+    private byte[] bytes;
+    private long lineNumber;
+
+    /**
+     * Start (inclusive) and end (exclusive) of each field in {@link #bytes}.
+     */
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int numberOfFields;
+
+    /**
+     * Field values of lines that contain quotes or escape characters, which are fully parsed into strings;
+     * {@code null} for any other line.
+     */
+    private String[] parsedFields;
+
+    private CSVParser parser;
+
+    /**
+     * Decoded values for columns of numeric and boolean types.
+     */
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final boolean[] booleanValues;
+
+    /**
+     * Last string decoded for each column and the bytes it was decoded from.
+     */
+    private final String[] lastStrings;
+    private final byte[][] lastStringBytes;
+
+    /**
+     * Creates a data-line to read lines before the header line has been found.
+     */
+    TypedDataLine(final TypedTableReader<?> reader) {
+        this(reader, null, new ColumnType[0]);
+    }
+
+    /**
+     * Creates a data-line to read the data lines of a table.
+     *
+     * @param reader      the enclosing reader, used to compose format exceptions.
+     * @param columns     the table columns.
+     * @param columnTypes the type of each column.
+     */
+    TypedDataLine(final TypedTableReader<?> reader, final TableColumnCollection columns, final ColumnType[] columnTypes) {
+        this.reader = Utils.nonNull(reader);
+        this.columns = columns;
+        this.columnTypes = Utils.nonNull(columnTypes);
+        final int columnCount = columnTypes.length;
+        columnNameBytes = columns == null ? new byte[0][]
+                : columns.names().stream().map(name -> name.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        longValues = new long[columnCount];
+        doubleValues = new double[columnCount];
+        booleanValues = new boolean[columnCount];
+        lastStrings = new String[columnCount];
+        lastStringBytes = new byte[columnCount][];
+    }
+
+    /**
+     * Splits an input line into fields; values are not decoded until {@link #decode()} is called.
+     *
+     * @param bytes      array that contains the line.
+     * @param start      start of the line in {@code bytes} (inclusive).
+     * @param end        end of the line in {@code bytes} (exclusive), excluding the line terminator.
+     * @param lineNumber the line number in the input.
+     */
+    void load(final byte[] bytes, final int start, final int end, final long lineNumber) {
+        this.bytes = bytes;
+        this.lineNumber = lineNumber;
+        numberOfFields = 0;
+        parsedFields = null;
+        int fieldStart = start;
+        for (int i = start; i < end; i++) {
+            final byte b = bytes[i];
+            if (b == TableUtils.COLUMN_SEPARATOR) {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            } else if (b == TableUtils.QUOTE_CHARACTER || b == TableUtils.ESCAPE_CHARACTER) {
+                parseFields(start, end);
+                return;
+            }
+        }
+        addField(fieldStart, end);
+    }
+
+    private void addField(final int start, final int end) {
+        if (numberOfFields == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, numberOfFields * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, numberOfFields * 2);
+        }
+        fieldStarts[numberOfFields] = start;
+        fieldEnds[numberOfFields++] = end;
+    }
+
+    /**
+     * Parses lines that contain quoted values or escape characters as {@link TableReader} does.
+     */
+    private void parseFields(final int start, final int end) {
+        if (parser == null) {
+            parser = new CSVParser(TableUtils.COLUMN_SEPARATOR, TableUtils.QUOTE_CHARACTER, TableUtils.ESCAPE_CHARACTER);
+        }
+        try {
+            parsedFields = parser.parseLineMulti(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        } catch (final IOException ex) {
+            throw formatException("unable to parse the line: " + ex.getMessage());
+        }
+        if (parser.isPending()) {
+            parser = null;
+            throw formatException("values that span several lines are not supported");
+        }
+        numberOfFields = parsedFields.length;
+    }
+
+    /**
+     * Checks whether the loaded line is a comment line.
+     */
+    boolean isCommentLine() {
+        if (parsedFields != null) {
+            return parsedFields[0].startsWith(TableUtils.COMMENT_PREFIX);
+        }
+        final int start = fieldStarts[0];
+        return fieldEnds[numberOfFields - 1] - start >= COMMENT_PREFIX_BYTES.length
+                && bytesEqual(COMMENT_PREFIX_BYTES, bytes, start, COMMENT_PREFIX_BYTES.length);
+    }
+
+    /**
+     * Returns the content of the loaded comment line after the comment prefix.
+     */
+    String commentText() {
+        final String[] fields = toArray();
+        fields[0] = fields[0].substring(TableUtils.COMMENT_PREFIX.length());
+        return String.join(TableUtils.COLUMN_SEPARATOR_STRING, fields);
+    }
+
+    /**
+     * Checks whether the loaded line is a repetition of the header line.
+     */
+    boolean matchesColumnNames() {
+        if (numberOfFields != columnNameBytes.length) {
+            return false;
+        } else if (parsedFields != null) {
+            return columns.matchesExactly(parsedFields);
+        }
+        for (int i = 0; i < numberOfFields; i++) {
+            final int length = fieldEnds[i] - fieldStarts[i];
+            if (length != columnNameBytes[i].length || !bytesEqual(columnNameBytes[i], bytes, fieldStarts[i], length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the values of the loaded line in columns of numeric and boolean types.
+     *
+     * @throws UserException.BadInput if the line does not have as many values as columns or some value cannot be
+     *         decoded as the type of its column.
+     */
+    void decode() {
+        if (numberOfFields != columnTypes.length) {
+            throw formatException(String.format("mismatch between number of values in line (%d) and number of columns (%d)",
+                    numberOfFields, columnTypes.length));
+        }
+        for (int i = 0; i < columnTypes.length; i++) {
+            switch (columnTypes[i]) {
+                case INT:
+                    try {
+                        longValues[i] = parsedFields == null ? parseInt(bytes, fieldStarts[i], fieldEnds[i]) : Integer.parseInt(parsedFields[i]);
+                    } catch (final NumberFormatException ex) {
+                        throw formatException(String.format("expected int value for column %s but found %s", columns.nameAt(i), get(i)));
+                    }
+                    break;
+                case LONG:
+                    try {
+                        longValues[i] = parsedFields == null ? parseLong(bytes, fieldStarts[i], fieldEnds[i]) : Long.parseLong(parsedFields[i]);
+                    } catch (final NumberFormatException ex) {
+                        throw formatException(String.format("expected long value for column %s but found %s", columns.nameAt(i), get(i)));
+                    }
+                    break;
+                case DOUBLE:
+                    try {
+                        doubleValues[i] = parsedFields == null ? parseDouble(bytes, fieldStarts[i], fieldEnds[i]) : Double.parseDouble(parsedFields[i]);
+                    } catch (final NumberFormatException ex) {
+                        throw formatException(String.format("expected double value for column %s but found %s", columns.nameAt(i), get(i)));
+                    }
+                    break;
+                case BOOLEAN:
+                    booleanValues[i] = parseBoolean(i);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private boolean parseBoolean(final int index) {
+        final String string = parsedFields == null ? null : parsedFields[index];
+        if (string == null ? fieldEquals(index, TRUE_BYTES) : string.equals(Boolean.toString(true))) {
+            return true;
+        } else if (string == null ? fieldEquals(index, FALSE_BYTES) : string.equals(Boolean.toString(false))) {
+            return false;
+        } else {
+            throw formatException(String.format("Boolean value must be '%s' or '%s' (case sensitive) for column %s but found %s",
+                    true, false, columns.nameAt(index), get(index)));
+        }
+    }
+
+    private boolean fieldEquals(final int index, final byte[] value) {
+        return fieldEnds[index] - fieldStarts[index] == value.length && bytesEqual(value, bytes, fieldStarts[index], value.length);
+    }
+
+    /**
+     * Returns all the values of the loaded line as strings.
+     *
+     * @return never {@code null}.
+     */
+    String[] toArray() {
+        if (parsedFields != null) {
+            return parsedFields.clone();
+        }
+        final String[] result = new String[numberOfFields];
+        for (int i = 0; i < numberOfFields; i++) {
+            result[i] = new String(bytes, fieldStarts[i], fieldEnds[i] - fieldStarts[i], StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the column collection for this data-line instance.
+     *
+     * @return never {@code null}.
+     */
+    public TableColumnCollection columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the line number of this data-line in the input.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Composes the exception to be thrown due to a formatting error in this data-line.
+     *
+     * @param message custom error message.
+     * @return never {@code null}.
+     */
+    public UserException.BadInput formatException(final String message) {
+        return reader.formatException(lineNumber, message);
+    }
+
+    /**
+     * Returns the string value in a column by its index. Values of columns of any type can be requested as strings.
+     *
+     * @param index target column index.
+     * @return never {@code null}.
+     * @throws IllegalArgumentException if {@code index} is not a valid column index.
+     */
+    public String get(final int index) {
+        Utils.validIndex(index, numberOfFields);
+        if (parsedFields != null) {
+            return parsedFields[index];
+        }
+        final int start = fieldStarts[index];
+        final int length = fieldEnds[index] - start;
+        final byte[] lastBytes = lastStringBytes[index];
+        if (lastBytes != null && lastBytes.length == length && bytesEqual(lastBytes, bytes, start, length)) {
+            return lastStrings[index];
+        }
+        lastStringBytes[index] = Arrays.copyOfRange(bytes, start, start + length);
+        return lastStrings[index] = new String(bytes, start, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the int value in a column by its index.
+     *
+     * @param index the target column index.
+     * @return any int value.
+     * @throws IllegalArgumentException if {@code index} is not valid.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#INT INT}.
+     */
+    public int getInt(final int index) {
+        checkColumnType(index, ColumnType.INT);
+        return (int) longValues[index];
+    }
+
+    /**
+     * Returns the long value in a column by its index.
+     *
+     * @param index the target column index.
+     * @return any long value.
+     * @throws IllegalArgumentException if {@code index} is not valid.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#LONG LONG}
+     *                                  or {@link ColumnType#INT INT}.
+     */
+    public long getLong(final int index) {
+        checkColumnType(index, ColumnType.LONG, ColumnType.INT);
+        return longValues[index];
+    }
+
+    /**
+     * Returns the double value in a column by its index.
+     *
+     * @param index the target column index.
+     * @return any double value.
+     * @throws IllegalArgumentException if {@code index} is not valid.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#DOUBLE DOUBLE},
+     *                                  {@link ColumnType#LONG LONG} or {@link ColumnType#INT INT}.
+     */
+    public double getDouble(final int index) {
+        checkColumnType(index, ColumnType.DOUBLE, ColumnType.LONG, ColumnType.INT);
+        return columnTypes[index] == ColumnType.DOUBLE ? doubleValues[index] : longValues[index];
+    }
+
+    /**
+     * Returns the boolean value in a column by its index.
+     *
+     * @param index the target column index.
+     * @return any boolean value.
+     * @throws IllegalArgumentException if {@code index} is not valid.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#BOOLEAN BOOLEAN}.
+     */
+    public boolean getBoolean(final int index) {
+        checkColumnType(index, ColumnType.BOOLEAN);
+        return booleanValues[index];
+    }
+
+    /**
+     * Returns the string value in a column by its name.
+     *
+     * @param columnName the target column name.
+     * @return never {@code null}.
+     * @throws IllegalArgumentException if {@code columnName} is {@code null} or an unknown column name.
+     */
+    public String get(final String columnName) {
+        return get(columnIndex(columnName));
+    }
+
+    /**
+     * Returns the int value in a column by its name.
+     *
+     * @param columnName the target column name.
+     * @return any int value.
+     * @throws IllegalArgumentException if {@code columnName} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#INT INT}.
+     */
+    public int getInt(final String columnName) {
+        return getInt(columnIndex(columnName));
+    }
+
+    /**
+     * Returns the long value in a column by its name.
+     *
+     * @param columnName the target column name.
+     * @return any long value.
+     * @throws IllegalArgumentException if {@code columnName} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#LONG LONG}
+     *                                  or {@link ColumnType#INT INT}.
+     */
+    public long getLong(final String columnName) {
+        return getLong(columnIndex(columnName));
+    }
+
+    /**
+     * Returns the double value in a column by its name.
+     *
+     * @param columnName the target column name.
+     * @return any double value.
+     * @throws IllegalArgumentException if {@code columnName} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#DOUBLE DOUBLE},
+     *                                  {@link ColumnType#LONG LONG} or {@link ColumnType#INT INT}.
+     */
+    public double getDouble(final String columnName) {
+        return getDouble(columnIndex(columnName));
+    }
+
+    /**
+     * Returns the boolean value in a column by its name.
+     *
+     * @param columnName the target column name.
+     * @return any boolean value.
+     * @throws IllegalArgumentException if {@code columnName} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#BOOLEAN BOOLEAN}.
+     */
+    public boolean getBoolean(final String columnName) {
+        return getBoolean(columnIndex(columnName));
+    }
+
+    /**
+     * Returns the string value of a column by its name expressed as an enum constant.
+     *
+     * @param column the enum value that provides the name of the column.
+     * @return never {@code null}.
+     * @throws IllegalArgumentException if {@code column} is {@code null} or an unknown column name.
+     */
+    public String get(final Enum<?> column) {
+        return get(Utils.nonNull(column).toString());
+    }
+
+    /**
+     * Returns the int value of a column by its name expressed as an enum constant.
+     *
+     * @param column the enum value that provides the name of the column.
+     * @return any int value.
+     * @throws IllegalArgumentException if {@code column} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#INT INT}.
+     */
+    public int getInt(final Enum<?> column) {
+        return getInt(Utils.nonNull(column).toString());
+    }
+
+    /**
+     * Returns the long value of a column by its name expressed as an enum constant.
+     *
+     * @param column the enum value that provides the name of the column.
+     * @return any long value.
+     * @throws IllegalArgumentException if {@code column} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#LONG LONG}
+     *                                  or {@link ColumnType#INT INT}.
+     */
+    public long getLong(final Enum<?> column) {
+        return getLong(Utils.nonNull(column).toString());
+    }
+
+    /**
+     * Returns the double value of a column by its name expressed as an enum constant.
+     *
+     * @param column the enum value that provides the name of the column.
+     * @return any double value.
+     * @throws IllegalArgumentException if {@code column} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#DOUBLE DOUBLE},
+     *                                  {@link ColumnType#LONG LONG} or {@link ColumnType#INT INT}.
+     */
+    public double getDouble(final Enum<?> column) {
+        return getDouble(Utils.nonNull(column).toString());
+    }
+
+    /**
+     * Returns the boolean value of a column by its name expressed as an enum constant.
+     *
+     * @param column the enum value that provides the name of the column.
+     * @return any boolean value.
+     * @throws IllegalArgumentException if {@code column} is {@code null} or an unknown column name.
+     * @throws IllegalStateException    if the column was not declared as {@link ColumnType#BOOLEAN BOOLEAN}.
+     */
+    public boolean getBoolean(final Enum<?> column) {
+        return getBoolean(Utils.nonNull(column).toString());
+    }
+
+    /**
+     * Returns the index of a column by its name or fails if invalid or unknown.
+     */
+    private int columnIndex(final String columnName) {
+        final int index = columns.indexOf(columnName);
+        if (index < 0) {
+            throw new IllegalArgumentException("there is no such a column: " + columnName);
+        }
+        return index;
+    }
+
+    private void checkColumnType(final int index, final ColumnType... allowedTypes) {
+        Utils.validIndex(index, columnTypes.length);
+        for (final ColumnType type : allowedTypes) {
+            if (columnTypes[index] == type) {
+                return;
+            }
+        }
+        throw new IllegalStateException(String.format("column %s was declared as %s but was requested as %s",
+                columns.nameAt(index), columnTypes[index], allowedTypes[0]));
+    }
+
+    private static boolean bytesEqual(final byte[] expected, final byte[] bytes, final int start, final int length) {
+        for (int i = 0; i < length; i++) {
+            if (expected[i] != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decodeString(final byte[] bytes, final int start, final int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes an int with the same result as {@link Integer#parseInt}.
+     *
+     * @throws NumberFormatException if the value is not a valid int.
+     */
+    static int parseInt(final byte[] bytes, final int start, final int end) {
+        final long value = parseLong(bytes, start, end);
+        if (value != (int) value) {
+            throw new NumberFormatException("value out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Decodes a long with the same result as {@link Long#parseLong}. Values with only ASCII digits and not too many
+     * of them are decoded directly; anything else is deferred to {@link Long#parseLong}.
+     *
+     * @throws NumberFormatException if the value is not a valid long.
+     */
+    static long parseLong(final byte[] bytes, final int start, final int end) {
+        int i = start;
+        final boolean negative = i < end && bytes[i] == '-';
+        if (i < end && (negative || bytes[i] == '+')) {
+            i++;
+        }
+        if (i == end || end - i > MAX_LONG_DIGITS) {
+            return Long.parseLong(decodeString(bytes, start, end));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            final int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(decodeString(bytes, start, end));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decodes a double with the same result as {@link Double#parseDouble}.
+     * <p>
+     * Plain decimal values (with an optional exponent) whose significant digits form an integer that is exactly
+     * representable and that are scaled by an exactly representable power of ten are decoded with a single
+     * multiplication or division, which is correctly rounded. Anything else is deferred to {@link Double#parseDouble}.
+     * </p>
+     *
+     * @throws NumberFormatException if the value is not a valid double.
+     */
+    static double parseDouble(final byte[] bytes, final int start, final int end) {
+        int i = start;
+        final boolean negative = i < end && bytes[i] == '-';
+        if (i < end && (negative || bytes[i] == '+')) {
+            i++;
+        }
+        long significand = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean decimalPoint = false;
+        for (; i < end; i++) {
+            final byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (significand == 0 && b == '0') {
+                    exponent -= decimalPoint ? 1 : 0;
+                    continue;
+                } else if (significantDigits == MAX_EXACT_DOUBLE_DIGITS) {
+                    return Double.parseDouble(decodeString(bytes, start, end));
+                }
+                significand = significand * 10 + (b - '0');
+                significantDigits++;
+                exponent -= decimalPoint ? 1 : 0;
+            } else if (b == '.' && !decimalPoint) {
+                decimalPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!anyDigit) {
+            return Double.parseDouble(decodeString(bytes, start, end));
+        }
+        if (i < end) {
+            if (bytes[i] != 'e' && bytes[i] != 'E') {
+                return Double.parseDouble(decodeString(bytes, start, end));
+            }
+            i++;
+            final boolean negativeExponent = i < end && bytes[i] == '-';
+            if (i < end && (negativeExponent || bytes[i] == '+')) {
+                i++;
+            }
+            if (i == end || end - i > 3) {
+                return Double.parseDouble(decodeString(bytes, start, end));
+            }
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                final int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return Double.parseDouble(decodeString(bytes, start, end));
+                }
+                explicitExponent = explicitExponent * 10 + digit;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        final double value;
+        if (significand == 0) {
+            value = 0;
+        } else if (exponent >= 0 && exponent < EXACT_POWERS_OF_TEN.length) {
+            value = significand * EXACT_POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < EXACT_POWERS_OF_TEN.length) {
+            value = significand / EXACT_POWERS_OF_TEN[-exponent];
+        } else {
+            return Double.parseDouble(decodeString(bytes, start, end));
+        }
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,670 @@
+package org.broadinstitute.hellbender.utils.tsv;
+
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Reads the contents of a tab separated value formatted input into records of an arbitrary type {@link R},
+ * decoding column values directly from the input bytes.
+ * <p>
+ * The input format is the same as for {@link TableReader}. Whereas that class splits every line into a {@link String}
+ * array that implementations then convert to the value types they need, implementations of this class declare the
+ * type of each column up front by overriding {@link #columnType(String)}. Numeric and boolean values are then decoded
+ * straight from a reusable buffer that is filled from the input in large blocks, and string values are only
+ * materialized for the columns that are requested, so that reading large tables creates little garbage besides the
+ * records themselves.
+ * </p>
+ * <p>
+ * Implementations create records by extending {@link #createRecord(TypedDataLine) createRecord}. The
+ * {@link TypedDataLine} passed is reused for the following lines, so it must not be retained after that method returns.
+ * </p>
+ * <p>
+ * Lines are independent of each other, so records can also be parsed on several threads using {@link #toList(int)}.
+ * In that case {@link #createRecord} will be invoked concurrently and it must not modify any state of the reader.
+ * </p>
+ * <p>
+ * Values that span several lines (quoted values that contain a new-line) are not supported by this reader.
+ * </p>
+ * <p>
+ * Example:
+ * <pre>
+ *         public class PeopleTableReader extends TypedTableReader&lt;Person&gt; {
+ *             // ...
+ *
+ *             &#64;Override
+ *             protected ColumnType columnType(final String columnName) {
+ *                 switch (columnName) {
+ *                     case "age": return ColumnType.INT;
+ *                     case "net.worth": return ColumnType.DOUBLE;
+ *                     default: return ColumnType.STRING;
+ *                 }
+ *             }
+ *
+ *             &#64;Override
+ *             protected Person createRecord(final TypedDataLine dataLine) {
+ *                  return new Person(
+ *                      dataLine.get("name"),
+ *                      dataLine.getInt("age"),
+ *                      dataLine.getDouble("net.worth")
+ *                  );
+ *             }
+ *         }
+ *     </pre>
+ * </p>
+ *
+ * @param <R> the record type for the reader.
+ */
+public abstract class TypedTableReader<R> implements Closeable, Iterable<R> {
+
+    /**
+     * Types of the values that a column may contain.
+     */
+    public enum ColumnType {
+        /**
+         * Any string; values are only decoded when requested.
+         */
+        STRING,
+
+        /**
+         * Values as accepted by {@link Integer#parseInt}.
+         */
+        INT,
+
+        /**
+         * Values as accepted by {@link Long#parseLong}.
+         */
+        LONG,
+
+        /**
+         * Values as accepted by {@link Double#parseDouble}.
+         */
+        DOUBLE,
+
+        /**
+         * Either {@code "true"} or {@code "false"} (case sensitive).
+         */
+        BOOLEAN
+    }
+
+    /**
+     * Default size in bytes of the blocks read from the input.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Number of lines in each of the batches that are parsed in parallel by {@link #toList(int)}.
+     */
+    private static final int LINES_PER_BATCH = 4096;
+
+    /**
+     * Number of batches given to each thread at once by {@link #toList(int)}.
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private static final byte NEW_LINE = '\n';
+
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    /**
+     * Name of the input source.
+     * <p>It can be {@code null} indicating that no name was provided at construction</p>.
+     */
+    private final String source;
+
+    private final ReadableByteChannel channel;
+
+    /**
+     * Holds the input that has been read but not consumed yet, from {@link #bufferStart} (inclusive) to
+     * {@link #bufferEnd} (exclusive).
+     */
+    private byte[] buffer;
+    private int bufferStart = 0;
+    private int bufferEnd = 0;
+
+    /**
+     * Position in the buffer from which to continue looking for the end of the current line.
+     */
+    private int scanStart = 0;
+
+    private boolean endOfInput = false;
+
+    /**
+     * Start (inclusive) and end (exclusive) in {@link #buffer} of the line last returned by {@link #readLine()},
+     * excluding the line terminator.
+     */
+    private int lineStart;
+    private int lineEnd;
+
+    /**
+     * Number of lines read so far; this is the line number of the last line read.
+     */
+    private long lineNumber = 0;
+
+    private TableColumnCollection columns;
+
+    private ColumnType[] columnTypes;
+
+    /**
+     * Data-line used to parse lines sequentially.
+     */
+    private TypedDataLine dataLine;
+
+    /**
+     * Indicates whether the reader has tried to fetch the next record.
+     * <p>If {@code true} the content of {@link #nextRecord} represent the next record to be returned
+     * by {@link #readRecord} ({@code null} if we reached the end of the table), otherwise {@link #nextRecord} reference
+     * is invalid and the next record must be fetched using {@link #fetchNextRecord()}.</p>
+     */
+    private boolean nextRecordFetched = false;
+
+    /**
+     * Holds a reference to the next record.
+     */
+    private R nextRecord;
+
+    /**
+     * Creates a new table reader given the input file.
+     * <p>
+     * This operation will read the first lines of the input file until the
+     * column name header line is found.
+     * </p>
+     *
+     * @param file the input file.
+     * @throws IllegalArgumentException if {@code file} is {@code null}.
+     * @throws IOException              if any is raised when accessing the file.
+     */
+    public TypedTableReader(final File file) throws IOException {
+        this(Utils.nonNull(file, "the input file cannot be null").toPath());
+    }
+
+    /**
+     * Creates a new table reader given the input path.
+     * <p>
+     * This operation will read the first lines of the input until the
+     * column name header line is found.
+     * </p>
+     *
+     * @param path the input path.
+     * @throws IllegalArgumentException if {@code path} is {@code null}.
+     * @throws IOException              if any is raised when accessing the path.
+     */
+    public TypedTableReader(final Path path) throws IOException {
+        this(Utils.nonNull(path, "the input path cannot be null").toString(), Files.newByteChannel(path), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new table reader given an input channel.
+     *
+     * @param sourceName name of the source to use in error messages. It can be {@code null}, indicating that is anonymous.
+     * @param channel    channel to the text to process, which is assumed to be encoded in UTF-8.
+     * @param bufferSize size in bytes of the blocks to read from {@code channel}; the buffer will grow if a line is longer.
+     * @throws IllegalArgumentException if {@code channel} is {@code null} or {@code bufferSize} is not positive.
+     * @throws IOException              if is raised when reading from the source.
+     */
+    protected TypedTableReader(final String sourceName, final ReadableByteChannel channel, final int bufferSize) throws IOException {
+        Utils.nonNull(channel, "the channel cannot be null");
+        ParamUtils.isPositive(bufferSize, "the buffer size must be positive");
+        this.source = sourceName;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        findAndProcessHeaderLine();
+    }
+
+    /**
+     * Process the first lines of the input source until the header line.
+     *
+     * @throws IOException            if an {@link IOException} occurred when reading from the source.
+     * @throws UserException.BadInput if there is formatting error in the input.
+     */
+    private void findAndProcessHeaderLine() throws IOException {
+        final TypedDataLine headerLine = new TypedDataLine(this);
+        while (readLine()) {
+            headerLine.load(buffer, lineStart, lineEnd, lineNumber);
+            if (headerLine.isCommentLine()) {
+                processCommentLine(headerLine.commentText(), lineNumber);
+            } else {
+                final String[] names = headerLine.toArray();
+                TableColumnCollection.checkNames(names, UserException.BadInput::new);
+                columns = new TableColumnCollection(names);
+                processColumns(columns);
+                columnTypes = columns.names().stream()
+                        .map(name -> Utils.nonNull(columnType(name), () -> "no type was given for column " + name))
+                        .toArray(ColumnType[]::new);
+                dataLine = new TypedDataLine(this, columns, columnTypes);
+                return;
+            }
+        }
+        throw formatException("premature end of table: header line not found");
+    }
+
+    /**
+     * Process the header line's column names.
+     * <p>
+     * Implementations must use {@link #formatException(String)} to create the exception to throw in case
+     * there is any formatting issue.
+     * </p>
+     * <p>
+     * Notice that this method is called during construction, before any field of extending classes is initialized.
+     * </p>
+     *
+     * @param tableColumns columns found in the input. It is guarantee not to be
+     *                     a {@code null} and not to contain any {@code null} values.
+     * @throws UserException.BadInput if there is a formatting issue.
+     */
+    protected void processColumns(@SuppressWarnings("unused") final TableColumnCollection tableColumns) {
+        // nothing by default.
+    }
+
+    /**
+     * Returns the type of the values in a column.
+     * <p>
+     * Values in {@link ColumnType#INT INT}, {@link ColumnType#LONG LONG}, {@link ColumnType#DOUBLE DOUBLE} and
+     * {@link ColumnType#BOOLEAN BOOLEAN} columns are decoded, and therefore validated, for every data line,
+     * even if they are never requested.
+     * </p>
+     * <p>
+     * Notice that this method is called during construction, right after {@link #processColumns}, before any field of
+     * extending classes is initialized.
+     * </p>
+     *
+     * @param columnName the column name.
+     * @return never {@code null}; {@link ColumnType#STRING STRING} by default.
+     */
+    protected ColumnType columnType(@SuppressWarnings("unused") final String columnName) {
+        return ColumnType.STRING;
+    }
+
+    /**
+     * Transforms a data-line into a record.
+     * <p>
+     * Implementations should use {@link TypedDataLine#formatException(String)} to indicate a formatting error
+     * that makes impossible to create a instance of {@link R} given the input line values {@code dataLine}.
+     * </p>
+     *
+     * @param dataLine values corresponding to the column names that was passed earlier to {@link #processColumns}.
+     *                 It is guaranteed to not be {@code null} and to have the same columns as this reader;
+     *                 it is only valid until this method returns.
+     * @return {@code null} to skip the line, the record otherwise.
+     */
+    protected abstract R createRecord(final TypedDataLine dataLine);
+
+    /**
+     * Called with the content of the comment line every time one is found in the input.
+     * <p>
+     *     The comment prefix string ({@link TableUtils#COMMENT_PREFIX}) is not included in the
+     *     input string.
+     * </p>
+     * <p>
+     *     Notice that since comments might be present before the header line, the result of invoking {@link #columns()}
+     *     is undefined. When parsing on several threads with {@link #toList(int)}, comment lines are still processed
+     *     in order but not necessarily before the records that follow them.
+     * </p>
+     * @param commentText the input comment string.
+     * @param lineNumber the source line number that contains the comment line.
+     */
+    protected void processCommentLine(final String commentText, final long lineNumber) {
+        // do nothing by default.
+    }
+
+    /**
+     * Composes the exception to be thrown due to a formatting error at the last line read.
+     *
+     * @param message custom error message.
+     * @return never {@code null}.
+     */
+    protected final UserException.BadInput formatException(final String message) {
+        return formatException(lineNumber, message);
+    }
+
+    /**
+     * Composes the exception to be thrown due to a formatting error at a given line.
+     */
+    final UserException.BadInput formatException(final long lineNumber, final String message) {
+        final String explanation = message == null ? "" : ": " + message;
+        if (source == null) {
+            return new UserException.BadInput(String.format("format error at line %d", lineNumber) + explanation);
+        } else {
+            return new UserException.BadInput(String.format("format error in '%s' at line %d", source, lineNumber) + explanation);
+        }
+    }
+
+    /**
+     * Returns the column collection for this reader.
+     * @throws IllegalStateException if this methods is invoked before the table column can be determined
+     *  (e.g. when processing a comment line before the header extending {@link #processCommentLine(String, long)}).
+     * @return never {@code null}.
+     */
+    public TableColumnCollection columns() {
+        Utils.validate(columns != null, "columns are null");
+        return columns;
+    }
+
+    /**
+     * Returns the next record form the source.
+     *
+     * @return {@code null} if there is no more record in the input.
+     * @throws IOException if a {@link IOException} was thrown when reading from the input.
+     */
+    public final R readRecord() throws IOException {
+        if (!nextRecordFetched) {
+            nextRecord = fetchNextRecord();
+        }
+        nextRecordFetched = false;
+        return nextRecord;
+    }
+
+    /**
+     * Fetch the next record from the source.
+     *
+     * @return {@code null} if there is no more record in the input.
+     * @throws IOException if a {@link IOException} was thrown when reading from the input.
+     */
+    private R fetchNextRecord() throws IOException {
+        nextRecordFetched = true;
+        while (readLine()) {
+            dataLine.load(buffer, lineStart, lineEnd, lineNumber);
+            final R result = parseLoadedLine(dataLine);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Processes the line loaded in a data-line; comment lines are passed to {@link #processCommentLine} and
+     * repetitions of the header are ignored.
+     *
+     * @return {@code null} if the line does not produce a record.
+     */
+    private R parseLoadedLine(final TypedDataLine line) {
+        if (line.isCommentLine()) {
+            processCommentLine(line.commentText(), line.getLineNumber());
+            return null;
+        } else {
+            return parseLoadedDataLine(line);
+        }
+    }
+
+    private R parseLoadedDataLine(final TypedDataLine line) {
+        if (line.matchesColumnNames()) {
+            return null;
+        }
+        line.decode();
+        return createRecord(line);
+    }
+
+    /**
+     * Finds the next line in the input, reading more from the source as needed.
+     * <p>
+     * On success the line is found between {@link #lineStart} and {@link #lineEnd} in {@link #buffer}.
+     * </p>
+     *
+     * @return {@code false} if we reached the end of the input.
+     */
+    private boolean readLine() throws IOException {
+        while (true) {
+            for (int i = scanStart; i < bufferEnd; i++) {
+                if (buffer[i] == NEW_LINE) {
+                    setLine(bufferStart, i);
+                    bufferStart = scanStart = i + 1;
+                    return true;
+                }
+            }
+            scanStart = bufferEnd;
+            if (endOfInput) {
+                if (bufferStart == bufferEnd) {
+                    return false;
+                }
+                setLine(bufferStart, bufferEnd);
+                bufferStart = bufferEnd;
+                return true;
+            }
+            fillBuffer();
+        }
+    }
+
+    private void setLine(final int start, final int end) {
+        lineStart = start;
+        lineEnd = end > start && buffer[end - 1] == CARRIAGE_RETURN ? end - 1 : end;
+        lineNumber++;
+    }
+
+    /**
+     * Reads the next block from the input after the unconsumed content of the buffer, which is first moved to its
+     * beginning. The buffer is enlarged if it is already full.
+     */
+    private void fillBuffer() throws IOException {
+        if (bufferStart > 0) {
+            System.arraycopy(buffer, bufferStart, buffer, 0, bufferEnd - bufferStart);
+            bufferEnd -= bufferStart;
+            scanStart -= bufferStart;
+            bufferStart = 0;
+        }
+        if (bufferEnd == buffer.length) {
+            Utils.validate(buffer.length <= Integer.MAX_VALUE / 2, "the input contains a line that is too long");
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        final int bytesRead = channel.read(ByteBuffer.wrap(buffer, bufferEnd, buffer.length - bufferEnd));
+        if (bytesRead < 0) {
+            endOfInput = true;
+        } else {
+            bufferEnd += bytesRead;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns an iterator on the remaining records in
+     * the input.
+     *
+     * @return never {@code null}.
+     */
+    @Override
+    public Iterator<R> iterator() {
+        return new Iterator<R>() {
+
+            @Override
+            public boolean hasNext() {
+                fetchIfNeeded();
+                return nextRecord != null;
+            }
+
+            @Override
+            public R next() {
+                fetchIfNeeded();
+                if (nextRecord == null) {
+                    throw new NoSuchElementException("there is no more record in the input");
+                } else {
+                    nextRecordFetched = false;
+                    return nextRecord;
+                }
+            }
+
+            private void fetchIfNeeded() {
+                if (!nextRecordFetched) {
+                    try {
+                        nextRecord = fetchNextRecord();
+                    } catch (final IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<R> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns an stream on the remaining records in the source.
+     * <p>
+     * Notice that the returned stream will consume records as if you were calling {@link #readRecord} directly.
+     * </p>
+     * <p>
+     * Any {@link IOException} raised when using the stream will be propagated up wrapped in a {@link UncheckedIOException}.
+     * </p>
+     *
+     * @return never {@code null}.
+     */
+    public Stream<R> stream() {
+        return Utils.stream(this);
+    }
+
+    /**
+     * Read the remaining records into a list.
+     * <p>
+     *     Notice that this operation does not close the reader.
+     * </p>
+     *
+     * @return never {@code null}, but potentially empty.
+     */
+    public List<R> toList() {
+        return stream().collect(Collectors.toList());
+    }
+
+    /**
+     * Read the remaining records into a list, parsing them on several threads.
+     * <p>
+     *     Lines are read sequentially in batches that are then parsed in parallel, so that the input held in memory
+     *     at any time is bounded regardless of the size of the input. Records are returned in input order.
+     * </p>
+     * <p>
+     *     Notice that this operation does not close the reader.
+     * </p>
+     *
+     * @param numThreads number of threads used to parse records; must be positive.
+     * @return never {@code null}, but potentially empty.
+     * @throws IOException if a {@link IOException} was thrown when reading from the input.
+     */
+    public List<R> toList(final int numThreads) throws IOException {
+        ParamUtils.isPositive(numThreads, "the number of threads must be positive");
+        final List<R> result = new ArrayList<>();
+        if (nextRecordFetched) {
+            nextRecordFetched = false;
+            if (nextRecord == null) {
+                return result;
+            }
+            result.add(nextRecord);
+        }
+        if (numThreads == 1) {
+            result.addAll(toList());
+            return result;
+        }
+        final List<LineBatch> batches = IntStream.range(0, numThreads * BATCHES_PER_THREAD)
+                .mapToObj(i -> new LineBatch()).collect(Collectors.toList());
+        final ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            while (true) {
+                final int numBatches = fillBatches(batches);
+                if (numBatches == 0) {
+                    return result;
+                }
+                final List<List<R>> records = pool.submit(() -> batches.subList(0, numBatches).parallelStream()
+                        .map(this::parseBatch).collect(Collectors.toList())).get();
+                records.forEach(result::addAll);
+            }
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new GATKException("exception encountered while parsing records in parallel", ex.getCause());
+        } catch (final InterruptedException ex) {
+            throw new GATKException("interrupted while parsing records in parallel", ex);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Fills batches with the next lines of the input. Comment lines are processed here, sequentially, and do not
+     * make it into the batches.
+     *
+     * @return the number of non-empty batches.
+     */
+    private int fillBatches(final List<LineBatch> batches) throws IOException {
+        for (int b = 0; b < batches.size(); b++) {
+            final LineBatch batch = batches.get(b);
+            batch.clear();
+            while (batch.size < LINES_PER_BATCH && readLine()) {
+                dataLine.load(buffer, lineStart, lineEnd, lineNumber);
+                if (dataLine.isCommentLine()) {
+                    processCommentLine(dataLine.commentText(), lineNumber);
+                } else {
+                    batch.add(buffer, lineStart, lineEnd, lineNumber);
+                }
+            }
+            if (batch.size == 0) {
+                return b;
+            }
+        }
+        return batches.size();
+    }
+
+    private List<R> parseBatch(final LineBatch batch) {
+        final TypedDataLine line = new TypedDataLine(this, columns, columnTypes);
+        final List<R> result = new ArrayList<>(batch.size);
+        for (int i = 0; i < batch.size; i++) {
+            line.load(batch.bytes, batch.starts[i], batch.starts[i + 1], batch.lineNumbers[i]);
+            final R record = parseLoadedDataLine(line);
+            if (record != null) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the reader source name.
+     *
+     * @return null if the source name cannot be determined.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Consecutive lines copied from the input; line {@code i} spans from {@code starts[i]} to {@code starts[i + 1]}.
+     */
+    private static final class LineBatch {
+        private byte[] bytes = new byte[1 << 16];
+        private final int[] starts = new int[LINES_PER_BATCH + 1];
+        private final long[] lineNumbers = new long[LINES_PER_BATCH];
+        private int size = 0;
+
+        private void clear() {
+            size = 0;
+        }
+
+        private void add(final byte[] source, final int start, final int end, final long lineNumber) {
+            final int length = end - start;
+            final int offset = starts[size];
+            if (offset + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, offset + length));
+            }
+            System.arraycopy(source, start, bytes, offset, length);
+            lineNumbers[size] = lineNumber;
+            starts[++size] = offset + length;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.broadinstitute.hellbender.utils.tsv;
+
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class to write tab separated value files formatting values with little memory allocation.
+ * <p>
+ * The output is the same as that of {@link TableWriter}, but rather than converting every value into a {@link String}
+ * that is stored in a {@link DataLine}, extending classes append values in column order to a reusable
+ * {@link DataLineFormatter} by overriding {@link #composeLine(Object, DataLineFormatter)}. Numbers are formatted
+ * directly into the formatter buffer, which is then passed to the output without further copies into {@link String}
+ * instances.
+ * </p>
+ * <p>
+ * Example:
+ * <pre>
+ *         public class PeopleTableWriter extends TypedTableWriter&lt;Person&gt; {
+ *
+ *             public PeopleTableWriter(final File file) throws IOException {
+ *                 super(file, new TableColumnCollection("name","age","net.worth"));
+ *             }
+ *
+ *             &#64;Override
+ *             protected void composeLine(final Person person, final DataLineFormatter dataLine) {
+ *                  dataLine.append(person.name)
+ *                          .append(person.age)
+ *                          .append(person.netWorth);
+ *             }
+ *         }
+ *     </pre>
+ * </p>
+ *
+ * @param <R> the row record type.
+ */
+public abstract class TypedTableWriter<R> implements Closeable {
+
+    private final Writer writer;
+
+    /**
+     * The table column names.
+     */
+    private final TableColumnCollection columns;
+
+    private final DataLineFormatter formatter;
+
+    /**
+     * Buffer used to transfer each line from the formatter to the writer.
+     */
+    private char[] chars = new char[256];
+
+    /**
+     * Whether the header column name line has been written or not.
+     */
+    private boolean headerWritten = false;
+
+    /**
+     * Creates a new table writer given the file and column names.
+     *
+     * @param file         the destination file.
+     * @param tableColumns the table column names.
+     * @throws IllegalArgumentException if either {@code file} or {@code tableColumns} are {@code null}.
+     * @throws IOException              if one was raised when opening the the destination file for writing.
+     */
+    public TypedTableWriter(final File file, final TableColumnCollection tableColumns) throws IOException {
+        this(Utils.nonNull(file, "The file cannot be null.").toPath(), tableColumns);
+    }
+
+    /**
+     * Creates a new table writer given the path and column names.
+     *
+     * @param path         the destination path.
+     * @param tableColumns the table column names.
+     * @throws IllegalArgumentException if either {@code path} or {@code tableColumns} are {@code null}.
+     * @throws IOException              if one was raised when opening the the destination path for writing.
+     */
+    public TypedTableWriter(final Path path, final TableColumnCollection tableColumns) throws IOException {
+        this(Files.newBufferedWriter(Utils.nonNull(path, "The path cannot be null.")), tableColumns);
+    }
+
+    /**
+     * Creates a new table writer given the destination writer and column names.
+     *
+     * @param writer  the destination writer; it is buffered by this writer if it is not a {@link BufferedWriter}.
+     * @param columns the table column names.
+     * @throws IllegalArgumentException if either {@code writer} or {@code columns} are {@code null}.
+     */
+    public TypedTableWriter(final Writer writer, final TableColumnCollection columns) {
+        Utils.nonNull(writer, "the input writer cannot be null");
+        this.columns = Utils.nonNull(columns, "The columns cannot be null.");
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+        this.formatter = new DataLineFormatter(columns);
+    }
+
+    /**
+     * Writes a comment into the output.
+     * <p>
+     * This can be invoked at any time; comment lines can be present anywhere in the file.
+     * </p>
+     *
+     * @param comment the comment to write out.
+     * @throws IllegalArgumentException if {@code comment} is {@code null}.
+     * @throws IOException              if any was raised by this operation.
+     */
+    public final void writeComment(final String comment) throws IOException {
+        Utils.nonNull(comment, "The comment cannot be null.");
+        formatter.clear();
+        formatter.appendLine(TableUtils.COMMENT_PREFIX + comment);
+        writeLine();
+    }
+
+    /**
+     * Writes a new record.
+     *
+     * @param record the record to write.
+     * @throws IOException              if it was raised when writing the record.
+     * @throws IllegalArgumentException if {@code record} is {@code null} or it is not a valid record
+     *                                  as per the implementation of this writer (see {@link #composeLine}).
+     * @throws IllegalStateException    if {@link #composeLine} does not set exactly one value per column.
+     */
+    public void writeRecord(final R record) throws IOException {
+        Utils.nonNull(record, "The record cannot be null.");
+        writeHeaderIfApplies();
+        formatter.clear();
+        composeLine(record, formatter);
+        formatter.checkComplete();
+        writeLine();
+    }
+
+    /**
+     * Write all the records in a {@link Iterable}.
+     * <p>
+     * Records are written in the order they appear in the input {@link Iterable}.
+     * </p>
+     *
+     * @param records to write.
+     * @throws IOException              if any raised when writing any of the records.
+     * @throws IllegalArgumentException if {@code records} is {@code null} or it contains
+     *                                  some values that would cause such an exception when {@link #writeRecord} is call on
+     *                                  that value. Previous record in the iterable would have been already written by then.
+     */
+    public final void writeAllRecords(final Iterable<R> records) throws IOException {
+        Utils.nonNull(records, "the record iterable cannot be null");
+        for (final R record : records) {
+            writeRecord(record);
+        }
+    }
+
+    @Override
+    public final void close() throws IOException {
+        writeHeaderIfApplies();
+        writer.close();
+    }
+
+    /**
+     * Writes the header if it has not been written already.
+     * <p>
+     * The header is written automatically before the first record is written or when the writer is closed
+     * and no record was written.
+     * </p>
+     *
+     * @throws IOException if any raised when writing into the destination writer.
+     */
+    public void writeHeaderIfApplies() throws IOException {
+        if (!headerWritten) {
+            formatter.clear();
+            columns.names().forEach(formatter::append);
+            writeLine();
+        }
+        headerWritten = true;
+    }
+
+    private void writeLine() throws IOException {
+        final StringBuilder line = formatter.terminate();
+        final int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+        formatter.clear();
+    }
+
+    /**
+     * Composes the data-line to write into the output to represent a given record.
+     * <p>
+     * Implementations must append exactly one value per column, in column order.
+     * The first value cannot start with the {@link TableUtils#COMMENT_PREFIX comment prefix}.
+     * </p>
+     *
+     * @param record   the record to write into the data-line; never {@code null}.
+     * @param dataLine the destination data-line formatter; never {@code null}.
+     * @throws IllegalArgumentException if there is some conversion issue that does
+     *                                  not allow the current write to generate a valid line to encode the record.
+     */
+    protected abstract void composeLine(final R record, final DataLineFormatter dataLine);
+}
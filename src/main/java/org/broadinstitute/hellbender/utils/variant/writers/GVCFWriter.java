@@ -152,6 +152,23 @@ public final class GVCFWriter implements VariantContextWriter {
      * @return a VariantContext to be emitted, or null if non is appropriate
      */
     protected VariantContext addHomRefSite(final VariantContext vc, final Genotype g) {
+        Utils.nonNull(g, "genotype cannot be null");
+        if ( ! g.hasPL() ) { throw new IllegalArgumentException("genotype must have PL field");}
+        return addHomRefSite(vc, g.getPloidy(), g.getGQ(), g.getDP(), g.getPL());
+    }
+
+    /**
+     * Add hom-ref site from vc to this gVCF hom-ref state tracking given the GQ, DP and PLs of its genotype,
+     * emitting any pending states if appropriate
+     *
+     * @param vc a non-null VariantContext
+     * @param ploidy the ploidy of the genotype
+     * @param GQ the genotype quality
+     * @param DP the depth of the genotype
+     * @param PLs the non-null PLs of the genotype
+     * @return a VariantContext to be emitted, or null if non is appropriate
+     */
+    private VariantContext addHomRefSite(final VariantContext vc, final int ploidy, final int GQ, final int DP, final int[] PLs) {
 
         if (nextAvailableStart != -1) {
             // don't create blocks while the hom-ref site falls before nextAvailableStart (for deletions)
@@ -164,21 +181,21 @@ public final class GVCFWriter implements VariantContextWriter {
         }
 
         final VariantContext result;
-        if (genotypeCanBeMergedInCurrentBlock(g)) {
-            currentBlock.add(vc.getStart(), g);
+        if (genotypeCanBeMergedInCurrentBlock(ploidy, GQ, PLs)) {
+            currentBlock.add(vc.getStart(), ploidy, GQ, DP, PLs);
             result = null;
         } else {
             result = currentBlock != null ? currentBlock.toVariantContext(sampleName): null;
-            currentBlock = createNewBlock(vc, g);
+            currentBlock = createNewBlock(vc, ploidy, GQ, DP, PLs);
         }
         return result;
     }
 
-    private boolean genotypeCanBeMergedInCurrentBlock(final Genotype g) {
+    private boolean genotypeCanBeMergedInCurrentBlock(final int ploidy, final int GQ, final int[] PLs) {
         return currentBlock != null
-                && currentBlock.withinBounds(Math.min(g.getGQ(), MAX_GENOTYPE_QUAL))
-                && currentBlock.getPloidy() == g.getPloidy()
-                && (currentBlock.getMinPLs() == null || !g.hasPL() || (currentBlock.getMinPLs().length == g.getPL().length));
+                && currentBlock.withinBounds(Math.min(GQ, MAX_GENOTYPE_QUAL))
+                && currentBlock.getPloidy() == ploidy
+                && (currentBlock.getMinPLs() == null || (currentBlock.getMinPLs().length == PLs.length));
     }
 
     /**
@@ -196,21 +213,24 @@ public final class GVCFWriter implements VariantContextWriter {
      * Helper function to create a new HomRefBlock from a variant context and current genotype
      *
      * @param vc the VariantContext at the site where want to start the band
-     * @param g  the genotype of the sample from vc that should be used to initialize the block
-     * @return a newly allocated and initialized block containing g already
+     * @param ploidy the ploidy of the sample's genotype in vc
+     * @param GQ the genotype quality of the sample's genotype in vc
+     * @param DP the depth of the sample's genotype in vc
+     * @param PLs the PLs of the sample's genotype in vc
+     * @return a newly allocated and initialized block containing the genotype already
      */
-    private HomRefBlock createNewBlock(final VariantContext vc, final Genotype g) {
-        // figure out the GQ limits to use based on the GQ of g
-        final int gq = Math.min(g.getGQ(), MAX_GENOTYPE_QUAL);
+    private HomRefBlock createNewBlock(final VariantContext vc, final int ploidy, final int GQ, final int DP, final int[] PLs) {
+        // figure out the GQ limits to use based on the GQ of the genotype
+        final int gq = Math.min(GQ, MAX_GENOTYPE_QUAL);
         final Range<Integer> partition = gqPartitions.get(gq);
 
         if( partition == null) {
-            throw new GATKException("GQ " + g + " from " + vc + " didn't fit into any partition");
+            throw new GATKException("GQ " + GQ + " from " + vc + " didn't fit into any partition");
         }
 
-        // create the block, add g to it, and return it for use
+        // create the block, add the genotype to it, and return it for use
         final HomRefBlock block = new HomRefBlock(vc, partition.lowerEndpoint(), partition.upperEndpoint(), defaultPloidy);
-        block.add(vc.getStart(), g);
+        block.add(vc.getStart(), ploidy, GQ, DP, PLs);
         return block;
     }
 
@@ -227,8 +247,11 @@ public final class GVCFWriter implements VariantContextWriter {
         Utils.validateArg(vc.hasGenotypes(), "GVCF assumes that the VariantContext has genotypes");
         Utils.validateArg(vc.getGenotypes().size() == 1, () -> "GVCF assumes that the VariantContext has exactly one genotype but saw " + vc.getGenotypes().size());
 
+        // reference confidence sites are always hom-ref, and are banded without creating their genotypes
+        final ReferenceConfidenceVariantContext refConfidenceSite = vc instanceof ReferenceConfidenceVariantContext ? (ReferenceConfidenceVariantContext) vc : null;
+
         if (sampleName == null) {
-            sampleName = vc.getGenotype(0).getSampleName();
+            sampleName = refConfidenceSite != null ? refConfidenceSite.getSampleName() : vc.getGenotype(0).getSampleName();
         }
 
         if (currentBlock != null && !currentBlock.isContiguous(vc)) {
@@ -236,6 +259,15 @@ public final class GVCFWriter implements VariantContextWriter {
             emitCurrentBlock();
         }
 
+        if (refConfidenceSite != null) {
+            final VariantContext maybeCompletedBand = addHomRefSite(vc, refConfidenceSite.getSamplePloidy(),
+                    refConfidenceSite.getGQ(), refConfidenceSite.getDP(), refConfidenceSite.getPLs());
+            if (maybeCompletedBand != null) {
+                underlyingWriter.add(maybeCompletedBand);
+            }
+            return;
+        }
+
         final Genotype g = vc.getGenotype(0);
         if (g.isHomRef() && vc.hasAlternateAllele(GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE) && vc.isBiallelic()) {
             // create bands
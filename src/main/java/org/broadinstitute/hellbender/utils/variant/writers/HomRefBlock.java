@@ -7,16 +7,15 @@ import htsjdk.variant.variantcontext.GenotypeBuilder;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.vcf.VCFConstants;
+import org.apache.commons.math3.stat.descriptive.rank.Median;
 import org.broadinstitute.hellbender.exceptions.GATKException;
-import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 
 /**
  * Helper class for calculating a GQ band in the GVCF writer
@@ -32,7 +31,8 @@ final class HomRefBlock implements Locatable {
 
     private final VariantContext startingVC;
     private final int minGQ, maxGQ;
-    private final List<Integer> DPs = new ArrayList<>();
+    private int[] DPs = new int[16];
+    private int DPCount = 0;
     private final Allele ref;
     private final int ploidy;
 
@@ -102,27 +102,45 @@ final class HomRefBlock implements Locatable {
     public void add(final int pos, final Genotype genotype) {
         Utils.nonNull(genotype, "genotype cannot be null");
         if ( ! genotype.hasPL() ) { throw new IllegalArgumentException("genotype must have PL field");}
+        add(pos, genotype.getPloidy(), genotype.getGQ(), genotype.getDP(), genotype.getPL());
+    }
+
+    /**
+     * Add the GQ, DP and PLs of a hom-ref genotype to this band, without requiring a Genotype object.
+     *
+     * Treats GQ values > 99 as 99.
+     *
+     * @param pos Current genomic position. Must be 1 base after the previous position
+     * @param ploidy the ploidy of the genotype
+     * @param GQ the genotype quality
+     * @param DP the depth, or a negative value if unknown
+     * @param PLs the non-null genotype PLs, which are not modified
+     */
+    public void add(final int pos, final int ploidy, final int GQ, final int DP, final int[] PLs) {
+        Utils.nonNull(PLs, "PLs cannot be null");
         if ( pos != end + 1 ) { throw new IllegalArgumentException("adding genotype at pos " + pos + " isn't contiguous with previous end " + end); }
-        if ( genotype.getPloidy() != ploidy) { throw new IllegalArgumentException("cannot add a genotype with a different ploidy: " + genotype.getPloidy() + " != " + ploidy); }
+        if ( ploidy != this.ploidy) { throw new IllegalArgumentException("cannot add a genotype with a different ploidy: " + ploidy + " != " + this.ploidy); }
         // Make sure the GQ is within the bounds of this band. Treat GQs > 99 as 99.
-        if ( !withinBounds(Math.min(genotype.getGQ(), VCFConstants.MAX_GENOTYPE_QUAL))) {
-            throw new IllegalArgumentException("cannot add a genotype with GQ=" + genotype.getGQ() + " because it's not within bounds ["
+        if ( !withinBounds(Math.min(GQ, VCFConstants.MAX_GENOTYPE_QUAL))) {
+            throw new IllegalArgumentException("cannot add a genotype with GQ=" + GQ + " because it's not within bounds ["
                     + this.getGQLowerBound() + ',' + this.getGQUpperBound() + ')');
         }
 
         if( minPLs == null ) {
-            minPLs = genotype.getPL();
+            minPLs = PLs.clone();
         } else { // otherwise take the min with the provided genotype's PLs
-            final int[] pls = genotype.getPL();
-            if (pls.length != minPLs.length) {
-                throw new GATKException("trying to merge different PL array sizes: " + pls.length + " != " + minPLs.length);
+            if (PLs.length != minPLs.length) {
+                throw new GATKException("trying to merge different PL array sizes: " + PLs.length + " != " + minPLs.length);
             }
-            for (int i = 0; i < pls.length; i++) {
-                minPLs[i] = Math.min(minPLs[i], pls[i]);
+            for (int i = 0; i < PLs.length; i++) {
+                minPLs[i] = Math.min(minPLs[i], PLs[i]);
             }
         }
         end = pos;
-        DPs.add(Math.max(genotype.getDP(), 0)); // DP must be >= 0
+        if (DPCount == DPs.length) {
+            DPs = Arrays.copyOf(DPs, DPCount << 1);
+        }
+        DPs[DPCount++] = Math.max(DP, 0); // DP must be >= 0
     }
 
     /**
@@ -136,13 +154,23 @@ final class HomRefBlock implements Locatable {
 
     /** Get the min DP observed within this band */
     public int getMinDP() {
-        return Collections.min(DPs);
+        Utils.validate(DPCount > 0, "no DPs have been observed in this band");
+        int minDP = DPs[0];
+        for (int i = 1; i < DPCount; i++) {
+            minDP = Math.min(minDP, DPs[i]);
+        }
+        return minDP;
     }
 
     /** Get the median DP observed within this band
      * If there are an even number of DPs recorded in this band the median is the mean of the two middle values */
     public int getMedianDP() {
-        return (int) Math.round(MathUtils.median(DPs));
+        Utils.validate(DPCount > 0, "cannot take the median of a collection with no values.");
+        final double[] values = new double[DPCount];
+        for (int i = 0; i < DPCount; i++) {
+            values[i] = DPs[i];
+        }
+        return (int) Math.round(new Median().evaluate(values));
     }
 
     /** Get the min PLs observed within this band, can be null if no PLs have yet been observed */
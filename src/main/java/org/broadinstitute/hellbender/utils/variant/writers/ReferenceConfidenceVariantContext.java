@@ -0,0 +1,128 @@
+package org.broadinstitute.hellbender.utils.variant.writers;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFConstants;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
+import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A single-sample, single-position hom-ref VariantContext with alleles ref and {@code <NON_REF>}, as emitted for
+ * every position without a variant call in reference confidence mode.
+ *
+ * The GQ, DP, AD and PLs of its genotype are kept as primitive fields, and the {@link Genotype} itself is only
+ * created if it is requested. {@link GVCFWriter} reads the primitive fields to band these sites into
+ * {@link HomRefBlock}s, so in GVCF mode no Genotype is made for positions that end up in a block.
+ */
+public final class ReferenceConfidenceVariantContext extends VariantContext {
+    private static final long serialVersionUID = 1L;
+
+    private static final String SOURCE = "HC";
+
+    private final HomRefGenotypeData genotypeData;
+
+    /**
+     * @param contig the contig of the site
+     * @param position the position of the site
+     * @param refAllele the reference allele at the site, which must be a single base
+     * @param sampleName the name of the only sample
+     * @param ploidy the ploidy of the sample
+     * @param GQ the genotype quality of the hom-ref genotype
+     * @param DP the depth of the sample
+     * @param AD the allele depths of the sample
+     * @param PLs the PLs of the genotypes of the sample, which must not be modified afterwards
+     */
+    public ReferenceConfidenceVariantContext(final String contig, final int position, final Allele refAllele,
+                                             final String sampleName, final int ploidy,
+                                             final int GQ, final int DP, final int[] AD, final int[] PLs) {
+        this(contig, position, new HomRefGenotypeData(refAllele, sampleName, ploidy, GQ, DP, AD, PLs));
+    }
+
+    private ReferenceConfidenceVariantContext(final String contig, final int position, final HomRefGenotypeData genotypeData) {
+        super(SOURCE, VCFConstants.EMPTY_ID_FIELD, contig, position, position,
+                Arrays.asList(genotypeData.refAllele, GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE),
+                new LazyGenotypesContext(HomRefGenotypeParser.INSTANCE, genotypeData, 1),
+                NO_LOG10_PERROR, null, Collections.emptyMap(), false, EnumSet.noneOf(Validation.class));
+        this.genotypeData = genotypeData;
+    }
+
+    public String getSampleName() {
+        return genotypeData.sampleName;
+    }
+
+    public int getSamplePloidy() {
+        return genotypeData.ploidy;
+    }
+
+    public int getGQ() {
+        return genotypeData.GQ;
+    }
+
+    public int getDP() {
+        return genotypeData.DP;
+    }
+
+    /**
+     * @return the PLs of the sample, which must not be modified
+     */
+    public int[] getPLs() {
+        return genotypeData.PLs;
+    }
+
+    private static final class HomRefGenotypeData implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Allele refAllele;
+        private final String sampleName;
+        private final int ploidy;
+        private final int GQ;
+        private final int DP;
+        private final int[] AD;
+        private final int[] PLs;
+
+        private HomRefGenotypeData(final Allele refAllele, final String sampleName, final int ploidy,
+                                   final int GQ, final int DP, final int[] AD, final int[] PLs) {
+            this.refAllele = Utils.nonNull(refAllele);
+            this.sampleName = Utils.nonNull(sampleName);
+            this.ploidy = ploidy;
+            this.GQ = GQ;
+            this.DP = DP;
+            this.AD = AD;
+            this.PLs = Utils.nonNull(PLs);
+        }
+    }
+
+    /**
+     * Creates the Genotype of a {@link ReferenceConfidenceVariantContext} when it is first requested.
+     */
+    private static final class HomRefGenotypeParser implements LazyGenotypesContext.LazyParser, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private static final HomRefGenotypeParser INSTANCE = new HomRefGenotypeParser();
+
+        @Override
+        public LazyGenotypesContext.LazyData parse(final Object data) {
+            final HomRefGenotypeData genotypeData = (HomRefGenotypeData) data;
+            final GenotypeBuilder gb = new GenotypeBuilder(genotypeData.sampleName, GATKVariantContextUtils.homozygousAlleleList(genotypeData.refAllele, genotypeData.ploidy));
+            gb.AD(genotypeData.AD);
+            gb.DP(genotypeData.DP);
+            gb.GQ(genotypeData.GQ);
+            gb.PL(genotypeData.PLs);
+            final ArrayList<Genotype> genotypes = new ArrayList<>(1);
+            genotypes.add(gb.make());
+            return new LazyGenotypesContext.LazyData(genotypes, Collections.singletonList(genotypeData.sampleName),
+                    Collections.singletonMap(genotypeData.sampleName, 0));
+        }
+
+        private Object readResolve() {
+            return INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
+import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
+import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.activityprofile.ActivityProfileState;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+public final class ActivityProfileCacheUnitTest extends BaseTest {
+
+    private static final String READS = publicTestDir + "org/broadinstitute/hellbender/engine/CEUTrio.HiSeq.WGS.b37.NA12878.20.21.10000000-10000020.with.unmapped.bam";
+    private static final SimpleInterval SHARD_INTERVAL = new SimpleInterval("20", 9999950, 10000100);
+    private static final int PADDING = 50;
+
+    // alternating blocks of active and inactive loci, so that each shard has several regions
+    private static final AssemblyRegionEvaluator EVALUATOR = (locusPileup, referenceContext, featureContext) ->
+            new ActivityProfileState(new SimpleInterval(locusPileup), (locusPileup.getPosition() / 20) % 2 == 0 ? 1.0 : 0.0);
+
+    private static LocalReadShard makeShard(final ReadsDataSource readsSource, final SimpleInterval interval) {
+        final LocalReadShard shard = new LocalReadShard(interval, interval.expandWithinContig(PADDING, readsSource.getSequenceDictionary()), readsSource);
+        shard.setReadFilter(CountingReadFilter.fromList(Arrays.asList(new WellformedReadFilter(), new ReadFilterLibrary.MappedReadFilter()), readsSource.getHeader()));
+        return shard;
+    }
+
+    private static List<AssemblyRegion> computeRegions(final ReadsDataSource readsSource, final ActivityProfileCache.Writer writer) {
+        final List<AssemblyRegion> regions = new ArrayList<>();
+        final Iterator<AssemblyRegion> iterator = new AssemblyRegionIterator(makeShard(readsSource, SHARD_INTERVAL), readsSource.getHeader(),
+                null, null, EVALUATOR, 10, 30, PADDING, 0.002, 50);
+        writer.startShard(SHARD_INTERVAL);
+        iterator.forEachRemaining(region -> {
+            writer.add(region);
+            regions.add(region);
+        });
+        return regions;
+    }
+
+    @Test
+    public void testCachedRegionsMatchComputedRegions() {
+        final File cacheFile = createTempFile("activityProfile", ".cache");
+        Assert.assertTrue(cacheFile.delete());
+
+        try ( final ReadsDataSource readsSource = new ReadsDataSource(IOUtils.getPath(READS)) ) {
+            final SAMFileHeader header = readsSource.getHeader();
+            Assert.assertNull(ActivityProfileCache.openIfValid(cacheFile, "key", header));
+
+            final List<AssemblyRegion> computed;
+            try ( final ActivityProfileCache.Writer writer = new ActivityProfileCache.Writer(cacheFile, "key") ) {
+                computed = computeRegions(readsSource, writer);
+                writer.finish();
+            }
+            Assert.assertTrue(computed.size() > 2);
+            Assert.assertTrue(cacheFile.exists());
+
+            final List<AssemblyRegion> cached = new ArrayList<>();
+            try ( final ActivityProfileCache.Reader reader = ActivityProfileCache.openIfValid(cacheFile, "key", header) ) {
+                Assert.assertNotNull(reader);
+                reader.readShard(makeShard(readsSource, SHARD_INTERVAL)).forEachRemaining(cached::add);
+            }
+
+            Assert.assertEquals(cached.size(), computed.size());
+            for ( int i = 0; i < computed.size(); i++ ) {
+                Assert.assertEquals(cached.get(i).getSpan(), computed.get(i).getSpan());
+                Assert.assertEquals(cached.get(i).getExtendedSpan(), computed.get(i).getExtendedSpan());
+                Assert.assertEquals(cached.get(i).isActive(), computed.get(i).isActive());
+                Assert.assertEquals(cached.get(i).getReads(), computed.get(i).getReads());
+            }
+
+            Assert.assertNull(ActivityProfileCache.openIfValid(cacheFile, "otherKey", header));
+        }
+    }
+
+    @Test(expectedExceptions = UserException.CouldNotReadInputFile.class)
+    public void testCacheForDifferentShards() {
+        final File cacheFile = createTempFile("activityProfile", ".cache");
+        try ( final ReadsDataSource readsSource = new ReadsDataSource(IOUtils.getPath(READS)) ) {
+            try ( final ActivityProfileCache.Writer writer = new ActivityProfileCache.Writer(cacheFile, "key") ) {
+                computeRegions(readsSource, writer);
+                writer.finish();
+            }
+            try ( final ActivityProfileCache.Reader reader = ActivityProfileCache.openIfValid(cacheFile, "key", readsSource.getHeader()) ) {
+                reader.readShard(makeShard(readsSource, new SimpleInterval("20", 9999951, 10000100)));
+            }
+        }
+    }
+
+    @Test
+    public void testUnfinishedCacheIsDiscarded() {
+        final File cacheFile = createTempFile("activityProfile", ".cache");
+        Assert.assertTrue(cacheFile.delete());
+        try ( final ReadsDataSource readsSource = new ReadsDataSource(IOUtils.getPath(READS));
+              final ActivityProfileCache.Writer writer = new ActivityProfileCache.Writer(cacheFile, "key") ) {
+            computeRegions(readsSource, writer);
+        }
+        Assert.assertFalse(cacheFile.exists());
+        Assert.assertFalse(new File(cacheFile.getAbsolutePath() + ".tmp").exists());
+    }
+}
@@ -356,6 +356,63 @@ public final class FeatureDataSourceUnitTest extends BaseTest {
         }
     }
 
+    /**
+     * Tests that a FeatureDataSource loaded fully into memory returns the same query results as the
+     * streaming/caching path, for the same (partly non-monotonic) sequences of queries.
+     */
+    @Test(dataProvider = "SingleDataSourceMultipleQueriesTestData")
+    public void testSingleDataSourceMultipleQueriesInMemory( final List<Pair<SimpleInterval, List<String>>> testQueries ) {
+        try (final FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(new FeatureInput<>(QUERY_TEST_VCF.getAbsolutePath()),
+                FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, VariantContext.class, 0, 0, null, 1)) {
+            Assert.assertTrue(featureSource.isLoadedIntoMemory());
+
+            for ( Pair<SimpleInterval, List<String>> testQuery : testQueries ) {
+                final SimpleInterval queryInterval = testQuery.getLeft();
+                final List<String> expectedVariantIDs = testQuery.getRight();
+
+                final List<VariantContext> queryResults = featureSource.queryAndPrefetch(queryInterval);
+                checkVariantQueryResults(queryResults, expectedVariantIDs, queryInterval);
+            }
+        }
+    }
+
+    @Test
+    public void testQueryOverUnindexedFileInMemory() {
+        try ( FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(new FeatureInput<>(UNINDEXED_VCF.getAbsolutePath()),
+                FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, VariantContext.class, 0, 0, null, 1) ) {
+            // No index is needed once the file has been loaded into memory
+            Assert.assertTrue(featureSource.isLoadedIntoMemory());
+            final SimpleInterval queryInterval = new SimpleInterval("1", 150, 300);
+            final List<VariantContext> queryResults = new ArrayList<>();
+            featureSource.query(queryInterval).forEachRemaining(queryResults::add);
+            checkVariantQueryResults(queryResults, Arrays.asList("b", "c"), queryInterval);
+        }
+    }
+
+    @Test
+    public void testTraversalByIntervalsOverUnindexedFileInMemory() {
+        try ( FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(new FeatureInput<>(UNINDEXED_VCF.getAbsolutePath()),
+                FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, VariantContext.class, 0, 0, null, 1) ) {
+            featureSource.setIntervalsForTraversal(Arrays.asList(new SimpleInterval("1", 1, 100), new SimpleInterval("1", 250, 400)));
+            final List<VariantContext> traversalResults = new ArrayList<>();
+            featureSource.iterator().forEachRemaining(traversalResults::add);
+            checkVariantQueryResults(traversalResults, Arrays.asList("a", "c"), new SimpleInterval("1", 1, 400));
+        }
+    }
+
+    @Test
+    public void testInMemoryLoadingDisabledByDefault() {
+        try ( FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(QUERY_TEST_VCF) ) {
+            Assert.assertFalse(featureSource.isLoadedIntoMemory());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testHandleInvalidInMemoryLoadingThreshold() {
+        FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(new FeatureInput<>(QUERY_TEST_VCF.getAbsolutePath()),
+                FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, VariantContext.class, 0, 0, null, -1);
+    }
+
     @DataProvider(name = "GVCFQueryTestData")
     public Object[][] getGVCFQueryTestData() {
 
@@ -0,0 +1,120 @@
+package org.broadinstitute.hellbender.engine.spark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import htsjdk.samtools.*;
+import org.broadinstitute.hellbender.engine.Shard;
+import org.broadinstitute.hellbender.engine.ShardBoundary;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class ReadDensityHistogramUnitTest extends BaseTest {
+
+    private static final int W = ReadDensityHistogram.WINDOW_SIZE;
+
+    private final SAMSequenceDictionary sequenceDictionary = new SAMSequenceDictionary(
+            ImmutableList.of(new SAMSequenceRecord("1", 4 * W), new SAMSequenceRecord("2", 2 * W)));
+
+    private static void assertShardsSpanIntervals(final List<ShardBoundary> shards, final List<SimpleInterval> intervals, final int maxShardSize) {
+        final Iterator<ShardBoundary> shardIterator = shards.iterator();
+        for (final SimpleInterval interval : intervals) {
+            int nextStart = interval.getStart();
+            while (nextStart <= interval.getEnd()) {
+                final SimpleInterval shard = shardIterator.next().getInterval();
+                Assert.assertEquals(shard.getContig(), interval.getContig());
+                Assert.assertEquals(shard.getStart(), nextStart);
+                Assert.assertTrue(shard.getEnd() <= interval.getEnd());
+                Assert.assertTrue(shard.size() <= maxShardSize);
+                nextStart = shard.getEnd() + 1;
+            }
+        }
+        Assert.assertFalse(shardIterator.hasNext());
+    }
+
+    @Test
+    public void testUniformDensityGivesFixedSizeShards() {
+        final ReadDensityHistogram readDensity = new ReadDensityHistogram(ImmutableMap.of(
+                "1", new long[]{1000, 1000, 1000, 1000}, "2", new long[]{1000, 1000}));
+        final List<SimpleInterval> intervals = ImmutableList.of(new SimpleInterval("1", 1, 4 * W), new SimpleInterval("2", 1, 2 * W));
+        final int shardSize = 2 * W;  // a multiple of the window size, so the target for each shard is exact
+
+        final List<ShardBoundary> expected = intervals.stream()
+                .flatMap(interval -> Shard.divideIntervalIntoShards(interval, shardSize, 10, sequenceDictionary).stream())
+                .collect(Collectors.toList());
+        Assert.assertEquals(readDensity.divideIntervalsIntoShards(intervals, shardSize, 10, sequenceDictionary), expected);
+    }
+
+    @Test
+    public void testMissingDensityGivesFixedSizeShards() {
+        final ReadDensityHistogram readDensity = new ReadDensityHistogram(Collections.emptyMap());
+        final List<SimpleInterval> intervals = ImmutableList.of(new SimpleInterval("1", 100, 50000));
+
+        final List<ShardBoundary> expected = Shard.divideIntervalIntoShards(intervals.get(0), 5000, 0, sequenceDictionary);
+        Assert.assertEquals(readDensity.divideIntervalsIntoShards(intervals, 5000, 0, sequenceDictionary), expected);
+    }
+
+    @Test
+    public void testDenseRegionIsDividedIntoSmallerShards() {
+        // the second window of contig 1 has 100 times the density of the others, and there are no reads on contig 2
+        final ReadDensityHistogram readDensity = new ReadDensityHistogram(ImmutableMap.of(
+                "1", new long[]{W, 100 * W, W, W}, "2", new long[]{0, 0}));
+        final List<SimpleInterval> intervals = ImmutableList.of(new SimpleInterval("1", 1, 4 * W), new SimpleInterval("2", 1, 2 * W));
+        final int shardSize = 8000;
+
+        final List<ShardBoundary> shards = readDensity.divideIntervalsIntoShards(intervals, shardSize, 0, sequenceDictionary);
+        assertShardsSpanIntervals(shards, intervals, shardSize);
+
+        final double targetBytes = (103.0 * W) / (Math.ceil(4.0 * W / shardSize) + Math.ceil(2.0 * W / shardSize));
+        for (final ShardBoundary shard : shards) {
+            final SimpleInterval interval = shard.getInterval();
+            final double bytes = readDensity.getEstimatedBytes(interval);
+            final boolean isLastShardOfInterval = interval.getEnd() == sequenceDictionary.getSequence(interval.getContig()).getSequenceLength();
+            Assert.assertTrue(bytes <= targetBytes || interval.size() == ReadDensityHistogram.MIN_SHARD_SIZE, "shard " + interval + " has too many reads");
+            if (!isLastShardOfInterval) {
+                Assert.assertTrue(interval.size() >= ReadDensityHistogram.MIN_SHARD_SIZE);
+                // sparse shards are as large as possible
+                Assert.assertTrue(interval.size() == shardSize || bytes > 0.99 * targetBytes, "shard " + interval + " is too small");
+            }
+        }
+
+        final int smallestShardSize = shards.stream().map(ShardBoundary::getInterval)
+                .filter(interval -> interval.overlaps(new SimpleInterval("1", W + 1, 2 * W)))
+                .mapToInt(SimpleInterval::size).min().getAsInt();
+        Assert.assertTrue(smallestShardSize < shardSize / 5);
+    }
+
+    @Test
+    public void testFromBAMIndex() throws IOException {
+        final File bam = new File(publicTestDir + "org/broadinstitute/hellbender/tools/BQSR/HiSeq.1mb.1RG.2k_lines.bam");
+        try (final SamReader reader = SamReaderFactory.makeDefault().enable(SamReaderFactory.Option.CACHE_FILE_BASED_INDEXES).open(bam)) {
+            final SAMSequenceDictionary dictionary = reader.getFileHeader().getSequenceDictionary();
+            final List<SimpleInterval> intervals = dictionary.getSequences().stream()
+                    .map(sequence -> new SimpleInterval(sequence.getSequenceName(), 1, sequence.getSequenceLength()))
+                    .collect(Collectors.toList());
+            final ReadDensityHistogram readDensity = ReadDensityHistogram.fromBAMIndex(reader.indexing().getIndex(), dictionary, intervals);
+
+            final double totalBytes = intervals.stream().mapToDouble(readDensity::getEstimatedBytes).sum();
+            Assert.assertTrue(totalBytes > 0);
+            Assert.assertTrue(totalBytes <= bam.length());
+
+            final List<ShardBoundary> shards = readDensity.divideIntervalsIntoShards(intervals, 100_000, 0, dictionary);
+            assertShardsSpanIntervals(shards, intervals, 100_000);
+            // the reads are all in a small part of chr1, so it is divided into more shards than with fixed-size shards
+            final long numChr1Shards = shards.stream().filter(shard -> shard.getContig().equals("chr1")).count();
+            Assert.assertTrue(numChr1Shards > (dictionary.getSequence("chr1").getSequenceLength() + 99_999) / 100_000);
+        }
+    }
+
+    @Test
+    public void testFromIndexedBAMUnsupportedInput() {
+        final String sam = publicTestDir + "org/broadinstitute/hellbender/engine/cramtest.sam";
+        Assert.assertNull(ReadDensityHistogram.fromIndexedBAM(sam, sequenceDictionary, Collections.emptyList()));
+    }
+}
@@ -4,10 +4,18 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import htsjdk.samtools.*;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.api.java.function.FlatMapFunction;
+import org.bdgenomics.formats.avro.AlignmentRecord;
 import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.engine.spark.SparkContextFactory;
 import org.broadinstitute.hellbender.exceptions.GATKException;
@@ -29,10 +37,8 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.testng.Assert.assertEquals;
 
@@ -229,6 +235,61 @@ public class ReadsSparkSourceUnitTest extends BaseTest {
         }
     }
 
+    private static AlignmentRecord makeADAMRead(final String name, final String contig, final long start, final long end) {
+        return AlignmentRecord.newBuilder()
+                .setReadName(name).setContigName(contig).setStart(start).setEnd(end).setReadMapped(true)
+                .setSequence("ACGT").setQual("IIII").setAttributes("XX:i:1")
+                .build();
+    }
+
+    @Test
+    public void testADAMIntervalsPredicateAndProjection() throws IOException {
+        // ADAM positions are 0-based with an exclusive end
+        final List<AlignmentRecord> records = Arrays.asList(
+                makeADAMRead("before", "17", 100, 150),
+                makeADAMRead("overlapsStart", "17", 150, 201),
+                makeADAMRead("contained", "17", 220, 240),
+                makeADAMRead("overlapsEnd", "17", 299, 350),
+                makeADAMRead("after", "17", 300, 350),
+                makeADAMRead("otherContig", "18", 220, 240),
+                makeADAMRead("secondInterval", "17", 1000, 1001));
+        final List<SimpleInterval> intervals = Arrays.asList(new SimpleInterval("17", 201, 300), new SimpleInterval("17", 1001, 1001));
+
+        final File parquetFile = createTempFile("testADAMIntervalsPredicateAndProjection", ".parquet");
+        Assert.assertTrue(parquetFile.delete());
+        try (final ParquetWriter<AlignmentRecord> writer = AvroParquetWriter.<AlignmentRecord>builder(new Path(parquetFile.getAbsolutePath()))
+                .withSchema(AlignmentRecord.getClassSchema()).build()) {
+            for (final AlignmentRecord record : records) {
+                writer.write(record);
+            }
+        }
+
+        final Configuration conf = new Configuration();
+        AvroReadSupport.setAvroReadSchema(conf, AlignmentRecord.getClassSchema());
+        AvroReadSupport.setRequestedProjection(conf, ReadsSparkSource.getADAMReadProjection(Collections.singleton("sequence")));
+        final List<AlignmentRecord> actual = new ArrayList<>();
+        // AvroParquetReader.Builder extends the raw ParquetReader.Builder, so build() can only return a raw ParquetReader
+        try (@SuppressWarnings("unchecked") final ParquetReader<AlignmentRecord> reader = AvroParquetReader.<AlignmentRecord>builder(new Path(parquetFile.getAbsolutePath()))
+                .withConf(conf).withFilter(FilterCompat.get(ReadsSparkSource.getADAMIntervalsPredicate(intervals))).build()) {
+            for (AlignmentRecord record = reader.read(); record != null; record = reader.read()) {
+                actual.add(record);
+            }
+        }
+
+        Assert.assertEquals(actual.stream().map(AlignmentRecord::getReadName).collect(Collectors.toList()),
+                Arrays.asList("overlapsStart", "contained", "overlapsEnd", "secondInterval"));
+        for (final AlignmentRecord record : actual) {
+            Assert.assertEquals(record.getSequence(), "ACGT");
+            Assert.assertNull(record.getQual());
+            Assert.assertNull(record.getAttributes());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testADAMProjectionWithUnknownField() {
+        ReadsSparkSource.getADAMReadProjection(Collections.singleton("notAField"));
+    }
+
     /**
      * Loads Reads using samReaderFactory, then calling ctx.parallelize.
      * @param bam file to load
@@ -0,0 +1,171 @@
+package org.broadinstitute.hellbender.tools.copynumber.allelic.alleliccount;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.TextCigarCodec;
+import org.broadinstitute.hellbender.engine.ReadsDataSource;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.utils.Nucleotide;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.locusiterator.LocusIteratorByState;
+import org.broadinstitute.hellbender.utils.pileup.ReadPileup;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link SparseAllelicCountCollector}.  Counts are checked against those obtained by applying
+ * {@link AllelicCountCollector} to the pileups produced by {@link LocusIteratorByState}.
+ */
+public final class SparseAllelicCountCollectorUnitTest extends BaseTest {
+    private static final String TEST_SUB_DIR = publicTestDir + "org/broadinstitute/hellbender/tools/copynumber/allelic";
+    private static final File NORMAL_BAM_FILE = new File(TEST_SUB_DIR, "collect-allelic-counts-normal.bam");
+    private static final File TUMOR_BAM_FILE = new File(TEST_SUB_DIR, "collect-allelic-counts-tumor.bam");
+    private static final File REF_FILE = new File(hg19MiniReference);
+
+    private static final int MIN_BASE_QUALITY = 20;
+    private static final int MIN_MAPPING_QUALITY = 30;
+
+    private static final List<SimpleInterval> SITES = Arrays.asList(
+            new SimpleInterval("1", 10090, 10140),
+            new SimpleInterval("1", 10736, 10736),
+            new SimpleInterval("1", 11000, 16000),
+            new SimpleInterval("2", 10000, 16000),
+            new SimpleInterval("3", 15000, 15010));
+
+    @DataProvider(name = "bamFiles")
+    public Object[][] bamFiles() {
+        return new Object[][]{
+                {NORMAL_BAM_FILE},
+                {TUMOR_BAM_FILE}
+        };
+    }
+
+    @Test(dataProvider = "bamFiles")
+    public void testAgreesWithPileupsOnBAM(final File bamFile) {
+        try (final ReadsDataSource readsDataSource = new ReadsDataSource(bamFile.toPath());
+             final ReferenceDataSource reference = ReferenceDataSource.of(REF_FILE)) {
+            final List<GATKRead> reads = Utils.stream(readsDataSource.iterator())
+                    .filter(r -> !r.isUnmapped() && r.getMappingQuality() >= MIN_MAPPING_QUALITY)
+                    .collect(Collectors.toList());
+            assertAgreesWithPileups(reads, readsDataSource.getHeader(), reference);
+        }
+    }
+
+    @Test
+    public void testAgreesWithPileupsOnArtificialReads() {
+        try (final ReadsDataSource readsDataSource = new ReadsDataSource(NORMAL_BAM_FILE.toPath());
+             final ReferenceDataSource reference = ReferenceDataSource.of(REF_FILE)) {
+            final SAMFileHeader header = readsDataSource.getHeader();
+            final String readGroup = header.getReadGroups().get(0).getId();
+            final Random random = new Random(13);
+            final List<GATKRead> reads = new ArrayList<>();
+            final String[] cigars = {"3S10M2I5M3D6M", "5M10N5M", "8M2S", "2H4M1D4M2H", "1M3I30M", "12M", "50M"};
+            for (int i = 0; i < 200; i++) {
+                final String cigar = cigars[i % cigars.length];
+                final int length = TextCigarCodec.decode(cigar).getReadLength();
+                final GATKRead read = ArtificialReadUtils.createArtificialRead(header, "read" + i, "1",
+                        10080 + random.nextInt(70), randomBases(random, length), randomQualities(random, length), cigar);
+                read.setReadGroup(readGroup);
+                read.setIsReverseStrand(random.nextBoolean());
+                if (i % 5 == 0) {
+                    read.setIsPaired(true);
+                    read.setMatePosition("1", read.getStart());
+                    read.setFragmentLength((read.isReverseStrand() ? -1 : 1) * (1 + random.nextInt(length)));
+                }
+                reads.add(read);
+            }
+            reads.sort(Comparator.comparingInt(GATKRead::getStart));
+            assertAgreesWithPileups(reads, header, reference);
+
+            //read order should only affect speed
+            final SparseAllelicCountCollector sortedCollector = new SparseAllelicCountCollector(SITES, MIN_BASE_QUALITY);
+            reads.forEach(sortedCollector::collectRead);
+            final SparseAllelicCountCollector shuffledCollector = new SparseAllelicCountCollector(SITES, MIN_BASE_QUALITY);
+            final List<GATKRead> shuffledReads = new ArrayList<>(reads);
+            Collections.shuffle(shuffledReads, random);
+            shuffledReads.forEach(shuffledCollector::collectRead);
+            Assert.assertEquals(shuffledCollector.getAllelicCounts(reference), sortedCollector.getAllelicCounts(reference));
+        }
+    }
+
+    @Test
+    public void testNoReads() {
+        try (final ReferenceDataSource reference = ReferenceDataSource.of(REF_FILE)) {
+            final SparseAllelicCountCollector collector = new SparseAllelicCountCollector(SITES, MIN_BASE_QUALITY);
+            final AllelicCountCollection allelicCounts = collector.getAllelicCounts(reference);
+            final long numberOfKnownReferenceBases = SITES.stream()
+                    .flatMap(site -> Utils.stream(reference.query(site)))
+                    .filter(b -> AllelicCountCollector.BASES.contains(Nucleotide.valueOf(b)))
+                    .count();
+            Assert.assertEquals(allelicCounts.getCounts().size(), numberOfKnownReferenceBases);
+            Assert.assertTrue(allelicCounts.getCounts().stream().allMatch(c -> c.getRefReadCount() == 0 && c.getAltReadCount() == 0));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOverlappingSites() {
+        new SparseAllelicCountCollector(Arrays.asList(
+                new SimpleInterval("1", 100, 200),
+                new SimpleInterval("2", 150, 250),
+                new SimpleInterval("1", 200, 300)), MIN_BASE_QUALITY);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeMinBaseQuality() {
+        new SparseAllelicCountCollector(SITES, -1);
+    }
+
+    private static void assertAgreesWithPileups(final List<GATKRead> reads, final SAMFileHeader header,
+                                                final ReferenceDataSource reference) {
+        final SparseAllelicCountCollector collector = new SparseAllelicCountCollector(SITES, MIN_BASE_QUALITY);
+        reads.forEach(collector::collectRead);
+        final AllelicCountCollection allelicCounts = collector.getAllelicCounts(reference);
+        final AllelicCountCollection allelicCountsFromPileups = collectFromPileups(reads, header, reference);
+        Assert.assertEquals(allelicCounts.getCounts().size(), allelicCountsFromPileups.getCounts().size());
+        Assert.assertEquals(allelicCounts, allelicCountsFromPileups);
+        Assert.assertTrue(allelicCounts.getCounts().stream().anyMatch(c -> c.getRefReadCount() + c.getAltReadCount() > 0));
+    }
+
+    private static AllelicCountCollection collectFromPileups(final List<GATKRead> reads, final SAMFileHeader header,
+                                                             final ReferenceDataSource reference) {
+        final Map<SimpleInterval, ReadPileup> pileups = new HashMap<>();
+        new LocusIteratorByState(reads.iterator(), LocusIteratorByState.NO_DOWNSAMPLING, false,
+                ReadUtils.getSamplesFromHeader(header), header, true)
+                .forEachRemaining(context -> pileups.put(new SimpleInterval(context.getLocation()), context.getBasePileup()));
+        final AllelicCountCollector collector = new AllelicCountCollector();
+        for (final SimpleInterval site : SITES) {
+            for (int position = site.getStart(); position <= site.getEnd(); position++) {
+                final SimpleInterval locus = new SimpleInterval(site.getContig(), position, position);
+                final Nucleotide refBase = Nucleotide.valueOf(reference.queryAndPrefetch(locus).getBases()[0]);
+                collector.collectAtLocus(refBase, pileups.getOrDefault(locus, new ReadPileup(locus)), locus, MIN_BASE_QUALITY);
+            }
+        }
+        return collector.getAllelicCounts();
+    }
+
+    private static byte[] randomBases(final Random random, final int length) {
+        final byte[] alphabet = {'A', 'C', 'G', 'T', 'N', 'a'};
+        final byte[] bases = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bases[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return bases;
+    }
+
+    private static byte[] randomQualities(final Random random, final int length) {
+        final byte[] qualities = new byte[length];
+        for (int i = 0; i < length; i++) {
+            qualities[i] = (byte) random.nextInt(40);
+        }
+        return qualities;
+    }
+}
@@ -21,6 +21,8 @@ import org.broadinstitute.hellbender.tools.exome.sexgenotyper.SexGenotypeDataCol
 import org.broadinstitute.hellbender.utils.SparkToggleCommandLineProgram;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.testng.Assert;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Test;
 
@@ -97,6 +99,15 @@ public class GermlineCNVCallerIntegrationTest extends CommandLineProgramTest {
     private static final File CALLING_POSTERIORS_OUTPUT_PATH = new File(CALLING_OUTPUT_PATH,
             GermlineCNVCaller.FINAL_POSTERIORS_SUBDIR);
 
+    /* for checkpointing tests */
+    private static final int RUN_CHECKPOINTING_INTERVAL = 4;
+    private static final File UNINTERRUPTED_LEARNING_OUTPUT_PATH = createTempDir("coverage_modeller_germline_uninterrupted_learning_output");
+    private static final File RESUMED_LEARNING_OUTPUT_PATH = createTempDir("coverage_modeller_germline_resumed_learning_output");
+    private static final double RESUMED_MODEL_TOLERANCE = 1e-8;
+
+    /* for multi-threaded local tests */
+    private static final int LOCAL_NUMBER_OF_THREADS = 4;
+
     /* for Spark tests */
     private static final int SPARK_NUMBER_OF_PARTITIONS = 7;
     private static final File SPARK_CHECKPOINTING_PATH = createTempDir("coverage_model_spark_checkpoint");
@@ -136,6 +147,11 @@ public class GermlineCNVCallerIntegrationTest extends CommandLineProgramTest {
     }
 
     private String[] getLearningArgs(final String... extraArgs) {
+        return getLearningArgs(LEARNING_OUTPUT_PATH, false, extraArgs);
+    }
+
+    private String[] getLearningArgs(final File outputPath, final boolean runCheckpointingEnabled,
+                                     final String... extraArgs) {
         return ArrayUtils.addAll(new String[] {
                 "--" + GermlineCNVCaller.JOB_TYPE_LONG_NAME,
                     GermlineCNVCaller.JobType.LEARN_AND_CALL.name(),
@@ -144,13 +160,15 @@ public class GermlineCNVCallerIntegrationTest extends CommandLineProgramTest {
                 "--" + GermlineCNVCaller.SAMPLE_SEX_GENOTYPE_TABLE_LONG_NAME,
                     TEST_LEARNING_SAMPLE_SEX_GENOTYPES_FILE.getAbsolutePath(),
                 "--" + GermlineCNVCaller.OUTPUT_PATH_LONG_NAME,
-                    LEARNING_OUTPUT_PATH.getAbsolutePath(),
+                    outputPath.getAbsolutePath(),
                 "--" + CoverageModelArgumentCollection.MAX_EM_ITERATIONS_LONG_NAME,
                     String.valueOf(MAX_LEARNING_EM_ITERATIONS),
                 "--" + CoverageModelArgumentCollection.MIN_LEARNING_READ_COUNT_LONG_NAME,
                     String.valueOf(MIN_LEARNING_READ_COUNT),
                 "--" + CoverageModelArgumentCollection.RUN_CHECKPOINTING_ENABLED_LONG_NAME,
-                    "false",
+                    String.valueOf(runCheckpointingEnabled),
+                "--" + CoverageModelArgumentCollection.RUN_CHECKPOINTING_INTERVAL_LONG_NAME,
+                    String.valueOf(RUN_CHECKPOINTING_INTERVAL),
                 "--" + CoverageModelArgumentCollection.SAMPLE_SPECIFIC_VARIANCE_UPDATE_ENABLED_LONG_NAME,
                     String.valueOf(ENABLE_LEARNING_SAMPLE_SPECIFIC_VARIANCE),
                 "--" + CoverageModelArgumentCollection.ARD_ENABLED_LONG_NAME,
@@ -269,6 +287,61 @@ public class GermlineCNVCallerIntegrationTest extends CommandLineProgramTest {
         runCaseSampleCallingTestOnExactModelParams("--" + SparkToggleCommandLineProgram.DISABLE_SPARK_FULL_NAME, "true");
     }
 
+    @Test
+    public void runLearningAndCallingTestLocalMultiThreaded() {
+        runLearningAndCallingTest("--" + SparkToggleCommandLineProgram.DISABLE_SPARK_FULL_NAME, "true",
+                "--" + CoverageModelArgumentCollection.NUMBER_OF_LOCAL_THREADS_LONG_NAME, String.valueOf(LOCAL_NUMBER_OF_THREADS));
+    }
+
+    @Test
+    public void runCaseSampleCallingTestOnExactModelParamsLocalMultiThreaded() {
+        runCaseSampleCallingTestOnExactModelParams("--" + SparkToggleCommandLineProgram.DISABLE_SPARK_FULL_NAME, "true",
+                "--" + CoverageModelArgumentCollection.NUMBER_OF_LOCAL_THREADS_LONG_NAME, String.valueOf(LOCAL_NUMBER_OF_THREADS));
+    }
+
+    /**
+     * Learns a model with run checkpointing enabled, resumes the learning from the first EM state checkpoint
+     * in a separate run, and asserts that the two runs end up with the same model
+     */
+    @Test
+    public void runLearningTestLocalResumedFromCheckpoint() {
+        final String[] localArgs = {"--" + SparkToggleCommandLineProgram.DISABLE_SPARK_FULL_NAME, "true"};
+        runCommandLine(getLearningArgs(UNINTERRUPTED_LEARNING_OUTPUT_PATH, true, localArgs));
+        final File checkpoint = new File(CHECKPOINTING_PATH, String.format("%s_iter_%d",
+                CoverageModelGlobalConstants.EM_STATE_CHECKPOINT_PATH_PREFIX, RUN_CHECKPOINTING_INTERVAL));
+        Assert.assertTrue(checkpoint.isDirectory());
+
+        runCommandLine(getLearningArgs(RESUMED_LEARNING_OUTPUT_PATH, true, ArrayUtils.addAll(localArgs,
+                "--" + CoverageModelArgumentCollection.RESUME_CHECKPOINT_PATH_LONG_NAME, checkpoint.getAbsolutePath())));
+
+        for (final String modelFileName : Arrays.asList(
+                CoverageModelGlobalConstants.TARGET_MEAN_LOG_BIAS_OUTPUT_FILE,
+                CoverageModelGlobalConstants.TARGET_UNEXPLAINED_VARIANCE_OUTPUT_FILE,
+                CoverageModelGlobalConstants.MEAN_BIAS_COVARIATES_OUTPUT_FILE)) {
+            final INDArray uninterrupted = Nd4jIOUtils.readNDArrayMatrixFromTextFile(new File(
+                    new File(UNINTERRUPTED_LEARNING_OUTPUT_PATH, GermlineCNVCaller.FINAL_MODEL_SUBDIR), modelFileName));
+            final INDArray resumed = Nd4jIOUtils.readNDArrayMatrixFromTextFile(new File(
+                    new File(RESUMED_LEARNING_OUTPUT_PATH, GermlineCNVCaller.FINAL_MODEL_SUBDIR), modelFileName));
+            Assert.assertEquals(resumed.shape(), uninterrupted.shape());
+            Assert.assertEquals(resumed.sub(uninterrupted).normmaxNumber().doubleValue(), 0, RESUMED_MODEL_TOLERANCE);
+        }
+
+        final List<Target> modelledTargets = TargetTableReader.readTargetFile(new File(
+                new File(RESUMED_LEARNING_OUTPUT_PATH, GermlineCNVCaller.FINAL_MODEL_SUBDIR),
+                CoverageModelGlobalConstants.TARGET_LIST_OUTPUT_FILE));
+        reportCopyNumberSummaryStatistics(new File(RESUMED_LEARNING_OUTPUT_PATH, GermlineCNVCaller.FINAL_POSTERIORS_SUBDIR),
+                TEST_LEARNING_COMBINED_COPY_NUMBER_FILE, modelledTargets, LEARNING_SEX_GENOTYPES_DATA);
+    }
+
+    @Test(dependsOnMethods = "runLearningTestLocalResumedFromCheckpoint", expectedExceptions = UserException.BadInput.class)
+    public void runCaseSampleCallingTestResumedFromLearningCheckpoint() {
+        final File checkpoint = new File(CHECKPOINTING_PATH, String.format("%s_iter_%d",
+                CoverageModelGlobalConstants.EM_STATE_CHECKPOINT_PATH_PREFIX, RUN_CHECKPOINTING_INTERVAL));
+        runCommandLine(getCallingOnLearnedModelArgs(
+                "--" + CoverageModelArgumentCollection.RESUME_CHECKPOINT_PATH_LONG_NAME, checkpoint.getAbsolutePath(),
+                "--" + SparkToggleCommandLineProgram.DISABLE_SPARK_FULL_NAME, "true"));
+    }
+
     @Test(enabled = false)
     public void runLearningAndCallingTestSpark() {
         runLearningAndCallingTest();
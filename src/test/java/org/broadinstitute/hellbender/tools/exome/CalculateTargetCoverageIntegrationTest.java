@@ -285,6 +285,26 @@ public final class CalculateTargetCoverageIntegrationTest extends CommandLinePro
         };
     }
 
+    @DataProvider(name="correctRunWithReaderThreadsData")
+    public Object[][] correctRunWithReaderThreadsData() {
+        return Arrays.stream(correctRunData()).map(data -> {
+            final Object[] result = data.clone();
+            final List<String> additionalArguments = new ArrayList<>(Arrays.asList((String[]) data[data.length - 1]));
+            additionalArguments.add("-" + CalculateTargetCoverage.READER_THREADS_SHORT_NAME);
+            additionalArguments.add("2");
+            result[data.length - 1] = additionalArguments.toArray(new String[additionalArguments.size()]);
+            return result;
+        }).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "correctRunWithReaderThreadsData")
+    public void testCorrectRunWithReaderThreads(final File[] bamFiles, final File intervalFile, final File expectedOutputFile, final File expectedRowOutputFile,
+                                                final File expectedColumnOutputFile, final CalculateTargetCoverage.Transform transform,
+                                                final CalculateTargetCoverage.TargetOutInfo targetOutInfo,
+                                                final String[] additionalArguments) {
+        testCorrectRun(bamFiles, intervalFile, expectedOutputFile, expectedRowOutputFile, expectedColumnOutputFile, transform, targetOutInfo, additionalArguments);
+    }
+
     @Test(expectedExceptions = UserException.class)
     public void testMissingTargetNameRun() {
         testCorrectRun(ALL_BAMS,
@@ -2,21 +2,26 @@ package org.broadinstitute.hellbender.tools.exome;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.math.IntRange;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
 import org.broadinstitute.hdf5.HDF5File;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
+import org.broadinstitute.hellbender.cmdline.ExomeStandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.pon.PoNTestUtils;
 import org.broadinstitute.hellbender.tools.pon.coverage.pca.HDF5PCACoveragePoN;
 import org.broadinstitute.hellbender.tools.pon.coverage.pca.PCACoveragePoN;
 import org.broadinstitute.hellbender.tools.pon.coverage.pca.RamPCACoveragePoN;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -358,6 +363,58 @@ public class CreatePanelOfNormalsIntegrationTest extends CommandLineProgramTest
         assertRamPoNDuplicate(outputFile);
     }
 
+    @Test
+    public void testPoNUpdate() throws IOException {
+        final Random rdn = new Random(1317);
+        final List<Target> targets = IntStream.range(0, 200)
+                .mapToObj(i -> new Target("target_" + i, new SimpleInterval("1", 100 * i + 1, 100 * i + 50)))
+                .collect(Collectors.toList());
+        final List<String> sampleNames = IntStream.range(0, 12).mapToObj(i -> "sample_" + i).collect(Collectors.toList());
+        final RealMatrix counts = new Array2DRowRealMatrix(targets.size(), sampleNames.size());
+        for (int i = 0; i < targets.size(); i++) {
+            final double targetFactor = Math.exp(rdn.nextGaussian() * 0.5);
+            for (int j = 0; j < sampleNames.size(); j++) {
+                counts.setEntry(i, j, targetFactor * Math.exp(rdn.nextGaussian() * 0.1) / targets.size());
+            }
+        }
+        final ReadCountCollection allCounts = new ReadCountCollection(targets, sampleNames, counts);
+        final File firstBatchFile = createTempFile("pon-update-first-", ".pcov");
+        final File secondBatchFile = createTempFile("pon-update-second-", ".pcov");
+        final File allFile = createTempFile("pon-update-all-", ".pcov");
+        ReadCountCollectionUtils.write(firstBatchFile, allCounts.subsetColumns(new LinkedHashSet<>(sampleNames.subList(0, 8))));
+        ReadCountCollectionUtils.write(secondBatchFile, allCounts.subsetColumns(new LinkedHashSet<>(sampleNames.subList(8, 12))));
+        ReadCountCollectionUtils.write(allFile, allCounts);
+
+        final File firstPoN = runPoNCreation(firstBatchFile, null);
+        final File updatedPoN = runPoNCreation(secondBatchFile, firstPoN);
+        final File fullPoN = runPoNCreation(allFile, null);
+        // the panel is small enough for the update to calculate the full SVD.
+        PoNTestUtils.assertEquivalentPoN(updatedPoN, fullPoN);
+        assertRamPoNDuplicate(updatedPoN);
+    }
+
+    private File runPoNCreation(final File inputFile, final File inputPoNFile) {
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-" + StandardArgumentDefinitions.INPUT_SHORT_NAME);
+        arguments.add(inputFile.toString());
+        if (inputPoNFile != null) {
+            arguments.add("-" + ExomeStandardArgumentDefinitions.PON_FILE_SHORT_NAME);
+            arguments.add(inputPoNFile.toString());
+        }
+        final File outputFile = createTempFile("pon-", ".hd5");
+        outputFile.delete();
+        arguments.add("-" + StandardArgumentDefinitions.OUTPUT_SHORT_NAME);
+        arguments.add(outputFile.toString());
+        arguments.add("-" + CreatePanelOfNormals.TARGET_FACTOR_THRESHOLD_PERCENTILE_SHORT_NAME);
+        arguments.add("0");
+        arguments.add("-" + CreatePanelOfNormals.NUMBER_OF_EIGENSAMPLES_SHORT_NAME);
+        arguments.add("3");
+        arguments.add("-" + CreatePanelOfNormals.DISABLE_SPARK_SHORT_NAME);
+        arguments.add("-" + CreatePanelOfNormals.NO_QC_SHORT_NAME);
+        runCommandLine(arguments);
+        return outputFile;
+    }
+
     private void assertRamPoNDuplicate(final File outputFile) {
         try (final HDF5File hdf5FilePoN = new HDF5File(outputFile)) {
             final HDF5PCACoveragePoN filePoN = new HDF5PCACoveragePoN(hdf5FilePoN);
@@ -267,6 +267,77 @@ public class NormalizeSomaticReadCountsIntegrationTest extends CommandLineProgra
         Assert.assertEquals(tangentNormalized.targets().get(2).getName(), "target_179700_CRYBB1");
     }
 
+    @Test
+    public void testBatchOfSamplesMatchesOneSampleRuns() throws IOException {
+        final List<File> sampleInputs = splitSamples(FULL_READ_COUNTS_INPUT);
+        final File batchTangentNormalizationOutput = createTempFile("batch-tn-", ".txt");
+        final File batchBetaHatsOutput = createTempFile("batch-tangent-", ".bhats");
+        runCommandLine(batchArguments(sampleInputs, batchTangentNormalizationOutput, batchBetaHatsOutput));
+        final ReadCountCollection batchTangentNormalized = ReadCountCollectionUtils.parse(batchTangentNormalizationOutput);
+        final ReadCountCollection input = ReadCountCollectionUtils.parse(FULL_READ_COUNTS_INPUT);
+        final RealMatrix batchBetaHats = readBetaHats(batchBetaHatsOutput, input);
+        Assert.assertEquals(batchTangentNormalized.columnNames(), input.columnNames());
+
+        for (int i = 0; i < sampleInputs.size(); i++) {
+            final File tangentNormalizationOutput = createTempFile("tn-", ".txt");
+            final File betaHatsOutput = createTempFile("tangent-", ".bhats");
+            runCommandLine(batchArguments(Collections.singletonList(sampleInputs.get(i)), tangentNormalizationOutput, betaHatsOutput));
+            final ReadCountCollection tangentNormalized = ReadCountCollectionUtils.parse(tangentNormalizationOutput);
+            final RealMatrix betaHats = readBetaHats(betaHatsOutput, tangentNormalized);
+            Assert.assertEquals(batchTangentNormalized.targets().size(), tangentNormalized.targets().size());
+            for (final Target target : tangentNormalized.targets()) {
+                Assert.assertEquals(batchTangentNormalized.getRow(target)[i], tangentNormalized.getRow(target)[0], 1E-6);
+            }
+            for (int j = 0; j < betaHats.getRowDimension(); j++) {
+                Assert.assertEquals(batchBetaHats.getEntry(j, i), betaHats.getEntry(j, 0), 1E-6);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testBatchOfSamplesWithDifferentTargets() throws IOException {
+        final List<File> sampleInputs = splitSamples(FULL_READ_COUNTS_INPUT);
+        final List<File> inputs = Arrays.asList(FULL_READ_COUNTS_WITH_EXTRA_TARGET_INPUT_ONE_SAMPLE, sampleInputs.get(1));
+        runCommandLine(batchArguments(inputs, createTempFile("batch-tn-", ".txt"), createTempFile("batch-tangent-", ".bhats")));
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testBatchOfSamplesWithRepeatedSampleName() throws IOException {
+        final List<File> inputs = Arrays.asList(FULL_READ_COUNTS_INPUT_ONE_SAMPLE, FULL_READ_COUNTS_INPUT_ONE_SAMPLE);
+        runCommandLine(batchArguments(inputs, createTempFile("batch-tn-", ".txt"), createTempFile("batch-tangent-", ".bhats")));
+    }
+
+    private String[] batchArguments(final List<File> inputs, final File tangentNormalizationOutput, final File betaHatsOutput) {
+        final List<String> arguments = new ArrayList<>();
+        for (final File input : inputs) {
+            arguments.add("-" + NormalizeSomaticReadCounts.READ_COUNTS_FILE_SHORT_NAME);
+            arguments.add(input.getAbsolutePath());
+        }
+        arguments.addAll(Arrays.asList(
+                "-" + ExomeStandardArgumentDefinitions.PON_FILE_SHORT_NAME, TEST_PON.getAbsolutePath(),
+                "-" + ExomeStandardArgumentDefinitions.TANGENT_NORMALIZED_COUNTS_FILE_SHORT_NAME, tangentNormalizationOutput.getAbsolutePath(),
+                "-" + NormalizeSomaticReadCounts.TANGENT_BETA_HATS_SHORT_NAME, betaHatsOutput.getAbsolutePath()));
+        return arguments.toArray(new String[arguments.size()]);
+    }
+
+    /**
+     * Writes each sample of a read-count file into its own file; every other sample has its targets in reverse
+     * order so that batches need to rearrange them.
+     */
+    private List<File> splitSamples(final File readCountsFile) throws IOException {
+        final ReadCountCollection readCounts = ReadCountCollectionUtils.parse(readCountsFile);
+        final List<Target> reversedTargets = new ArrayList<>(readCounts.targets());
+        Collections.reverse(reversedTargets);
+        final List<File> result = new ArrayList<>();
+        for (int i = 0; i < readCounts.columnNames().size(); i++) {
+            final ReadCountCollection sample = readCounts.subsetColumns(Collections.singleton(readCounts.columnNames().get(i)));
+            final File sampleFile = createTempFile("sample-" + i + "-", ".txt");
+            ReadCountCollectionUtils.write(sampleFile, i % 2 == 0 ? sample : sample.arrangeTargets(reversedTargets));
+            result.add(sampleFile);
+        }
+        return result;
+    }
+
     @Test(expectedExceptions = UserException.BadInput.class)
     public void testNameOnlyCountsInputRunMultipleSamples() throws IOException {
         final File factorNormalizedOutput = createTempFile("test",".txt");
@@ -241,4 +241,44 @@ public final class AlleleFractionModellerUnitTest extends BaseTest {
             Assert.assertEquals(minorFractionsResult.get(segment), minorFractionsExpected.get(segment), minorFractionTolerance);
         }
     }
+
+    /**
+     * Tests that the samples do not depend on the number of threads used to sample the minor-allele fractions,
+     * as long as more than one thread is used, and that the minor-allele fraction of the event in the middle segment
+     * is still recovered (see {@link AlleleFractionModellerUnitTest#testBiasCorrection}).
+     */
+    @Test
+    public void testMCMCWithMultipleThreads() {
+        LoggingUtils.setLoggingLevel(Log.LogLevel.INFO);
+        final JavaSparkContext ctx = SparkContextFactory.getTestSparkContext();
+
+        final double minorFractionTolerance = 0.025;
+
+        final AllelicCountCollection sample = new AllelicCountCollection(SAMPLE_WITH_EVENT_FILE);
+        final AllelicPanelOfNormals allelicPoN = new AllelicPanelOfNormals(new AllelicCountCollection(ALLELIC_PON_NORMAL_COUNTS_FILE));
+        final Genome genome = new Genome(AlleleFractionSimulatedData.TRIVIAL_TARGETS, sample.getCounts());
+        final List<SimpleInterval> segments = SegmentUtils.readIntervalsFromSegmentFile(SEGMENTS_FILE);
+        final SegmentedGenome segmentedGenome = new SegmentedGenome(segments, genome);
+
+        final int numSamples = 150;
+        final int numBurnIn = 50;
+        final AlleleFractionModeller twoThreadedModeller = new AlleleFractionModeller(segmentedGenome, allelicPoN);
+        twoThreadedModeller.fitMCMC(numSamples, numBurnIn, 2);
+        final AlleleFractionModeller fourThreadedModeller = new AlleleFractionModeller(segmentedGenome, allelicPoN);
+        fourThreadedModeller.fitMCMC(numSamples, numBurnIn, 4);
+
+        Assert.assertEquals(fourThreadedModeller.getmeanBiasSamples(), twoThreadedModeller.getmeanBiasSamples());
+        Assert.assertEquals(fourThreadedModeller.getBiasVarianceSamples(), twoThreadedModeller.getBiasVarianceSamples());
+        Assert.assertEquals(fourThreadedModeller.getOutlierProbabilitySamples(), twoThreadedModeller.getOutlierProbabilitySamples());
+        Assert.assertEquals(fourThreadedModeller.getMinorFractionsSamples(), twoThreadedModeller.getMinorFractionsSamples());
+
+        final List<Double> minorFractionsResult = fourThreadedModeller.getMinorAlleleFractionsPosteriorSummaries(CREDIBLE_INTERVAL_ALPHA, ctx)
+                .stream().map(PosteriorSummary::getCenter).collect(Collectors.toList());
+        final double minorFractionBalanced = 0.5;
+        final double minorFractionExpectedInMiddleSegment = 0.33;
+        final List<Double> minorFractionsExpected = Arrays.asList(minorFractionBalanced, minorFractionExpectedInMiddleSegment, minorFractionBalanced);
+        for (int segment = 0; segment < 3; segment++) {
+            Assert.assertEquals(minorFractionsResult.get(segment), minorFractionsExpected.get(segment), minorFractionTolerance);
+        }
+    }
 }
\ No newline at end of file
@@ -209,4 +209,27 @@ public final class CopyRatioModellerUnitTest extends BaseTest {
         final double fractionOfOutlierIndicatorsCorrect = (double) numIndicatorsCorrect / coverage.targets().size();
         Assert.assertTrue(fractionOfOutlierIndicatorsCorrect >= FRACTION_OF_OUTLIER_INDICATORS_CORRECT_THRESHOLD);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the samples do not depend on the number of threads used to sample the segment-level parameters,
+     * as long as more than one thread is used.
+     */
+    @Test
+    public void testRunMCMCWithMultipleThreads() throws IOException {
+        final ReadCountCollection coverage = ReadCountCollectionUtils.parse(COVERAGES_FILE);
+        final Genome genome = new Genome(coverage, Collections.emptyList()); //Genome with no SNPs
+        final SegmentedGenome segmentedGenome = new SegmentedGenome(SEGMENT_FILE, genome);
+        final int numSamples = 20;
+        final int numBurnIn = 10;
+
+        final CopyRatioModeller twoThreadedModeller = new CopyRatioModeller(segmentedGenome);
+        twoThreadedModeller.fitMCMC(numSamples, numBurnIn, 2);
+        final CopyRatioModeller fourThreadedModeller = new CopyRatioModeller(segmentedGenome);
+        fourThreadedModeller.fitMCMC(numSamples, numBurnIn, 4);
+
+        Assert.assertEquals(fourThreadedModeller.getVarianceSamples(), twoThreadedModeller.getVarianceSamples());
+        Assert.assertEquals(fourThreadedModeller.getOutlierProbabilitySamples(), twoThreadedModeller.getOutlierProbabilitySamples());
+        Assert.assertEquals(fourThreadedModeller.getSegmentMeansSamples(), twoThreadedModeller.getSegmentMeansSamples());
+        Assert.assertEquals(fourThreadedModeller.getOutlierIndicatorsSamples(), twoThreadedModeller.getOutlierIndicatorsSamples());
+    }
+}
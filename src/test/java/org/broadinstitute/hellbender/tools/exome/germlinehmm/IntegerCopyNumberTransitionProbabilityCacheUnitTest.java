@@ -95,6 +95,25 @@ public class IntegerCopyNumberTransitionProbabilityCacheUnitTest extends BaseTes
         }
     }
 
+    @Test
+    public void testLogTransitionProbabilities() {
+        for (final RealMatrix transitionMatrix : TRANSITION_MATRICES) {
+            final IntegerCopyNumberTransitionProbabilityCache cache = new IntegerCopyNumberTransitionProbabilityCache(
+                    new IntegerCopyNumberTransitionMatrix(transitionMatrix, 0));
+            final int numStates = transitionMatrix.getColumnDimension();
+            final double[][] logTransitionProbabilities = new double[numStates][numStates];
+            for (final int dist : DISTANCES) {
+                cache.logTransitionProbabilities(dist, logTransitionProbabilities);
+                for (int from = 0; from < numStates; from++) {
+                    for (int to = 0; to < numStates; to++) {
+                        Assert.assertEquals(logTransitionProbabilities[from][to], cache.logTransitionProbability(dist,
+                                new IntegerCopyNumberState(to), new IntegerCopyNumberState(from)));
+                    }
+                }
+            }
+        }
+    }
+
     private static void assertEqualMatrices(final RealMatrix mat1, final RealMatrix mat2) {
         Assert.assertEquals(mat1.subtract(mat2).getNorm(), 0, EPSILON);
     }
@@ -91,6 +91,39 @@ public final class CopyRatioSegmenterUnitTest {
         Assert.assertEquals(numDifferentContigsInSegments, 3);
     }
 
+    @Test
+    public void testMultithreadedSegmentation() {
+        final RandomGenerator rng = RandomGeneratorFactory.createRandomGenerator(new Random(563));
+        final List<Double> trueWeights = Arrays.asList(0.2, 0.5, 0.3);
+        final List<Double> trueLog2CopyRatios = Arrays.asList(-2.0, 0.0, 1.4);
+        final double trueMemoryLength = 1e5;
+        final double trueStandardDeviation = 0.2;
+        final CopyRatioHMM trueModel = new CopyRatioHMM(trueLog2CopyRatios, trueWeights,
+                trueMemoryLength, trueStandardDeviation);
+
+        final int chainLength = 1000;
+        final List<SimpleInterval> positions = new ArrayList<>();
+        for (final String contig : Arrays.asList("chr1", "chr2", "chr3")) {
+            positions.addAll(randomPositions(contig, chainLength, rng, trueMemoryLength/4));
+        }
+        final List<Double> data = trueModel.generateHiddenStateChain(positions).stream()
+                .map(n -> generateData(trueStandardDeviation, trueLog2CopyRatios.get(n), rng)).collect(Collectors.toList());
+        final List<Target> targets = positions.stream().map(Target::new).collect(Collectors.toList());
+        final ReadCountCollection rcc = new ReadCountCollection(targets, Arrays.asList("SAMPLE"), new Array2DRowRealMatrix(data.stream().mapToDouble(x->x).toArray()));
+
+        final CopyRatioSegmenter singleThreadedSegmenter = new CopyRatioSegmenter(10, rcc);
+        final List<ModeledSegment> singleThreadedSegments = singleThreadedSegmenter.getModeledSegments();
+        final CopyRatioSegmenter multithreadedSegmenter = new CopyRatioSegmenter(10, rcc);
+        multithreadedSegmenter.setNumThreads(3);
+        final List<ModeledSegment> multithreadedSegments = multithreadedSegmenter.getModeledSegments();
+
+        //results do not depend on the number of threads
+        Assert.assertEquals(multithreadedSegmenter.getMemoryLength(), singleThreadedSegmenter.getMemoryLength());
+        Assert.assertEquals(multithreadedSegmenter.getStates(), singleThreadedSegmenter.getStates());
+        Assert.assertEquals(multithreadedSegments, singleThreadedSegments);
+        Assert.assertEquals(singleThreadedSegmenter.getMemoryLength(), trueMemoryLength, trueMemoryLength / 2);
+    }
+
     public static List<SimpleInterval> randomPositions(final String contig, final int chainLength, final RandomGenerator rng, final double separationScale) {
         final List<SimpleInterval> positions = new ArrayList<>();
         int position = 1;
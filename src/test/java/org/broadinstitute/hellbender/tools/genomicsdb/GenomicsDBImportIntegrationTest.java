@@ -13,12 +13,16 @@ import htsjdk.variant.vcf.VCFHeader;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.engine.FeatureInput;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
 import org.broadinstitute.hellbender.utils.test.ArgumentsBuilder;
 import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.broadinstitute.hellbender.utils.test.GenomicsDBTestUtils;
 import org.broadinstitute.hellbender.utils.test.VariantContextTestUtils;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -28,6 +32,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -119,6 +125,46 @@ public final class GenomicsDBImportIntegrationTest extends CommandLineProgramTes
         checkJSONFilesAreWritten(workspace);
         checkGenomicsDBAgainstExpected(workspace, INTERVAL, COMBINED);
     }
+    @Test(dataProvider = "getThreads")
+    public void testMultipleIntervalsImportedInParallel(final int threads) throws IOException {
+        final String workspace = createTempDir("genomicsdb-tests-").getAbsolutePath() + "/workspace";
+        final int split = 17970000;
+        final List<SimpleInterval> intervals = Arrays.asList(
+                new SimpleInterval(INTERVAL.getContig(), INTERVAL.getStart(), split),
+                new SimpleInterval(INTERVAL.getContig(), split + 2, INTERVAL.getEnd()));
+
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addArgument("genomicsDBWorkspace", workspace);
+        intervals.forEach(interval -> args.addArgument("L", IntervalUtils.locatableToString(interval)));
+        LOCAL_GVCFS.forEach(vcf -> args.addArgument("V", vcf));
+        args.addArgument("batchSize", "2");
+        args.addArgument(GenomicsDBImport.VCF_INITIALIZER_THREADS_LONG_NAME, String.valueOf(threads));
+        args.addArgument(GenomicsDBImport.MAX_NUM_INTERVALS_TO_IMPORT_IN_PARALLEL, String.valueOf(threads));
+        runCommandLine(args);
+
+        checkJSONFilesAreWritten(workspace);
+        Assert.assertEquals(GenomicsDBIntervalArraysFeatureReader.findIntervalArrays(new File(workspace)).keySet(), new HashSet<>(intervals));
+
+        // the variant records of each interval should be read back through a single GenomicsDB input
+        try (final FeatureDataSource<VariantContext> genomicsDB = new FeatureDataSource<>(
+                     new FeatureInput<>(GenomicsDBTestUtils.makeGenomicsDBUri(new File(workspace)), "genomicsdb", Collections.emptyMap()), 0, VariantContext.class, 0, 0,
+                     IOUtils.getPath(b38_reference_20_21));
+             final AbstractFeatureReader<VariantContext, LineIterator> combinedVCFReader =
+                     AbstractFeatureReader.getFeatureReader(COMBINED, new VCFCodec(), true)) {
+            for (final SimpleInterval interval : intervals) {
+                final List<VariantContext> actual = Utils.stream(genomicsDB.query(interval))
+                        .filter(vc -> vc.getStart() >= interval.getStart() && vc.getNAlleles() > 2)
+                        .collect(Collectors.toList());
+                final Iterator<VariantContext> combined = combinedVCFReader.query(interval.getContig(), interval.getStart(), interval.getEnd());
+                final List<VariantContext> expected = Utils.stream(combined)
+                        .filter(vc -> vc.getStart() >= interval.getStart() && vc.getNAlleles() > 2)
+                        .collect(Collectors.toList());
+                Assert.assertFalse(expected.isEmpty());
+                BaseTest.assertCondition(actual, expected, VariantContextTestUtils::assertVariantContextsHaveSameGenotypes);
+            }
+        }
+    }
+
     /**
      *
      * @throws CommandLineException.OutOfRangeArgumentValue  Value must be >= 1024 bytes
@@ -0,0 +1,137 @@
+package org.broadinstitute.hellbender.tools.genomicsdb;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFConstants;
+import htsjdk.variant.vcf.VCFHeader;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public final class GenomicsDBIntervalArraysFeatureReaderUnitTest extends BaseTest {
+
+    private static final SAMSequenceDictionary DICTIONARY = new SAMSequenceDictionary(Arrays.asList(
+            new SAMSequenceRecord("2", 1000), new SAMSequenceRecord("1", 1000)));
+
+    private static VariantContext makeVC(final String contig, final int start, final int end) {
+        return new VariantContextBuilder("test", contig, start, end, Collections.singletonList(Allele.create("A", true)))
+                .attribute(VCFConstants.END_KEY, end).make();
+    }
+
+    /**
+     * A reader over the records imported into one array, which are those overlapping its interval
+     */
+    private static final class ArrayReader implements FeatureReader<VariantContext> {
+        private final List<VariantContext> records;
+
+        private ArrayReader(final List<VariantContext> allRecords, final SimpleInterval interval) {
+            records = allRecords.stream().filter(vc -> new SimpleInterval(vc).overlaps(interval)).collect(Collectors.toList());
+        }
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> query(final String chr, final int start, final int end) {
+            final SimpleInterval query = new SimpleInterval(chr, start, end);
+            return new ListIterator(records.stream().filter(vc -> new SimpleInterval(vc).overlaps(query)).collect(Collectors.toList()));
+        }
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> iterator() {
+            return new ListIterator(records);
+        }
+
+        @Override
+        public void close() {}
+
+        @Override
+        public List<String> getSequenceNames() {
+            return DICTIONARY.getSequences().stream().map(SAMSequenceRecord::getSequenceName).collect(Collectors.toList());
+        }
+
+        @Override
+        public Object getHeader() {
+            final VCFHeader header = new VCFHeader();
+            header.setSequenceDictionary(DICTIONARY);
+            return header;
+        }
+    }
+
+    private static final class ListIterator implements CloseableTribbleIterator<VariantContext> {
+        private final Iterator<VariantContext> iterator;
+
+        private ListIterator(final List<VariantContext> records) {
+            iterator = records.iterator();
+        }
+
+        @Override
+        public Iterator<VariantContext> iterator() { return this; }
+
+        @Override
+        public void close() {}
+
+        @Override
+        public boolean hasNext() { return iterator.hasNext(); }
+
+        @Override
+        public VariantContext next() { return iterator.next(); }
+    }
+
+    @Test
+    public void testQueryAndIterate() throws IOException {
+        final List<VariantContext> records = Arrays.asList(
+                makeVC("2", 1, 150),
+                makeVC("2", 151, 151),
+                makeVC("2", 190, 260),      // spans the boundary between adjacent intervals
+                makeVC("2", 261, 300),
+                makeVC("2", 450, 550),      // starts in a gap between intervals
+                makeVC("2", 600, 700),
+                makeVC("1", 1, 1000));
+        // the arrays are given out of dictionary order
+        final List<SimpleInterval> intervals = Arrays.asList(
+                new SimpleInterval("1", 1, 1000),
+                new SimpleInterval("2", 201, 400),
+                new SimpleInterval("2", 1, 200),
+                new SimpleInterval("2", 501, 1000));
+        final Map<SimpleInterval, FeatureReader<VariantContext>> readers = new LinkedHashMap<>();
+        intervals.forEach(interval -> readers.put(interval, new ArrayReader(records, interval)));
+
+        try (final GenomicsDBIntervalArraysFeatureReader reader = new GenomicsDBIntervalArraysFeatureReader(readers)) {
+            final List<VariantContext> all = Utils.stream((Iterator<VariantContext>) reader.iterator()).collect(Collectors.toList());
+            Assert.assertEquals(all, records);
+
+            final List<VariantContext> queried = Utils.stream((Iterator<VariantContext>) reader.query("2", 150, 600)).collect(Collectors.toList());
+            Assert.assertEquals(queried, records.subList(0, 6));
+
+            final List<VariantContext> secondArrayOnly = Utils.stream((Iterator<VariantContext>) reader.query("2", 250, 260)).collect(Collectors.toList());
+            Assert.assertEquals(secondArrayOnly, Arrays.asList(records.get(2)));
+        }
+    }
+
+    @Test
+    public void testFindIntervalArrays() {
+        final File workspace = createTempDir("workspace");
+        final List<SimpleInterval> intervals = Arrays.asList(
+                new SimpleInterval("chr20", 1, 1000),
+                new SimpleInterval("chr1_KI270706v1_random", 17, 175055));
+        for (final SimpleInterval interval : intervals) {
+            Assert.assertTrue(new File(workspace, GenomicsDBIntervalArraysFeatureReader.getArrayName(interval)).mkdir());
+        }
+        Assert.assertTrue(new File(workspace, GenomicsDBConstants.DEFAULT_ARRAY_NAME + "_notAnInterval").mkdir());
+        Assert.assertTrue(new File(workspace, "other").mkdir());
+
+        final Map<SimpleInterval, String> arrays = GenomicsDBIntervalArraysFeatureReader.findIntervalArrays(workspace);
+        Assert.assertEquals(arrays.keySet(), new HashSet<>(intervals));
+        intervals.forEach(interval -> Assert.assertEquals(arrays.get(interval), GenomicsDBIntervalArraysFeatureReader.getArrayName(interval)));
+    }
+}
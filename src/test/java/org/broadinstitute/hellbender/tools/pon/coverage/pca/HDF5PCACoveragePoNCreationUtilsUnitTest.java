@@ -16,8 +16,7 @@ import org.apache.spark.api.java.JavaSparkContext;
 import org.broadinstitute.hdf5.HDF5File;
 import org.broadinstitute.hellbender.engine.spark.SparkContextFactory;
 import org.broadinstitute.hellbender.exceptions.UserException;
-import org.broadinstitute.hellbender.tools.exome.ReadCountCollection;
-import org.broadinstitute.hellbender.tools.exome.Target;
+import org.broadinstitute.hellbender.tools.exome.*;
 import org.broadinstitute.hellbender.tools.pon.PoNTestUtils;
 import org.broadinstitute.hellbender.utils.MatrixSummaryUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
@@ -31,6 +30,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
@@ -394,6 +394,178 @@ public final class HDF5PCACoveragePoNCreationUtilsUnitTest extends BaseTest {
         Assert.assertEquals(actualNumber, 1);
     }
 
+    /**
+     * Creates proportional coverage for a number of samples with a few target-wise biases shared across samples.
+     */
+    private static ReadCountCollection simulateProportionalCoverage(final Random rdn, final List<Target> targets, final List<String> sampleNames) {
+        final int biasCount = 3;
+        final double[] targetFactors = targets.stream().mapToDouble(t -> Math.exp(rdn.nextGaussian() * 0.5)).toArray();
+        final double[][] biases = new double[biasCount][targets.size()];
+        for (final double[] bias : biases) {
+            for (int i = 0; i < bias.length; i++) {
+                bias[i] = rdn.nextGaussian() * 0.3;
+            }
+        }
+        final RealMatrix counts = new Array2DRowRealMatrix(targets.size(), sampleNames.size());
+        for (int j = 0; j < sampleNames.size(); j++) {
+            final double[] loadings = IntStream.range(0, biasCount).mapToDouble(k -> rdn.nextGaussian()).toArray();
+            for (int i = 0; i < targets.size(); i++) {
+                double logCoverage = rdn.nextGaussian() * 0.05;
+                for (int k = 0; k < biasCount; k++) {
+                    logCoverage += loadings[k] * biases[k][i];
+                }
+                counts.setEntry(i, j, targetFactors[i] * Math.exp(logCoverage) / targets.size());
+            }
+        }
+        return new ReadCountCollection(targets, sampleNames, counts);
+    }
+
+    private static File writeReadCounts(final ReadCountCollection readCounts) throws IOException {
+        final File result = createTempFile("pon-update-", ".pcov");
+        ReadCountCollectionUtils.write(result, readCounts);
+        return result;
+    }
+
+    /**
+     * Creates a PoN from a first batch of samples, updates it with a second batch and returns it together
+     * with the PoN created from scratch from both batches.  The target factor filter is disabled as an update keeps
+     * the targets of the PoN that is updated.
+     */
+    private static File[] createUpdatedAndFullPoNs(final int firstBatchSize, final int secondBatchSize, final int numberOfEigensamples) throws IOException {
+        final Random rdn = new Random(1313);
+        final List<Target> targets = IntStream.range(0, 300)
+                .mapToObj(i -> new Target("target_" + i, new SimpleInterval("1", 100 * i + 1, 100 * i + 50)))
+                .collect(Collectors.toList());
+        final List<String> sampleNames = IntStream.range(0, firstBatchSize + secondBatchSize).mapToObj(i -> "sample_" + i).collect(Collectors.toList());
+        final ReadCountCollection allCounts = simulateProportionalCoverage(rdn, targets, sampleNames);
+        final ReadCountCollection firstBatch = allCounts.subsetColumns(new LinkedHashSet<>(sampleNames.subList(0, firstBatchSize)));
+        final ReadCountCollection secondBatch = allCounts.subsetColumns(new LinkedHashSet<>(sampleNames.subList(firstBatchSize, sampleNames.size())));
+
+        final File firstPoN = createTempFile("pon-update-first-", ".pon");
+        final File updatedPoN = createTempFile("pon-update-updated-", ".pon");
+        final File fullPoN = createTempFile("pon-update-full-", ".pon");
+        final TargetCollection<Target> targetCollection = new HashedListTargetCollection<>(targets);
+        HDF5PCACoveragePoNCreationUtils.create(null, firstPoN, HDF5File.OpenMode.CREATE, writeReadCounts(firstBatch), targetCollection,
+                new ArrayList<>(), 0, CreatePanelOfNormals.DEFAULT_MAXIMUM_PERCENT_ZEROS_IN_COLUMN, CreatePanelOfNormals.DEFAULT_MAXIMUM_PERCENT_ZEROS_IN_TARGET,
+                CreatePanelOfNormals.DEFAULT_COLUMN_OUTLIER_DROP_THRESHOLD_PERCENTILE, CreatePanelOfNormals.DEFAULT_OUTLIER_TRUNCATE_PERCENTILE_THRESHOLD, OptionalInt.of(numberOfEigensamples), false);
+        HDF5PCACoveragePoNCreationUtils.update(null, firstPoN, updatedPoN, HDF5File.OpenMode.CREATE, writeReadCounts(secondBatch),
+                new ArrayList<>(), CreatePanelOfNormals.DEFAULT_MAXIMUM_PERCENT_ZEROS_IN_COLUMN, CreatePanelOfNormals.DEFAULT_MAXIMUM_PERCENT_ZEROS_IN_TARGET,
+                CreatePanelOfNormals.DEFAULT_COLUMN_OUTLIER_DROP_THRESHOLD_PERCENTILE, CreatePanelOfNormals.DEFAULT_OUTLIER_TRUNCATE_PERCENTILE_THRESHOLD, OptionalInt.empty(), false);
+        HDF5PCACoveragePoNCreationUtils.create(null, fullPoN, HDF5File.OpenMode.CREATE, writeReadCounts(allCounts), targetCollection,
+                new ArrayList<>(), 0, CreatePanelOfNormals.DEFAULT_MAXIMUM_PERCENT_ZEROS_IN_COLUMN, CreatePanelOfNormals.DEFAULT_MAXIMUM_PERCENT_ZEROS_IN_TARGET,
+                CreatePanelOfNormals.DEFAULT_COLUMN_OUTLIER_DROP_THRESHOLD_PERCENTILE, CreatePanelOfNormals.DEFAULT_OUTLIER_TRUNCATE_PERCENTILE_THRESHOLD, OptionalInt.of(numberOfEigensamples), false);
+        return new File[] {updatedPoN, fullPoN};
+    }
+
+    @Test
+    public void testUpdateSmallPoNIsSameAsCreatingIt() throws IOException {
+        final File[] pons = createUpdatedAndFullPoNs(8, 4, 3);
+        PoNTestUtils.assertEquivalentPoN(pons[0], pons[1]);
+    }
+
+    @Test
+    public void testUpdatePoN() throws IOException {
+        final int numberOfEigensamples = 3;
+        final File[] pons = createUpdatedAndFullPoNs(60, 20, numberOfEigensamples);
+        try (final HDF5File updatedFile = new HDF5File(pons[0]);
+             final HDF5File fullFile = new HDF5File(pons[1])) {
+            final PCACoveragePoN updatedPoN = new HDF5PCACoveragePoN(updatedFile);
+            final PCACoveragePoN fullPoN = new HDF5PCACoveragePoN(fullFile);
+
+            // the target factors and filters are the same as if the PoN were created from scratch.
+            Assert.assertEquals(updatedPoN.getTargets(), fullPoN.getTargets());
+            Assert.assertEquals(updatedPoN.getPanelTargets(), fullPoN.getPanelTargets());
+            Assert.assertEquals(updatedPoN.getSampleNames(), fullPoN.getSampleNames());
+            Assert.assertEquals(updatedPoN.getPanelSampleNames(), fullPoN.getPanelSampleNames());
+            PoNTestUtils.assertEqualsDoubleArrays(updatedPoN.getTargetFactors(), fullPoN.getTargetFactors());
+            PoNTestUtils.assertEqualsMatrix(updatedPoN.getNormalizedCounts(), fullPoN.getNormalizedCounts(), false);
+            PoNTestUtils.assertEqualsMatrix(updatedPoN.getLogNormalizedCounts(), fullPoN.getLogNormalizedCounts(), false);
+
+            // the leading eigensamples are calculated approximately.
+            final RealMatrix updatedReducedCounts = updatedPoN.getReducedPanelCounts();
+            final RealMatrix fullReducedCounts = fullPoN.getReducedPanelCounts();
+            Assert.assertEquals(updatedReducedCounts.getColumnDimension(), numberOfEigensamples);
+            for (int k = 0; k < numberOfEigensamples; k++) {
+                final double sign = Math.signum(updatedReducedCounts.getColumnVector(k).dotProduct(fullReducedCounts.getColumnVector(k)));
+                Assert.assertEquals(updatedReducedCounts.getColumnVector(k).mapMultiply(sign).subtract(fullReducedCounts.getColumnVector(k)).getNorm(),
+                        0, 1e-6 * fullReducedCounts.getColumnVector(k).getNorm());
+            }
+            PoNTestUtils.assertEqualsDoubleArrays(updatedPoN.getTargetVariances(), fullPoN.getTargetVariances(), 1e-6);
+            final RealMatrix logNormalizedPInverse = updatedPoN.getLogNormalizedPInverseCounts();
+            Assert.assertEquals(logNormalizedPInverse.getRowDimension(), updatedPoN.getPanelSampleNames().size());
+            Assert.assertEquals(logNormalizedPInverse.getColumnDimension(), updatedPoN.getPanelTargets().size());
+        }
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testUpdatePoNWithRepeatedSamples() throws IOException {
+        final Random rdn = new Random(17);
+        final List<Target> targets = IntStream.range(0, 50)
+                .mapToObj(i -> new Target("target_" + i, new SimpleInterval("1", 100 * i + 1, 100 * i + 50)))
+                .collect(Collectors.toList());
+        final ReadCountCollection counts = simulateProportionalCoverage(rdn, targets, Arrays.asList("sample_0", "sample_1", "sample_2", "sample_3"));
+        final File pcovFile = writeReadCounts(counts);
+        final File pon = createTempFile("pon-update-repeated-", ".pon");
+        HDF5PCACoveragePoNCreationUtils.create(null, pon, HDF5File.OpenMode.CREATE, pcovFile, new HashedListTargetCollection<>(targets),
+                new ArrayList<>(), 0, 5, 5, 0, 0, OptionalInt.of(2), false);
+        HDF5PCACoveragePoNCreationUtils.update(null, pon, createTempFile("pon-update-repeated-out-", ".pon"), HDF5File.OpenMode.CREATE,
+                pcovFile, new ArrayList<>(), 5, 5, 0, 0, OptionalInt.empty(), false);
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testUpdatePoNWithMissingTargets() throws IOException {
+        final Random rdn = new Random(19);
+        final List<Target> targets = IntStream.range(0, 50)
+                .mapToObj(i -> new Target("target_" + i, new SimpleInterval("1", 100 * i + 1, 100 * i + 50)))
+                .collect(Collectors.toList());
+        final File pon = createTempFile("pon-update-missing-", ".pon");
+        HDF5PCACoveragePoNCreationUtils.create(null, pon, HDF5File.OpenMode.CREATE,
+                writeReadCounts(simulateProportionalCoverage(rdn, targets, Arrays.asList("sample_0", "sample_1", "sample_2", "sample_3"))),
+                new HashedListTargetCollection<>(targets), new ArrayList<>(), 0, 5, 5, 0, 0, OptionalInt.of(2), false);
+        final ReadCountCollection newCounts = simulateProportionalCoverage(rdn, targets.subList(0, 40), Arrays.asList("sample_4", "sample_5"));
+        HDF5PCACoveragePoNCreationUtils.update(null, pon, createTempFile("pon-update-missing-out-", ".pon"), HDF5File.OpenMode.CREATE,
+                writeReadCounts(newCounts), new ArrayList<>(), 5, 5, 0, 0, OptionalInt.empty(), false);
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testUpdateOldPoN() throws IOException {
+        final File oldPoN = new File(TEST_DIR, "test_creation_of_panel.pon");
+        final File pcovFile = new File(TEST_DIR, "test_creation_of_panel-normalized_pcov.txt");
+        HDF5PCACoveragePoNCreationUtils.update(null, oldPoN, createTempFile("pon-update-old-out-", ".pon"), HDF5File.OpenMode.CREATE,
+                pcovFile, new ArrayList<>(), 5, 5, 0, 0, OptionalInt.empty(), false);
+    }
+
+    /**
+     * Tests that a PoN whose normalized counts were overwritten by its log-normalized counts, as could happen before
+     * they were cleaned on a copy, is rejected rather than used to recover raw counts.
+     */
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testUpdatePoNWithLogNormalizedCountsInPlaceOfNormalizedCounts() throws IOException {
+        final Random rdn = new Random(23);
+        final List<Target> targets = IntStream.range(0, 50)
+                .mapToObj(i -> new Target("target_" + i, new SimpleInterval("1", 100 * i + 1, 100 * i + 50)))
+                .collect(Collectors.toList());
+        final File pon = createTempFile("pon-update-log-normalized-", ".pon");
+        HDF5PCACoveragePoNCreationUtils.create(null, pon, HDF5File.OpenMode.CREATE,
+                writeReadCounts(simulateProportionalCoverage(rdn, targets, Arrays.asList("sample_0", "sample_1", "sample_2", "sample_3"))),
+                new HashedListTargetCollection<>(targets), new ArrayList<>(), 0, 5, 5, 0, 0, OptionalInt.of(2), false);
+        final File badPoN = createTempFile("pon-update-log-normalized-bad-", ".pon");
+        try (final HDF5File ponFile = new HDF5File(pon)) {
+            final PCACoveragePoN goodPoN = new HDF5PCACoveragePoN(ponFile);
+            Assert.assertEquals(goodPoN.getPanelTargets(), goodPoN.getTargets());
+            Assert.assertEquals(goodPoN.getPanelSampleNames(), goodPoN.getSampleNames());
+            final ReadCountCollection logNormalizedCounts = new ReadCountCollection(goodPoN.getPanelTargets(),
+                    goodPoN.getPanelSampleNames(), goodPoN.getLogNormalizedCounts());
+            HDF5PCACoveragePoN.write(badPoN, HDF5File.OpenMode.CREATE, goodPoN.getRawTargets(), logNormalizedCounts, logNormalizedCounts,
+                    goodPoN.getTargetFactors(), goodPoN.getTargetVariances(),
+                    new ReductionResult(goodPoN.getLogNormalizedPInverseCounts(), goodPoN.getReducedPanelCounts(),
+                            goodPoN.getReducedPanelPInverseCounts(), null));
+        }
+        final ReadCountCollection newCounts = simulateProportionalCoverage(rdn, targets, Arrays.asList("sample_4", "sample_5"));
+        HDF5PCACoveragePoNCreationUtils.update(null, badPoN, createTempFile("pon-update-log-normalized-out-", ".pon"), HDF5File.OpenMode.CREATE,
+                writeReadCounts(newCounts), new ArrayList<>(), 5, 5, 0, 0, OptionalInt.empty(), false);
+    }
+
     @SuppressWarnings("serial")
     private static final Logger NULL_LOGGER = new AbstractLogger() {
         @Override
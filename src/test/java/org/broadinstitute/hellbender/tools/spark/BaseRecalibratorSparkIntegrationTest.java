@@ -6,8 +6,10 @@ import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.engine.datasources.ReferenceAPISource;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.bqsr.BQSRTestData;
+import org.broadinstitute.hellbender.tools.walkers.bqsr.CreateKnownSitesIndex;
 import org.broadinstitute.hellbender.utils.test.IntegrationTestSpec;
 import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.recalibration.KnownSitesBitSetIndex;
 import org.broadinstitute.hellbender.utils.test.SamAssertionUtils;
 import org.broadinstitute.hellbender.utils.test.ArgumentsBuilder;
 import org.testng.annotations.DataProvider;
@@ -211,6 +213,57 @@ public final class BaseRecalibratorSparkIntegrationTest extends CommandLineProgr
         spec.executeTest("testBQSR-" + params.args, this);
     }
 
+    @DataProvider(name = "BQSRKnownSitesIndexTest")
+    public Object[][] createBQSRKnownSitesIndexTestData() {
+        // index files given as file: URIs are not read from the local filesystem, but copied to each executor
+        return new Object[][]{
+                {"BROADCAST", false},
+                {"BROADCAST", true},
+                {"OVERLAPS_PARTITIONER", false},
+                {"OVERLAPS_PARTITIONER", true},
+        };
+    }
+
+    @Test(dataProvider = "BQSRKnownSitesIndexTest", groups = "spark")
+    public void testBQSRSparkWithKnownSitesIndex(final String joinStrategy, final boolean useFileURI) throws IOException {
+        final String hg19Chr171Mb_2bit = publicTestDir + "human_g1k_v37.chr17_1Mb.2bit";
+        final String HiSeqBam_chr17 = getResourceDir() + "NA12878.chr17_69k_70k.dictFix.bam";
+        final String dbSNPb37_chr17 =  getResourceDir() + "dbsnp_132.b37.excluding_sites_after_129.chr17_69k_70k.vcf";
+        final String more17Sites = getResourceDir() + "bqsr.fakeSitesForTesting.b37.chr17.vcf";
+
+        final File knownSitesIndex = createTempFile("knownSites", KnownSitesBitSetIndex.FILE_EXTENSION);
+        final String argsIndex = "-knownSites " + dbSNPb37_chr17 + " -knownSites " + more17Sites + " -O " + knownSitesIndex.getAbsolutePath();
+        new CreateKnownSitesIndex().instanceMain(Utils.escapeExpressions(argsIndex));
+
+        // the recalibration tables must be identical to those produced from the original known sites files
+        final String knownSites = useFileURI ? knownSitesIndex.toURI().toString() : knownSitesIndex.getAbsolutePath();
+        final BQSRTest params = new BQSRTest(hg19Chr171Mb_2bit, HiSeqBam_chr17, knownSites, "-indelBQSR -enableBAQ --joinStrategy " + joinStrategy,
+                getResourceDir() + "expected.NA12878.chr17_69k_70k.2inputs.txt");
+        final IntegrationTestSpec spec = new IntegrationTestSpec(
+                params.getCommandLineNoApiKey(),
+                Arrays.asList(params.expectedFileName));
+        spec.executeTest("testBQSRSparkWithKnownSitesIndex-" + params.args, this);
+    }
+
+    @Test(groups = "spark")
+    public void testBQSRSparkFailWithKnownSitesIndexAndVCF() throws IOException {
+        final String hg19Chr171Mb_2bit = publicTestDir + "human_g1k_v37.chr17_1Mb.2bit";
+        final String HiSeqBam_chr17 = getResourceDir() + "NA12878.chr17_69k_70k.dictFix.bam";
+        final String dbSNPb37_chr17 =  getResourceDir() + "dbsnp_132.b37.excluding_sites_after_129.chr17_69k_70k.vcf";
+        final String more17Sites = getResourceDir() + "bqsr.fakeSitesForTesting.b37.chr17.vcf";
+
+        final File knownSitesIndex = createTempFile("knownSites", KnownSitesBitSetIndex.FILE_EXTENSION);
+        new CreateKnownSitesIndex().instanceMain(Utils.escapeExpressions("-knownSites " + more17Sites + " -O " + knownSitesIndex.getAbsolutePath()));
+
+        final BQSRTest params = new BQSRTest(hg19Chr171Mb_2bit, HiSeqBam_chr17, dbSNPb37_chr17, "-knownSites " + knownSitesIndex.getAbsolutePath(),
+                getResourceDir() + "expected.NA12878.chr17_69k_70k.2inputs.txt");
+        final IntegrationTestSpec spec = new IntegrationTestSpec(
+                params.getCommandLineNoApiKey(),
+                1,
+                UserException.BadInput.class);
+        spec.executeTest("testBQSRSparkFailWithKnownSitesIndexAndVCF", this);
+    }
+
     //This data provider is for tests that use BAM files stored in buckets
     @DataProvider(name = "BQSRTestBucket")
     public Object[][] createBQSRTestDataBucket() {
@@ -4,6 +4,8 @@ import htsjdk.samtools.util.Locatable;
 import htsjdk.tribble.Tribble;
 import htsjdk.tribble.readers.LineIterator;
 import htsjdk.tribble.readers.PositionalBufferedStream;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFCodec;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -34,7 +36,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class GenotypeGVCFsIntegrationTest extends CommandLineProgramTest {
@@ -163,6 +169,93 @@ public class GenotypeGVCFsIntegrationTest extends CommandLineProgramTest {
         runGenotypeGVCFSAndAssertSomething(genomicsDBUri, expected, NO_EXTRA_ARGS, VariantContextTestUtils::assertVariantContextsHaveSameGenotypes, reference);
     }
 
+    @Test
+    public void testMultipleInputsMatchGenomicsDB() throws IOException {
+        final List<File> inputs = Arrays.asList(getTestFile("combine.single.sample.pipeline.1.vcf"),
+                                                getTestFile("combine.single.sample.pipeline.2.vcf"),
+                                                getTestFile("combine.single.sample.pipeline.3.vcf"));
+        final SimpleInterval interval = new SimpleInterval("20", 1, 11_000_000);
+
+        final File tempGenomicsDB = GenomicsDBTestUtils.createTempGenomicsDB(inputs, interval);
+        final File expected = createTempFile("genotypegvcf.genomicsdb", ".vcf");
+        final ArgumentsBuilder genomicsDBArgs = new ArgumentsBuilder();
+        genomicsDBArgs.addReference(new File(b37_reference_20_21))
+                .addArgument("V", GenomicsDBTestUtils.makeGenomicsDBUri(tempGenomicsDB))
+                .addOutput(expected);
+        Utils.resetRandomGenerator();
+        runCommandLine(genomicsDBArgs);
+
+        final List<String> otherInputs = Arrays.asList("-V", inputs.get(1).getAbsolutePath(), "-V", inputs.get(2).getAbsolutePath(),
+                                                       "-L", interval.toString());
+        runGenotypeGVCFSAndAssertSomething(inputs.get(0), expected, otherInputs, VariantContextTestUtils::assertVariantContextsHaveSameGenotypes, b37_reference_20_21);
+    }
+
+    @Test
+    public void testMultipleInputsIncludingNonVariantSites() throws IOException {
+        final List<File> inputs = Arrays.asList(getTestFile("combine.single.sample.pipeline.1.vcf"),
+                                                getTestFile("combine.single.sample.pipeline.2.vcf"),
+                                                getTestFile("combine.single.sample.pipeline.3.vcf"));
+        final SimpleInterval interval = new SimpleInterval("20", 1, 11_000_000);
+        final File variantSitesOutput = createTempFile("genotypegvcf.variants", ".vcf");
+        final File allSitesOutput = createTempFile("genotypegvcf.allsites", ".vcf");
+        runGenotypeGVCFsOnMultipleInputs(inputs, interval, variantSitesOutput, false);
+        runGenotypeGVCFsOnMultipleInputs(inputs, interval, allSitesOutput, true);
+
+        // there must be an output record for every site where some input record starts, whether it is variant or not
+        final Set<Integer> inputStarts = new TreeSet<>();
+        for (final File input : inputs) {
+            getVariantContexts(input).stream()
+                    .filter(vc -> interval.contains(new SimpleInterval(vc.getContig(), vc.getStart(), vc.getStart())))
+                    .forEach(vc -> inputStarts.add(vc.getStart()));
+        }
+        final List<VariantContext> allSitesVCs = getVariantContexts(allSitesOutput);
+        Assert.assertEquals(allSitesVCs.stream().map(VariantContext::getStart).collect(Collectors.toList()), new ArrayList<>(inputStarts));
+
+        // and the variant sites must be genotyped as they are when non-variant sites are not included
+        final Map<Integer, VariantContext> allSitesVCsByStart = allSitesVCs.stream()
+                .collect(Collectors.toMap(VariantContext::getStart, Function.identity()));
+        final List<VariantContext> variantSitesVCs = getVariantContexts(variantSitesOutput);
+        Assert.assertFalse(variantSitesVCs.isEmpty());
+        Assert.assertTrue(variantSitesVCs.size() < allSitesVCs.size());
+        for (final VariantContext variantSiteVC : variantSitesVCs) {
+            VariantContextTestUtils.assertVariantContextsHaveSameGenotypes(allSitesVCsByStart.get(variantSiteVC.getStart()), variantSiteVC);
+        }
+    }
+
+    private void runGenotypeGVCFsOnMultipleInputs(final List<File> inputs, final SimpleInterval interval, final File output,
+                                                  final boolean includeNonVariants) {
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addReference(new File(b37_reference_20_21))
+                .addArgument("L", interval.toString())
+                .addOutput(output);
+        inputs.forEach(args::addVCF);
+        if (includeNonVariants) {
+            args.addBooleanArgument("includeNonVariantSites", true);
+        }
+
+        Utils.resetRandomGenerator();
+        runCommandLine(args);
+    }
+
+    @Test
+    public void testMultipleInputsWithRecordsStartingInsideADeletion() throws IOException {
+        // the deletion of deletionSample at 20:10000000 spans 10000001-10000003, and reference blocks of the same
+        // sample start at 10000001 and 10000002, inside it; snpSample has SNPs at 10000001 and 10000003
+        final List<File> inputs = Arrays.asList(getTestFile("spanningDel.multipleInputs.1.g.vcf"), getTestFile("spanningDel.multipleInputs.2.g.vcf"));
+        final File output = createTempFile("genotypegvcf.spanningDeletion", ".vcf");
+        runGenotypeGVCFsOnMultipleInputs(inputs, new SimpleInterval("20", 10_000_000, 10_000_010), output, false);
+
+        final List<VariantContext> vcs = getVariantContexts(output);
+        Assert.assertEquals(vcs.stream().map(VariantContext::getStart).collect(Collectors.toList()),
+                            Arrays.asList(10_000_000, 10_000_001, 10_000_003));
+        for (final VariantContext vc : vcs.subList(1, 3)) {
+            Assert.assertTrue(vc.hasAllele(Allele.SPAN_DEL), "no spanning deletion allele at " + vc.getStart());
+            final Genotype deletionGenotype = vc.getGenotype("deletionSample");
+            Assert.assertTrue(deletionGenotype.isCalled(), "deletionSample is not called at " + vc.getStart());
+            Assert.assertTrue(deletionGenotype.getAlleles().contains(Allele.SPAN_DEL), "deletionSample has no spanning deletion at " + vc.getStart());
+        }
+    }
+
     @Test(dataProvider = "gvcfsToGenotype")
     public void testEntireVariantContext(File input, File expected, List<String> extraArgs, String reference) throws IOException {
         assertVariantContextsMatch(input, expected, extraArgs, reference);
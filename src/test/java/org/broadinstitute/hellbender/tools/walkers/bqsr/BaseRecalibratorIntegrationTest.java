@@ -5,6 +5,7 @@ import htsjdk.samtools.ValidationStringency;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.recalibration.KnownSitesBitSetIndex;
 import org.broadinstitute.hellbender.utils.test.IntegrationTestSpec;
 import org.broadinstitute.hellbender.utils.test.SamAssertionUtils;
 import org.broadinstitute.hellbender.utils.Utils;
@@ -133,6 +134,40 @@ public final class BaseRecalibratorIntegrationTest extends CommandLineProgramTes
         IntegrationTestSpec.assertEqualTextFiles(actualTablePost, expectedTablePost);
     }
 
+    @Test
+    public void testBQSRWithKnownSitesIndex() throws IOException {
+        final String hg18Reference = publicTestDir + "human_g1k_v37.chr17_1Mb.fasta";
+        final String dbSNPb37_chr17 =  getResourceDir() + "dbsnp_132.b37.excluding_sites_after_129.chr17_69k_70k.vcf";
+        final String more17Sites = getResourceDir() + "bqsr.fakeSitesForTesting.b37.chr17.vcf";
+        final String HiSeqBam_chr17 = getResourceDir() + "NA12878.chr17_69k_70k.dictFix.bam";
+
+        final File knownSitesIndex = createTempFile("knownSites", KnownSitesBitSetIndex.FILE_EXTENSION);
+        final String argsIndex = "-knownSites " + dbSNPb37_chr17 + " -knownSites " + more17Sites + " -O " + knownSitesIndex.getAbsolutePath();
+        new CreateKnownSitesIndex().instanceMain(Utils.escapeExpressions(argsIndex));
+
+        // the recalibration tables must be identical to those produced from the original known sites files
+        final IntegrationTestSpec spec = new IntegrationTestSpec(
+                " -R " + hg18Reference + " -I " + HiSeqBam_chr17 + " -indelBQSR -enableBAQ" +
+                " -knownSitesIndex " + knownSitesIndex.getAbsolutePath() + " -O %s",
+                Arrays.asList(getResourceDir() + "expected.NA12878.chr17_69k_70k.2inputs.txt"));
+        spec.executeTest("testBQSRWithKnownSitesIndex", this);
+    }
+
+    @Test
+    public void testBQSRFailWithKnownSitesAndKnownSitesIndex() throws IOException {
+        final String hg18Reference = publicTestDir + "human_g1k_v37.chr17_1Mb.fasta";
+        final String dbSNPb37_chr17 =  getResourceDir() + "dbsnp_132.b37.excluding_sites_after_129.chr17_69k_70k.vcf";
+        final String HiSeqBam_chr17 = getResourceDir() + "NA12878.chr17_69k_70k.dictFix.bam";
+        final File knownSitesIndex = createTempFile("knownSites", KnownSitesBitSetIndex.FILE_EXTENSION);
+
+        final BQSRTest params = new BQSRTest(hg18Reference, HiSeqBam_chr17, dbSNPb37_chr17, "-knownSitesIndex " + knownSitesIndex.getAbsolutePath(), getResourceDir() + "expected.NA12878.chr17_69k_70k.txt");
+        IntegrationTestSpec spec = new IntegrationTestSpec(
+                params.getCommandLine(),
+                1,
+                CommandLineException.class);
+        spec.executeTest("testBQSRFailWithKnownSitesAndKnownSitesIndex", this);
+    }
+
     @Test
     public void testBQSRFailWithoutDBSNP() throws IOException {
         final String resourceDir =  getTestDataDir() + "/" + "BQSR" + "/";
@@ -6,9 +6,10 @@ import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public final class GenotypeLikelihoodCalculatorsUnitTest extends BaseTest {
 
@@ -99,4 +100,37 @@ public final class GenotypeLikelihoodCalculatorsUnitTest extends BaseTest {
         Assert.assertEquals(3, GenotypeLikelihoodCalculators.computeMaxAcceptableAlleleCount(20, 1024));
         Assert.assertEquals(2, GenotypeLikelihoodCalculators.computeMaxAcceptableAlleleCount(100, 1024));
     }
+
+    @Test
+    public void testTablesGrownByConcurrentThreads() throws Exception {
+        final GenotypeLikelihoodCalculators shared = new GenotypeLikelihoodCalculators();
+        final GenotypeLikelihoodCalculators reference = new GenotypeLikelihoodCalculators();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final List<int[]> requests = new ArrayList<>();
+                for (int ploidy = 1; ploidy <= 8; ploidy++) {
+                    for (int alleleCount = 1; alleleCount <= 8; alleleCount++) {
+                        requests.add(new int[]{ploidy, alleleCount});
+                    }
+                }
+                Collections.shuffle(requests, new Random(thread));
+                futures.add(executor.submit(() -> {
+                    for (final int[] request : requests) {
+                        final GenotypeLikelihoodCalculator calculator = shared.getInstance(request[0], request[1]);
+                        final int genotypeCount = reference.genotypeCount(request[0], request[1]);
+                        Assert.assertEquals(calculator.genotypeCount(), genotypeCount);
+                        Assert.assertEquals(shared.genotypeCount(request[0], request[1]), genotypeCount);
+                        Assert.assertEquals(calculator.genotypeAlleleCountsAt(genotypeCount - 1).alleleCountFor(request[1] - 1), request[0]);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
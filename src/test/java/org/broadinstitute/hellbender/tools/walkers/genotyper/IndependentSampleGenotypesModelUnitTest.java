@@ -41,6 +41,26 @@ public final class IndependentSampleGenotypesModelUnitTest {
         }
     }
 
+    @Test
+    public void testHighPloidyLikelihoodsMatchCalculator() {
+        // ploidies beyond the initial capacity of the calculator cache, as in pooled samples
+        final int[] ploidies = {20, 2, 20, 12};
+        final int[] readCounts = {30, 10, 5, 20};
+        final ReadLikelihoods<Allele> likelihoods = ReadLikelihoodsUnitTester.readLikelihoods(3, readCounts);
+        final SampleList sampleList = SampleListUnitTester.sampleList(ploidies.length);
+        final GenotypingData<Allele> data = new GenotypingData<>(new HeterogeneousPloidyModel(sampleList, ploidies), likelihoods);
+        final IndependentSampleGenotypesModel model = new IndependentSampleGenotypesModel();
+        // the second time, the model reuses its cached calculators
+        for (int repeat = 0; repeat < 2; repeat++) {
+            final GenotypingLikelihoods<Allele> gLikelihoods = model.calculateLikelihoods(likelihoods, data);
+            for (int i = 0; i < ploidies.length; i++) {
+                final GenotypeLikelihoodCalculator calculator = new GenotypeLikelihoodCalculators().getInstance(ploidies[i], 3);
+                final double[] expected = calculator.genotypeLikelihoods(likelihoods.sampleMatrix(i)).getAsVector();
+                Assert.assertEquals(gLikelihoods.sampleLikelihoods(i).getAsVector(), expected);
+            }
+        }
+    }
+
     private AlleleList<Allele> discardAllelesAtRandom(final AlleleList<Allele> likelihoods, final int discardAlleleCount) {
         final Random rnd = Utils.getRandomGenerator();
         final List<Allele> subset = new ArrayList<>(likelihoods.asListOfAlleles());
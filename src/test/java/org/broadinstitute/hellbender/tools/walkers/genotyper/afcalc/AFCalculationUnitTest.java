@@ -14,6 +14,9 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 public final class AFCalculationUnitTest extends BaseTest {
@@ -654,4 +657,61 @@ public final class AFCalculationUnitTest extends BaseTest {
             Assert.assertEquals(result.isPolymorphic(alt, -1), (boolean) expectedPoly.get(i), "isPolymorphic for allele " + alt + " " + result.getLog10PosteriorOfAFEq0ForAllele(alt));
         }
     }
-}
\ No newline at end of file
+
+    @DataProvider(name = "sharedCalculators")
+    public Object[][] makeSharedCalculatorsData() {
+        // the original diploid calculator only handles biallelic sites
+        return new Object[][]{
+                {AFCalculatorImplementation.EXACT_INDEPENDENT},
+                {AFCalculatorImplementation.EXACT_REFERENCE},
+                {AFCalculatorImplementation.EXACT_GENERAL_PLOIDY}};
+    }
+
+    @Test(dataProvider = "sharedCalculators")
+    public void testCalculatorSharedByThreads(final AFCalculatorImplementation implementation) throws Exception {
+        final AFCalculator calc = implementation.newInstance();
+        final double[] priors = MathUtils.normalizeLog10(new double[2 * 4 + 1]);
+        final Random random = new Random(13);
+        final List<VariantContext> vcs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final List<Genotype> genotypes = new ArrayList<>();
+            for (int sample = 0; sample < 4; sample++) {
+                final int[] pls = new int[6];
+                for (int j = 0; j < pls.length; j++) {
+                    pls[j] = random.nextInt(50);
+                }
+                pls[random.nextInt(pls.length)] = 0;
+                genotypes.add(new GenotypeBuilder("sample" + sample, Arrays.asList(Allele.NO_CALL, Allele.NO_CALL)).PL(pls).make());
+            }
+            vcs.add(new VariantContextBuilder("test", "1", 1, 1, Arrays.asList(A, C, G)).genotypes(genotypes).make());
+        }
+
+        final List<AFCalculationResult> expected = new ArrayList<>();
+        for (final VariantContext vc : vcs) {
+            expected.add(calc.getLog10PNonRef(vc, PLOIDY, MAX_ALT_ALLELES, priors));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<AFCalculationResult>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    final List<AFCalculationResult> results = new ArrayList<>();
+                    for (final VariantContext vc : vcs) {
+                        results.add(calc.getLog10PNonRef(vc, PLOIDY, MAX_ALT_ALLELES, priors));
+                    }
+                    return results;
+                }));
+            }
+            for (final Future<List<AFCalculationResult>> future : futures) {
+                final List<AFCalculationResult> actual = future.get();
+                for (int i = 0; i < vcs.size(); i++) {
+                    Assert.assertEquals(actual.get(i).getLog10PosteriorOfAFGT0(), expected.get(i).getLog10PosteriorOfAFGT0());
+                    Assert.assertEquals(actual.get(i).getAlleleCountsOfMLE(), expected.get(i).getAlleleCountsOfMLE());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
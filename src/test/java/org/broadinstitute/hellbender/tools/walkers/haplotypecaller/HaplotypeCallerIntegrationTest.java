@@ -3,6 +3,7 @@ package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
 import htsjdk.samtools.SamFiles;
 import htsjdk.variant.variantcontext.VariantContext;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
+import org.broadinstitute.hellbender.engine.AssemblyRegionWalker;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
 import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.exceptions.UserException;
@@ -363,6 +364,43 @@ public class HaplotypeCallerIntegrationTest extends CommandLineProgramTest {
         runCommandLine(args);
     }
 
+    /*
+     * Test that runs which fill and then read the activity profile cache call exactly the same variants as a run
+     * without the cache
+     */
+    @Test
+    public void testActivityProfileCacheDoesNotChangeOutput() throws Exception {
+        final File uncachedOutput = createTempFile("testActivityProfileCacheUncached", ".vcf");
+        final File cacheFillingOutput = createTempFile("testActivityProfileCacheFilling", ".vcf");
+        final File cacheReadingOutput = createTempFile("testActivityProfileCacheReading", ".vcf");
+        final File cache = createTempFile("testActivityProfileCache", ".cache");
+        Assert.assertTrue(cache.delete());
+
+        runHaplotypeCallerForActivityProfileCache(uncachedOutput, null);
+        runHaplotypeCallerForActivityProfileCache(cacheFillingOutput, cache);
+        Assert.assertTrue(cache.length() > 0, "the activity profile cache was not written");
+        final long cacheLastModified = cache.lastModified();
+        runHaplotypeCallerForActivityProfileCache(cacheReadingOutput, cache);
+        Assert.assertEquals(cache.lastModified(), cacheLastModified, "the activity profile cache was rewritten rather than read");
+
+        IntegrationTestSpec.assertEqualTextFiles(cacheFillingOutput, uncachedOutput);
+        IntegrationTestSpec.assertEqualTextFiles(cacheReadingOutput, uncachedOutput);
+    }
+
+    private void runHaplotypeCallerForActivityProfileCache(final File output, final File cache) {
+        final ArgumentsBuilder argBuilder = new ArgumentsBuilder();
+        argBuilder.addInput(new File(publicTestDir, "NA12878.chr17_69k_70k.dictFix.bam"));
+        argBuilder.addReference(new File(v37_chr17_1Mb_Reference));
+        argBuilder.addArgument("L", "17:69000-70000");
+        argBuilder.addOutput(output);
+        argBuilder.addArgument("addOutputVCFCommandLine", "false");
+        if ( cache != null ) {
+            argBuilder.addFileArgument(AssemblyRegionWalker.ACTIVITY_PROFILE_CACHE_LONG_NAME, cache);
+        }
+        Utils.resetRandomGenerator();
+        runCommandLine(argBuilder);
+    }
+
     /*
      * Calculate rough concordance between two vcfs, comparing only the positions, alleles, and the first genotype.
      */
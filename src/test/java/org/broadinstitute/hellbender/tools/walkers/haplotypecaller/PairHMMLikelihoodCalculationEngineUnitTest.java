@@ -7,6 +7,7 @@ import htsjdk.variant.variantcontext.Allele;
 import org.broadinstitute.gatk.nativebindings.pairhmm.PairHMMNativeArguments;
 import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.QualityUtils;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
 import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
 import org.broadinstitute.hellbender.utils.genotyper.ReadLikelihoods;
@@ -204,4 +205,22 @@ public final class PairHMMLikelihoodCalculationEngineUnitTest extends BaseTest {
         lce.close();
         new File(PairHMMLikelihoodCalculationEngine.LIKELIHOODS_FILENAME).delete();
     }
+
+    @Test
+    public void testGapContinuationPenaltiesAreSharedByReadsOfTheSameLength() {
+        final List<GATKRead> reads = Arrays.asList(
+                ArtificialReadUtils.createArtificialRead("10M"),
+                ArtificialReadUtils.createArtificialRead("10M"),
+                ArtificialReadUtils.createArtificialRead("7M"));
+        for (int i = 0; i < reads.size(); i++) {
+            reads.get(i).setName("read" + i);
+        }
+        final Map<GATKRead, byte[]> penalties = PairHMMLikelihoodCalculationEngine.buildGapContinuationPenalties(reads, (byte) 10);
+
+        Assert.assertEquals(penalties.size(), reads.size());
+        for (final GATKRead read : reads) {
+            Assert.assertEquals(penalties.get(read), Utils.dupBytes((byte) 10, read.getLength()));
+        }
+        Assert.assertSame(penalties.get(reads.get(0)), penalties.get(reads.get(1)));
+    }
 }
@@ -495,4 +495,43 @@ public final class ReadThreadingGraphUnitTest extends BaseTest {
 
         return tests.toArray(new Object[][]{});
     }
+
+    @Test
+    public void testUsableReadSegmentsAreSharedByGraphsOfAllKmerSizes() {
+        final String bases = "ACGTTGCAACGTNACGTTGCATGCAGGTCCATGCAAGTCA";
+        final byte[] quals = Utils.dupBytes((byte) 30, bases.length());
+        quals[4] = 5;   // a low quality base
+        final GATKRead read = ArtificialReadUtils.createArtificialRead(bases.getBytes(), quals, bases.length() + "M");
+        read.setName("read");
+        final SAMFileHeader header = ArtificialReadUtils.createArtificialSamHeader();
+
+        final List<ReadThreadingGraph.ReadSegment> segments = ReadThreadingGraph.findUsableReadSegments(read, header, (byte) 10);
+        Assert.assertEquals(segments.size(), 3);
+        final int[][] expectedSpans = {{0, 4}, {5, 12}, {13, bases.length()}};
+        for ( int i = 0; i < segments.size(); i++ ) {
+            final ReadThreadingGraph.ReadSegment segment = segments.get(i);
+            Assert.assertEquals(segment.start, expectedSpans[i][0]);
+            Assert.assertEquals(segment.stop, expectedSpans[i][1]);
+            Assert.assertEquals(segment.name, "read_" + segment.start + '_' + segment.stop);
+        }
+
+        // the same segments give the same graph as adding the read itself, whatever the kmer size
+        final String ref = "ACGTTGCAACGTAACGTTGCATGCAGGTCCATGCAAGTCA";
+        for ( final int kmerSize : new int[]{5, 10, 25} ) {
+            final ReadThreadingGraph fromRead = new ReadThreadingGraph(kmerSize, false, (byte) 10, 1);
+            fromRead.addSequence("ref", ref.getBytes(), true);
+            fromRead.addRead(read, header);
+            fromRead.buildGraphIfNecessary();
+
+            final ReadThreadingGraph fromSegments = new ReadThreadingGraph(kmerSize, false, (byte) 10, 1);
+            fromSegments.addSequence("ref", ref.getBytes(), true);
+            segments.forEach(fromSegments::addReadSegment);
+            fromSegments.buildGraphIfNecessary();
+
+            Assert.assertEquals(fromSegments.vertexSet().size(), fromRead.vertexSet().size());
+            Assert.assertEquals(fromSegments.edgeSet().size(), fromRead.edgeSet().size());
+            Assert.assertEquals(fromSegments.edgeSet().stream().mapToInt(MultiSampleEdge::getMultiplicity).sum(),
+                    fromRead.edgeSet().stream().mapToInt(MultiSampleEdge::getMultiplicity).sum());
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package org.broadinstitute.hellbender.tools.walkers.mutect;
 
+import htsjdk.tribble.Tribble;
+import htsjdk.tribble.index.IndexFactory;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
 import org.apache.commons.io.FileUtils;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.Main;
@@ -10,6 +13,8 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -82,4 +87,39 @@ public class CreateSomaticPanelOfNormalsIntegrationTest extends CommandLineProgr
         Assert.assertTrue(vc5.getAlternateAllele(0).basesMatch("C"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testContigsMergedInParallel() throws IOException {
+        // merging contigs in parallel requires indexed inputs
+        final List<File> indexedVcfs = Arrays.asList(new File(PON_VCFS_DIR, "sample1.vcf"), new File(PON_VCFS_DIR, "sample2.vcf")).stream()
+                .map(vcf -> {
+                    final File copy = createTempFile(vcf.getName().replace(".vcf", ""), ".vcf");
+                    try {
+                        FileUtils.copyFile(vcf, copy);
+                        IndexFactory.createDynamicIndex(copy, new VCFCodec(), IndexFactory.IndexBalanceApproach.FOR_SEEK_TIME)
+                                .write(Tribble.indexFile(copy));
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return copy;
+                }).collect(Collectors.toList());
+
+        final List<VariantContext> serialVariants = createPon(indexedVcfs, 1);
+        final List<VariantContext> parallelVariants = createPon(indexedVcfs, 4);
+        Assert.assertEquals(parallelVariants.size(), 5);
+        Assert.assertEquals(parallelVariants.size(), serialVariants.size());
+        for (int i = 0; i < serialVariants.size(); i++) {
+            Assert.assertEquals(parallelVariants.get(i).toStringWithoutGenotypes(), serialVariants.get(i).toStringWithoutGenotypes());
+        }
+    }
+
+    private List<VariantContext> createPon(final List<File> vcfs, final int numThreads) {
+        final File outputVcf = createTempFile("pon", ".vcf");
+        final List<String> args = new ArrayList<>();
+        vcfs.forEach(vcf -> args.addAll(Arrays.asList("-" + CreateSomaticPanelOfNormals.INPUT_VCFS_LIST_SHORT_NAME, vcf.getAbsolutePath())));
+        args.addAll(Arrays.asList("--" + CreateSomaticPanelOfNormals.NUM_THREADS_LONG_NAME, Integer.toString(numThreads)));
+        args.addAll(Arrays.asList("-O", outputVcf.getAbsolutePath()));
+        runCommandLine(args);
+        return StreamSupport.stream(new FeatureDataSource<VariantContext>(outputVcf).spliterator(), false)
+                .collect(Collectors.toList());
+    }
+}
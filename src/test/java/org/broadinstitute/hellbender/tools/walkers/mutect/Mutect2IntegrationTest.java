@@ -194,6 +194,42 @@ public class Mutect2IntegrationTest extends CommandLineProgramTest {
         Assert.assertTrue(numVariantsPassingFilters < 2);
     }
 
+    // filtering contigs in parallel should give the same result as filtering them serially
+    @Test
+    public void testFilterContigsInParallel() throws Exception {
+        Utils.resetRandomGenerator();
+        final File unfilteredVcf = createTempFile("unfiltered", ".vcf");
+
+        final String[] args = {
+                "-I", NA12878_20_21_WGS_bam,
+                "-tumor", "NA12878",
+                "-R", b37_reference_20_21,
+                "-L", "20:10000000-10010000",
+                "-L", "21:20000000-20010000",
+                "-germline_resource", GNOMAD.getAbsolutePath(),
+                "-O", unfilteredVcf.getAbsolutePath()
+        };
+
+        runCommandLine(args);
+
+        final List<List<VariantContext>> filteredVariants = Arrays.asList(1, 3).stream().map(numThreads -> {
+            final File filteredVcf = createTempFile("filtered", ".vcf");
+            new Main().instanceMain(makeCommandLineArgs(Arrays.asList("-V", unfilteredVcf.getAbsolutePath(), "-O", filteredVcf.getAbsolutePath(),
+                    "--" + FilterMutectCalls.NUM_THREADS_LONG_NAME, Integer.toString(numThreads)), "FilterMutectCalls"));
+            return StreamSupport.stream(new FeatureDataSource<VariantContext>(filteredVcf).spliterator(), false).collect(Collectors.toList());
+        }).collect(Collectors.toList());
+
+        final List<VariantContext> serial = filteredVariants.get(0);
+        final List<VariantContext> parallel = filteredVariants.get(1);
+        Assert.assertTrue(serial.stream().map(VariantContext::getContig).distinct().count() > 1);
+        Assert.assertEquals(parallel.size(), serial.size());
+        for (int i = 0; i < serial.size(); i++) {
+            Assert.assertEquals(parallel.get(i).getContig(), serial.get(i).getContig());
+            Assert.assertEquals(parallel.get(i).getStart(), serial.get(i).getStart());
+            Assert.assertEquals(parallel.get(i).getFilters(), serial.get(i).getFilters());
+        }
+    }
+
     // test that ReadFilterLibrary.NON_ZERO_REFERENCE_LENGTH_ALIGNMENT removes reads that consume zero reference bases
     // e.g. read name HAVCYADXX150109:1:2102:20528:2129 with cigar 23S53I
     @Test
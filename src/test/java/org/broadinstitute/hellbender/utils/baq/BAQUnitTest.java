@@ -21,6 +21,7 @@ import org.testng.annotations.Test;
 import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public final class BAQUnitTest extends BaseTest {
@@ -172,6 +173,35 @@ public final class BAQUnitTest extends BaseTest {
         }
     }
 
+    @Test
+    public void testBAQEpsilons() {
+        final BAQ baq = new BAQ(1.0e-3, 0.1, 7, (byte) 4);
+        final String bases = "ACGTacgtNn";
+        for (final byte ref : bases.getBytes()) {
+            for (final byte read : bases.getBytes()) {
+                for (int q = 0; q <= SAMUtils.MAX_PHRED_SCORE; q++) {
+                    final double errorProb = Math.pow(10, -Math.max(q, 4) / 10.);
+                    final double expected = ref == 'N' || ref == 'n' || read == 'N' || read == 'n' ? 1.0
+                            : Character.toUpperCase(ref) == Character.toUpperCase(read) ? 1 - errorProb : errorProb * 0.33333333333;
+                    Assert.assertEquals(baq.calcEpsilon(ref, read, (byte) q), expected, 1e-15);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBAQDoesNotDependOnPreviousReads() {
+        // the HMM matrices are reused between reads, so BAQ reads of different lengths in both orders
+        final List<BAQTest> tests = new ArrayList<>();
+        for (final Object[] test : createData1()) {
+            tests.add((BAQTest) test[0]);
+        }
+        for (int i = 0; i < 2; i++) {
+            tests.forEach(test -> testBAQ(test, false, null));
+            Collections.reverse(tests);
+        }
+    }
+
     @Test
     public void testBAQOverwritesExistingTagWithNull() {
         final File referenceFile = new File(hg19_chr1_1M_Reference);
@@ -99,6 +99,42 @@ public final class ReadLikelihoodsUnitTest {
         }
     }
 
+    @Test(dataProvider = "dataSets")
+    public void testBestAllelesOfAlleleSubset(final String[] samples, final Allele[] alleles, final Map<String,List<GATKRead>> reads) {
+        if (alleles.length < 2) {
+            throw new SkipException("no proper subset of alleles");
+        }
+        final ReadLikelihoods<Allele> original = new ReadLikelihoods<>(new IndexedSampleList(samples), new IndexedAlleleList<>(alleles), reads);
+        fillWithRandomLikelihoods(samples,alleles,original);
+        final List<Allele> subset = Arrays.asList(alleles[alleles.length - 1], alleles[0]);
+        final Map<Allele,List<Allele>> subsetMap = new LinkedHashMap<>();
+        subset.forEach(a -> subsetMap.put(a, Collections.singletonList(a)));
+
+        for (final String sample : samples) {
+            assertSameBestAlleles(original.bestAlleles(sample, subset), original.marginalize(subsetMap).bestAlleles(sample));
+            // the best alleles are recomputed when the likelihoods change
+            if (original.sampleReadCount(original.indexOfSample(sample)) > 0) {
+                original.sampleMatrix(original.indexOfSample(sample)).set(0, 0, 10.0);
+                assertSameBestAlleles(original.bestAlleles(sample, subset), original.marginalize(subsetMap).bestAlleles(sample));
+                assertSameBestAlleles(original.bestAlleles(sample), original.bestAlleles(sample, Arrays.asList(alleles)));
+                Assert.assertEquals(original.bestAlleles(sample).iterator().next().allele, alleles[0]);
+            }
+        }
+    }
+
+    private static void assertSameBestAlleles(final Collection<ReadLikelihoods<Allele>.BestAllele> actual,
+                                              final Collection<ReadLikelihoods<Allele>.BestAllele> expected) {
+        Assert.assertEquals(actual.size(), expected.size());
+        final Iterator<ReadLikelihoods<Allele>.BestAllele> expectedIterator = expected.iterator();
+        for (final ReadLikelihoods<Allele>.BestAllele bestAllele : actual) {
+            final ReadLikelihoods<Allele>.BestAllele expectedBestAllele = expectedIterator.next();
+            Assert.assertEquals(bestAllele.read, expectedBestAllele.read);
+            Assert.assertEquals(bestAllele.allele, expectedBestAllele.allele);
+            Assert.assertEquals(bestAllele.likelihood, expectedBestAllele.likelihood);
+            Assert.assertEquals(bestAllele.confidence, expectedBestAllele.confidence, EPSILON);
+        }
+    }
+
     @Test(dataProvider = "dataSets")
     public void testBestAlleleMap(final String[] samples, final Allele[] alleles, final Map<String,List<GATKRead>> reads) {
         final ReadLikelihoods<Allele> original = new ReadLikelihoods<>(new IndexedSampleList(samples), new IndexedAlleleList<>(alleles), reads);
@@ -0,0 +1,71 @@
+package org.broadinstitute.hellbender.utils.hmm;
+
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.param.ParamUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A simple HMM model whose hidden states are split into blocks of the same size, so that the transition matrix is
+ * block-diagonal: the chain never leaves the block it starts in. Within a block the chain stays in the same state
+ * with a fixed probability and otherwise moves to any other state of the block uniformly.
+ *
+ * <p>
+ *     Each datum is the index of a state, which is emitted with a fixed probability by that state and uniformly
+ *     by the others.
+ * </p>
+ */
+public final class BlockDiagonalTestHMM implements HMM<Integer, Integer, Integer> {
+
+    private final int numStates;
+    private final int blockSize;
+    private final double stayProbability;
+    private final double matchingEmissionProbability;
+
+    public BlockDiagonalTestHMM(final int numBlocks, final int blockSize, final double stayProbability,
+                                final double matchingEmissionProbability) {
+        ParamUtils.isPositive(numBlocks, "bad number of blocks");
+        ParamUtils.isPositive(blockSize - 1, "blocks must have at least two states");
+        ParamUtils.inRange(stayProbability, 0, 1, "bad stay probability");
+        ParamUtils.inRange(matchingEmissionProbability, 0, 1, "bad emission probability");
+        this.numStates = numBlocks * blockSize;
+        this.blockSize = blockSize;
+        this.stayProbability = stayProbability;
+        this.matchingEmissionProbability = matchingEmissionProbability;
+    }
+
+    @Override
+    public List<Integer> hiddenStates() {
+        return IntStream.range(0, numStates).boxed().collect(Collectors.toList());
+    }
+
+    @Override
+    public double logPriorProbability(final Integer state, final Integer position) {
+        Utils.validIndex(state, numStates);
+        return - Math.log(numStates);
+    }
+
+    @Override
+    public double logTransitionProbability(final Integer currentState, final Integer currentPosition, final Integer nextState,
+                                           final Integer nextPosition) {
+        Utils.validIndex(currentState, numStates);
+        Utils.validIndex(nextState, numStates);
+        if (currentState / blockSize != nextState / blockSize) {
+            return Double.NEGATIVE_INFINITY;
+        } else if (currentState.equals(nextState)) {
+            return Math.log(stayProbability);
+        } else {
+            return Math.log((1 - stayProbability) / (blockSize - 1));
+        }
+    }
+
+    @Override
+    public double logEmissionProbability(final Integer data, final Integer state, final Integer position) {
+        Utils.validIndex(state, numStates);
+        Utils.validIndex(data, numStates);
+        return data.equals(state) ? Math.log(matchingEmissionProbability)
+                : Math.log((1 - matchingEmissionProbability) / (numStates - 1));
+    }
+}
@@ -2,6 +2,7 @@ package org.broadinstitute.hellbender.utils.hmm;
 
 import org.apache.commons.math3.linear.*;
 import org.apache.commons.math3.util.Pair;
+import org.broadinstitute.hellbender.utils.GATKProtectedMathUtils;
 import org.broadinstitute.hellbender.utils.R.RScriptExecutor;
 import org.broadinstitute.hellbender.utils.test.BaseTest;
 import org.broadinstitute.hellbender.utils.tsv.DataLine;
@@ -439,6 +440,156 @@ public final class HMMUnitTest extends BaseTest {
         return result;
     }
 
+    // Checks the FW algorithm against the probabilities obtained by adding up every possible path when
+    // the transition matrix has zero blocks.
+    @Test
+    public void testBlockDiagonalTransitionsAgainstAllPaths() {
+        final int numStates = 4;
+        final int length = 6; // dont make this too big as the number of paths to test is numStates ^ length.
+        final HMM<Integer, Integer, Integer> model = new BlockDiagonalTestHMM(2, 2, 0.8, 0.6);
+        final List<Integer> positions = IntStream.range(0, length).boxed().collect(Collectors.toList());
+        final Random rdn = new Random(13);
+        final List<Integer> data = IntStream.range(0, length).mapToObj(i -> rdn.nextInt(numStates)).collect(Collectors.toList());
+
+        final ForwardBackwardAlgorithm.Result<Integer, Integer, Integer> fbResult =
+                ForwardBackwardAlgorithm.apply(data, positions, model);
+
+        final int numPaths = (int) Math.pow(numStates, length);
+        final double[] pathLogProbs = new double[numPaths];
+        final double[][][] pathLogProbsByPositionAndState = new double[length][numStates][numPaths];
+        for (final double[][] byState : pathLogProbsByPositionAndState) {
+            for (final double[] byPath : byState) {
+                Arrays.fill(byPath, Double.NEGATIVE_INFINITY);
+            }
+        }
+        final List<Integer> path = new ArrayList<>(Collections.nCopies(length, 0));
+        for (int i = 0; i < numPaths; i++) {
+            double logProb = model.logPriorProbability(path.get(0), 0) + model.logEmissionProbability(data.get(0), path.get(0), 0);
+            for (int p = 1; p < length; p++) {
+                logProb += model.logTransitionProbability(path.get(p - 1), p - 1, path.get(p), p)
+                        + model.logEmissionProbability(data.get(p), path.get(p), p);
+            }
+            pathLogProbs[i] = logProb;
+            for (int p = 0; p < length; p++) {
+                pathLogProbsByPositionAndState[p][path.get(p)][i] = logProb;
+            }
+            increasePath(path, numStates);
+        }
+
+        final double expectedLogDataLikelihood = GATKProtectedMathUtils.logSumExp(pathLogProbs);
+        for (int p = 0; p < length; p++) {
+            Assert.assertEquals(fbResult.logDataLikelihood(p), expectedLogDataLikelihood, 1e-10);
+            for (int s = 0; s < numStates; s++) {
+                final double expectedLogProb = GATKProtectedMathUtils.logSumExp(pathLogProbsByPositionAndState[p][s]) - expectedLogDataLikelihood;
+                Assert.assertEquals(fbResult.logProbability(p, (Integer) s), expectedLogProb, 1e-10, "p = " + p + " s = " + s);
+            }
+        }
+        Assert.assertEquals(fbResult.logProbability(Arrays.asList(0, 1, 1, 2, 3, 3)), Double.NEGATIVE_INFINITY);
+    }
+
+    // Checks that the probabilities are still valid along a chain long enough for the probability of
+    // the data to be far smaller than the smallest double.
+    @Test
+    public void testLongChain() {
+        final int numStates = 4;
+        final int length = 100_000;
+        final HMM<Integer, Integer, Integer> model = new BlockDiagonalTestHMM(2, 2, 0.9, 0.9);
+        final List<Integer> positions = IntStream.range(0, length).boxed().collect(Collectors.toList());
+        final Random rdn = new Random(13);
+        final List<Integer> data = IntStream.range(0, length).mapToObj(i -> rdn.nextInt(numStates)).collect(Collectors.toList());
+
+        final ForwardBackwardAlgorithm.Result<Integer, Integer, Integer> fbResult =
+                ForwardBackwardAlgorithm.apply(data, positions, model);
+
+        final double logDataLikelihood = fbResult.logDataLikelihood();
+        Assert.assertTrue(logDataLikelihood < -1000 && !Double.isInfinite(logDataLikelihood));
+        for (int p = 0; p < length; p += 997) {
+            Assert.assertEquals(fbResult.logDataLikelihood(p), logDataLikelihood, Math.abs(logDataLikelihood) * 1e-10);
+            final int position = p;
+            final double[] logProbs = IntStream.range(0, numStates).mapToDouble(s -> fbResult.logProbability(position, (Integer) s)).toArray();
+            Assert.assertEquals(GATKProtectedMathUtils.logSumExp(logProbs), 0, 1e-10);
+        }
+    }
+
+    // Checks the FW algorithm against a plain log-scale calculation when the emission probabilities of the states
+    // differ by far more than the range of a double, so that some probabilities underflow in linear scale.
+    @Test
+    public void testWidelySeparatedEmissionsAgainstLogScale() {
+        final int numStates = 3;
+        final int length = 50;
+        final double stayProbability = 0.9;
+        final Random rdn = new Random(17);
+        final List<Integer> positions = IntStream.range(0, length).boxed().collect(Collectors.toList());
+        final List<Integer> data = IntStream.range(0, length).mapToObj(i -> rdn.nextInt(numStates)).collect(Collectors.toList());
+        // the log emission probability drops by 1000 to 5000 for every unit of distance between the datum and the state.
+        final double[] gaps = IntStream.range(0, length).mapToDouble(i -> 1000 + 4000 * rdn.nextDouble()).toArray();
+        final HMM<Integer, Integer, Integer> model = new HMM<Integer, Integer, Integer>() {
+            @Override
+            public List<Integer> hiddenStates() {
+                return IntStream.range(0, numStates).boxed().collect(Collectors.toList());
+            }
+
+            @Override
+            public double logPriorProbability(final Integer state, final Integer position) {
+                return - Math.log(numStates);
+            }
+
+            @Override
+            public double logTransitionProbability(final Integer currentState, final Integer currentPosition,
+                                                   final Integer nextState, final Integer nextPosition) {
+                return Math.log(currentState.equals(nextState) ? stayProbability : (1 - stayProbability) / (numStates - 1));
+            }
+
+            @Override
+            public double logEmissionProbability(final Integer datum, final Integer state, final Integer position) {
+                return - gaps[position] * Math.abs(datum - state);
+            }
+        };
+
+        final double[][] expectedLogForward = new double[length][numStates];
+        final double[][] expectedLogBackward = new double[length][numStates];
+        for (int s = 0; s < numStates; s++) {
+            expectedLogForward[0][s] = model.logPriorProbability(s, 0) + model.logEmissionProbability(data.get(0), s, 0);
+        }
+        for (int p = 1; p < length; p++) {
+            for (int s = 0; s < numStates; s++) {
+                final int position = p;
+                final int state = s;
+                expectedLogForward[p][s] = GATKProtectedMathUtils.logSumExp(IntStream.range(0, numStates)
+                        .mapToDouble(prev -> expectedLogForward[position - 1][prev] + model.logTransitionProbability(prev, position - 1, state, position))
+                        .toArray()) + model.logEmissionProbability(data.get(p), s, p);
+            }
+        }
+        for (int p = length - 2; p >= 0; p--) {
+            for (int s = 0; s < numStates; s++) {
+                final int position = p;
+                final int state = s;
+                expectedLogBackward[p][s] = GATKProtectedMathUtils.logSumExp(IntStream.range(0, numStates)
+                        .mapToDouble(next -> model.logTransitionProbability(state, position, next, position + 1)
+                                + model.logEmissionProbability(data.get(position + 1), next, position + 1)
+                                + expectedLogBackward[position + 1][next])
+                        .toArray());
+            }
+        }
+        final double expectedLogDataLikelihood = GATKProtectedMathUtils.logSumExp(expectedLogForward[length - 1]);
+
+        final ForwardBackwardAlgorithm.Result<Integer, Integer, Integer> fbResult =
+                ForwardBackwardAlgorithm.apply(data, positions, model);
+        Assert.assertEquals(fbResult.logDataLikelihood(), expectedLogDataLikelihood, Math.abs(expectedLogDataLikelihood) * 1e-10);
+        for (int p = 0; p < length; p++) {
+            for (int s = 0; s < numStates; s++) {
+                final double expectedLogProb = expectedLogForward[p][s] + expectedLogBackward[p][s] - expectedLogDataLikelihood;
+                Assert.assertTrue(Double.isFinite(fbResult.logProbability(p, (Integer) s)));
+                Assert.assertEquals(fbResult.logForwardProbability(p, (Integer) s), expectedLogForward[p][s],
+                        Math.max(1, Math.abs(expectedLogForward[p][s])) * 1e-10, "p = " + p + " s = " + s);
+                Assert.assertEquals(fbResult.logBackwardProbability(p, (Integer) s), expectedLogBackward[p][s],
+                        Math.max(1, Math.abs(expectedLogBackward[p][s])) * 1e-10, "p = " + p + " s = " + s);
+                Assert.assertEquals(fbResult.logProbability(p, (Integer) s), expectedLogProb,
+                        Math.max(1, Math.abs(expectedLogDataLikelihood)) * 1e-10, "p = " + p + " s = " + s);
+            }
+        }
+    }
+
     private void increasePath(final List<Integer> path, final int numStates) {
         for (int i = 0; i < path.size(); i++) {
             final int state = path.get(i);
@@ -12,6 +12,8 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -36,6 +38,14 @@ public class GATKReadAdaptersUnitTest extends BaseTest {
         return new SAMRecordToGATKReadAdapter(basicSAMRecord());
     }
 
+    private static GATKRead basicReadBackedByBAMRecord() {
+        return new SAMRecordToGATKReadAdapter(basicBAMRecord());
+    }
+
+    private static GATKRead headerlessReadBackedByBAMRecord() {
+        return SAMRecordToGATKReadAdapter.headerlessReadAdapter(basicBAMRecord());
+    }
+
     private static GATKRead basicReadBackedByGoogle() {
         return new GoogleGenomicsReadToGATKReadAdapter(basicGoogleGenomicsRead());
     }
@@ -116,6 +126,19 @@ public class GATKReadAdaptersUnitTest extends BaseTest {
         return read;
     }
 
+    /**
+     * Creates a basic read as a lazily-decoded BAMRecord, as it would be read from a BAM file.
+     */
+    private static SAMRecord basicBAMRecord() {
+        final SAMRecord read = basicSAMRecord();
+        final BAMRecordCodec codec = new BAMRecordCodec(read.getHeader());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.setOutputStream(bytes);
+        codec.encode(read);
+        codec.setInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        return codec.decode();
+    }
+
     /**
      * Creates a basic mapped Google read with a mapped mate.
      * @return GoogleGenomicsRead
@@ -324,6 +347,7 @@ public class GATKReadAdaptersUnitTest extends BaseTest {
 
         return new Object[][]{
                 { basicReadBackedBySam(), BASIC_READ_BASES.length },
+                { basicReadBackedByBAMRecord(), BASIC_READ_BASES.length },
                 { basicReadBackedByGoogle(), BASIC_READ_BASES.length },
                 { new SAMRecordToGATKReadAdapter(baselessSam), 0 },
                 { new GoogleGenomicsReadToGATKReadAdapter(baselessGoogleRead), 0 }
@@ -1464,6 +1488,8 @@ public class GATKReadAdaptersUnitTest extends BaseTest {
         List<Object[]> testCases = new ArrayList<>();
 
         testCases.add(new Object[]{basicReadBackedBySam()});
+        testCases.add(new Object[]{basicReadBackedByBAMRecord()});
+        testCases.add(new Object[]{headerlessReadBackedByBAMRecord()});
         testCases.add(new Object[]{basicReadBackedByGoogle()});
 
         return testCases.toArray(new Object[][]{});
@@ -1526,4 +1552,26 @@ public class GATKReadAdaptersUnitTest extends BaseTest {
 
         Assert.assertEquals(read, read.deepCopy());
     }
+
+    @Test
+    public void testDeepCopyOfUndecodedBAMRecordCopiesRawBytes() {
+        for ( final GATKRead read : Arrays.asList(basicReadBackedByBAMRecord(), headerlessReadBackedByBAMRecord()) ) {
+            final SAMRecord record = ((SAMRecordToGATKReadAdapter) read).getEncapsulatedSamRecord();
+            final GATKRead deepCopy = read.deepCopy();
+            final SAMRecord copiedRecord = ((SAMRecordToGATKReadAdapter) deepCopy).getEncapsulatedSamRecord();
+
+            Assert.assertTrue(copiedRecord instanceof BAMRecord);
+            Assert.assertNotNull(copiedRecord.getVariableBinaryRepresentation());
+            Assert.assertNotSame(copiedRecord.getVariableBinaryRepresentation(), record.getVariableBinaryRepresentation());
+            Assert.assertEquals(copiedRecord.getVariableBinaryRepresentation(), record.getVariableBinaryRepresentation());
+            Assert.assertEquals(copiedRecord.getHeader(), record.getHeader());
+            Assert.assertEquals(copiedRecord.getReferenceName(), record.getReferenceName());
+            Assert.assertEquals(copiedRecord.getMateReferenceName(), record.getMateReferenceName());
+            Assert.assertEquals(deepCopy, read);
+
+            // modifying the copy must not affect the original
+            deepCopy.setBases(new byte[]{'T', 'T', 'T', 'T'});
+            Assert.assertEquals(read.getBases(), BASIC_READ_BASES);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+
+public final class KnownSitesBitSetIndexUnitTest extends BaseTest {
+
+    private static final List<SimpleInterval> SITES = Arrays.asList(
+            new SimpleInterval("1", 1, 1),
+            new SimpleInterval("1", 63, 63),
+            new SimpleInterval("1", 64, 64),
+            new SimpleInterval("1", 100, 100),
+            new SimpleInterval("1", 100, 100),     // duplicate
+            new SimpleInterval("1", 98, 105),      // multi-base span covering single-base sites
+            new SimpleInterval("1", 1000, 1002),
+            new SimpleInterval("1", 5000, 5000),
+            new SimpleInterval("2", 10, 20),       // contig with only spans
+            new SimpleInterval("3", 129, 129)      // contig with only single-base sites
+    );
+
+    private static KnownSitesBitSetIndex buildIndex() {
+        final KnownSitesBitSetIndex.Builder builder = new KnownSitesBitSetIndex.Builder();
+        // add in reverse order to check that the builder does not rely on sorted input
+        final List<SimpleInterval> sites = new ArrayList<>(SITES);
+        Collections.reverse(sites);
+        sites.forEach(builder::add);
+
+        final File indexFile = createTempFile("knownSites", KnownSitesBitSetIndex.FILE_EXTENSION);
+        builder.write(indexFile);
+        return KnownSitesBitSetIndex.load(indexFile);
+    }
+
+    @DataProvider(name = "queries")
+    public Object[][] queries() {
+        return new Object[][] {
+                { new SimpleInterval("1", 1, 1) },
+                { new SimpleInterval("1", 1, 70) },
+                { new SimpleInterval("1", 63, 64) },
+                { new SimpleInterval("1", 65, 97) },
+                { new SimpleInterval("1", 99, 99) },
+                { new SimpleInterval("1", 104, 2000) },
+                { new SimpleInterval("1", 1002, 1002) },
+                { new SimpleInterval("1", 5000, 100000) },
+                { new SimpleInterval("1", 1, 100000) },
+                { new SimpleInterval("2", 1, 9) },
+                { new SimpleInterval("2", 15, 15) },
+                { new SimpleInterval("3", 1, 1000) },
+                { new SimpleInterval("4", 1, 1000) }
+        };
+    }
+
+    @Test(dataProvider = "queries")
+    public void testGetOverlapping( final SimpleInterval query ) {
+        final KnownSitesBitSetIndex index = buildIndex();
+        final Set<SimpleInterval> expected = new HashSet<>();
+        SITES.stream().filter(site -> site.overlaps(query)).forEach(expected::add);
+
+        final List<SimpleInterval> actual = index.getOverlapping(query);
+        Assert.assertEquals(new HashSet<>(actual), expected);
+        Assert.assertEquals(actual.size(), expected.size(), "duplicate sites returned");
+    }
+
+    @Test
+    public void testIsKnownSite() {
+        final KnownSitesBitSetIndex index = buildIndex();
+        Assert.assertTrue(index.isKnownSite("1", 64));
+        Assert.assertTrue(index.isKnownSite("1", 101));
+        Assert.assertFalse(index.isKnownSite("1", 65));
+        Assert.assertFalse(index.isKnownSite("1", 1003));
+        Assert.assertFalse(index.isKnownSite("4", 1));
+    }
+
+    @Test
+    public void testIsKnownSitesIndexFile() {
+        Assert.assertTrue(KnownSitesBitSetIndex.isKnownSitesIndexFile("dbsnp" + KnownSitesBitSetIndex.FILE_EXTENSION));
+        Assert.assertFalse(KnownSitesBitSetIndex.isKnownSitesIndexFile("dbsnp.vcf"));
+        Assert.assertFalse(KnownSitesBitSetIndex.isKnownSitesIndexFile(null));
+    }
+
+    @Test(expectedExceptions = UserException.MalformedFile.class)
+    public void testLoadNotAnIndex() throws IOException {
+        final File notAnIndex = createTempFile("notAnIndex", KnownSitesBitSetIndex.FILE_EXTENSION);
+        try ( final FileWriter writer = new FileWriter(notAnIndex) ) {
+            writer.write("this is not a known sites index file");
+        }
+        KnownSitesBitSetIndex.load(notAnIndex);
+    }
+}
@@ -0,0 +1,128 @@
+package org.broadinstitute.hellbender.utils.svd;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tests for {@link RandomizedSingularValueDecomposer}.
+ */
+public final class RandomizedSingularValueDecomposerUnitTest extends BaseTest {
+
+    private static final double TOLERANCE = 1e-8;
+
+    /**
+     * Creates a matrix with a few dominant components plus some noise.
+     */
+    private static RealMatrix lowRankPlusNoise(final Random rdn, final int rows, final int columns, final int rank, final double noise) {
+        final RealMatrix left = new Array2DRowRealMatrix(rows, rank);
+        final RealMatrix right = new Array2DRowRealMatrix(rank, columns);
+        for (int k = 0; k < rank; k++) {
+            final double scale = 100.0 / (k + 1);
+            for (int i = 0; i < rows; i++) {
+                left.setEntry(i, k, rdn.nextGaussian() * scale);
+            }
+            for (int j = 0; j < columns; j++) {
+                right.setEntry(k, j, rdn.nextGaussian());
+            }
+        }
+        final RealMatrix result = left.multiply(right);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                result.addToEntry(i, j, rdn.nextGaussian() * noise);
+            }
+        }
+        return result;
+    }
+
+    @DataProvider(name = "matrices")
+    public Object[][] matrices() {
+        final Random rdn = new Random(13);
+        return new Object[][] {
+                {lowRankPlusNoise(rdn, 200, 60, 5, 0.01), 5},
+                {lowRankPlusNoise(rdn, 300, 40, 3, 0.1), 2},
+                {lowRankPlusNoise(rdn, 50, 80, 4, 0.01), 4},
+                {lowRankPlusNoise(rdn, 100, 30, 8, 0), 8},
+        };
+    }
+
+    @Test(dataProvider = "matrices")
+    public void testLeadingSingularTriplets(final RealMatrix m, final int rank) {
+        final SVD expected = new ApacheSingularValueDecomposer().createSVD(m);
+        final SVD actual = new RandomizedSingularValueDecomposer(rank, null).createSVD(m);
+        assertLeadingSingularTriplets(actual, expected, m, rank);
+    }
+
+    @Test(dataProvider = "matrices")
+    public void testLeadingSingularTripletsWithInitialBasis(final RealMatrix m, final int rank) {
+        final SVD expected = new ApacheSingularValueDecomposer().createSVD(m);
+        // the exact left singular vectors of a slightly perturbed matrix, as if it were a previous decomposition.
+        final RealMatrix perturbed = m.add(lowRankPlusNoise(new Random(17), m.getRowDimension(), m.getColumnDimension(), 1, 0.5).scalarMultiply(0.01));
+        final RealMatrix initialBasis = new ApacheSingularValueDecomposer().createSVD(perturbed).getU()
+                .getSubMatrix(0, m.getRowDimension() - 1, 0, rank - 1);
+        final SVD actual = new RandomizedSingularValueDecomposer(rank, 0, 1, initialBasis, 19).createSVD(m);
+        assertLeadingSingularTriplets(actual, expected, m, rank);
+    }
+
+    @Test
+    public void testFullRankSampleIsExact() {
+        final RealMatrix m = lowRankPlusNoise(new Random(23), 40, 10, 10, 1);
+        final SVD expected = new ApacheSingularValueDecomposer().createSVD(m);
+        final SVD actual = new RandomizedSingularValueDecomposer(10, 5, 0, null, 29).createSVD(m);
+        assertLeadingSingularTriplets(actual, expected, m, 10);
+        final RealMatrix difference = actual.getPinv().subtract(expected.getPinv());
+        Assert.assertEquals(difference.getNorm(), 0, TOLERANCE * expected.getPinv().getNorm());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBadInitialBasisDimensions() {
+        final RealMatrix m = lowRankPlusNoise(new Random(31), 40, 10, 2, 1);
+        new RandomizedSingularValueDecomposer(2, new Array2DRowRealMatrix(39, 2)).createSVD(m);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNonPositiveRank() {
+        new RandomizedSingularValueDecomposer(0, null);
+    }
+
+    private static void assertLeadingSingularTriplets(final SVD actual, final SVD expected, final RealMatrix m, final int rank) {
+        final double[] singularValues = actual.getSingularValues();
+        Assert.assertEquals(singularValues.length, rank);
+        Assert.assertEquals(actual.getU().getRowDimension(), m.getRowDimension());
+        Assert.assertEquals(actual.getU().getColumnDimension(), rank);
+        Assert.assertEquals(actual.getV().getRowDimension(), m.getColumnDimension());
+        Assert.assertEquals(actual.getV().getColumnDimension(), rank);
+        Assert.assertEquals(actual.getPinv().getRowDimension(), m.getColumnDimension());
+        Assert.assertEquals(actual.getPinv().getColumnDimension(), m.getRowDimension());
+
+        final RealMatrix identity = MatrixUtils.createRealIdentityMatrix(rank);
+        Assert.assertEquals(actual.getU().transpose().multiply(actual.getU()).subtract(identity).getNorm(), 0, TOLERANCE);
+        Assert.assertEquals(actual.getV().transpose().multiply(actual.getV()).subtract(identity).getNorm(), 0, TOLERANCE);
+        for (int k = 0; k < rank; k++) {
+            Assert.assertEquals(singularValues[k], expected.getSingularValues()[k], TOLERANCE * expected.getSingularValues()[0]);
+            // singular vectors are unique up to their sign.
+            final double sign = Math.signum(actual.getU().getColumnVector(k).dotProduct(expected.getU().getColumnVector(k)));
+            Assert.assertEquals(actual.getU().getColumnVector(k).mapMultiply(sign).subtract(expected.getU().getColumnVector(k)).getNorm(), 0, 1e-6);
+            Assert.assertEquals(actual.getV().getColumnVector(k).mapMultiply(sign).subtract(expected.getV().getColumnVector(k)).getNorm(), 0, 1e-6);
+        }
+        // the pseudoinverse is that of the truncated decomposition.
+        final RealMatrix truncatedPseudoInverse = expected.getV().getSubMatrix(0, m.getColumnDimension() - 1, 0, rank - 1)
+                .multiply(MatrixUtils.createRealDiagonalMatrix(invert(expected.getSingularValues(), rank)))
+                .multiply(expected.getU().getSubMatrix(0, m.getRowDimension() - 1, 0, rank - 1).transpose());
+        Assert.assertEquals(actual.getPinv().subtract(truncatedPseudoInverse).getNorm(), 0, 1e-6 * truncatedPseudoInverse.getNorm());
+    }
+
+    private static double[] invert(final double[] values, final int length) {
+        final double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = 1 / values[i];
+        }
+        return result;
+    }
+}
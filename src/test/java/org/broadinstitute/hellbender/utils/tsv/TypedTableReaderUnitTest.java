@@ -0,0 +1,330 @@
+package org.broadinstitute.hellbender.utils.tsv;
+
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link TypedTableReader} and {@link TypedDataLine}.
+ */
+public final class TypedTableReaderUnitTest extends BaseTest {
+
+    private static final TableColumnCollection COLUMNS = new TableColumnCollection("name", "count", "total", "value", "flag");
+
+    private static final String HEADER = String.join("\t", COLUMNS.names());
+
+    private static final class TestRecord {
+        private final String name;
+        private final int count;
+        private final long total;
+        private final double value;
+        private final boolean flag;
+        private final long lineNumber;
+
+        private TestRecord(final String name, final int count, final long total, final double value, final boolean flag,
+                           final long lineNumber) {
+            this.name = name;
+            this.count = count;
+            this.total = total;
+            this.value = value;
+            this.flag = flag;
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof TestRecord)) {
+                return false;
+            }
+            final TestRecord record = (TestRecord) other;
+            return name.equals(record.name) && count == record.count && total == record.total
+                    && Double.doubleToLongBits(value) == Double.doubleToLongBits(record.value) && flag == record.flag
+                    && lineNumber == record.lineNumber;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, count, total, value, flag, lineNumber);
+        }
+
+        @Override
+        public String toString() {
+            return String.join(",", name, "" + count, "" + total, "" + value, "" + flag, "" + lineNumber);
+        }
+    }
+
+    private static final class TestRecordTableReader extends TableReader<TestRecord> {
+        // comments before the header are processed during construction, before field initializers run
+        private List<String> comments;
+
+        private TestRecordTableReader(final String text) throws IOException {
+            super(new StringReader(text));
+        }
+
+        @Override
+        protected TestRecord createRecord(final DataLine dataLine) {
+            return new TestRecord(dataLine.get("name"), dataLine.getInt("count"), dataLine.getLong("total"),
+                    dataLine.getDouble("value"), dataLine.getBoolean("flag"), dataLine.getLineNumber());
+        }
+
+        @Override
+        protected void processCommentLine(final String commentText, final long lineNumber) {
+            comments = comments == null ? new ArrayList<>() : comments;
+            comments.add(lineNumber + ":" + commentText);
+        }
+    }
+
+    private static final class TestRecordTypedTableReader extends TypedTableReader<TestRecord> {
+        // comments before the header are processed during construction, before field initializers run
+        private List<String> comments;
+
+        private TestRecordTypedTableReader(final String text, final int bufferSize) throws IOException {
+            super(null, Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))), bufferSize);
+        }
+
+        @Override
+        protected ColumnType columnType(final String columnName) {
+            switch (columnName) {
+                case "count": return ColumnType.INT;
+                case "total": return ColumnType.LONG;
+                case "value": return ColumnType.DOUBLE;
+                case "flag": return ColumnType.BOOLEAN;
+                default: return ColumnType.STRING;
+            }
+        }
+
+        @Override
+        protected TestRecord createRecord(final TypedDataLine dataLine) {
+            return new TestRecord(dataLine.get("name"), dataLine.getInt("count"), dataLine.getLong("total"),
+                    dataLine.getDouble("value"), dataLine.getBoolean("flag"), dataLine.getLineNumber());
+        }
+
+        @Override
+        protected void processCommentLine(final String commentText, final long lineNumber) {
+            comments = comments == null ? new ArrayList<>() : comments;
+            comments.add(lineNumber + ":" + commentText);
+        }
+    }
+
+    private static String randomTable(final Random random, final int numberOfLines, final String lineSeparator) {
+        final String[] names = {"1", "2", "chrX", "a b", "x\"y", "back\\slash", "tab\tbed", "", "#notAComment"};
+        final String[] doubles = {"0", "-0.0", "1.5", "NaN", "Infinity", "-Infinity", "1e-300", "12345678901234567890.5",
+                "0.1", "3.0E10", "+2.5", "1.", ".5", "7d", "0x1p3", "2.2250738585072014E-308"};
+        final StringBuilder builder = new StringBuilder();
+        builder.append("#first comment").append(lineSeparator);
+        builder.append(HEADER).append(lineSeparator);
+        for (int i = 0; i < numberOfLines; i++) {
+            if (random.nextInt(50) == 0) {
+                builder.append("#comment\twith tab ").append(i).append(lineSeparator);
+            } else if (random.nextInt(100) == 0) {
+                builder.append(HEADER).append(lineSeparator);
+            }
+            final String name = names[random.nextInt(names.length)];
+            final boolean quote = name.contains("\"") || name.contains("\\") || name.contains("\t") || random.nextInt(20) == 0;
+            final String value = random.nextBoolean() ? doubles[random.nextInt(doubles.length)]
+                    : random.nextBoolean() ? Double.toString(random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20))
+                    : String.format("%.4f", random.nextDouble() * 1000);
+            builder.append(quote ? "\"" + name.replace("\\", "\\\\").replace("\"", "\\\"") + "\"" : name).append('\t')
+                    .append(random.nextInt() >> random.nextInt(32)).append('\t')
+                    .append(random.nextLong() >> random.nextInt(64)).append('\t')
+                    .append(value).append('\t')
+                    .append(random.nextBoolean()).append(lineSeparator);
+        }
+        return builder.toString();
+    }
+
+    @DataProvider(name = "tableParameters")
+    public Object[][] tableParameters() {
+        return new Object[][]{
+                {"\n", TypedTableReader.DEFAULT_BUFFER_SIZE},
+                {"\n", 7},
+                {"\r\n", 64},
+                {"\r\n", 1000}
+        };
+    }
+
+    @Test(dataProvider = "tableParameters")
+    public void testSameRecordsAsTableReader(final String lineSeparator, final int bufferSize) throws IOException {
+        final String text = randomTable(new Random(13), 2000, lineSeparator);
+        try (final TestRecordTableReader expectedReader = new TestRecordTableReader(text);
+             final TestRecordTypedTableReader reader = new TestRecordTypedTableReader(text, bufferSize)) {
+            final List<TestRecord> expected = expectedReader.toList();
+            Assert.assertEquals(reader.columns().names(), expectedReader.columns().names());
+            Assert.assertEquals(reader.toList(), expected);
+            Assert.assertEquals(reader.comments, expectedReader.comments);
+            Assert.assertNull(reader.readRecord());
+        }
+    }
+
+    @Test(dataProvider = "tableParameters")
+    public void testParallelParsing(final String lineSeparator, final int bufferSize) throws IOException {
+        final String text = randomTable(new Random(17), 20000, lineSeparator);
+        try (final TestRecordTypedTableReader sequentialReader = new TestRecordTypedTableReader(text, bufferSize);
+             final TestRecordTypedTableReader parallelReader = new TestRecordTypedTableReader(text, bufferSize)) {
+            final TestRecord first = parallelReader.readRecord();
+            final List<TestRecord> records = parallelReader.toList(3);
+            records.add(0, first);
+            Assert.assertEquals(records, sequentialReader.toList());
+            Assert.assertEquals(parallelReader.comments, sequentialReader.comments);
+            Assert.assertTrue(parallelReader.toList(3).isEmpty());
+        }
+    }
+
+    @Test
+    public void testReadFromFile() throws IOException {
+        final File file = createTempFile("typed-table-reader", ".tsv");
+        final String text = randomTable(new Random(19), 100, "\n");
+        try (final Writer writer = new FileWriter(file)) {
+            writer.write(text);
+        }
+        try (final TestRecordTableReader expectedReader = new TestRecordTableReader(text);
+             final TypedTableReader<TestRecord> reader = new TypedTableReader<TestRecord>(file) {
+                 @Override
+                 protected ColumnType columnType(final String columnName) {
+                     return columnName.equals("count") ? ColumnType.INT : ColumnType.STRING;
+                 }
+
+                 @Override
+                 protected TestRecord createRecord(final TypedDataLine dataLine) {
+                     return new TestRecord(dataLine.get(0), dataLine.getInt(1), Long.parseLong(dataLine.get(2)),
+                             Double.parseDouble(dataLine.get(3)), Boolean.parseBoolean(dataLine.get(4)), dataLine.getLineNumber());
+                 }
+             }) {
+            Assert.assertEquals(reader.getSource(), file.toPath().toString());
+            Assert.assertEquals(reader.stream().collect(Collectors.toList()), expectedReader.toList());
+        }
+    }
+
+    @Test
+    public void testNoTrailingNewLine() throws IOException {
+        try (final TestRecordTypedTableReader reader = new TestRecordTypedTableReader(HEADER + "\na\t1\t2\t3.5\ttrue", 4)) {
+            Assert.assertEquals(reader.toList(), Collections.singletonList(new TestRecord("a", 1, 2, 3.5, true, 2)));
+        }
+    }
+
+    @DataProvider(name = "badLines")
+    public Object[][] badLines() {
+        return new Object[][]{
+                {"a\t1.5\t2\t3.5\ttrue"},
+                {"a\t3000000000\t2\t3.5\ttrue"},
+                {"a\t1\t2.0\t3.5\ttrue"},
+                {"a\t1\t2\tthree\ttrue"},
+                {"a\t1\t2\t\ttrue"},
+                {"a\t1\t2\t3.5\tTrue"},
+                {"a\t1\t2\t3.5"},
+                {"a\t1\t2\t3.5\ttrue\textra"},
+                {"\"a\t1\t2\t3.5\ttrue"},
+                {""}
+        };
+    }
+
+    @Test(dataProvider = "badLines")
+    public void testBadLines(final String line) throws IOException {
+        final String text = HEADER + "\nb\t1\t2\t3.5\tfalse\n" + line + "\n";
+        try (final TestRecordTypedTableReader reader = new TestRecordTypedTableReader(text, 16)) {
+            Assert.assertNotNull(reader.readRecord());
+            reader.readRecord();
+            Assert.fail("the bad line should have been detected");
+        } catch (final UserException.BadInput ex) {
+            Assert.assertTrue(ex.getMessage().contains("at line 3"), ex.getMessage());
+        }
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testMissingHeader() throws IOException {
+        new TestRecordTypedTableReader("#only comments\n", 16);
+    }
+
+    @Test(expectedExceptions = UserException.BadInput.class)
+    public void testRepeatedColumnNames() throws IOException {
+        new TestRecordTypedTableReader("name\tname\n", 16);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testUndeclaredType() throws IOException {
+        try (final TypedTableReader<Double> reader = new TypedTableReader<Double>(null,
+                Channels.newChannel(new ByteArrayInputStream((HEADER + "\na\t1\t2\t3.5\ttrue\n").getBytes())), 16) {
+            @Override
+            protected Double createRecord(final TypedDataLine dataLine) {
+                return dataLine.getDouble("value");
+            }
+        }) {
+            reader.readRecord();
+        }
+    }
+
+    @Test
+    public void testParseDouble() {
+        final Random random = new Random(23);
+        final List<String> values = new ArrayList<>(Arrays.asList("0", "-0", "00.000", "1", "-1", "+1", ".1", "1.", "1e10",
+                "1E-10", "1e+22", "1e23", "1e-22", "1e-23", "123456789012345", "1234567890123456", "0.1234567890123456789",
+                "4.9E-324", "1.7976931348623157E308", "NaN", "-Infinity", "1.5f", "0x10p0", " 1", "1 ", "", "-", ".", "e5",
+                "1e", "1e-", "1..2", "1.2.3", "1e1.5", "1e0001", "--1", "+-1", "١"));
+        for (int i = 0; i < 100000; i++) {
+            final double value = Double.longBitsToDouble(random.nextLong());
+            values.add(Double.toString(value));
+            values.add(String.format("%." + random.nextInt(18) + "f", random.nextGaussian() * Math.pow(10, random.nextInt(30) - 15)));
+            values.add(random.nextInt(1000000) + "e" + (random.nextInt(60) - 30));
+        }
+        for (final String value : values) {
+            final byte[] bytes = ("\t" + value + "\t").getBytes(StandardCharsets.UTF_8);
+            Double expected;
+            try {
+                expected = Double.parseDouble(value);
+            } catch (final NumberFormatException ex) {
+                expected = null;
+            }
+            try {
+                final double actual = TypedDataLine.parseDouble(bytes, 1, bytes.length - 1);
+                Assert.assertNotNull(expected, value);
+                Assert.assertEquals(Double.doubleToLongBits(actual), Double.doubleToLongBits(expected), value);
+            } catch (final NumberFormatException ex) {
+                Assert.assertNull(expected, value);
+            }
+        }
+    }
+
+    @Test
+    public void testParseIntAndLong() {
+        final Random random = new Random(29);
+        final List<String> values = new ArrayList<>(Arrays.asList("0", "-0", "+0", "007", "2147483647", "2147483648",
+                "-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808", "-9223372036854775808",
+                "000000000000000000000000001", "", "-", "+", "1.0", "1e3", " 1", "١٢"));
+        for (int i = 0; i < 100000; i++) {
+            values.add(Long.toString(random.nextLong() >> random.nextInt(64)));
+        }
+        for (final String value : values) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            Integer expectedInt;
+            Long expectedLong;
+            try {
+                expectedInt = Integer.parseInt(value);
+            } catch (final NumberFormatException ex) {
+                expectedInt = null;
+            }
+            try {
+                expectedLong = Long.parseLong(value);
+            } catch (final NumberFormatException ex) {
+                expectedLong = null;
+            }
+            try {
+                Assert.assertEquals((Integer) TypedDataLine.parseInt(bytes, 0, bytes.length), expectedInt, value);
+            } catch (final NumberFormatException ex) {
+                Assert.assertNull(expectedInt, value);
+            }
+            try {
+                Assert.assertEquals((Long) TypedDataLine.parseLong(bytes, 0, bytes.length), expectedLong, value);
+            } catch (final NumberFormatException ex) {
+                Assert.assertNull(expectedLong, value);
+            }
+        }
+    }
+}
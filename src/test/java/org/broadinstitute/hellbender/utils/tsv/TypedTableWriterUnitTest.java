@@ -0,0 +1,143 @@
+package org.broadinstitute.hellbender.utils.tsv;
+
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link TypedTableWriter} and {@link DataLineFormatter}.
+ */
+public final class TypedTableWriterUnitTest extends BaseTest {
+
+    private static final TableColumnCollection COLUMNS = new TableColumnCollection("name", "count", "total", "value", "flag");
+
+    private static final class TestRecord {
+        private final String name;
+        private final int count;
+        private final long total;
+        private final double value;
+        private final boolean flag;
+
+        private TestRecord(final String name, final int count, final long total, final double value, final boolean flag) {
+            this.name = name;
+            this.count = count;
+            this.total = total;
+            this.value = value;
+            this.flag = flag;
+        }
+    }
+
+    private static final class TestRecordTableWriter extends TableWriter<TestRecord> {
+        private TestRecordTableWriter(final Writer writer) throws IOException {
+            super(writer, COLUMNS);
+        }
+
+        @Override
+        protected void composeLine(final TestRecord record, final DataLine dataLine) {
+            dataLine.append(record.name).append(record.count).append(record.total).append(record.value)
+                    .set("flag", record.flag);
+        }
+    }
+
+    private static final class TestRecordTypedTableWriter extends TypedTableWriter<TestRecord> {
+        private TestRecordTypedTableWriter(final Writer writer) {
+            super(writer, COLUMNS);
+        }
+
+        private TestRecordTypedTableWriter(final File file) throws IOException {
+            super(file, COLUMNS);
+        }
+
+        @Override
+        protected void composeLine(final TestRecord record, final DataLineFormatter dataLine) {
+            dataLine.append(record.name).append(record.count).append(record.total).append(record.value).append(record.flag);
+        }
+    }
+
+    private static List<TestRecord> randomRecords(final Random random, final int numberOfRecords) {
+        final String[] names = {"1", "chrX", "a b", "x\"y", "back\\slash", "tab\tbed", "new\nline", "carriage\rreturn", ""};
+        final double[] doubles = {0, -0.0, 1, -1, 1.5, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 1e18, 1e19, 0.1, 1e-5};
+        final List<TestRecord> records = new ArrayList<>();
+        for (int i = 0; i < numberOfRecords; i++) {
+            final double value = random.nextBoolean() ? doubles[random.nextInt(doubles.length)]
+                    : random.nextBoolean() ? Double.longBitsToDouble(random.nextLong())
+                    : Math.round(random.nextGaussian() * 1000) / 100.0;
+            records.add(new TestRecord(names[random.nextInt(names.length)], random.nextInt() >> random.nextInt(32),
+                    random.nextLong() >> random.nextInt(64), value, random.nextBoolean()));
+        }
+        return records;
+    }
+
+    @Test
+    public void testSameOutputAsTableWriter() throws IOException {
+        final List<TestRecord> records = randomRecords(new Random(31), 5000);
+        final StringWriter expected = new StringWriter();
+        final StringWriter actual = new StringWriter();
+        try (final TestRecordTableWriter expectedWriter = new TestRecordTableWriter(expected);
+             final TestRecordTypedTableWriter writer = new TestRecordTypedTableWriter(actual)) {
+            expectedWriter.writeComment("a comment");
+            expectedWriter.writeAllRecords(records.subList(0, 10));
+            expectedWriter.writeComment("a comment\twith \"special\" characters");
+            expectedWriter.writeAllRecords(records.subList(10, records.size()));
+            writer.writeComment("a comment");
+            writer.writeAllRecords(records.subList(0, 10));
+            writer.writeComment("a comment\twith \"special\" characters");
+            writer.writeAllRecords(records.subList(10, records.size()));
+        }
+        Assert.assertEquals(actual.toString(), expected.toString());
+    }
+
+    @Test
+    public void testHeaderOnly() throws IOException {
+        final StringWriter expected = new StringWriter();
+        final StringWriter actual = new StringWriter();
+        new TestRecordTableWriter(expected).close();
+        new TestRecordTypedTableWriter(actual).close();
+        Assert.assertEquals(actual.toString(), expected.toString());
+    }
+
+    @Test
+    public void testWriteToFile() throws IOException {
+        final File file = createTempFile("typed-table-writer", ".tsv");
+        final List<TestRecord> records = randomRecords(new Random(37), 100);
+        final StringWriter expected = new StringWriter();
+        try (final TestRecordTableWriter expectedWriter = new TestRecordTableWriter(expected);
+             final TestRecordTypedTableWriter writer = new TestRecordTypedTableWriter(file)) {
+            expectedWriter.writeAllRecords(records);
+            writer.writeAllRecords(records);
+        }
+        Assert.assertEquals(new String(Files.readAllBytes(file.toPath()), "UTF-8"), expected.toString());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testMissingValues() throws IOException {
+        try (final TypedTableWriter<TestRecord> writer = new TypedTableWriter<TestRecord>(new StringWriter(), COLUMNS) {
+            @Override
+            protected void composeLine(final TestRecord record, final DataLineFormatter dataLine) {
+                dataLine.append(record.name).append(record.count);
+            }
+        }) {
+            writer.writeRecord(new TestRecord("a", 1, 2, 3, true));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testTooManyValues() throws IOException {
+        try (final TypedTableWriter<TestRecord> writer = new TypedTableWriter<TestRecord>(new StringWriter(), COLUMNS) {
+            @Override
+            protected void composeLine(final TestRecord record, final DataLineFormatter dataLine) {
+                dataLine.append(record.name).append(record.count).append(record.total).append(record.value, record.value)
+                        .append(record.flag);
+            }
+        }) {
+            writer.writeRecord(new TestRecord("a", 1, 2, 3, true));
+        }
+    }
+}
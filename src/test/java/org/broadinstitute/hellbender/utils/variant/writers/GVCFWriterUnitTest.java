@@ -125,6 +125,29 @@ public class GVCFWriterUnitTest extends BaseTest {
         return vcb.genotypes(gb.make()).id(VCFConstants.EMPTY_ID_FIELD).make();
     }
 
+    @Test
+    public void testReferenceConfidenceSitesBandedLikeHomRefSites() {
+        final int[] GQs = {0, 5, 9, 10, 15, 99, 60, 2, 1, 0, 30};
+        final int[] DPs = {3, 8, 0, 12, 10, 40, 35, 1, 7, 7, 20};
+        final MockWriter mockWriter = new MockWriter();
+        final GVCFWriter writer = new GVCFWriter(mockWriter, standardPartition, HomoSapiensConstants.DEFAULT_PLOIDY);
+        final MockWriter refConfidenceMockWriter = new MockWriter();
+        final GVCFWriter refConfidenceWriter = new GVCFWriter(refConfidenceMockWriter, standardPartition, HomoSapiensConstants.DEFAULT_PLOIDY);
+        for (int i = 0; i < GQs.length; i++) {
+            final int[] PLs = {0, GQs[i], 20 + GQs[i]};
+            writer.add(new VariantContextBuilder("HC", CHR1, i + 1, i + 1, ALLELES)
+                    .genotypes(new GenotypeBuilder(SAMPLE_NAME, Arrays.asList(REF, REF)).GQ(GQs[i]).DP(DPs[i]).PL(PLs).make()).make());
+            refConfidenceWriter.add(new ReferenceConfidenceVariantContext(CHR1, i + 1, REF, SAMPLE_NAME, 2, GQs[i], DPs[i], null, PLs));
+        }
+        writer.close();
+        refConfidenceWriter.close();
+
+        Assert.assertEquals(refConfidenceMockWriter.emitted.size(), mockWriter.emitted.size());
+        for (int i = 0; i < mockWriter.emitted.size(); i++) {
+            Assert.assertEquals(refConfidenceMockWriter.emitted.get(i).toStringDecodeGenotypes(), mockWriter.emitted.get(i).toStringDecodeGenotypes());
+        }
+    }
+
     @Test
     public void testCloseEmitsLastVariant() {
         final MockWriter mockWriter = new MockWriter();
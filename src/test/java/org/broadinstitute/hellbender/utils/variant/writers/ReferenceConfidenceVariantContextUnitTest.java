@@ -0,0 +1,47 @@
+package org.broadinstitute.hellbender.utils.variant.writers;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.broadinstitute.hellbender.utils.test.BaseTest;
+import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+public class ReferenceConfidenceVariantContextUnitTest extends BaseTest {
+
+    private static final Allele REF = Allele.create("C", true);
+    private static final String SAMPLE_NAME = "sample";
+
+    @Test
+    public void testMatchesBuiltVariantContext() {
+        final int[] AD = {10, 1};
+        final int[] PLs = {0, 25, 300};
+        final VariantContext vc = new ReferenceConfidenceVariantContext("1", 100, REF, SAMPLE_NAME, 2, 25, 11, AD, PLs);
+
+        final Genotype expectedGenotype = new GenotypeBuilder(SAMPLE_NAME, Arrays.asList(REF, REF)).AD(AD).DP(11).GQ(25).PL(PLs).make();
+        final VariantContext expected = new VariantContextBuilder("HC", "1", 100, 100, Arrays.asList(REF, GATKVCFConstants.NON_REF_SYMBOLIC_ALLELE))
+                .genotypes(expectedGenotype).make();
+
+        Assert.assertEquals(vc.getNSamples(), 1);
+        Assert.assertTrue(vc.hasGenotypes());
+        Assert.assertEquals(vc.toStringDecodeGenotypes(), expected.toStringDecodeGenotypes());
+        Assert.assertEquals(vc.getGenotype(SAMPLE_NAME).toString(), expectedGenotype.toString());
+        Assert.assertTrue(vc.getGenotype(0).isHomRef());
+    }
+
+    @Test
+    public void testPrimitiveFields() {
+        final ReferenceConfidenceVariantContext vc = new ReferenceConfidenceVariantContext("1", 100, REF, SAMPLE_NAME, 3, 12, 7, null, new int[]{0, 12, 40, 90});
+        Assert.assertEquals(vc.getSampleName(), SAMPLE_NAME);
+        Assert.assertEquals(vc.getSamplePloidy(), 3);
+        Assert.assertEquals(vc.getGQ(), 12);
+        Assert.assertEquals(vc.getDP(), 7);
+        Assert.assertEquals(vc.getPLs(), new int[]{0, 12, 40, 90});
+        Assert.assertEquals(vc.getGenotype(0).getPloidy(), 3);
+    }
+}